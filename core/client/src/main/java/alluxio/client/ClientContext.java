@@ -32,6 +32,7 @@ import javax.annotation.concurrent.ThreadSafe;
 public final class ClientContext {
   private static ExecutorService sBlockClientExecutorService;
   private static ExecutorService sFileClientExecutorService;
+  private static ExecutorService sFileReadAheadExecutorService;
   private static ClientMetrics sClientMetrics;
   private static InetSocketAddress sMasterAddress;
 
@@ -54,6 +55,9 @@ public final class ClientContext {
     sFileClientExecutorService = Executors
         .newFixedThreadPool(Configuration.getInt(Constants.USER_FILE_WORKER_CLIENT_THREADS),
             ThreadFactoryUtils.build("file-worker-heartbeat-%d", true));
+    sFileReadAheadExecutorService = Executors
+        .newFixedThreadPool(Configuration.getInt(Constants.USER_FILE_READ_AHEAD_THREADS),
+            ThreadFactoryUtils.build("file-read-ahead-%d", true));
     sClientMetrics = new ClientMetrics();
 
     String masterHostname =
@@ -90,5 +94,13 @@ public final class ClientContext {
     return sFileClientExecutorService;
   }
 
+  /**
+   * @return the executor service for reading blocks ahead in file input streams, and prefetching
+   *         key-value pairs in key-value store iterators
+   */
+  public static ExecutorService getFileReadAheadExecutorService() {
+    return sFileReadAheadExecutorService;
+  }
+
   private ClientContext() {} // prevent instantiation
 }
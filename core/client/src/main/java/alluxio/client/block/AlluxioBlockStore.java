@@ -19,9 +19,11 @@ import alluxio.resource.CloseableResource;
 import alluxio.util.network.NetworkAddressUtils;
 import alluxio.wire.BlockInfo;
 import alluxio.wire.BlockLocation;
+import alluxio.wire.FileBlockInfo;
 import alluxio.wire.WorkerInfo;
 import alluxio.wire.WorkerNetAddress;
 
+import com.google.common.base.Throwables;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -62,19 +64,24 @@ public final class AlluxioBlockStore {
   }
 
   /**
-   * Gets the block info of a block, if it exists.
+   * Gets the block info of a block, if it exists. The info is always fetched from the master.
    *
    * @param blockId the blockId to obtain information about
    * @return a {@link BlockInfo} containing the metadata of the block
    * @throws IOException if the block does not exist
    */
   public BlockInfo getInfo(long blockId) throws IOException {
-    try (CloseableResource<BlockMasterClient> masterClientResource =
-        mContext.acquireMasterClientResource()) {
-      return masterClientResource.get().getBlockInfo(blockId);
-    } catch (AlluxioException e) {
-      throw new IOException(e);
-    }
+    return getInfoFromMaster(blockId);
+  }
+
+  /**
+   * Caches the infos of the blocks of a file, so that reading the blocks does not need to ask the
+   * master for their locations.
+   *
+   * @param fileBlockInfos the infos of the blocks of the file, as returned in its status
+   */
+  public void cacheInfos(List<FileBlockInfo> fileBlockInfos) {
+    mContext.getBlockInfoCache().putAll(fileBlockInfos);
   }
 
   /**
@@ -102,14 +109,28 @@ public final class AlluxioBlockStore {
    * @throws IOException if the block does not exist
    */
   public BufferedBlockInStream getInStream(long blockId) throws IOException {
-    BlockInfo blockInfo;
-    try (CloseableResource<BlockMasterClient> masterClientResource =
-        mContext.acquireMasterClientResource()) {
-      blockInfo = masterClientResource.get().getBlockInfo(blockId);
-    } catch (AlluxioException e) {
-      throw new IOException(e);
+    BlockInfo cachedInfo = mContext.getBlockInfoCache().get(blockId);
+    if (cachedInfo != null) {
+      try {
+        return getInStream(cachedInfo);
+      } catch (IOException e) {
+        // The block may have moved since its locations were cached, ask the master instead.
+        LOG.debug("Failed to read block {} from its cached locations. {}", blockId, e);
+        mContext.getBlockInfoCache().invalidate(blockId);
+      }
     }
+    return getInStream(getInfoFromMaster(blockId));
+  }
 
+  /**
+   * Gets a stream to read the data of a block from the given locations of the block.
+   *
+   * @param blockInfo the info of the block to read from
+   * @return a {@link BlockInStream} which can be used to read the data in a streaming fashion
+   * @throws IOException if the block cannot be read from any of its locations
+   */
+  private BufferedBlockInStream getInStream(BlockInfo blockInfo) throws IOException {
+    long blockId = blockInfo.getBlockId();
     if (blockInfo.getLocations().isEmpty()) {
       throw new IOException("Block " + blockId + " is not available in Alluxio");
     }
@@ -154,12 +175,11 @@ public final class AlluxioBlockStore {
   public BufferedBlockOutStream getOutStream(long blockId, long blockSize, WorkerNetAddress address)
       throws IOException {
     if (blockSize == -1) {
-      try (CloseableResource<BlockMasterClient> blockMasterClientResource =
-          mContext.acquireMasterClientResource()) {
-        blockSize = blockMasterClientResource.get().getBlockInfo(blockId).getLength();
-      } catch (AlluxioException e) {
-        throw new IOException(e);
+      BlockInfo info = mContext.getBlockInfoCache().get(blockId);
+      if (info == null) {
+        info = getInfoFromMaster(blockId);
       }
+      blockSize = info.getLength();
     }
     // No specified location to write to.
     if (address == null) {
@@ -212,12 +232,9 @@ public final class AlluxioBlockStore {
    * @throws IOException if the block does not exist
    */
   public void promote(long blockId) throws IOException {
-    BlockInfo info;
-    try (CloseableResource<BlockMasterClient> blockMasterClientResource =
-        mContext.acquireMasterClientResource()) {
-      info = blockMasterClientResource.get().getBlockInfo(blockId);
-    } catch (AlluxioException e) {
-      throw new IOException(e);
+    BlockInfo info = mContext.getBlockInfoCache().get(blockId);
+    if (info == null) {
+      info = getInfoFromMaster(blockId);
     }
     if (info.getLocations().isEmpty()) {
       // Nothing to promote
@@ -229,10 +246,32 @@ public final class AlluxioBlockStore {
     BlockWorkerClient blockWorkerClient = mContext.acquireWorkerClient(workerAddr);
     try {
       blockWorkerClient.promoteBlock(blockId);
-    } catch (AlluxioException e) {
+    } catch (AlluxioException | IOException e) {
+      // The cached location of the block may be stale.
+      mContext.getBlockInfoCache().invalidate(blockId);
+      Throwables.propagateIfInstanceOf(e, IOException.class);
       throw new IOException(e);
     } finally {
       mContext.releaseWorkerClient(blockWorkerClient);
     }
   }
+
+  /**
+   * Gets the block info of a block from the master, and caches it.
+   *
+   * @param blockId the id of the block
+   * @return a {@link BlockInfo} containing the metadata of the block
+   * @throws IOException if the block does not exist
+   */
+  private BlockInfo getInfoFromMaster(long blockId) throws IOException {
+    BlockInfo info;
+    try (CloseableResource<BlockMasterClient> masterClientResource =
+        mContext.acquireMasterClientResource()) {
+      info = masterClientResource.get().getBlockInfo(blockId);
+    } catch (AlluxioException e) {
+      throw new IOException(e);
+    }
+    mContext.getBlockInfoCache().put(info);
+    return info;
+  }
 }
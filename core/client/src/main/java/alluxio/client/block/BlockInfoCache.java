@@ -0,0 +1,122 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.block;
+
+import alluxio.client.ClientContext;
+import alluxio.wire.BlockInfo;
+import alluxio.wire.FileBlockInfo;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A bounded cache of the {@link BlockInfo} of blocks, so that reading a block of a file which was
+ * just opened does not need to ask the master for the block locations again.
+ *
+ * Only blocks which have at least one location in Alluxio are cached, since a block which is not
+ * in Alluxio yet may be cached at any time. The cached locations may still be stale, so callers
+ * which fail to use them should {@link #invalidate(long)} the block and ask the master.
+ */
+@ThreadSafe
+public final class BlockInfoCache {
+  /** The cache, or null if caching is disabled. */
+  private final Cache<Long, BlockInfo> mCache;
+
+  /**
+   * Creates a new instance of {@link BlockInfoCache}.
+   *
+   * @param maxSize the maximum number of blocks to cache, 0 disables the cache
+   * @param expirationMs the time in milliseconds after which a cached block info is dropped
+   */
+  public BlockInfoCache(long maxSize, long expirationMs) {
+    if (maxSize > 0) {
+      mCache = CacheBuilder.newBuilder().maximumSize(maxSize)
+          .expireAfterWrite(expirationMs, TimeUnit.MILLISECONDS).build();
+    } else {
+      mCache = null;
+    }
+  }
+
+  /**
+   * @param blockId the id of the block
+   * @return the cached info of the block, or null if the block is not cached
+   */
+  public BlockInfo get(long blockId) {
+    if (mCache == null) {
+      return null;
+    }
+    BlockInfo info = mCache.getIfPresent(blockId);
+    if (info == null) {
+      ClientContext.getClientMetrics().incMetadataCacheMiss(1);
+    } else {
+      ClientContext.getClientMetrics().incMetadataCacheHit(1);
+    }
+    return info;
+  }
+
+  /**
+   * Caches the info of a block, if the block is in Alluxio.
+   *
+   * @param info the info of the block
+   */
+  public void put(BlockInfo info) {
+    if (mCache == null) {
+      return;
+    }
+    if (info.getLocations() == null || info.getLocations().isEmpty()) {
+      mCache.invalidate(info.getBlockId());
+    } else {
+      mCache.put(info.getBlockId(), info);
+    }
+  }
+
+  /**
+   * Caches the info of the blocks of a file, as returned in the status of the file.
+   *
+   * @param fileBlockInfos the infos of the blocks of the file
+   */
+  public void putAll(List<FileBlockInfo> fileBlockInfos) {
+    if (mCache == null || fileBlockInfos == null) {
+      return;
+    }
+    for (FileBlockInfo fileBlockInfo : fileBlockInfos) {
+      if (fileBlockInfo.getBlockInfo() != null) {
+        put(fileBlockInfo.getBlockInfo());
+      }
+    }
+  }
+
+  /**
+   * Drops the cached info of a block, if any.
+   *
+   * @param blockId the id of the block
+   */
+  public void invalidate(long blockId) {
+    if (mCache != null) {
+      mCache.invalidate(blockId);
+    }
+  }
+
+  /**
+   * Drops the cached info of all blocks.
+   */
+  public void invalidateAll() {
+    if (mCache != null) {
+      mCache.invalidateAll();
+    }
+  }
+}
@@ -11,6 +11,7 @@
 
 package alluxio.client.block;
 
+import alluxio.Configuration;
 import alluxio.Constants;
 import alluxio.client.ClientContext;
 import alluxio.exception.ExceptionMessage;
@@ -54,6 +55,7 @@ public enum BlockStoreContext {
 
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
   private BlockMasterClientPool mBlockMasterClientPool;
+  private BlockInfoCache mBlockInfoCache;
 
   /**
    * A map from the worker's address to its client pool. Guarded by
@@ -65,6 +67,13 @@ public enum BlockStoreContext {
 
   private boolean mLocalBlockWorkerClientPoolInitialized = false;
 
+  /** A map from the address of a local worker to the leases on its blocks. */
+  private final Map<WorkerNetAddress, LocalBlockLeases> mLocalBlockLeasesMap =
+      new ConcurrentHashMap<>();
+
+  /** The time after which an unused lease on a local block is released, 0 disables leases. */
+  private long mLocalBlockLeaseMs;
+
   /**
    * Creates a new block store context.
    */
@@ -225,6 +234,45 @@ public enum BlockStoreContext {
     }
   }
 
+  /**
+   * Gets the leases on the blocks of a local worker, which are shared by the clients of this JVM.
+   *
+   * @param address the address of the local worker
+   * @return the leases on the blocks of the worker, or null if leases are disabled
+   */
+  public LocalBlockLeases getLocalBlockLeases(WorkerNetAddress address) {
+    if (mLocalBlockLeaseMs <= 0) {
+      return null;
+    }
+    LocalBlockLeases leases = mLocalBlockLeasesMap.get(address);
+    if (leases == null) {
+      leases = createLocalBlockLeases(address);
+    }
+    return leases;
+  }
+
+  /**
+   * Creates the leases on the blocks of a local worker, unless they were created concurrently.
+   *
+   * @param address the address of the local worker
+   * @return the leases on the blocks of the worker
+   */
+  private synchronized LocalBlockLeases createLocalBlockLeases(WorkerNetAddress address) {
+    LocalBlockLeases leases = mLocalBlockLeasesMap.get(address);
+    if (leases == null) {
+      leases = new LocalBlockLeases(address, mLocalBlockLeaseMs);
+      mLocalBlockLeasesMap.put(address, leases);
+    }
+    return leases;
+  }
+
+  /**
+   * @return the cache of block infos shared by the clients of this JVM
+   */
+  public BlockInfoCache getBlockInfoCache() {
+    return mBlockInfoCache;
+  }
+
   /**
    * @return if there is a local worker running the same machine
    */
@@ -246,7 +294,15 @@ public enum BlockStoreContext {
       pool.close();
     }
     mLocalBlockWorkerClientPoolMap.clear();
+    for (LocalBlockLeases leases : mLocalBlockLeasesMap.values()) {
+      leases.close();
+    }
+    mLocalBlockLeasesMap.clear();
+    mLocalBlockLeaseMs = Configuration.getLong(Constants.USER_BLOCK_LOCAL_READ_LEASE_MS);
     mBlockMasterClientPool = new BlockMasterClientPool(ClientContext.getMasterAddress());
+    mBlockInfoCache =
+        new BlockInfoCache(Configuration.getLong(Constants.USER_BLOCK_INFO_CACHE_MAX_SIZE),
+            Configuration.getLong(Constants.USER_METADATA_CACHE_EXPIRATION_MS));
     mLocalBlockWorkerClientPoolInitialized = false;
   }
 }
@@ -13,6 +13,7 @@ package alluxio.client.block;
 
 import alluxio.exception.ExceptionMessage;
 import alluxio.underfs.UnderFileSystem;
+import alluxio.underfs.options.OpenOptions;
 
 import java.io.IOException;
 
@@ -47,13 +48,9 @@ public final class DirectUnderStoreBlockInStream extends UnderStoreBlockInStream
       throw new IOException(ExceptionMessage.FAILED_SEEK.getMessage(pos));
     }
     UnderFileSystem ufs = UnderFileSystem.get(mUfsPath);
-    mUnderStoreStream = ufs.open(mUfsPath);
-    // The stream is at the beginning of the file, so skip to the correct absolute position.
-    long streamStart = mInitPos + pos;
-    if (streamStart != 0 && streamStart != mUnderStoreStream.skip(streamStart)) {
-      mUnderStoreStream.close();
-      throw new IOException(ExceptionMessage.FAILED_SKIP.getMessage(pos));
-    }
+    // Open the file at the correct absolute position, and only read the rest of the block.
+    mUnderStoreStream = ufs.open(mUfsPath,
+        new OpenOptions().setOffset(mInitPos + pos).setLength(mLength - pos));
     // Set the current block position to the specified block position.
     mPos = pos;
   }
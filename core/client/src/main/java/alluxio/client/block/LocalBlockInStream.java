@@ -35,8 +35,12 @@ import javax.annotation.concurrent.NotThreadSafe;
 public final class LocalBlockInStream extends BufferedBlockInStream {
   /** Helper to manage closables. */
   private final Closer mCloser;
-  /** Client to communicate with the local worker. */
+  /** Client to communicate with the local worker, or null if the block is read with a lease. */
   private final BlockWorkerClient mBlockWorkerClient;
+  /** The leases on the blocks of the local worker, or null if leases are disabled. */
+  private final LocalBlockLeases mLeases;
+  /** The lease the block is read with, or null if leases are disabled. */
+  private final LocalBlockLeases.Lease mLease;
   /** The block store context which provides block worker clients. */
   private final BlockStoreContext mContext;
   /** The file reader to read a local block. */
@@ -59,6 +63,25 @@ public final class LocalBlockInStream extends BufferedBlockInStream {
     mContext = BlockStoreContext.INSTANCE;
 
     mCloser = Closer.create();
+    mLeases = mContext.getLocalBlockLeases(workerNetAddress);
+    if (mLeases != null) {
+      // The block is read with a lease, which does not need any RPC if the block was read recently.
+      mBlockWorkerClient = null;
+      mLease = mLeases.acquire(blockId);
+      if (mLease == null) {
+        throw new IOException(ExceptionMessage.BLOCK_NOT_LOCALLY_AVAILABLE.getMessage(mBlockId));
+      }
+      try {
+        mReader = new LocalFileBlockReader(mLease.getLockBlockResult().getBlockPath());
+      } catch (IOException e) {
+        mLeases.invalidate(mLease);
+        mLeases.release(mLease, false);
+        throw e;
+      }
+      mCloser.register(mReader);
+      return;
+    }
+    mLease = null;
     mBlockWorkerClient = mContext.acquireWorkerClient(workerNetAddress);
     try {
       LockBlockResult result = mBlockWorkerClient.lockBlock(blockId);
@@ -79,15 +102,24 @@ public final class LocalBlockInStream extends BufferedBlockInStream {
       return;
     }
     try {
+      if (mLeases != null) {
+        // The access time of the block is updated when the lease expires.
+        mLeases.release(mLease, mBlockIsRead);
+      } else {
+        if (mBlockIsRead) {
+          mBlockWorkerClient.accessBlock(mBlockId);
+        }
+        mBlockWorkerClient.unlockBlock(mBlockId);
+      }
       if (mBlockIsRead) {
-        mBlockWorkerClient.accessBlock(mBlockId);
         ClientContext.getClientMetrics().incBlocksReadLocal(1);
       }
-      mBlockWorkerClient.unlockBlock(mBlockId);
     } catch (AlluxioException e) {
       throw new IOException(e);
     } finally {
-      mContext.releaseWorkerClient(mBlockWorkerClient);
+      if (mBlockWorkerClient != null) {
+        mContext.releaseWorkerClient(mBlockWorkerClient);
+      }
       mCloser.close();
       if (mBuffer != null && mBuffer.isDirect()) {
         BufferUtils.cleanDirectBuffer(mBuffer);
@@ -0,0 +1,313 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.block;
+
+import alluxio.Constants;
+import alluxio.client.ClientContext;
+import alluxio.exception.AlluxioException;
+import alluxio.heartbeat.HeartbeatContext;
+import alluxio.heartbeat.HeartbeatExecutor;
+import alluxio.heartbeat.HeartbeatThread;
+import alluxio.util.IdUtils;
+import alluxio.wire.LockBlockResult;
+import alluxio.wire.WorkerNetAddress;
+
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The read leases this client holds on the blocks of a local worker, so that reading a block
+ * which was read recently does not need any RPC to the worker.
+ *
+ * A lease is a read lock on the block, held by a session dedicated to the leases. The session is
+ * kept alive by the heartbeats of its client, so the worker releases the locks of the leases if
+ * this client goes away. A lease is shared by all the streams reading the block, and is released
+ * once it was not used for the configured lease time. The RPCs to update the access time of the
+ * block and to unlock it are then sent in the background, instead of when a stream is closed.
+ *
+ * Since a leased block cannot be evicted or removed by the worker, the lease time should stay
+ * short.
+ */
+@ThreadSafe
+public final class LocalBlockLeases implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
+
+  /** The client of the session holding the locks of the leases. */
+  private final BlockWorkerClient mClient;
+  /** The time in milliseconds after which an unused lease is released. */
+  private final long mLeaseMs;
+  /** The leases by block id. */
+  @GuardedBy("this")
+  private final Map<Long, Lease> mLeases = new HashMap<>();
+  /** The heartbeat releasing the expired leases, or null if the leases are released manually. */
+  private final Future<?> mExpiryHeartbeat;
+
+  /**
+   * Creates a new instance of {@link LocalBlockLeases}, which releases the expired leases in the
+   * background.
+   *
+   * @param address the address of the local worker
+   * @param leaseMs the time in milliseconds after which an unused lease is released
+   */
+  public LocalBlockLeases(WorkerNetAddress address, long leaseMs) {
+    this(new BlockWorkerClient(address, ClientContext.getBlockClientExecutorService(),
+        IdUtils.getRandomNonNegativeLong(), true, ClientContext.getClientMetrics()), leaseMs,
+        true);
+  }
+
+  /**
+   * Creates a new instance of {@link LocalBlockLeases}.
+   *
+   * @param client the client of the session holding the locks of the leases
+   * @param leaseMs the time in milliseconds after which an unused lease is released
+   * @param releaseInBackground whether to release the expired leases in the background
+   */
+  LocalBlockLeases(BlockWorkerClient client, long leaseMs, boolean releaseInBackground) {
+    Preconditions.checkArgument(leaseMs > 0, "leaseMs must be positive");
+    mClient = Preconditions.checkNotNull(client);
+    mLeaseMs = leaseMs;
+    if (releaseInBackground) {
+      HeartbeatExecutor expiryExecutor = new HeartbeatExecutor() {
+        @Override
+        public void heartbeat() {
+          releaseExpiredLeases();
+        }
+
+        @Override
+        public void close() {}
+      };
+      mExpiryHeartbeat = ClientContext.getBlockClientExecutorService().submit(new HeartbeatThread(
+          HeartbeatContext.WORKER_CLIENT_LEASE_EXPIRY, expiryExecutor, Math.max(1, mLeaseMs / 2)));
+    } else {
+      mExpiryHeartbeat = null;
+    }
+  }
+
+  /**
+   * Acquires a lease on a block. The block is locked on the worker, unless a lease on it is
+   * already held. Every lease acquired must be released with {@link #release(Lease, boolean)}.
+   *
+   * @param blockId the id of the block
+   * @return the lease, or null if the block is not in the worker
+   * @throws IOException if the block cannot be locked
+   */
+  public Lease acquire(long blockId) throws IOException {
+    synchronized (this) {
+      Lease lease = mLeases.get(blockId);
+      if (lease != null) {
+        lease.mRefCount++;
+        return lease;
+      }
+    }
+    LockBlockResult result = mClient.lockBlock(blockId);
+    if (result == null) {
+      return null;
+    }
+    Lease lease;
+    boolean leased;
+    synchronized (this) {
+      lease = mLeases.get(blockId);
+      leased = lease != null;
+      if (!leased) {
+        lease = new Lease(blockId, result);
+        mLeases.put(blockId, lease);
+      }
+      lease.mRefCount++;
+    }
+    if (leased) {
+      // Another stream leased the block concurrently, the lock just taken is not needed.
+      unlock(blockId, false);
+    }
+    return lease;
+  }
+
+  /**
+   * Releases a lease acquired with {@link #acquire(long)}. The block stays locked until the lease
+   * expires, or until the lease is not used anymore if it was invalidated.
+   *
+   * @param lease the lease
+   * @param accessed whether the block was read with the lease
+   */
+  public void release(Lease lease, boolean accessed) {
+    synchronized (this) {
+      Preconditions.checkState(lease.mRefCount > 0, "lease on block %s is not acquired",
+          lease.mBlockId);
+      lease.mRefCount--;
+      lease.mAccessed |= accessed;
+      lease.mLastUsedMs = System.currentTimeMillis();
+      if (!lease.mInvalidated || lease.mRefCount > 0 || !markUnlocked(lease)) {
+        return;
+      }
+    }
+    unlock(lease.mBlockId, lease.mAccessed);
+  }
+
+  /**
+   * Invalidates a lease, because the block could not be read with it. The next read of the block
+   * takes a new lease, and the block is unlocked for this lease once all the streams using the
+   * lease released it.
+   *
+   * @param lease the lease
+   */
+  public void invalidate(Lease lease) {
+    synchronized (this) {
+      if (mLeases.get(lease.mBlockId) == lease) {
+        mLeases.remove(lease.mBlockId);
+      }
+      lease.mInvalidated = true;
+      if (lease.mRefCount > 0 || !markUnlocked(lease)) {
+        return;
+      }
+    }
+    unlock(lease.mBlockId, lease.mAccessed);
+  }
+
+  /**
+   * Releases the leases which were not used for the lease time.
+   */
+  public void releaseExpiredLeases() {
+    long nowMs = System.currentTimeMillis();
+    Map<Long, Boolean> expired = new HashMap<>();
+    synchronized (this) {
+      Iterator<Map.Entry<Long, Lease>> iterator = mLeases.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<Long, Lease> entry = iterator.next();
+        Lease lease = entry.getValue();
+        if (lease.mRefCount <= 0 && nowMs - lease.mLastUsedMs >= mLeaseMs) {
+          expired.put(entry.getKey(), lease.mAccessed);
+          iterator.remove();
+          lease.mUnlocked = true;
+        }
+      }
+    }
+    for (Map.Entry<Long, Boolean> entry : expired.entrySet()) {
+      unlock(entry.getKey(), entry.getValue());
+    }
+  }
+
+  /**
+   * @return the number of leases held
+   */
+  public synchronized int size() {
+    return mLeases.size();
+  }
+
+  /**
+   * Releases all the leases and closes the client of their session.
+   */
+  @Override
+  public void close() {
+    if (mExpiryHeartbeat != null) {
+      mExpiryHeartbeat.cancel(true);
+    }
+    List<Long> blockIds = new ArrayList<>();
+    synchronized (this) {
+      for (Lease lease : mLeases.values()) {
+        if (markUnlocked(lease)) {
+          blockIds.add(lease.mBlockId);
+        }
+      }
+      mLeases.clear();
+    }
+    for (long blockId : blockIds) {
+      unlock(blockId, false);
+    }
+    mClient.close();
+  }
+
+  /**
+   * Marks a lease as unlocked, so that its block is unlocked only once.
+   *
+   * @param lease the lease
+   * @return whether the lease was not already unlocked
+   */
+  @GuardedBy("this")
+  private boolean markUnlocked(Lease lease) {
+    if (lease.mUnlocked) {
+      return false;
+    }
+    lease.mUnlocked = true;
+    return true;
+  }
+
+  /**
+   * Unlocks a block in the worker. Failures are only logged, since the worker releases the locks
+   * of the session once the session expires.
+   *
+   * @param blockId the id of the block
+   * @param accessed whether to update the access time of the block first
+   */
+  private void unlock(long blockId, boolean accessed) {
+    try {
+      if (accessed) {
+        mClient.accessBlock(blockId);
+      }
+      mClient.unlockBlock(blockId);
+    } catch (IOException | AlluxioException e) {
+      LOG.warn("Failed to release the lease on block {}: {}", blockId, e.getMessage());
+    }
+  }
+
+  /**
+   * A lease on a block, shared by all the streams reading the block with it. The state of the lease
+   * is guarded by the {@link LocalBlockLeases} it belongs to.
+   */
+  @ThreadSafe
+  public static final class Lease {
+    /** The id of the block. */
+    private final long mBlockId;
+    /** The result of locking the block. */
+    private final LockBlockResult mResult;
+    /** The number of streams using the lease. */
+    private int mRefCount;
+    /** Whether the block was read with the lease. */
+    private boolean mAccessed;
+    /** The last time the lease was released, in milliseconds. */
+    private long mLastUsedMs;
+    /** Whether the lease was invalidated, so that it is not handed out anymore. */
+    private boolean mInvalidated;
+    /** Whether the block was unlocked for the lease. */
+    private boolean mUnlocked;
+
+    private Lease(long blockId, LockBlockResult result) {
+      mBlockId = blockId;
+      mResult = result;
+    }
+
+    /**
+     * @return the id of the block
+     */
+    public long getBlockId() {
+      return mBlockId;
+    }
+
+    /**
+     * @return the result of locking the block
+     */
+    public LockBlockResult getLockBlockResult() {
+      return mResult;
+    }
+  }
+}
@@ -11,7 +11,10 @@
 
 package alluxio.client.block;
 
+import alluxio.Configuration;
+import alluxio.Constants;
 import alluxio.client.RemoteBlockReader;
+import alluxio.client.netty.NettyRemoteBlockStreamReader;
 import alluxio.exception.ConnectionFailedException;
 import alluxio.exception.ExceptionMessage;
 import alluxio.wire.LockBlockResult;
@@ -26,7 +29,9 @@ import javax.annotation.concurrent.NotThreadSafe;
 
 /**
  * This class provides a streaming API to read a block in Alluxio. The data will be transferred
- * through an Alluxio worker's dataserver to the client.
+ * through an Alluxio worker's dataserver to the client. If
+ * {@link Constants#USER_BLOCK_REMOTE_READ_STREAM_ENABLED} is set, sequential reads are served from
+ * a single stream of chunks pushed by the dataserver instead of one request per read.
  */
 @NotThreadSafe
 public final class RemoteBlockInStream extends BufferedBlockInStream {
@@ -42,6 +47,15 @@ public final class RemoteBlockInStream extends BufferedBlockInStream {
   /** The block store context which provides block worker clients. */
   private final BlockStoreContext mContext;
   private final ClientMetrics mMetrics;
+  /** Whether to read the block through a stream of chunks pushed by the dataserver. */
+  private final boolean mStreamingEnabled;
+
+  /** The stream of the rest of the block, null if no stream is open. */
+  private NettyRemoteBlockStreamReader mStreamReader;
+  /** The chunk of the stream currently being consumed. */
+  private ByteBuffer mStreamChunk;
+  /** The block position of the next byte of the stream. */
+  private long mStreamPos;
 
   /**
    * Creates a new remote block input stream.
@@ -58,6 +72,8 @@ public final class RemoteBlockInStream extends BufferedBlockInStream {
     mWorkerInetSocketAddress =
         new InetSocketAddress(workerNetAddress.getHost(), workerNetAddress.getDataPort());
 
+    mStreamingEnabled = Configuration.getBoolean(Constants.USER_BLOCK_REMOTE_READ_STREAM_ENABLED);
+
     mContext = BlockStoreContext.INSTANCE;
     mBlockWorkerClient = mContext.acquireWorkerClient(workerNetAddress);
 
@@ -83,6 +99,7 @@ public final class RemoteBlockInStream extends BufferedBlockInStream {
     if (mBlockIsRead) {
       mMetrics.incBlocksReadRemote(1);
     }
+    closeStream();
     try {
       mBlockWorkerClient.unlockBlock(mBlockId);
     } catch (ConnectionFailedException e) {
@@ -132,6 +149,9 @@ public final class RemoteBlockInStream extends BufferedBlockInStream {
    * @throws IOException if an error occurs reading the data
    */
   private int readFromRemote(byte[] b, int off, int len) throws IOException {
+    if (mStreamingEnabled) {
+      return readFromStream(b, off, len);
+    }
     // We read at most len bytes, but if mPos + len exceeds the length of the block, we only
     // read up to the end of the block.
     int toRead = (int) Math.min(len, remaining());
@@ -152,4 +172,54 @@ public final class RemoteBlockInStream extends BufferedBlockInStream {
 
     return toRead;
   }
+
+  /**
+   * Reads a portion of the block from the stream of the rest of the block, opening a new stream if
+   * none is open or the position of the block stream does not match the stream.
+   *
+   * @param b the byte array to write the data to
+   * @param off the offset in the array to write to
+   * @param len the length of data to write into the array
+   * @return the number of bytes successfully read
+   * @throws IOException if an error occurs reading the data
+   */
+  private int readFromStream(byte[] b, int off, int len) throws IOException {
+    int toRead = (int) Math.min(len, remaining());
+    if (toRead == 0) {
+      // Nothing is left to stream, e.g. at the end of the block.
+      return 0;
+    }
+    if (mStreamReader == null || mStreamPos != getPosition()) {
+      closeStream();
+      mStreamReader = new NettyRemoteBlockStreamReader(mWorkerInetSocketAddress, mBlockId,
+          getPosition(), remaining(), mLockId, mBlockWorkerClient.getSessionId());
+      mStreamPos = getPosition();
+    }
+    int bytesLeft = toRead;
+    while (bytesLeft > 0) {
+      if (mStreamChunk == null || !mStreamChunk.hasRemaining()) {
+        mStreamChunk = mStreamReader.readChunk();
+        if (mStreamChunk == null) {
+          throw new IOException(ExceptionMessage.BLOCK_UNAVAILABLE.getMessage(mBlockId));
+        }
+      }
+      int bytesRead = Math.min(bytesLeft, mStreamChunk.remaining());
+      mStreamChunk.get(b, off, bytesRead);
+      off += bytesRead;
+      bytesLeft -= bytesRead;
+      mStreamPos += bytesRead;
+    }
+    return toRead;
+  }
+
+  /**
+   * Closes the stream of the rest of the block, if any.
+   */
+  private void closeStream() {
+    if (mStreamReader != null) {
+      mStreamReader.close();
+      mStreamReader = null;
+      mStreamChunk = null;
+    }
+  }
 }
@@ -11,11 +11,15 @@
 
 package alluxio.client.block;
 
+import alluxio.Constants;
 import alluxio.client.RemoteBlockWriter;
 import alluxio.exception.AlluxioException;
 import alluxio.wire.WorkerNetAddress;
 import alluxio.worker.ClientMetrics;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.io.IOException;
 
 import javax.annotation.concurrent.NotThreadSafe;
@@ -26,6 +30,8 @@ import javax.annotation.concurrent.NotThreadSafe;
  */
 @NotThreadSafe
 public final class RemoteBlockOutStream extends BufferedBlockOutStream {
+  private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
+
   private final RemoteBlockWriter mRemoteWriter;
   private final BlockWorkerClient mBlockWorkerClient;
   private final ClientMetrics mMetrics;
@@ -59,8 +65,9 @@ public final class RemoteBlockOutStream extends BufferedBlockOutStream {
     if (mClosed) {
       return;
     }
-    mRemoteWriter.close();
     try {
+      // The block is canceled even if the writer fails to close, the worker drops what it wrote.
+      closeWriterQuietly();
       mBlockWorkerClient.cancelBlock(mBlockId);
     } catch (AlluxioException e) {
       throw new IOException(e);
@@ -74,25 +81,21 @@ public final class RemoteBlockOutStream extends BufferedBlockOutStream {
     if (mClosed) {
       return;
     }
-    flush();
-    mRemoteWriter.close();
-    if (mFlushedBytes > 0) {
-      try {
+    try {
+      flush();
+      mRemoteWriter.close();
+      if (mFlushedBytes > 0) {
         mBlockWorkerClient.cacheBlock(mBlockId);
-      } catch (AlluxioException e) {
-        throw new IOException(e);
-      } finally {
-        releaseAndClose();
-      }
-      mMetrics.incBlocksWrittenRemote(1);
-    } else {
-      try {
+        mMetrics.incBlocksWrittenRemote(1);
+      } else {
         mBlockWorkerClient.cancelBlock(mBlockId);
-      } catch (AlluxioException e) {
-        throw new IOException(e);
-      } finally {
-        releaseAndClose();
       }
+    } catch (AlluxioException e) {
+      throw new IOException(e);
+    } finally {
+      // The writer is still open if the block could not be written, closing it again is a no-op.
+      closeWriterQuietly();
+      releaseAndClose();
     }
   }
 
@@ -113,6 +116,17 @@ public final class RemoteBlockOutStream extends BufferedBlockOutStream {
     mMetrics.incBytesWrittenRemote(len);
   }
 
+  /**
+   * Closes {@link #mRemoteWriter}, only logging a failure to close it.
+   */
+  private void closeWriterQuietly() {
+    try {
+      mRemoteWriter.close();
+    } catch (IOException e) {
+      LOG.warn("Failed to close the writer of block {}", mBlockId, e);
+    }
+  }
+
   /**
    * Releases {@link #mBlockWorkerClient} and sets {@link #mClosed} to true.
    */
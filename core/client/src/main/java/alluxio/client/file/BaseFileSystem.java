@@ -117,6 +117,7 @@ public class BaseFileSystem implements FileSystem {
       LOG.debug("Deleted file " + path.getName());
     } finally {
       mContext.releaseMasterClient(masterClient);
+      mContext.getURIStatusCache().invalidate(path);
     }
   }
 
@@ -158,6 +159,7 @@ public class BaseFileSystem implements FileSystem {
       LOG.debug("Freed file " + path.getPath());
     } finally {
       mContext.releaseMasterClient(masterClient);
+      mContext.getURIStatusCache().invalidate(path);
     }
   }
 
@@ -192,7 +194,12 @@ public class BaseFileSystem implements FileSystem {
     FileSystemMasterClient masterClient = mContext.acquireMasterClient();
     // TODO(calvin): Fix the exception handling in the master
     try {
-      return masterClient.listStatus(path, options);
+      List<URIStatus> statuses = masterClient.listStatus(path, options);
+      // Listed files are likely to be opened next, cache them to open them without an RPC.
+      for (URIStatus status : statuses) {
+        cacheStatus(status);
+      }
+      return statuses;
     } catch (FileDoesNotExistException e) {
       throw new FileDoesNotExistException(ExceptionMessage.PATH_DOES_NOT_EXIST.getMessage(path));
     } finally {
@@ -257,7 +264,11 @@ public class BaseFileSystem implements FileSystem {
   @Override
   public FileInStream openFile(AlluxioURI path, OpenFileOptions options)
       throws FileDoesNotExistException, IOException, AlluxioException {
-    URIStatus status = getStatus(path);
+    URIStatus status = mContext.getURIStatusCache().get(path);
+    if (status == null) {
+      status = getStatus(path);
+      cacheStatus(status);
+    }
     if (status.isFolder()) {
       throw new FileNotFoundException(
           ExceptionMessage.CANNOT_READ_DIRECTORY.getMessage(status.getName()));
@@ -281,6 +292,8 @@ public class BaseFileSystem implements FileSystem {
       LOG.debug("Renamed file " + src.getPath() + " to " + dst.getPath());
     } finally {
       mContext.releaseMasterClient(masterClient);
+      mContext.getURIStatusCache().invalidate(src);
+      mContext.getURIStatusCache().invalidate(dst);
     }
   }
 
@@ -299,6 +312,7 @@ public class BaseFileSystem implements FileSystem {
       LOG.debug("Set attributes for path {} with options {}", path.getPath(), options);
     } finally {
       mContext.releaseMasterClient(masterClient);
+      mContext.getURIStatusCache().invalidate(path);
     }
   }
 
@@ -316,6 +330,20 @@ public class BaseFileSystem implements FileSystem {
       LOG.info("Unmount " + path);
     } finally {
       mContext.releaseMasterClient(masterClient);
+      mContext.getURIStatusCache().invalidate(path);
+    }
+  }
+
+  /**
+   * Caches the status of a file and the locations of its blocks, so that the file can be opened
+   * and read without asking the master again.
+   *
+   * @param status the status of the file fetched from the master
+   */
+  private void cacheStatus(URIStatus status) {
+    mContext.getURIStatusCache().put(status);
+    if (!status.isFolder()) {
+      mContext.getAlluxioBlockStore().cacheInfos(status.getFileBlockInfos());
     }
   }
 }
@@ -0,0 +1,274 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file;
+
+import alluxio.Constants;
+import alluxio.client.block.BlockInStream;
+import alluxio.client.block.LocalBlockInStream;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Opens the stream of a block in the background and reads the first bytes of the block into a
+ * buffer, so that a sequential reader does not stall when it reaches the block.
+ *
+ * The read-ahead is either taken by the reader with {@link #take()} once it reaches the block, or
+ * cancelled with {@link #cancel()}. In both cases the caller owns nothing afterwards, except the
+ * stream returned by {@link #take()}.
+ */
+@ThreadSafe
+final class BlockReadAhead {
+  private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
+
+  /** The id of the block read ahead. */
+  private final long mBlockId;
+  /** The task opening the block stream and filling the buffer. */
+  private final Future<BlockInStream> mFuture;
+
+  /** Whether the read-ahead has been taken or cancelled. */
+  @GuardedBy("this")
+  private boolean mDone;
+  /** The stream opened by the task, null until the task finishes successfully. */
+  @GuardedBy("this")
+  private BlockInStream mStream;
+
+  /**
+   * Starts reading ahead a block.
+   *
+   * @param blockId the id of the block
+   * @param opener opens the stream of the block, positioned at the beginning of the block
+   * @param maxBytes the maximum number of bytes to buffer, if the block is not local
+   * @param executor the executor to read the block in
+   */
+  BlockReadAhead(long blockId, final Callable<BlockInStream> opener, final int maxBytes,
+      ExecutorService executor) {
+    mBlockId = blockId;
+    mFuture = executor.submit(new Callable<BlockInStream>() {
+      @Override
+      public BlockInStream call() throws Exception {
+        return readAhead(opener, maxBytes);
+      }
+    });
+  }
+
+  /**
+   * @return the id of the block read ahead
+   */
+  long getBlockId() {
+    return mBlockId;
+  }
+
+  /**
+   * Waits for the read-ahead to finish, and returns a stream over the block positioned at the
+   * beginning of the block, which serves the buffered bytes first.
+   *
+   * @return the stream of the block
+   * @throws IOException if the block could not be read ahead
+   */
+  BlockInStream take() throws IOException {
+    BlockInStream stream;
+    try {
+      stream = mFuture.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      cancel();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      synchronized (this) {
+        mDone = true;
+      }
+      Throwables.propagateIfInstanceOf(e.getCause(), IOException.class);
+      throw new IOException(e.getCause());
+    }
+    synchronized (this) {
+      Preconditions.checkState(!mDone, "The read-ahead of block %s is already done", mBlockId);
+      mDone = true;
+      mStream = null;
+    }
+    return stream;
+  }
+
+  /**
+   * Cancels the read-ahead, and closes the stream of the block if it was already opened.
+   */
+  void cancel() {
+    BlockInStream stream;
+    synchronized (this) {
+      if (mDone) {
+        return;
+      }
+      mDone = true;
+      stream = mStream;
+      mStream = null;
+    }
+    mFuture.cancel(false);
+    closeQuietly(stream);
+  }
+
+  /**
+   * Opens the block stream and fills the buffer. This runs in the executor.
+   */
+  private BlockInStream readAhead(Callable<BlockInStream> opener, int maxBytes) throws Exception {
+    BlockInStream stream = opener.call();
+    BlockInStream result = stream;
+    try {
+      // Local blocks are read from memory mapped files, there is nothing to gain from buffering.
+      if (!(stream instanceof LocalBlockInStream)) {
+        byte[] buffer = new byte[(int) Math.min(maxBytes, stream.remaining())];
+        int length = 0;
+        while (length < buffer.length) {
+          int bytesRead = stream.read(buffer, length, buffer.length - length);
+          if (bytesRead < 0) {
+            break;
+          }
+          length += bytesRead;
+        }
+        result = new PrefixedBlockInStream(buffer, length, stream);
+      }
+    } catch (IOException | RuntimeException e) {
+      closeQuietly(stream);
+      throw e;
+    }
+    synchronized (this) {
+      if (!mDone) {
+        mStream = result;
+        return result;
+      }
+    }
+    // Cancelled while reading ahead.
+    closeQuietly(result);
+    return null;
+  }
+
+  private void closeQuietly(BlockInStream stream) {
+    if (stream == null) {
+      return;
+    }
+    try {
+      stream.close();
+    } catch (IOException e) {
+      LOG.warn("Failed to close the read-ahead stream of block {}", mBlockId, e);
+    }
+  }
+
+  /**
+   * A block stream serving a buffered prefix of the block before the rest of the block, which is
+   * read from the underlying stream positioned right after the prefix.
+   */
+  @NotThreadSafe
+  static final class PrefixedBlockInStream extends BlockInStream {
+    private final byte[] mPrefix;
+    private final int mPrefixLength;
+    private final BlockInStream mStream;
+    private final long mLength;
+    /** The position in the block, only meaningful while it is in the prefix. */
+    private int mPrefixPos;
+
+    /**
+     * @param prefix the buffer holding the prefix of the block
+     * @param prefixLength the length of the prefix
+     * @param stream the stream of the block, positioned at prefixLength
+     */
+    PrefixedBlockInStream(byte[] prefix, int prefixLength, BlockInStream stream) {
+      mPrefix = prefix;
+      mPrefixLength = prefixLength;
+      mStream = stream;
+      mLength = prefixLength + stream.remaining();
+      mPrefixPos = 0;
+    }
+
+    /**
+     * @return the underlying stream of the block
+     */
+    BlockInStream getUnderlyingStream() {
+      return mStream;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (mPrefixPos < mPrefixLength) {
+        return mPrefix[mPrefixPos++] & 0xFF;
+      }
+      return mStream.read();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      if (mPrefixPos < mPrefixLength) {
+        int bytesToCopy = Math.min(len, mPrefixLength - mPrefixPos);
+        System.arraycopy(mPrefix, mPrefixPos, b, off, bytesToCopy);
+        mPrefixPos += bytesToCopy;
+        return bytesToCopy;
+      }
+      return mStream.read(b, off, len);
+    }
+
+    @Override
+    public long remaining() {
+      return mLength - position();
+    }
+
+    @Override
+    public void seek(long pos) throws IOException {
+      if (pos < mPrefixLength) {
+        if (position() > mPrefixLength) {
+          mStream.seek(mPrefixLength);
+        }
+        mPrefixPos = (int) pos;
+      } else {
+        mPrefixPos = mPrefixLength;
+        mStream.seek(pos);
+      }
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      if (n <= 0) {
+        return 0;
+      }
+      long toSkip = Math.min(n, remaining());
+      seek(position() + toSkip);
+      return toSkip;
+    }
+
+    @Override
+    public void close() throws IOException {
+      mStream.close();
+    }
+
+    /**
+     * @return the position in the block
+     */
+    private long position() {
+      if (mPrefixPos < mPrefixLength) {
+        return mPrefixPos;
+      }
+      return mLength - mStream.remaining();
+    }
+  }
+}
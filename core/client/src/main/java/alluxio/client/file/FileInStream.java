@@ -15,6 +15,7 @@ import alluxio.Constants;
 import alluxio.annotation.PublicApi;
 import alluxio.client.AlluxioStorageType;
 import alluxio.client.BoundedStream;
+import alluxio.client.ClientContext;
 import alluxio.client.Seekable;
 import alluxio.client.block.BlockInStream;
 import alluxio.client.block.BlockStoreContext;
@@ -38,6 +39,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.Callable;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -49,6 +51,10 @@ import javax.annotation.concurrent.NotThreadSafe;
  * This class wraps the {@link BlockInStream} for each of the blocks in the file and abstracts the
  * switching between streams. The backing streams can read from Alluxio space in the local machine,
  * remote machines, or the under storage system.
+ * <p>
+ * If {@link InStreamOptions#getReadAheadBytes()} is positive, the stream of the next block is
+ * opened and the first bytes of the next block are buffered in the background while a block is
+ * read sequentially, so that the reader does not stall at block boundaries.
  */
 @PublicApi
 @NotThreadSafe
@@ -100,6 +106,11 @@ public class FileInStream extends InputStream implements BoundedStream, Seekable
   /** The read buffer in file seek. This is used in {@link #readCurrentBlockToEnd()}. */
   private byte[] mSeekBuffer;
 
+  /** The maximum number of bytes of the next block to read ahead, 0 if read-ahead is disabled. */
+  private final long mReadAheadBytes;
+  /** The read-ahead of the block after the current one, null if there is none in progress. */
+  private BlockReadAhead mReadAhead;
+
   /**
    * Creates a new file input stream.
    *
@@ -136,6 +147,7 @@ public class FileInStream extends InputStream implements BoundedStream, Seekable
     }
     int seekBufferSizeBytes = Math.max((int) options.getSeekBufferSizeBytes(), 1);
     mSeekBuffer = new byte[seekBufferSizeBytes];
+    mReadAheadBytes = Math.max(options.getReadAheadBytes(), 0);
     LOG.debug("Init FileInStream with options {}", options);
   }
 
@@ -152,6 +164,7 @@ public class FileInStream extends InputStream implements BoundedStream, Seekable
       mCurrentBlockInStream.close();
     }
     closeOrCancelCacheStream();
+    cancelReadAhead();
     mClosed = true;
   }
 
@@ -449,12 +462,16 @@ public class FileInStream extends InputStream implements BoundedStream, Seekable
       return;
     }
     Preconditions.checkNotNull(mCurrentBlockInStream);
-    if (!mShouldCache || mCurrentBlockInStream instanceof LocalBlockInStream) {
+    BlockInStream sourceStream = mCurrentBlockInStream;
+    if (sourceStream instanceof BlockReadAhead.PrefixedBlockInStream) {
+      sourceStream = ((BlockReadAhead.PrefixedBlockInStream) sourceStream).getUnderlyingStream();
+    }
+    if (!mShouldCache || sourceStream instanceof LocalBlockInStream) {
       return;
     }
 
     // If this block is read from a remote worker but we don't have a local worker, don't cache
-    if (mCurrentBlockInStream instanceof RemoteBlockInStream
+    if (sourceStream instanceof RemoteBlockInStream
         && !BlockStoreContext.INSTANCE.hasLocalWorker()) {
       return;
     }
@@ -494,8 +511,42 @@ public class FileInStream extends InputStream implements BoundedStream, Seekable
 
     // blockId = -1 if mPos = EOF.
     if (blockId < 0) {
+      cancelReadAhead();
       return;
     }
+    if (mReadAhead != null && mReadAhead.getBlockId() == blockId) {
+      BlockReadAhead readAhead = mReadAhead;
+      mReadAhead = null;
+      try {
+        mCurrentBlockInStream = readAhead.take();
+        ClientContext.getClientMetrics().incBlocksReadAheadHit(1);
+      } catch (IOException e) {
+        LOG.debug("Failed to read ahead block with ID {}, reading it directly. {}", blockId, e);
+        ClientContext.getClientMetrics().incBlocksReadAheadMiss(1);
+      }
+    } else {
+      cancelReadAhead();
+    }
+    if (mCurrentBlockInStream == null) {
+      mCurrentBlockInStream = openBlockInStream(blockId);
+    }
+    // Only read ahead when the block is entered from its beginning, i.e. the file is read
+    // sequentially, rather than after a seek into the block.
+    if (mReadAheadBytes > 0 && mPos % mBlockSize == 0) {
+      startReadAhead(mPos / mBlockSize + 1);
+    }
+  }
+
+  /**
+   * Opens a stream to a block, reading from Alluxio if possible or from the under storage
+   * otherwise. The stream is positioned at the beginning of the block. This may be called from a
+   * read-ahead thread, so it must only use state which does not change after construction.
+   *
+   * @param blockId the id of the block
+   * @return the stream of the block
+   * @throws IOException if the block cannot be read from Alluxio nor from the under storage
+   */
+  private BlockInStream openBlockInStream(long blockId) throws IOException {
     try {
       if (mAlluxioStorageType.isPromote()) {
         try {
@@ -505,7 +556,7 @@ public class FileInStream extends InputStream implements BoundedStream, Seekable
           LOG.warn("Promotion of block with ID {} failed.", blockId, e);
         }
       }
-      mCurrentBlockInStream = mContext.getAlluxioBlockStore().getInStream(blockId);
+      return mContext.getAlluxioBlockStore().getInStream(blockId);
     } catch (IOException e) {
       LOG.debug("Failed to get BlockInStream for block with ID {}, using UFS instead. {}", blockId,
           e);
@@ -515,8 +566,39 @@ public class FileInStream extends InputStream implements BoundedStream, Seekable
         throw e;
       }
       long blockStart = BlockId.getSequenceNumber(blockId) * mBlockSize;
-      mCurrentBlockInStream =
-          createUnderStoreBlockInStream(blockStart, getBlockSize(blockStart), mStatus.getUfsPath());
+      return createUnderStoreBlockInStream(blockStart, getBlockSize(blockStart),
+          mStatus.getUfsPath());
+    }
+  }
+
+  /**
+   * Starts reading ahead the block with the given index, if it is a block of the file.
+   *
+   * @param blockIndex the index of the block in the file
+   */
+  private void startReadAhead(long blockIndex) {
+    long blockStart = blockIndex * mBlockSize;
+    if (blockIndex >= mStatus.getBlockIds().size() || blockStart >= mFileLength) {
+      return;
+    }
+    final long blockId = mStatus.getBlockIds().get((int) blockIndex);
+    int maxBytes = (int) Math.min(mReadAheadBytes, getBlockSize(blockStart));
+    mReadAhead = new BlockReadAhead(blockId, new Callable<BlockInStream>() {
+      @Override
+      public BlockInStream call() throws IOException {
+        return openBlockInStream(blockId);
+      }
+    }, maxBytes, ClientContext.getFileReadAheadExecutorService());
+  }
+
+  /**
+   * Cancels the read-ahead in progress, if any.
+   */
+  private void cancelReadAhead() {
+    if (mReadAhead != null) {
+      mReadAhead.cancel();
+      mReadAhead = null;
+      ClientContext.getClientMetrics().incBlocksReadAheadMiss(1);
     }
   }
 
@@ -11,6 +11,8 @@
 
 package alluxio.client.file;
 
+import alluxio.Configuration;
+import alluxio.Constants;
 import alluxio.client.ClientContext;
 import alluxio.client.block.AlluxioBlockStore;
 import alluxio.client.block.BlockMasterClient;
@@ -47,6 +49,7 @@ public enum FileSystemContext {
 
   private FileSystemMasterClientPool mFileSystemMasterClientPool;
   private final AlluxioBlockStore mAlluxioBlockStore;
+  private URIStatusCache mURIStatusCache;
 
   /** A list of valid workers, if there is a local worker, only the local worker addresses. */
   @GuardedBy("mWorkerAddressesLock")
@@ -61,6 +64,7 @@ public enum FileSystemContext {
     mFileSystemMasterClientPool =
         new FileSystemMasterClientPool(ClientContext.getMasterAddress());
     mAlluxioBlockStore = AlluxioBlockStore.get();
+    mURIStatusCache = createURIStatusCache();
   }
 
   /**
@@ -108,6 +112,13 @@ public enum FileSystemContext {
     return mAlluxioBlockStore;
   }
 
+  /**
+   * @return the cache of file statuses shared by the clients of this JVM
+   */
+  public URIStatusCache getURIStatusCache() {
+    return mURIStatusCache;
+  }
+
   /**
    * Re-initializes the Block Store context. This method should only be used in
    * {@link ClientContext}.
@@ -116,11 +127,20 @@ public enum FileSystemContext {
     mFileSystemMasterClientPool.close();
     mFileSystemMasterClientPool =
         new FileSystemMasterClientPool(ClientContext.getMasterAddress());
+    mURIStatusCache = createURIStatusCache();
     synchronized (mWorkerAddressesLock) {
       mWorkerAddresses = null;
     }
   }
 
+  /**
+   * @return a new, empty file status cache configured by the current configuration
+   */
+  private static URIStatusCache createURIStatusCache() {
+    return new URIStatusCache(Configuration.getLong(Constants.USER_METADATA_CACHE_MAX_SIZE),
+        Configuration.getLong(Constants.USER_METADATA_CACHE_EXPIRATION_MS));
+  }
+
   /**
    * @return if there are any local workers, the returned list will ONLY contain the local workers,
    *         otherwise a list of all remote workers will be returned
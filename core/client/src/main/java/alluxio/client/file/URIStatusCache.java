@@ -0,0 +1,142 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file;
+
+import alluxio.AlluxioURI;
+import alluxio.client.ClientContext;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A bounded cache of the {@link URIStatus} of files by path, used to open files without asking
+ * the master for their status.
+ *
+ * Only completed files are cached, since their length and blocks do not change anymore. The other
+ * attributes of a cached status may be stale, so the cache is only used to open files, and not to
+ * answer {@link FileSystem#getStatus(AlluxioURI)}. The operations of this client which modify a
+ * path invalidate the path and everything under it, but the operations of other clients do not,
+ * so the cache is disabled by default.
+ *
+ * The cached paths are also kept in a sorted set, so that the paths under a path are found without
+ * scanning the whole cache.
+ */
+@ThreadSafe
+public final class URIStatusCache {
+  /** The cache from path to status, or null if caching is disabled. */
+  private final Cache<String, URIStatus> mCache;
+  /** The paths in the cache, in order. */
+  private final NavigableSet<String> mPaths = new ConcurrentSkipListSet<>();
+
+  /**
+   * Creates a new instance of {@link URIStatusCache}.
+   *
+   * @param maxSize the maximum number of statuses to cache, 0 disables the cache
+   * @param expirationMs the time in milliseconds after which a cached status is dropped
+   */
+  public URIStatusCache(long maxSize, long expirationMs) {
+    if (maxSize > 0) {
+      mCache = CacheBuilder.newBuilder().maximumSize(maxSize)
+          .expireAfterWrite(expirationMs, TimeUnit.MILLISECONDS)
+          .removalListener(new RemovalListener<String, URIStatus>() {
+            @Override
+            public void onRemoval(RemovalNotification<String, URIStatus> notification) {
+              if (notification.getCause() == RemovalCause.REPLACED) {
+                return;
+              }
+              String path = notification.getKey();
+              mPaths.remove(path);
+              // The path may have been cached again concurrently.
+              if (mCache.asMap().containsKey(path)) {
+                mPaths.add(path);
+              }
+            }
+          }).build();
+    } else {
+      mCache = null;
+    }
+  }
+
+  /**
+   * @param path the path of the file
+   * @return the cached status of the file, or null if the file is not cached
+   */
+  public URIStatus get(AlluxioURI path) {
+    if (mCache == null) {
+      return null;
+    }
+    URIStatus status = mCache.getIfPresent(path.getPath());
+    if (status == null) {
+      ClientContext.getClientMetrics().incMetadataCacheMiss(1);
+    } else {
+      ClientContext.getClientMetrics().incMetadataCacheHit(1);
+    }
+    return status;
+  }
+
+  /**
+   * Caches the status of a file, if the file is completed.
+   *
+   * @param status the status of the file
+   */
+  public void put(URIStatus status) {
+    if (mCache == null || status.isFolder() || !status.isCompleted()) {
+      return;
+    }
+    String path = status.getPath();
+    mCache.put(path, status);
+    mPaths.add(path);
+    // The path may have been evicted concurrently.
+    if (!mCache.asMap().containsKey(path)) {
+      mPaths.remove(path);
+    }
+  }
+
+  /**
+   * Drops the cached status of a path and of all the paths under it.
+   *
+   * @param path the path to invalidate
+   */
+  public void invalidate(AlluxioURI path) {
+    if (mCache == null) {
+      return;
+    }
+    String pathString = path.getPath();
+    mCache.invalidate(pathString);
+    String prefix = pathString.endsWith(AlluxioURI.SEPARATOR)
+        ? pathString : pathString + AlluxioURI.SEPARATOR;
+    // The paths starting with the prefix are the paths between the prefix and the prefix followed
+    // by the greatest character.
+    for (String descendant : mPaths.subSet(prefix, true, prefix + Character.MAX_VALUE, true)) {
+      mCache.invalidate(descendant);
+    }
+  }
+
+  /**
+   * Drops all the cached statuses.
+   */
+  public void invalidateAll() {
+    if (mCache != null) {
+      mCache.invalidateAll();
+      mPaths.clear();
+    }
+  }
+}
@@ -39,6 +39,8 @@ public final class InStreamOptions {
    * is enabled.
    */
   private long mSeekBufferSizeBytes;
+  /** The maximum number of bytes of the next block to read ahead, 0 to disable read-ahead. */
+  private long mReadAheadBytes;
 
   /**
    * @return the default {@link InStreamOptions}
@@ -60,6 +62,7 @@ public final class InStreamOptions {
         Configuration.getBoolean(Constants.USER_FILE_CACHE_PARTIALLY_READ_BLOCK);
     mSeekBufferSizeBytes =
         Configuration.getBytes(Constants.USER_FILE_SEEK_BUFFER_SIZE_BYTES);
+    mReadAheadBytes = Configuration.getBytes(Constants.USER_FILE_READ_AHEAD_BYTES);
   }
 
   /**
@@ -132,6 +135,26 @@ public final class InStreamOptions {
     return this;
   }
 
+  /**
+   * @return the maximum number of bytes of the next block to read ahead, 0 if read-ahead is
+   *         disabled
+   */
+  public long getReadAheadBytes() {
+    return mReadAheadBytes;
+  }
+
+  /**
+   * Sets {@link #mReadAheadBytes}.
+   *
+   * @param readAheadBytes the maximum number of bytes of the next block to read ahead while a
+   *        block is read sequentially, 0 to disable read-ahead
+   * @return the updated options object
+   */
+  public InStreamOptions setReadAheadBytes(long readAheadBytes) {
+    mReadAheadBytes = readAheadBytes;
+    return this;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -144,19 +167,21 @@ public final class InStreamOptions {
     return Objects.equal(mLocationPolicy, that.mLocationPolicy)
         && Objects.equal(mReadType, that.mReadType)
         && Objects.equal(mCachePartiallyReadBlock, that.mCachePartiallyReadBlock)
-        && Objects.equal(mSeekBufferSizeBytes, that.mSeekBufferSizeBytes);
+        && Objects.equal(mSeekBufferSizeBytes, that.mSeekBufferSizeBytes)
+        && Objects.equal(mReadAheadBytes, that.mReadAheadBytes);
   }
 
   @Override
   public int hashCode() {
-    return Objects
-        .hashCode(mLocationPolicy, mReadType, mCachePartiallyReadBlock, mSeekBufferSizeBytes);
+    return Objects.hashCode(mLocationPolicy, mReadType, mCachePartiallyReadBlock,
+        mSeekBufferSizeBytes, mReadAheadBytes);
   }
 
   @Override
   public String toString() {
     return Objects.toStringHelper(this).add("locationPolicy", mLocationPolicy)
         .add("readType", mReadType).add("cachePartiallyReadBlock", mCachePartiallyReadBlock)
-        .add("seekBufferSize", mSeekBufferSizeBytes).toString();
+        .add("seekBufferSize", mSeekBufferSizeBytes).add("readAheadBytes", mReadAheadBytes)
+        .toString();
   }
 }
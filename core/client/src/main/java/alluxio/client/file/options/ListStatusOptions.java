@@ -26,6 +26,8 @@ import javax.annotation.concurrent.NotThreadSafe;
 @NotThreadSafe
 public final class ListStatusOptions {
   private LoadMetadataType mLoadMetadataType;
+  private String mStartAfter;
+  private int mBatchSize;
 
   /**
    * @return the default {@link ListStatusOptions}
@@ -36,6 +38,8 @@ public final class ListStatusOptions {
 
   private ListStatusOptions() {
     mLoadMetadataType = LoadMetadataType.Once;
+    mStartAfter = null;
+    mBatchSize = 0;
   }
 
   /**
@@ -55,6 +59,42 @@ public final class ListStatusOptions {
     return this;
   }
 
+  /**
+   * @return the name after which the children of a directory are listed, or null to list them
+   *         from the first one
+   */
+  public String getStartAfter() {
+    return mStartAfter;
+  }
+
+  /**
+   * @param startAfter the name after which the children of a directory are listed, in name order;
+   *        null to list them from the first one
+   * @return the updated options
+   */
+  public ListStatusOptions setStartAfter(String startAfter) {
+    mStartAfter = startAfter;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of children of a directory to list, or a non-positive number to
+   *         list all of them
+   */
+  public int getBatchSize() {
+    return mBatchSize;
+  }
+
+  /**
+   * @param batchSize the maximum number of children of a directory to list, in name order; a
+   *        non-positive number lists all of them
+   * @return the updated options
+   */
+  public ListStatusOptions setBatchSize(int batchSize) {
+    mBatchSize = batchSize;
+    return this;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -64,18 +104,22 @@ public final class ListStatusOptions {
       return false;
     }
     ListStatusOptions that = (ListStatusOptions) o;
-    return Objects.equal(mLoadMetadataType, that.mLoadMetadataType);
+    return Objects.equal(mLoadMetadataType, that.mLoadMetadataType)
+        && Objects.equal(mStartAfter, that.mStartAfter)
+        && mBatchSize == that.mBatchSize;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(mLoadMetadataType);
+    return Objects.hashCode(mLoadMetadataType, mStartAfter, mBatchSize);
   }
 
   @Override
   public String toString() {
     return Objects.toStringHelper(this)
         .add("loadMetadataType", mLoadMetadataType.toString())
+        .add("startAfter", mStartAfter)
+        .add("batchSize", mBatchSize)
         .toString();
   }
 
@@ -88,6 +132,12 @@ public final class ListStatusOptions {
         mLoadMetadataType == LoadMetadataType.Once || mLoadMetadataType == LoadMetadataType.Always);
 
     options.setLoadMetadataType(LoadMetadataType.toThrift(mLoadMetadataType));
+    if (mStartAfter != null) {
+      options.setStartAfter(mStartAfter);
+    }
+    if (mBatchSize > 0) {
+      options.setBatchSize(mBatchSize);
+    }
     return options;
   }
 }
@@ -0,0 +1,128 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.netty;
+
+import alluxio.Constants;
+import alluxio.resource.ResourcePool;
+
+import com.google.common.base.Throwables;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A pool of long-lived Netty channels to a single data server. A channel obtained with
+ * {@link #acquire()} is owned exclusively by the caller until it is handed back with
+ * {@link #release(Channel)}, so at most one request is in flight on a channel at any time. Channels
+ * which become inactive (e.g. the server closed the connection) are discarded instead of being
+ * returned to the pool.
+ */
+@ThreadSafe
+public final class NettyChannelPool extends ResourcePool<Channel> {
+  private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
+  private static final int ACQUIRE_RETRY_INTERVAL_MS = 100;
+
+  /** The address of the data server the channels in this pool are connected to. */
+  private final InetSocketAddress mAddress;
+
+  /**
+   * Creates a new channel pool for the given data server.
+   *
+   * @param address the address of the data server
+   * @param maxCapacity the maximum number of channels to open to the data server
+   */
+  public NettyChannelPool(InetSocketAddress address, int maxCapacity) {
+    super(maxCapacity);
+    mAddress = address;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * Channels which were closed while idle in the pool are discarded and another channel is
+   * returned instead. Waiting for a channel is done in short intervals so that slots freed by
+   * discarded channels are noticed by waiting threads.
+   */
+  @Override
+  public Channel acquire() {
+    while (true) {
+      Channel channel = super.acquire(ACQUIRE_RETRY_INTERVAL_MS, TimeUnit.MILLISECONDS);
+      if (channel == null) {
+        continue;
+      }
+      if (channel.isActive()) {
+        return channel;
+      }
+      discard(channel);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * Channels which are no longer active are closed and do not count towards the capacity of the
+   * pool anymore.
+   */
+  @Override
+  public void release(Channel channel) {
+    if (!channel.isActive()) {
+      discard(channel);
+      return;
+    }
+    super.release(channel);
+  }
+
+  /**
+   * Closes the given channel and frees up its slot in the pool. This should be used instead of
+   * {@link #release(Channel)} when the state of the channel is unknown, e.g. a request timed out
+   * and a late response may still arrive on it.
+   *
+   * @param channel the channel to discard, it should not be used after calling this method
+   */
+  public void discard(Channel channel) {
+    channel.close();
+    mCurrentCapacity.decrementAndGet();
+  }
+
+  @Override
+  public void close() {
+    Channel channel;
+    while ((channel = mResources.poll()) != null) {
+      channel.close();
+    }
+  }
+
+  @Override
+  protected Channel createNewResource() {
+    Bootstrap bootstrap = NettyClient.createClientBootstrap(new ClientHandler());
+    try {
+      ChannelFuture f = bootstrap.connect(mAddress).sync();
+      if (!f.isSuccess()) {
+        throw new IOException("Failed to connect to " + mAddress, f.cause());
+      }
+      LOG.info("Connected to remote machine {}", mAddress);
+      return f.channel();
+    } catch (Exception e) {
+      // The slot reserved for this channel in acquire() is never going to be used.
+      mCurrentCapacity.decrementAndGet();
+      throw Throwables.propagate(e);
+    }
+  }
+}
@@ -21,12 +21,17 @@ import alluxio.util.network.NettyUtils;
 
 import io.netty.bootstrap.Bootstrap;
 import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 
+import java.net.InetSocketAddress;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
@@ -55,6 +60,14 @@ public final class NettyClient {
   public static final long TIMEOUT_MS =
       Configuration.getInt(Constants.USER_NETWORK_NETTY_TIMEOUT_MS);
 
+  /** The maximum number of channels to keep open to a single data server. */
+  private static final int CHANNEL_POOL_SIZE_MAX =
+      Configuration.getInt(Constants.USER_NETWORK_NETTY_CHANNEL_POOL_SIZE_MAX);
+
+  /** Long-lived channels to the data servers, shared by all the clients in this JVM. */
+  private static final ConcurrentMap<InetSocketAddress, NettyChannelPool> CHANNEL_POOLS =
+      new ConcurrentHashMap<>();
+
   private NettyClient() {} // prevent instantiation
 
   /**
@@ -85,4 +98,54 @@ public final class NettyClient {
 
     return boot;
   }
+
+  /**
+   * Acquires a connected channel to the given data server from the shared channel pool, opening a
+   * new connection if no idle channel is available. The channel must be returned with
+   * {@link #releaseChannel(InetSocketAddress, Channel)} or
+   * {@link #discardChannel(InetSocketAddress, Channel)} once the request completes.
+   *
+   * @param address the address of the data server
+   * @return a channel connected to the data server
+   */
+  public static Channel acquireChannel(InetSocketAddress address) {
+    NettyChannelPool pool = CHANNEL_POOLS.get(address);
+    if (pool == null) {
+      CHANNEL_POOLS.putIfAbsent(address, new NettyChannelPool(address, CHANNEL_POOL_SIZE_MAX));
+      pool = CHANNEL_POOLS.get(address);
+    }
+    return pool.acquire();
+  }
+
+  /**
+   * Returns a channel to the pool so that it can be reused by subsequent requests. The channel must
+   * not have any request in flight.
+   *
+   * @param address the address of the data server the channel is connected to
+   * @param channel the channel to release
+   */
+  public static void releaseChannel(InetSocketAddress address, Channel channel) {
+    NettyChannelPool pool = CHANNEL_POOLS.get(address);
+    if (pool == null) {
+      channel.close();
+      return;
+    }
+    pool.release(channel);
+  }
+
+  /**
+   * Closes a channel which is in an unknown state, e.g. after a request failed or timed out, and
+   * frees up its slot in the pool.
+   *
+   * @param address the address of the data server the channel is connected to
+   * @param channel the channel to discard
+   */
+  public static void discardChannel(InetSocketAddress address, Channel channel) {
+    NettyChannelPool pool = CHANNEL_POOLS.get(address);
+    if (pool == null) {
+      channel.close();
+      return;
+    }
+    pool.discard(channel);
+  }
 }
@@ -20,9 +20,7 @@ import alluxio.network.protocol.RPCErrorResponse;
 import alluxio.network.protocol.RPCMessage;
 import alluxio.network.protocol.RPCResponse;
 
-import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
-import io.netty.channel.ChannelFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,36 +38,31 @@ import javax.annotation.concurrent.NotThreadSafe;
 public final class NettyRemoteBlockReader implements RemoteBlockReader {
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
 
-  private final Bootstrap mClientBootstrap;
-  private final ClientHandler mHandler;
   /** A reference to read response so we can explicitly release the resource after reading. */
   private RPCBlockReadResponse mReadResponse = null;
 
   /**
    * Creates a new {@link NettyRemoteBlockReader}.
-   *
-   * TODO(gene): Creating a new remote block reader may be expensive, so consider a connection pool.
    */
-  public NettyRemoteBlockReader() {
-    mHandler = new ClientHandler();
-    mClientBootstrap = NettyClient.createClientBootstrap(mHandler);
-  }
+  public NettyRemoteBlockReader() {}
 
   @Override
   public ByteBuffer readRemoteBlock(InetSocketAddress address, long blockId, long offset,
       long length, long lockId, long sessionId) throws IOException {
+    Channel channel = null;
+    ClientHandler handler = null;
     SingleResponseListener listener = null;
+    boolean reusable = false;
     try {
-      ChannelFuture f = mClientBootstrap.connect(address).sync();
-
-      LOG.info("Connected to remote machine {}", address);
-      Channel channel = f.channel();
+      channel = NettyClient.acquireChannel(address);
+      handler = channel.pipeline().get(ClientHandler.class);
       listener = new SingleResponseListener();
-      mHandler.addListener(listener);
+      handler.addListener(listener);
       channel.writeAndFlush(new RPCBlockReadRequest(blockId, offset, length, lockId, sessionId));
 
       RPCResponse response = listener.get(NettyClient.TIMEOUT_MS, TimeUnit.MILLISECONDS);
-      channel.close().sync();
+      // The response has been fully received, so the channel can be reused by other requests.
+      reusable = true;
 
       switch (response.getType()) {
         case RPC_BLOCK_READ_RESPONSE:
@@ -95,7 +88,14 @@ public final class NettyRemoteBlockReader implements RemoteBlockReader {
       throw new IOException(e);
     } finally {
       if (listener != null) {
-        mHandler.removeListener(listener);
+        handler.removeListener(listener);
+      }
+      if (channel != null) {
+        if (reusable) {
+          NettyClient.releaseChannel(address, channel);
+        } else {
+          NettyClient.discardChannel(address, channel);
+        }
       }
     }
   }
@@ -0,0 +1,248 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.netty;
+
+import alluxio.Configuration;
+import alluxio.Constants;
+import alluxio.exception.ExceptionMessage;
+import alluxio.network.protocol.RPCBlockReadCreditRequest;
+import alluxio.network.protocol.RPCBlockReadResponse;
+import alluxio.network.protocol.RPCBlockReadStreamRequest;
+import alluxio.network.protocol.RPCErrorResponse;
+import alluxio.network.protocol.RPCMessage;
+import alluxio.network.protocol.RPCResponse;
+
+import com.google.common.base.Preconditions;
+import io.netty.channel.Channel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Streams a range of a block from a remote data server using Netty. The data server pushes the
+ * range as a sequence of fixed-size chunks over a single channel. At most
+ * {@link Constants#USER_BLOCK_REMOTE_READ_STREAM_WINDOW_CHUNKS} chunks are in flight at any time,
+ * the client grants more chunks to the data server as it consumes them. The channel is returned to
+ * the channel pool once the whole range has been received, and is closed if the stream is closed
+ * early.
+ */
+@NotThreadSafe
+public final class NettyRemoteBlockStreamReader implements Closeable {
+  private final InetSocketAddress mAddress;
+  private final long mBlockId;
+  /** The number of bytes of the range. */
+  private final long mLength;
+  /** The total number of chunks of the range. */
+  private final long mTotalChunks;
+  /** The maximum number of chunks in flight. */
+  private final int mWindowChunks;
+  /** Responses received on the channel which have not been consumed yet. */
+  private final BlockingQueue<RPCResponse> mResponses;
+  private final ClientHandler.ResponseListener mListener;
+
+  /** The channel the range is streamed over, null once the channel has been given back. */
+  private Channel mChannel;
+  private ClientHandler mHandler;
+  /** The response carrying the chunk last returned, released when the next chunk is read. */
+  private RPCBlockReadResponse mChunkResponse;
+  /** The number of chunks the data server has been allowed to send so far. */
+  private long mGrantedChunks;
+  /** The number of chunks consumed which have not been granted back to the data server yet. */
+  private int mUnackedChunks;
+  /** The number of bytes received so far. */
+  private long mReceivedBytes;
+  /** Whether the end of stream marker has been received. */
+  private boolean mEOF;
+
+  /**
+   * Creates a new stream reader and starts streaming the given range of the block.
+   *
+   * @param address the {@link InetSocketAddress} of the data server
+   * @param blockId the id of the block to read
+   * @param offset the offset in the block to start reading at
+   * @param length the number of bytes to read
+   * @param lockId the acquired block lock id
+   * @param sessionId the session id of the client
+   * @throws IOException if the request cannot be sent to the data server
+   */
+  public NettyRemoteBlockStreamReader(InetSocketAddress address, long blockId, long offset,
+      long length, long lockId, long sessionId) throws IOException {
+    Preconditions.checkArgument(length >= 0, "Length cannot be negative: %s", length);
+    long chunkSize =
+        Configuration.getBytes(Constants.USER_BLOCK_REMOTE_READ_STREAM_CHUNK_SIZE_BYTES);
+    mAddress = address;
+    mBlockId = blockId;
+    mLength = length;
+    mTotalChunks = (length + chunkSize - 1) / chunkSize;
+    mWindowChunks = Configuration.getInt(Constants.USER_BLOCK_REMOTE_READ_STREAM_WINDOW_CHUNKS);
+    mResponses = new LinkedBlockingQueue<>();
+    mListener = new ClientHandler.ResponseListener() {
+      @Override
+      public void onResponseReceived(RPCResponse response) {
+        mResponses.add(response);
+      }
+    };
+    mGrantedChunks = Math.max(1, Math.min(mWindowChunks, mTotalChunks));
+    try {
+      mChannel = NettyClient.acquireChannel(address);
+      mHandler = mChannel.pipeline().get(ClientHandler.class);
+      mHandler.addListener(mListener);
+      mChannel.writeAndFlush(new RPCBlockReadStreamRequest(blockId, offset, length, lockId,
+          sessionId, chunkSize, (int) mGrantedChunks));
+    } catch (Exception e) {
+      giveBackChannel(false);
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Returns the next chunk of the range. The buffer returned by the previous call is released and
+   * must not be accessed anymore.
+   *
+   * @return a byte buffer containing the next chunk, or null if the whole range has been read
+   * @throws IOException if the data server fails to send the chunk
+   */
+  public ByteBuffer readChunk() throws IOException {
+    releaseChunk();
+    if (mEOF) {
+      return null;
+    }
+    RPCBlockReadResponse response = nextResponse();
+    if (response.getLength() == 0) {
+      // Only the end of stream marker is empty, there are no empty chunks.
+      mEOF = true;
+      giveBackChannel(true);
+      return null;
+    }
+    mChunkResponse = response;
+    mReceivedBytes += response.getLength();
+    grantCredit();
+    if (mReceivedBytes == mLength) {
+      // Consume the end of stream marker right away so the channel can be reused by others while
+      // the caller is still processing the last chunk.
+      if (nextResponse().getLength() != 0) {
+        throw new IOException(
+            ExceptionMessage.BLOCK_STREAM_END_EXPECTED.getMessage(mBlockId, mAddress));
+      }
+      mEOF = true;
+      giveBackChannel(true);
+    }
+    return response.getPayloadDataBuffer().getReadOnlyByteBuffer();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * Releases the last chunk. If the stream has not been fully consumed, the channel is closed since
+   * the data server may still be sending chunks on it.
+   */
+  @Override
+  public void close() {
+    releaseChunk();
+    giveBackChannel(mEOF);
+    RPCResponse response;
+    while ((response = mResponses.poll()) != null) {
+      if (response.getPayloadDataBuffer() != null) {
+        response.getPayloadDataBuffer().release();
+      }
+    }
+  }
+
+  /**
+   * Waits for the next response of the stream and validates it.
+   *
+   * @return the next successful block read response
+   * @throws IOException if the response is an error or does not arrive in time
+   */
+  private RPCBlockReadResponse nextResponse() throws IOException {
+    RPCResponse response;
+    try {
+      response = mResponses.poll(NettyClient.TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+    if (response == null) {
+      throw new IOException(ExceptionMessage.BLOCK_STREAM_TIMEOUT.getMessage(mBlockId, mAddress));
+    }
+    switch (response.getType()) {
+      case RPC_BLOCK_READ_RESPONSE:
+        RPCBlockReadResponse blockResponse = (RPCBlockReadResponse) response;
+        RPCResponse.Status status = blockResponse.getStatus();
+        if (status != RPCResponse.Status.SUCCESS) {
+          throw new IOException(status.getMessage() + " response: " + blockResponse);
+        }
+        return blockResponse;
+      case RPC_ERROR_RESPONSE:
+        RPCErrorResponse error = (RPCErrorResponse) response;
+        throw new IOException(error.getStatus().getMessage());
+      default:
+        throw new IOException(ExceptionMessage.UNEXPECTED_RPC_RESPONSE
+            .getMessage(response.getType(), RPCMessage.Type.RPC_BLOCK_READ_RESPONSE));
+    }
+  }
+
+  /**
+   * Grants the data server more chunks once half of the window has been consumed. No credits are
+   * granted beyond the end of the range, so that no stale credits remain on the channel after the
+   * stream ends.
+   */
+  private void grantCredit() {
+    mUnackedChunks++;
+    if (mUnackedChunks < Math.max(1, mWindowChunks / 2)) {
+      return;
+    }
+    int credits = (int) Math.min(mUnackedChunks, mTotalChunks - mGrantedChunks);
+    mUnackedChunks = 0;
+    if (credits > 0) {
+      mGrantedChunks += credits;
+      mChannel.writeAndFlush(new RPCBlockReadCreditRequest(credits));
+    }
+  }
+
+  /**
+   * Releases the buffer of the chunk last returned, if any.
+   */
+  private void releaseChunk() {
+    if (mChunkResponse != null) {
+      mChunkResponse.getPayloadDataBuffer().release();
+      mChunkResponse = null;
+    }
+  }
+
+  /**
+   * Stops listening on the channel and returns it to the channel pool.
+   *
+   * @param reusable whether the channel is idle and can be used for other requests
+   */
+  private void giveBackChannel(boolean reusable) {
+    if (mChannel == null) {
+      return;
+    }
+    if (mHandler != null) {
+      mHandler.removeListener(mListener);
+    }
+    if (reusable) {
+      NettyClient.releaseChannel(mAddress, mChannel);
+    } else {
+      NettyClient.discardChannel(mAddress, mChannel);
+    }
+    mChannel = null;
+  }
+}
@@ -11,6 +11,7 @@
 
 package alluxio.client.netty;
 
+import alluxio.Configuration;
 import alluxio.Constants;
 import alluxio.client.RemoteBlockWriter;
 import alluxio.exception.ExceptionMessage;
@@ -21,7 +22,6 @@ import alluxio.network.protocol.RPCMessage;
 import alluxio.network.protocol.RPCResponse;
 import alluxio.network.protocol.databuffer.DataByteArrayChannel;
 
-import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import org.slf4j.Logger;
@@ -29,19 +29,29 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
 /**
- * Write data to a remote data server using Netty.
+ * Write data to a remote data server using Netty. All packets of a block are sent over a single
+ * channel, on which the data server keeps the block file open. Up to
+ * {@link Constants#USER_BLOCK_REMOTE_WRITE_WINDOW_PACKETS} packets are sent before the
+ * acknowledgement of the oldest packet is awaited. The channel is returned to the channel pool when
+ * the writer is closed.
  */
 @NotThreadSafe
 public final class NettyRemoteBlockWriter implements RemoteBlockWriter {
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
+  private static final byte[] EMPTY_PACKET = new byte[0];
 
-  private final Bootstrap mClientBootstrap;
-  private final ClientHandler mHandler;
+  /** The maximum number of packets which have not been acknowledged yet. */
+  private final int mWindowPackets;
+  /** Responses received on the channel which have not been checked yet. */
+  private final BlockingQueue<RPCResponse> mResponses;
+  private final ClientHandler.ResponseListener mListener;
 
   private boolean mOpen;
   private InetSocketAddress mAddress;
@@ -51,13 +61,27 @@ public final class NettyRemoteBlockWriter implements RemoteBlockWriter {
   // Total number of bytes written to the remote block.
   private long mWrittenBytes;
 
+  /** The channel the block is written over, null if no packet has been sent since opening. */
+  private Channel mChannel;
+  private ClientHandler mHandler;
+  /** The number of packets sent which have not been acknowledged yet. */
+  private int mPendingPackets;
+  /** Whether the data server may hold the block file open for this writer. */
+  private boolean mSessionOpen;
+
   /**
    * Creates a new {@link NettyRemoteBlockWriter}.
    */
   public NettyRemoteBlockWriter() {
-    mHandler = new ClientHandler();
-    mClientBootstrap = NettyClient.createClientBootstrap(mHandler);
     mOpen = false;
+    mWindowPackets = Configuration.getInt(Constants.USER_BLOCK_REMOTE_WRITE_WINDOW_PACKETS);
+    mResponses = new LinkedBlockingQueue<>();
+    mListener = new ClientHandler.ResponseListener() {
+      @Override
+      public void onResponseReceived(RPCResponse response) {
+        mResponses.add(response);
+      }
+    };
   }
 
   @Override
@@ -73,55 +97,154 @@ public final class NettyRemoteBlockWriter implements RemoteBlockWriter {
     mOpen = true;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * Waits until all packets have been acknowledged and ends the write session on the data server,
+   * so that the block can be committed afterwards.
+   */
   @Override
-  public void close() {
-    if (mOpen) {
-      mOpen = false;
+  public void close() throws IOException {
+    if (!mOpen) {
+      return;
+    }
+    mOpen = false;
+    if (mChannel == null) {
+      return;
+    }
+    boolean reusable = false;
+    try {
+      if (mSessionOpen) {
+        // An empty packet makes the data server close the block file.
+        sendPacket(EMPTY_PACKET, 0, 0);
+      }
+      while (mPendingPackets > 0) {
+        checkAck();
+      }
+      reusable = true;
+    } finally {
+      giveBackChannel(reusable);
     }
   }
 
   @Override
   public void write(byte[] bytes, int offset, int length) throws IOException {
-    SingleResponseListener listener = null;
+    if (length == 0 && mWrittenBytes > 0) {
+      // The block already exists, so there is nothing to do.
+      return;
+    }
+    boolean success = false;
     try {
-      // TODO(hy): keep connection open across multiple write calls.
-      ChannelFuture f = mClientBootstrap.connect(mAddress).sync();
-
-      LOG.info("Connected to remote machine {}", mAddress);
-      Channel channel = f.channel();
-      listener = new SingleResponseListener();
-      mHandler.addListener(listener);
-      channel.writeAndFlush(new RPCBlockWriteRequest(mSessionId, mBlockId, mWrittenBytes, length,
-          new DataByteArrayChannel(bytes, offset, length)));
-
-      RPCResponse response = listener.get(NettyClient.TIMEOUT_MS, TimeUnit.MILLISECONDS);
-      channel.close().sync();
-
-      switch (response.getType()) {
-        case RPC_BLOCK_WRITE_RESPONSE:
-          RPCBlockWriteResponse resp = (RPCBlockWriteResponse) response;
-          RPCResponse.Status status = resp.getStatus();
-          LOG.info("status: {} from remote machine {} received", status, mAddress);
-
-          if (status != RPCResponse.Status.SUCCESS) {
-            throw new IOException(ExceptionMessage.BLOCK_WRITE_ERROR.getMessage(mBlockId,
-                mSessionId, mAddress, status.getMessage()));
-          }
-          mWrittenBytes += length;
-          break;
-        case RPC_ERROR_RESPONSE:
-          RPCErrorResponse error = (RPCErrorResponse) response;
-          throw new IOException(error.getStatus().getMessage());
-        default:
-          throw new IOException(ExceptionMessage.UNEXPECTED_RPC_RESPONSE
-              .getMessage(response.getType(), RPCMessage.Type.RPC_BLOCK_WRITE_RESPONSE));
+      if (mChannel == null) {
+        mChannel = NettyClient.acquireChannel(mAddress);
+        mHandler = mChannel.pipeline().get(ClientHandler.class);
+        mHandler.addListener(mListener);
       }
+      sendPacket(bytes, offset, length);
+      mWrittenBytes += length;
+      success = true;
+    } catch (IOException e) {
+      throw e;
     } catch (Exception e) {
       throw new IOException(e);
     } finally {
-      if (listener != null) {
-        mHandler.removeListener(listener);
+      if (!success) {
+        giveBackChannel(false);
       }
     }
   }
+
+  /**
+   * Sends a packet of the block at the current write offset, after waiting for acknowledgements if
+   * the window of unacknowledged packets is full. The packet wraps the given array without copying
+   * it, so this method only returns once the packet has been written to the channel.
+   *
+   * @param bytes an array of bytes representing the source data
+   * @param offset the offset into the source array of bytes
+   * @param length the length of the data to write (in bytes)
+   * @throws IOException if the packet cannot be sent or an earlier packet failed
+   */
+  private void sendPacket(byte[] bytes, int offset, int length) throws IOException {
+    while (mPendingPackets >= mWindowPackets) {
+      checkAck();
+    }
+    ChannelFuture future = mChannel.writeAndFlush(new RPCBlockWriteRequest(mSessionId, mBlockId,
+        mWrittenBytes, length, new DataByteArrayChannel(bytes, offset, length)));
+    try {
+      if (!future.await(NettyClient.TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+        throw new IOException(
+            ExceptionMessage.BLOCK_WRITE_TIMEOUT.getMessage(mBlockId, mSessionId, mAddress));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+    if (!future.isSuccess()) {
+      throw new IOException(future.cause());
+    }
+    mPendingPackets++;
+    mSessionOpen = length > 0;
+  }
+
+  /**
+   * Waits for the acknowledgement of the oldest packet which has not been acknowledged yet.
+   *
+   * @throws IOException if the packet failed or the acknowledgement does not arrive in time
+   */
+  private void checkAck() throws IOException {
+    RPCResponse response;
+    try {
+      response = mResponses.poll(NettyClient.TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+    if (response == null) {
+      throw new IOException(
+          ExceptionMessage.BLOCK_WRITE_TIMEOUT.getMessage(mBlockId, mSessionId, mAddress));
+    }
+    mPendingPackets--;
+    switch (response.getType()) {
+      case RPC_BLOCK_WRITE_RESPONSE:
+        RPCBlockWriteResponse resp = (RPCBlockWriteResponse) response;
+        RPCResponse.Status status = resp.getStatus();
+        LOG.debug("status: {} from remote machine {} received", status, mAddress);
+
+        if (status != RPCResponse.Status.SUCCESS) {
+          throw new IOException(ExceptionMessage.BLOCK_WRITE_ERROR.getMessage(mBlockId,
+              mSessionId, mAddress, status.getMessage()));
+        }
+        break;
+      case RPC_ERROR_RESPONSE:
+        RPCErrorResponse error = (RPCErrorResponse) response;
+        throw new IOException(error.getStatus().getMessage());
+      default:
+        throw new IOException(ExceptionMessage.UNEXPECTED_RPC_RESPONSE
+            .getMessage(response.getType(), RPCMessage.Type.RPC_BLOCK_WRITE_RESPONSE));
+    }
+  }
+
+  /**
+   * Stops listening on the channel and returns it to the channel pool.
+   *
+   * @param reusable whether all packets have been acknowledged and the channel can be used for
+   *        other requests
+   */
+  private void giveBackChannel(boolean reusable) {
+    if (mChannel == null) {
+      return;
+    }
+    mHandler.removeListener(mListener);
+    if (reusable) {
+      NettyClient.releaseChannel(mAddress, mChannel);
+    } else {
+      // The data server ends the write session once the channel is closed.
+      NettyClient.discardChannel(mAddress, mChannel);
+    }
+    mChannel = null;
+    mHandler = null;
+    mPendingPackets = 0;
+    mSessionOpen = false;
+    mResponses.clear();
+  }
 }
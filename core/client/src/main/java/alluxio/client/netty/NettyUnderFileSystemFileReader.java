@@ -19,9 +19,7 @@ import alluxio.network.protocol.RPCFileReadResponse;
 import alluxio.network.protocol.RPCMessage;
 import alluxio.network.protocol.RPCResponse;
 
-import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
-import io.netty.channel.ChannelFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,20 +41,13 @@ import javax.annotation.concurrent.NotThreadSafe;
 public final class NettyUnderFileSystemFileReader implements Closeable {
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
 
-  /** Netty bootstrap for the connection. */
-  private final Bootstrap mClientBootstrap;
-  /** Handler for Netty messages. */
-  private final ClientHandler mHandler;
   /** A reference to read response so we can explicitly release the resource after reading. */
   private RPCFileReadResponse mReadResponse = null;
 
   /**
    * Creates a new reader for a file in an under file system through a worker's data server.
    */
-  public NettyUnderFileSystemFileReader() {
-    mHandler = new ClientHandler();
-    mClientBootstrap = NettyClient.createClientBootstrap(mHandler);
-  }
+  public NettyUnderFileSystemFileReader() {}
 
   /**
    * Reads data from the specified worker for a file in the under file system.
@@ -74,18 +65,20 @@ public final class NettyUnderFileSystemFileReader implements Closeable {
     if (length == 0) {
       return ByteBuffer.allocate(0);
     }
+    Channel channel = null;
+    ClientHandler handler = null;
     SingleResponseListener listener = null;
+    boolean reusable = false;
     try {
-      ChannelFuture f = mClientBootstrap.connect(address).sync();
-
-      LOG.debug("Connected to remote machine {}", address);
-      Channel channel = f.channel();
+      channel = NettyClient.acquireChannel(address);
+      handler = channel.pipeline().get(ClientHandler.class);
       listener = new SingleResponseListener();
-      mHandler.addListener(listener);
+      handler.addListener(listener);
       channel.writeAndFlush(new RPCFileReadRequest(ufsFileId, offset, length));
 
       RPCResponse response = listener.get(NettyClient.TIMEOUT_MS, TimeUnit.MILLISECONDS);
-      channel.close().sync();
+      // The response has been fully received, so the channel can be reused by other requests.
+      reusable = true;
 
       switch (response.getType()) {
         case RPC_FILE_READ_RESPONSE:
@@ -114,7 +107,14 @@ public final class NettyUnderFileSystemFileReader implements Closeable {
       throw new IOException(e);
     } finally {
       if (listener != null) {
-        mHandler.removeListener(listener);
+        handler.removeListener(listener);
+      }
+      if (channel != null) {
+        if (reusable) {
+          NettyClient.releaseChannel(address, channel);
+        } else {
+          NettyClient.discardChannel(address, channel);
+        }
       }
     }
   }
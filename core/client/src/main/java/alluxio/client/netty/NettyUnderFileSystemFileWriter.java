@@ -20,9 +20,7 @@ import alluxio.network.protocol.RPCMessage;
 import alluxio.network.protocol.RPCResponse;
 import alluxio.network.protocol.databuffer.DataByteArrayChannel;
 
-import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
-import io.netty.channel.ChannelFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,18 +39,10 @@ import javax.annotation.concurrent.NotThreadSafe;
 public final class NettyUnderFileSystemFileWriter {
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
 
-  /** Netty bootstrap for the connection. */
-  private final Bootstrap mClientBootstrap;
-  /** Handler for Netty messages. */
-  private final ClientHandler mHandler;
-
   /**
    * Constructor for a Netty based writer to an under file system file on a worker.
    */
-  public NettyUnderFileSystemFileWriter() {
-    mHandler = new ClientHandler();
-    mClientBootstrap = NettyClient.createClientBootstrap(mHandler);
-  }
+  public NettyUnderFileSystemFileWriter() {}
 
   /**
    * Writes data to the file in the under file system.
@@ -67,19 +57,21 @@ public final class NettyUnderFileSystemFileWriter {
    */
   public void write(InetSocketAddress address, long ufsFileId, long fileOffset, byte[] bytes,
       int offset, int length) throws IOException {
+    Channel channel = null;
+    ClientHandler handler = null;
     SingleResponseListener listener = null;
+    boolean reusable = false;
     try {
-      ChannelFuture f = mClientBootstrap.connect(address).sync();
-
-      LOG.debug("Connected to remote machine {}", address);
-      Channel channel = f.channel();
+      channel = NettyClient.acquireChannel(address);
+      handler = channel.pipeline().get(ClientHandler.class);
       listener = new SingleResponseListener();
-      mHandler.addListener(listener);
+      handler.addListener(listener);
       channel.writeAndFlush(new RPCFileWriteRequest(ufsFileId, fileOffset, length,
           new DataByteArrayChannel(bytes, offset, length)));
 
       RPCResponse response = listener.get(NettyClient.TIMEOUT_MS, TimeUnit.MILLISECONDS);
-      channel.close().sync();
+      // The response has been fully received, so the channel can be reused by other requests.
+      reusable = true;
 
       switch (response.getType()) {
         case RPC_FILE_WRITE_RESPONSE:
@@ -103,7 +95,14 @@ public final class NettyUnderFileSystemFileWriter {
       throw new IOException(e);
     } finally {
       if (listener != null) {
-        mHandler.removeListener(listener);
+        handler.removeListener(listener);
+      }
+      if (channel != null) {
+        if (reusable) {
+          NettyClient.releaseChannel(address, channel);
+        } else {
+          NettyClient.discardChannel(address, channel);
+        }
       }
     }
   }
@@ -11,10 +11,12 @@
 
 package alluxio.client.block;
 
+import alluxio.Constants;
 import alluxio.resource.DummyCloseableResource;
 import alluxio.util.network.NetworkAddressUtils;
 import alluxio.wire.BlockInfo;
 import alluxio.wire.BlockLocation;
+import alluxio.wire.FileBlockInfo;
 import alluxio.wire.LockBlockResult;
 import alluxio.wire.WorkerNetAddress;
 
@@ -32,6 +34,7 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import org.powermock.reflect.Whitebox;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.Arrays;
 
@@ -77,13 +80,14 @@ public final class AlluxioBlockStoreTest {
   public TemporaryFolder mTestFolder = new TemporaryFolder();
 
   private static AlluxioBlockStore sBlockStore;
+  private static BlockStoreContext sBlockStoreContext;
   private static BlockMasterClient sMasterClient;
   private static BlockWorkerClient sBlockWorkerClient;
 
   @BeforeClass
   public static void beforeClass() throws Exception {
     // Replace the singleton BlockStoreContext.INSTANCE with a mock we can control
-    BlockStoreContext sBlockStoreContext = PowerMockito.mock(BlockStoreContext.class);
+    sBlockStoreContext = PowerMockito.mock(BlockStoreContext.class);
     Whitebox.setInternalState(BlockStoreContext.class, "INSTANCE", sBlockStoreContext);
 
     // Mock block store should return our mock clients
@@ -105,6 +109,8 @@ public final class AlluxioBlockStoreTest {
     // When a block lock for id BLOCK_ID is requested, a path to a temporary file is returned
     Mockito.when(sBlockWorkerClient.lockBlock(BLOCK_ID)).thenReturn(
         new LockBlockResult().setLockId(LOCK_ID).setBlockPath(mTestFile.getAbsolutePath()));
+    Mockito.when(sBlockStoreContext.getBlockInfoCache())
+        .thenReturn(new BlockInfoCache(100, Constants.HOUR_MS));
   }
 
   /**
@@ -141,4 +147,45 @@ public final class AlluxioBlockStoreTest {
     Assert.assertEquals(new InetSocketAddress(WORKER_HOSTNAME_REMOTE, WORKER_DATA_PORT),
         Whitebox.getInternalState(stream, "mWorkerInetSocketAddress"));
   }
+
+  /**
+   * Tests that {@link AlluxioBlockStore#getInStream(long)} uses the block locations cached from the
+   * status of a file instead of asking the master.
+   */
+  @Test
+  public void getInStreamCachedTest() throws Exception {
+    Mockito.reset(sMasterClient);
+    PowerMockito.mockStatic(NetworkAddressUtils.class);
+    Mockito.when(NetworkAddressUtils.getLocalHostName()).thenReturn(WORKER_HOSTNAME_LOCAL);
+    sBlockStore.cacheInfos(Arrays.asList(new FileBlockInfo().setBlockInfo(BLOCK_INFO)));
+    BufferedBlockInStream stream = sBlockStore.getInStream(BLOCK_ID);
+
+    Assert.assertTrue(stream instanceof LocalBlockInStream);
+    Mockito.verify(sMasterClient, Mockito.never()).getBlockInfo(BLOCK_ID);
+  }
+
+  /**
+   * Tests that {@link AlluxioBlockStore#getInStream(long)} asks the master for the block locations
+   * when the cached locations of the block cannot be read from.
+   */
+  @Test
+  public void getInStreamStaleCacheTest() throws Exception {
+    Mockito.reset(sMasterClient);
+    Mockito.when(sMasterClient.getBlockInfo(BLOCK_ID)).thenReturn(BLOCK_INFO);
+    PowerMockito.mockStatic(NetworkAddressUtils.class);
+    Mockito.when(NetworkAddressUtils.getLocalHostName()).thenReturn(WORKER_HOSTNAME_LOCAL);
+    WorkerNetAddress staleAddress = new WorkerNetAddress().setHost("stale")
+        .setRpcPort(WORKER_RPC_PORT).setDataPort(WORKER_DATA_PORT).setWebPort(WORKER_WEB_PORT);
+    Mockito.when(sBlockStoreContext.acquireWorkerClient(staleAddress))
+        .thenThrow(new IOException("stale location"));
+    BlockInfo staleInfo = new BlockInfo().setBlockId(BLOCK_ID).setLength(BLOCK_LENGTH)
+        .setLocations(Arrays.asList(new BlockLocation().setWorkerAddress(staleAddress)));
+    sBlockStore.cacheInfos(Arrays.asList(new FileBlockInfo().setBlockInfo(staleInfo)));
+    BufferedBlockInStream stream = sBlockStore.getInStream(BLOCK_ID);
+
+    Assert.assertTrue(stream instanceof LocalBlockInStream);
+    Mockito.verify(sMasterClient).getBlockInfo(BLOCK_ID);
+    // The locations from the master replace the stale ones.
+    Assert.assertSame(BLOCK_INFO, sBlockStoreContext.getBlockInfoCache().get(BLOCK_ID));
+  }
 }
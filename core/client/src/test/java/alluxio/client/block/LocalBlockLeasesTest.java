@@ -0,0 +1,142 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.block;
+
+import alluxio.util.CommonUtils;
+import alluxio.wire.LockBlockResult;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+/**
+ * Tests {@link LocalBlockLeases}.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(BlockWorkerClient.class)
+public final class LocalBlockLeasesTest {
+  private static final long BLOCK_ID = 1;
+  private static final long LEASE_MS = 10;
+
+  private BlockWorkerClient mClient;
+  private LocalBlockLeases mLeases;
+
+  /**
+   * Sets up the leases with a mocked worker client.
+   */
+  @Before
+  public void before() throws Exception {
+    mClient = PowerMockito.mock(BlockWorkerClient.class);
+    Mockito.when(mClient.lockBlock(BLOCK_ID))
+        .thenReturn(new LockBlockResult().setLockId(1).setBlockPath("/block"));
+    mLeases = new LocalBlockLeases(mClient, LEASE_MS, false);
+  }
+
+  /**
+   * Tests that a block is locked once for all the reads within the lease time, and that it is
+   * accessed and unlocked once the lease expires.
+   */
+  @Test
+  public void acquireTest() throws Exception {
+    LocalBlockLeases.Lease lease1 = mLeases.acquire(BLOCK_ID);
+    LocalBlockLeases.Lease lease2 = mLeases.acquire(BLOCK_ID);
+    Assert.assertSame(lease1, lease2);
+    Assert.assertEquals("/block", lease1.getLockBlockResult().getBlockPath());
+    mLeases.release(lease1, true);
+    mLeases.release(lease2, false);
+    LocalBlockLeases.Lease lease3 = mLeases.acquire(BLOCK_ID);
+    Assert.assertEquals("/block", lease3.getLockBlockResult().getBlockPath());
+    mLeases.release(lease3, false);
+    Mockito.verify(mClient).lockBlock(BLOCK_ID);
+    Mockito.verify(mClient, Mockito.never()).unlockBlock(BLOCK_ID);
+
+    CommonUtils.sleepMs(2 * LEASE_MS);
+    mLeases.releaseExpiredLeases();
+    Assert.assertEquals(0, mLeases.size());
+    Mockito.verify(mClient).accessBlock(BLOCK_ID);
+    Mockito.verify(mClient).unlockBlock(BLOCK_ID);
+  }
+
+  /**
+   * Tests that a lease in use does not expire.
+   */
+  @Test
+  public void leaseInUseTest() throws Exception {
+    mLeases.acquire(BLOCK_ID);
+    CommonUtils.sleepMs(2 * LEASE_MS);
+    mLeases.releaseExpiredLeases();
+    Assert.assertEquals(1, mLeases.size());
+    Mockito.verify(mClient, Mockito.never()).unlockBlock(BLOCK_ID);
+  }
+
+  /**
+   * Tests that an invalidated lease is unlocked right away, and that the block is locked again by
+   * the next read.
+   */
+  @Test
+  public void invalidateTest() throws Exception {
+    LocalBlockLeases.Lease lease = mLeases.acquire(BLOCK_ID);
+    mLeases.release(lease, false);
+    mLeases.invalidate(lease);
+    Mockito.verify(mClient).unlockBlock(BLOCK_ID);
+    Assert.assertEquals(0, mLeases.size());
+
+    mLeases.acquire(BLOCK_ID);
+    Mockito.verify(mClient, Mockito.times(2)).lockBlock(BLOCK_ID);
+  }
+
+  /**
+   * Tests that an invalidated lease is only unlocked once all the streams using it released it,
+   * and that releasing it does not affect the lease which replaced it.
+   */
+  @Test
+  public void invalidateInUseTest() throws Exception {
+    LocalBlockLeases.Lease reading = mLeases.acquire(BLOCK_ID);
+    LocalBlockLeases.Lease failed = mLeases.acquire(BLOCK_ID);
+    mLeases.invalidate(failed);
+    mLeases.release(failed, false);
+    Mockito.verify(mClient, Mockito.never()).unlockBlock(BLOCK_ID);
+
+    LocalBlockLeases.Lease replacement = mLeases.acquire(BLOCK_ID);
+    Assert.assertNotSame(reading, replacement);
+    Mockito.verify(mClient, Mockito.times(2)).lockBlock(BLOCK_ID);
+
+    mLeases.release(reading, true);
+    Mockito.verify(mClient).accessBlock(BLOCK_ID);
+    Mockito.verify(mClient).unlockBlock(BLOCK_ID);
+    Assert.assertEquals(1, mLeases.size());
+
+    // The replacement lease is still in use, so it does not expire.
+    CommonUtils.sleepMs(2 * LEASE_MS);
+    mLeases.releaseExpiredLeases();
+    Assert.assertEquals(1, mLeases.size());
+    mLeases.release(replacement, false);
+    CommonUtils.sleepMs(2 * LEASE_MS);
+    mLeases.releaseExpiredLeases();
+    Assert.assertEquals(0, mLeases.size());
+    Mockito.verify(mClient, Mockito.times(2)).unlockBlock(BLOCK_ID);
+  }
+
+  /**
+   * Tests that no lease is taken on a block which is not in the worker.
+   */
+  @Test
+  public void acquireMissingBlockTest() throws Exception {
+    Assert.assertNull(mLeases.acquire(BLOCK_ID + 1));
+    Assert.assertEquals(0, mLeases.size());
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.block;
+
+import alluxio.client.RemoteBlockWriter;
+import alluxio.wire.WorkerNetAddress;
+import alluxio.worker.ClientMetrics;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import java.io.IOException;
+
+/**
+ * Tests for {@link RemoteBlockOutStream}.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({BlockStoreContext.class, BlockWorkerClient.class, RemoteBlockWriter.Factory.class})
+public final class RemoteBlockOutStreamTest {
+  private static final long BLOCK_ID = 1L;
+  private static final long BLOCK_SIZE = 100L;
+
+  private BlockStoreContext mContext;
+  private BlockWorkerClient mBlockWorkerClient;
+  private RemoteBlockWriter mRemoteWriter;
+  private RemoteBlockOutStream mStream;
+
+  /**
+   * Sets up a stream writing through a mocked writer and worker client.
+   */
+  @Before
+  public void before() throws Exception {
+    mContext = PowerMockito.mock(BlockStoreContext.class);
+    Whitebox.setInternalState(BlockStoreContext.class, "INSTANCE", mContext);
+    mBlockWorkerClient = PowerMockito.mock(BlockWorkerClient.class);
+    Mockito.when(mContext.acquireWorkerClient(Mockito.any(WorkerNetAddress.class)))
+        .thenReturn(mBlockWorkerClient);
+    Mockito.when(mBlockWorkerClient.getClientMetrics()).thenReturn(new ClientMetrics());
+    mRemoteWriter = Mockito.mock(RemoteBlockWriter.class);
+    PowerMockito.mockStatic(RemoteBlockWriter.Factory.class);
+    Mockito.when(RemoteBlockWriter.Factory.create()).thenReturn(mRemoteWriter);
+    mStream = new RemoteBlockOutStream(BLOCK_ID, BLOCK_SIZE, new WorkerNetAddress());
+  }
+
+  /**
+   * Tests that a stream failing to write its last bytes when closed is still closed, and releases
+   * its writer and worker client.
+   */
+  @Test
+  public void closeFailedFlushTest() throws Exception {
+    Mockito.doThrow(new IOException("write failed")).when(mRemoteWriter)
+        .write(Mockito.any(byte[].class), Mockito.anyInt(), Mockito.anyInt());
+    mStream.write(1);
+    try {
+      mStream.close();
+      Assert.fail("Closing the stream should fail");
+    } catch (IOException e) {
+      // Expected.
+    }
+    Mockito.verify(mRemoteWriter).close();
+    Mockito.verify(mContext).releaseWorkerClient(mBlockWorkerClient);
+    Mockito.verify(mBlockWorkerClient, Mockito.never()).cacheBlock(BLOCK_ID);
+
+    // The stream is closed, closing it again does nothing.
+    mStream.close();
+    Mockito.verify(mRemoteWriter).write(Mockito.any(byte[].class), Mockito.anyInt(),
+        Mockito.anyInt());
+    Mockito.verify(mContext).releaseWorkerClient(mBlockWorkerClient);
+  }
+
+  /**
+   * Tests that a stream failing to close its writer when closed is still closed, and releases its
+   * worker client.
+   */
+  @Test
+  public void closeFailedWriterCloseTest() throws Exception {
+    Mockito.doThrow(new IOException("close failed")).when(mRemoteWriter).close();
+    mStream.write(1);
+    try {
+      mStream.close();
+      Assert.fail("Closing the stream should fail");
+    } catch (IOException e) {
+      // Expected.
+    }
+    Mockito.verify(mContext).releaseWorkerClient(mBlockWorkerClient);
+    Mockito.verify(mBlockWorkerClient, Mockito.never()).cacheBlock(BLOCK_ID);
+  }
+
+  /**
+   * Tests that canceling a stream cancels the block even if the writer fails to close.
+   */
+  @Test
+  public void cancelFailedWriterCloseTest() throws Exception {
+    Mockito.doThrow(new IOException("close failed")).when(mRemoteWriter).close();
+    mStream.write(1);
+    mStream.cancel();
+    Mockito.verify(mBlockWorkerClient).cancelBlock(BLOCK_ID);
+    Mockito.verify(mContext).releaseWorkerClient(mBlockWorkerClient);
+  }
+}
@@ -12,7 +12,9 @@
 package alluxio.client.file;
 
 import alluxio.AlluxioURI;
+import alluxio.Constants;
 import alluxio.client.ClientContext;
+import alluxio.client.block.AlluxioBlockStore;
 import alluxio.client.file.options.CreateDirectoryOptions;
 import alluxio.client.file.options.CreateFileOptions;
 import alluxio.client.file.options.DeleteOptions;
@@ -45,7 +47,8 @@ import java.util.List;
 * Unit test for functionality in {@link BaseFileSystem}.
 */
 @RunWith(PowerMockRunner.class)
-@PrepareForTest({FileSystemContext.class, FileSystemMasterClient.class, ClientContext.class})
+@PrepareForTest({FileSystemContext.class, FileSystemMasterClient.class, ClientContext.class,
+    AlluxioBlockStore.class})
 public final class BaseFileSystemTest {
 
   private static final RuntimeException EXCEPTION = new RuntimeException("test exception");
@@ -69,6 +72,10 @@ public final class BaseFileSystemTest {
     Whitebox.setInternalState(mFileSystem, "mContext", mFileContext);
     mFileSystemMasterClient = PowerMockito.mock(FileSystemMasterClient.class);
     Mockito.when(mFileContext.acquireMasterClient()).thenReturn(mFileSystemMasterClient);
+    Mockito.when(mFileContext.getURIStatusCache())
+        .thenReturn(new URIStatusCache(100, Constants.HOUR_MS));
+    Mockito.when(mFileContext.getAlluxioBlockStore())
+        .thenReturn(PowerMockito.mock(AlluxioBlockStore.class));
   }
 
   /**
@@ -330,6 +337,21 @@ public final class BaseFileSystemTest {
     Mockito.verify(mFileSystemMasterClient).getStatus(file);
   }
 
+  /**
+   * Tests that {@link BaseFileSystem#openFile(AlluxioURI, OpenFileOptions)} opens a completed file
+   * again without asking the master for its status.
+   */
+  @Test
+  public void openFileCachedTest() throws Exception {
+    AlluxioURI file = new AlluxioURI("/file");
+    URIStatus status = new URIStatus(new FileInfo().setPath("/file").setCompleted(true));
+    Mockito.when(mFileSystemMasterClient.getStatus(file)).thenReturn(status);
+    OpenFileOptions openOptions = OpenFileOptions.defaults();
+    mFileSystem.openFile(file, openOptions);
+    mFileSystem.openFile(file, openOptions);
+    Mockito.verify(mFileSystemMasterClient).getStatus(file);
+  }
+
   /**
    * Ensures that an exception is propagated successfully when opening a file.
    */
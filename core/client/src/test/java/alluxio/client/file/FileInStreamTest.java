@@ -574,6 +574,54 @@ public class FileInStreamTest {
     }
   }
 
+  /**
+   * Tests that reading a file with read-ahead enabled yields the correct data and caches it, while
+   * each block is opened only once.
+   */
+  @Test
+  public void readAheadTest() throws Exception {
+    // Only buffer a part of each block, so reads cross from the buffer to the block stream.
+    mTestStream = new FileInStream(mStatus, InStreamOptions.defaults()
+        .setReadType(ReadType.CACHE_PROMOTE).setCachePartiallyReadBlock(false)
+        .setReadAheadBytes(BLOCK_LENGTH / 2));
+    int chunkSize = 30;
+    byte[] buffer = new byte[chunkSize];
+    for (int offset = 0; offset < FILE_LENGTH; offset += chunkSize) {
+      int len = (int) Math.min(chunkSize, FILE_LENGTH - offset);
+      Assert.assertEquals(len, mTestStream.read(buffer, 0, len));
+      for (int i = 0; i < len; i++) {
+        Assert.assertEquals((byte) (offset + i), buffer[i]);
+      }
+    }
+    Assert.assertEquals(-1, mTestStream.read());
+    verifyCacheStreams(FILE_LENGTH);
+    mTestStream.close();
+    for (long i = 0; i < NUM_STREAMS; i++) {
+      Mockito.verify(mBlockStore).getInStream(i);
+    }
+  }
+
+  /**
+   * Tests seeking within a block which was read ahead, both into and past its buffered prefix.
+   */
+  @Test
+  public void readAheadSeekTest() throws Exception {
+    mTestStream = new FileInStream(mStatus, InStreamOptions.defaults()
+        .setReadType(ReadType.NO_CACHE).setReadAheadBytes(BLOCK_LENGTH / 2));
+    // Reading the first block starts reading the second block ahead.
+    Assert.assertEquals(0, mTestStream.read());
+    int readAmount = 20;
+    byte[] buffer = new byte[readAmount];
+    for (long pos : new long[] {BLOCK_LENGTH + 60, BLOCK_LENGTH + 10, BLOCK_LENGTH + 45}) {
+      mTestStream.seek(pos);
+      Assert.assertEquals(readAmount, mTestStream.read(buffer));
+      Assert.assertArrayEquals(BufferUtils.getIncreasingByteArray((int) pos, readAmount), buffer);
+      Assert.assertEquals(FILE_LENGTH - pos - readAmount, mTestStream.remaining());
+    }
+    mTestStream.close();
+    Mockito.verify(mBlockStore).getInStream(1L);
+  }
+
   /**
    * Tests that reading dataRead bytes into a buffer will properly write those bytes to the cache
    * streams and that the correct bytes are read from the {@link FileInStream}.
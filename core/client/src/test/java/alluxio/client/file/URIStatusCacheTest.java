@@ -0,0 +1,94 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file;
+
+import alluxio.AlluxioURI;
+import alluxio.Constants;
+import alluxio.wire.FileInfo;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link URIStatusCache} class.
+ */
+public final class URIStatusCacheTest {
+  /**
+   * Tests that only completed files are cached.
+   */
+  @Test
+  public void putTest() {
+    URIStatusCache cache = new URIStatusCache(100, Constants.HOUR_MS);
+    URIStatus completed = newStatus("/completed", true);
+    cache.put(completed);
+    cache.put(newStatus("/incomplete", false));
+    cache.put(new URIStatus(new FileInfo().setPath("/dir").setFolder(true).setCompleted(true)));
+
+    Assert.assertSame(completed, cache.get(new AlluxioURI("/completed")));
+    Assert.assertNull(cache.get(new AlluxioURI("/incomplete")));
+    Assert.assertNull(cache.get(new AlluxioURI("/dir")));
+  }
+
+  /**
+   * Tests that invalidating a path drops the path and the paths under it, but not the paths which
+   * only share a prefix with it.
+   */
+  @Test
+  public void invalidateTest() {
+    URIStatusCache cache = new URIStatusCache(100, Constants.HOUR_MS);
+    cache.put(newStatus("/dir", true));
+    cache.put(newStatus("/dir/file", true));
+    cache.put(newStatus("/dir/sub/file", true));
+    cache.put(newStatus("/dir2/file", true));
+
+    cache.invalidate(new AlluxioURI("/dir"));
+    Assert.assertNull(cache.get(new AlluxioURI("/dir")));
+    Assert.assertNull(cache.get(new AlluxioURI("/dir/file")));
+    Assert.assertNull(cache.get(new AlluxioURI("/dir/sub/file")));
+    Assert.assertNotNull(cache.get(new AlluxioURI("/dir2/file")));
+
+    cache.invalidate(new AlluxioURI("/"));
+    Assert.assertNull(cache.get(new AlluxioURI("/dir2/file")));
+  }
+
+  /**
+   * Tests that the paths evicted from the cache or invalidated can be cached and invalidated again.
+   */
+  @Test
+  public void invalidateAfterEvictionTest() {
+    URIStatusCache cache = new URIStatusCache(1, Constants.HOUR_MS);
+    cache.put(newStatus("/dir/file1", true));
+    cache.put(newStatus("/dir/file2", true));
+    Assert.assertNull(cache.get(new AlluxioURI("/dir/file1")));
+
+    cache.invalidate(new AlluxioURI("/dir"));
+    Assert.assertNull(cache.get(new AlluxioURI("/dir/file2")));
+    cache.put(newStatus("/dir/file2", true));
+    Assert.assertNotNull(cache.get(new AlluxioURI("/dir/file2")));
+    cache.invalidate(new AlluxioURI("/dir"));
+    Assert.assertNull(cache.get(new AlluxioURI("/dir/file2")));
+  }
+
+  /**
+   * Tests that nothing is cached when the maximum size is 0.
+   */
+  @Test
+  public void disabledTest() {
+    URIStatusCache cache = new URIStatusCache(0, Constants.HOUR_MS);
+    cache.put(newStatus("/file", true));
+    Assert.assertNull(cache.get(new AlluxioURI("/file")));
+  }
+
+  private static URIStatus newStatus(String path, boolean completed) {
+    return new URIStatus(new FileInfo().setPath(path).setCompleted(completed));
+  }
+}
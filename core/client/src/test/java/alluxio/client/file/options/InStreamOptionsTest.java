@@ -35,6 +35,7 @@ public class InStreamOptionsTest {
     InStreamOptions options = InStreamOptions.defaults();
     Assert.assertEquals(AlluxioStorageType.PROMOTE, options.getAlluxioStorageType());
     Assert.assertEquals(Constants.MB, options.getSeekBufferSizeBytes());
+    Assert.assertEquals(0, options.getReadAheadBytes());
   }
 
   /**
@@ -50,11 +51,13 @@ public class InStreamOptionsTest {
     options.setLocationPolicy(policy);
     options.setCachePartiallyReadBlock(true);
     options.setSeekBufferSizeBytes(Constants.MB);
+    options.setReadAheadBytes(4 * Constants.MB);
 
     Assert.assertEquals(options.getAlluxioStorageType(), readType.getAlluxioStorageType());
     Assert.assertEquals(policy, options.getLocationPolicy());
     Assert.assertTrue(options.isCachePartiallyReadBlock());
     Assert.assertEquals(Constants.MB, options.getSeekBufferSizeBytes());
+    Assert.assertEquals(4 * Constants.MB, options.getReadAheadBytes());
   }
 
   /**
@@ -34,6 +34,11 @@ public class ListStatusOptionsTest {
   public void fieldsTest() {
     ListStatusOptions options = ListStatusOptions.defaults();
     Assert.assertEquals(LoadMetadataType.Once, options.getLoadMetadataType());
+    Assert.assertNull(options.getStartAfter());
+    Assert.assertEquals(0, options.getBatchSize());
+    options.setStartAfter("file").setBatchSize(10);
+    Assert.assertEquals("file", options.getStartAfter());
+    Assert.assertEquals(10, options.getBatchSize());
   }
 
   @Test
@@ -41,6 +46,12 @@ public class ListStatusOptionsTest {
     ListStatusOptions options = ListStatusOptions.defaults();
     ListStatusTOptions thriftOptions = options.toThrift();
     Assert.assertEquals(LoadMetadataTType.Once, thriftOptions.getLoadMetadataType());
+    Assert.assertFalse(thriftOptions.isSetStartAfter());
+    Assert.assertFalse(thriftOptions.isSetBatchSize());
+
+    thriftOptions = options.setStartAfter("file").setBatchSize(10).toThrift();
+    Assert.assertEquals("file", thriftOptions.getStartAfter());
+    Assert.assertEquals(10, thriftOptions.getBatchSize());
   }
 
   @Test
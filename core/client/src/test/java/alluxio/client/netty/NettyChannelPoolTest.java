@@ -0,0 +1,115 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.netty;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Tests for the {@link NettyChannelPool} class.
+ */
+public class NettyChannelPoolTest {
+  private EventLoopGroup mServerGroup;
+  private Channel mServerChannel;
+  private NettyChannelPool mPool;
+
+  /**
+   * Starts a server which accepts connections but never responds, and creates a pool connecting
+   * to it.
+   */
+  @Before
+  public void before() throws Exception {
+    mServerGroup = new NioEventLoopGroup(1);
+    mServerChannel = new ServerBootstrap().group(mServerGroup).channel(NioServerSocketChannel.class)
+        .childHandler(new ChannelInitializer<SocketChannel>() {
+          @Override
+          protected void initChannel(SocketChannel ch) {}
+        }).bind(new InetSocketAddress("localhost", 0)).sync().channel();
+    mPool = new NettyChannelPool((InetSocketAddress) mServerChannel.localAddress(), 2);
+  }
+
+  /**
+   * Shuts down the pool and the server.
+   */
+  @After
+  public void after() throws Exception {
+    mPool.close();
+    mServerChannel.close().sync();
+    mServerGroup.shutdownGracefully();
+  }
+
+  /**
+   * Tests that a released channel is kept open and handed out again.
+   */
+  @Test
+  public void reuseReleasedChannelTest() {
+    Channel channel = mPool.acquire();
+    Assert.assertTrue(channel.isActive());
+    Assert.assertNotNull(channel.pipeline().get(ClientHandler.class));
+    mPool.release(channel);
+
+    Assert.assertSame(channel, mPool.acquire());
+    Assert.assertTrue(channel.isActive());
+  }
+
+  /**
+   * Tests that concurrently acquired channels are distinct connections.
+   */
+  @Test
+  public void acquireDistinctChannelsTest() {
+    Channel channel1 = mPool.acquire();
+    Channel channel2 = mPool.acquire();
+    Assert.assertNotSame(channel1, channel2);
+  }
+
+  /**
+   * Tests that a discarded channel is closed and its slot in the pool is freed.
+   */
+  @Test
+  public void discardChannelTest() throws Exception {
+    Channel channel1 = mPool.acquire();
+    Channel channel2 = mPool.acquire();
+    mPool.discard(channel1);
+    channel1.closeFuture().sync();
+
+    // The pool is at capacity, so this only succeeds because the discarded slot was freed.
+    Channel channel3 = mPool.acquire();
+    Assert.assertNotSame(channel1, channel3);
+    Assert.assertNotSame(channel2, channel3);
+    Assert.assertTrue(channel3.isActive());
+  }
+
+  /**
+   * Tests that a channel which was closed while idle in the pool is not handed out again.
+   */
+  @Test
+  public void skipClosedChannelTest() throws Exception {
+    Channel channel = mPool.acquire();
+    mPool.release(channel);
+    channel.close().sync();
+
+    Channel newChannel = mPool.acquire();
+    Assert.assertNotSame(channel, newChannel);
+    Assert.assertTrue(newChannel.isActive());
+  }
+}
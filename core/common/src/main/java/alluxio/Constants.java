@@ -141,6 +141,12 @@ public final class Constants {
   public static final String UNDERFS_GLUSTERFS_MOUNTS = "alluxio.underfs.glusterfs.mounts";
   public static final String UNDERFS_GLUSTERFS_MR_DIR =
       "alluxio.underfs.glusterfs.mapred.system.dir";
+  public static final String UNDERFS_MULTIPART_UPLOAD_ENABLED =
+      "alluxio.underfs.multipart.upload.enabled";
+  public static final String UNDERFS_MULTIPART_UPLOAD_PARTITION_SIZE =
+      "alluxio.underfs.multipart.upload.partition.size";
+  public static final String UNDERFS_MULTIPART_UPLOAD_THREADS =
+      "alluxio.underfs.multipart.upload.threads";
   public static final String UNDERFS_OSS_CONNECT_MAX = "alluxio.underfs.oss.connection.max";
   public static final String UNDERFS_OSS_CONNECT_TIMEOUT =
       "alluxio.underfs.oss.connection.timeout.ms";
@@ -171,6 +177,16 @@ public final class Constants {
   public static final String KEY_VALUE_ENABLED = "alluxio.keyvalue.enabled";
   public static final String KEY_VALUE_PARTITION_SIZE_BYTES_MAX =
       "alluxio.keyvalue.partition.size.bytes.max";
+  public static final String KEY_VALUE_PARTITION_BLOOM_FILTER_BITS_PER_KEY =
+      "alluxio.keyvalue.partition.bloom.filter.bits.per.key";
+  public static final String KEY_VALUE_PARTITION_INDEX_TYPE =
+      "alluxio.keyvalue.partition.index.type";
+  public static final String KEY_VALUE_READER_PARTITION_CACHE_SIZE =
+      "alluxio.keyvalue.reader.partition.cache.size";
+  public static final String KEY_VALUE_WORKER_READER_CACHE_SIZE =
+      "alluxio.keyvalue.worker.reader.cache.size";
+  public static final String KEY_VALUE_WRITER_PARTITION_COMPLETION_THREADS =
+      "alluxio.keyvalue.writer.partition.completion.threads";
   public static final String METRICS_CONF_FILE = "alluxio.metrics.conf.file";
   public static final String FORMAT_FILE_PREFIX = "_format_";
 
@@ -205,11 +221,21 @@ public final class Constants {
       "alluxio.integration.worker.resource.mem";
 
   public static final String MASTER_FORMAT_FILE_PREFIX = "alluxio.master.format.file_prefix";
+  public static final String MASTER_JOURNAL_CHECKPOINT_PERIOD_ENTRIES =
+      "alluxio.master.journal.checkpoint.period.entries";
+  public static final String MASTER_JOURNAL_CHECKPOINT_PERIOD_MS =
+      "alluxio.master.journal.checkpoint.period.ms";
   public static final String MASTER_JOURNAL_FLUSH_BATCH_TIME_MS =
       "alluxio.master.journal.flush.batch.time.ms";
   public static final String MASTER_JOURNAL_FOLDER = "alluxio.master.journal.folder";
   public static final String MASTER_JOURNAL_FORMATTER_CLASS =
       "alluxio.master.journal.formatter.class";
+  public static final String MASTER_JOURNAL_QUEUE_SIZE_MAX =
+      "alluxio.master.journal.queue.size.max";
+  public static final String MASTER_JOURNAL_REPLAY_BATCH_SIZE =
+      "alluxio.master.journal.replay.batch.size";
+  public static final String MASTER_JOURNAL_REPLAY_THREADS =
+      "alluxio.master.journal.replay.threads";
   public static final String MASTER_JOURNAL_TAILER_SHUTDOWN_QUIET_WAIT_TIME_MS =
       "alluxio.master.journal.tailer.shutdown.quiet.wait.time.ms";
   public static final String MASTER_JOURNAL_TAILER_SLEEP_TIME_MS =
@@ -227,8 +253,16 @@ public final class Constants {
   public static final String MASTER_WEB_BIND_HOST = "alluxio.master.web.bind.host";
   public static final String MASTER_WEB_PORT = "alluxio.master.web.port";
   public static final String MASTER_HEARTBEAT_INTERVAL_MS = "alluxio.master.heartbeat.interval.ms";
+  public static final String MASTER_METADATA_LOAD_THREADS =
+      "alluxio.master.metadata.load.threads";
+  public static final String MASTER_TTL_CHECKER_BATCH_SIZE =
+      "alluxio.master.ttl.checker.batch.size";
   public static final String MASTER_TTL_CHECKER_INTERVAL_MS =
       "alluxio.master.ttl.checker.interval.ms";
+  public static final String MASTER_TTL_CHECKER_RATE_LIMIT =
+      "alluxio.master.ttl.checker.rate.limit";
+  public static final String MASTER_WORKER_REGISTER_CONCURRENCY =
+      "alluxio.master.worker.register.concurrency";
   public static final String MASTER_WORKER_THREADS_MAX = "alluxio.master.worker.threads.max";
   public static final String MASTER_WORKER_THREADS_MIN = "alluxio.master.worker.threads.min";
   public static final String MASTER_WORKER_TIMEOUT_MS = "alluxio.master.worker.timeout.ms";
@@ -266,9 +300,13 @@ public final class Constants {
       "alluxio.worker.block.heartbeat.timeout.ms";
   public static final String WORKER_BLOCK_HEARTBEAT_INTERVAL_MS =
       "alluxio.worker.block.heartbeat.interval.ms";
+  public static final String WORKER_BLOCK_REGISTER_BATCH_SIZE =
+      "alluxio.worker.block.register.batch.size";
   public static final String WORKER_SESSION_TIMEOUT_MS = "alluxio.worker.session.timeout.ms";
   public static final String WORKER_WORKER_BLOCK_THREADS_MAX = "alluxio.worker.block.threads.max";
   public static final String WORKER_WORKER_BLOCK_THREADS_MIN = "alluxio.worker.block.threads.min";
+  public static final String WORKER_NETWORK_NETTY_BLOCK_WRITE_RESERVATION_BYTES =
+      "alluxio.worker.network.netty.block.write.reservation.bytes";
   public static final String WORKER_NETWORK_NETTY_BOSS_THREADS =
       "alluxio.worker.network.netty.boss.threads";
   public static final String WORKER_NETWORK_NETTY_WORKER_THREADS =
@@ -353,8 +391,18 @@ public final class Constants {
   public static final String USER_NETWORK_NETTY_CHANNEL = "alluxio.user.network.netty.channel";
   public static final String USER_NETWORK_NETTY_TIMEOUT_MS =
       "alluxio.user.network.netty.timeout.ms";
+  public static final String USER_NETWORK_NETTY_CHANNEL_POOL_SIZE_MAX =
+      "alluxio.user.network.netty.channel.pool.size.max";
   public static final String USER_BLOCK_REMOTE_READ_BUFFER_SIZE_BYTES =
       "alluxio.user.block.remote.read.buffer.size.bytes";
+  public static final String USER_BLOCK_REMOTE_READ_STREAM_ENABLED =
+      "alluxio.user.block.remote.read.stream.enabled";
+  public static final String USER_BLOCK_REMOTE_READ_STREAM_CHUNK_SIZE_BYTES =
+      "alluxio.user.block.remote.read.stream.chunk.size.bytes";
+  public static final String USER_BLOCK_REMOTE_READ_STREAM_WINDOW_CHUNKS =
+      "alluxio.user.block.remote.read.stream.window.chunks";
+  public static final String USER_FILE_LIST_STATUS_BATCH_SIZE =
+      "alluxio.user.file.list.status.batch.size";
   public static final String USER_FILE_WRITE_TYPE_DEFAULT = "alluxio.user.file.writetype.default";
   public static final String USER_FILE_READ_TYPE_DEFAULT = "alluxio.user.file.readtype.default";
   public static final String USER_FILE_WRITE_LOCATION_POLICY =
@@ -363,10 +411,19 @@ public final class Constants {
       "alluxio.user.file.cache.partially.read.block";
   public static final String USER_FILE_SEEK_BUFFER_SIZE_BYTES =
       "alluxio.user.file.seek.buffer.size.bytes";
+  public static final String USER_FILE_READ_AHEAD_BYTES = "alluxio.user.file.read.ahead.bytes";
+  public static final String USER_FILE_READ_AHEAD_THREADS =
+      "alluxio.user.file.read.ahead.threads";
   public static final String USER_BLOCK_REMOTE_READER =
       "alluxio.user.block.remote.reader.class";
+  public static final String USER_BLOCK_REMOTE_WRITE_WINDOW_PACKETS =
+      "alluxio.user.block.remote.write.window.packets";
   public static final String USER_BLOCK_REMOTE_WRITER =
       "alluxio.user.block.remote.writer.class";
+  public static final String USER_BLOCK_INFO_CACHE_MAX_SIZE =
+      "alluxio.user.block.info.cache.max.size";
+  public static final String USER_BLOCK_LOCAL_READ_LEASE_MS =
+      "alluxio.user.block.local.read.lease.ms";
   public static final String USER_BLOCK_WORKER_CLIENT_THREADS =
       "alluxio.user.block.worker.client.threads";
   public static final String USER_BLOCK_MASTER_CLIENT_THREADS =
@@ -378,6 +435,10 @@ public final class Constants {
   public static final String USER_LINEAGE_MASTER_CLIENT_THREADS =
       "alluxio.user.lineage.master.client.threads";
   public static final String USER_LINEAGE_ENABLED = "alluxio.user.lineage.enabled";
+  public static final String USER_METADATA_CACHE_EXPIRATION_MS =
+      "alluxio.user.metadata.cache.expiration.ms";
+  public static final String USER_METADATA_CACHE_MAX_SIZE =
+      "alluxio.user.metadata.cache.max.size";
   public static final String USER_FILE_WAITCOMPLETED_POLL_MS =
       "alluxio.user.file.waitcompleted.poll.ms";
   public static final String USER_UFS_DELEGATION_ENABLED =
@@ -427,7 +488,7 @@ public final class Constants {
   public static final String MASTER_COLUMN_FILE_PREFIX = "COL_";
 
   public static final long CLIENT_METRICS_VERSION = 1L;
-  public static final int CLIENT_METRICS_SIZE = 11;
+  public static final int CLIENT_METRICS_SIZE = 15;
   public static final int CLIENT_METRICS_VERSION_INDEX = 0;
   public static final int BLOCKS_READ_LOCAL_INDEX = 1;
   public static final int BLOCKS_READ_REMOTE_INDEX = 2;
@@ -439,6 +500,10 @@ public final class Constants {
   public static final int BYTES_WRITTEN_LOCAL_INDEX = 8;
   public static final int BYTES_WRITTEN_REMOTE_INDEX = 9;
   public static final int BYTES_WRITTEN_UFS_INDEX = 10;
+  public static final int BLOCKS_READ_AHEAD_HIT_INDEX = 11;
+  public static final int BLOCKS_READ_AHEAD_MISS_INDEX = 12;
+  public static final int METADATA_CACHE_HIT_INDEX = 13;
+  public static final int METADATA_CACHE_MISS_INDEX = 14;
 
   /**
    * Maximum number of seconds to wait for thrift servers to stop on shutdown. Tests use a value of
@@ -63,7 +63,10 @@ public enum ExceptionMessage {
   SEEK_PAST_EOF("Seek position is past EOF: {0}, fileSize: {1}"),
 
   // netty
+  BLOCK_STREAM_END_EXPECTED("Expected the end of the stream of blockId: {0}, address: {1}"),
+  BLOCK_STREAM_TIMEOUT("Timed out waiting for a chunk of blockId: {0}, address: {1}"),
   BLOCK_WRITE_ERROR("Error writing blockId: {0}, sessionId: {1}, address: {2}, message: {3}"),
+  BLOCK_WRITE_TIMEOUT("Timed out writing blockId: {0}, sessionId: {1}, address: {2}"),
   NO_RPC_HANDLER("No handler implementation for rpc message type: {0}"),
   UNEXPECTED_RPC_RESPONSE("Unexpected response message type: {0} (expected: {1})"),
   WRITER_ALREADY_OPEN("This writer is already open for address: {0}, blockId: {1}, sessionId: {2}"),
@@ -118,6 +121,8 @@ public enum ExceptionMessage {
 
   // block master
   NO_WORKER_FOUND("No worker with ID {0} is found"),
+  WORKER_REGISTRATION_NOT_STARTED(
+      "Worker with ID {0} continues a registration which was not started"),
 
   // file system master ufs
   FAILED_UFS_CREATE("Failed to create {0} in the under file system"),
@@ -178,6 +183,7 @@ public enum ExceptionMessage {
   KEY_VALUE_TOO_LARGE("Unable to put key-value pair: key {0} bytes, value {1} bytes"),
   INVALID_KEY_VALUE_STORE_URI("The URI {0} exists but is not a key-value store"),
   KEY_ALREADY_EXISTS("The input key already exists in the key-value store"),
+  KEY_RANGES_OVERLAP("The key ranges written to the key-value store {0} overlap"),
 
   // block worker
   FAILED_COMMIT_BLOCK_TO_MASTER("Failed to commit block {0} to master."),
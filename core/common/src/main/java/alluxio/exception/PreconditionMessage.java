@@ -29,9 +29,12 @@ public enum PreconditionMessage {
   ERR_BUFFER_STATE("Buffer length: %s, offset: %s, len: %s"),
   ERR_CLOSED_BLOCK_IN_STREAM("Cannot do operations on a closed BlockInStream"),
   ERR_CLOSED_BLOCK_OUT_STREAM("Cannot do operations on a closed BlockOutStream"),
+  ERR_CLOSED_KEY_VALUE_STORE_WRITER("Cannot do operations on a closed KeyValueStoreWriter"),
   ERR_CLOSED_UNDER_FILE_SYSTEM_FILE_OUT_STREAM(
       "Cannot do operations on a closed UnderFileSystemFileOutStream"),
   ERR_END_OF_BLOCK("Cannot write past end of block"),
+  ERR_KEY_VALUE_RANGE_WRITER_NOT_CLOSED(
+      "All the range writers must be closed before the KeyValueStoreWriter"),
   ERR_READ_BUFFER_NULL("Read buffer cannot be null"),
   ERR_PUT_EMPTY_KEY("Cannot put an empty buffer as a key"),
   ERR_PUT_EMPTY_VALUE("Cannot put an empty buffer as a value"),
@@ -35,6 +35,7 @@ public final class HeartbeatContext {
   public static final String MASTER_TTL_CHECK = "Master TTL Check";
   public static final String WORKER_BLOCK_SYNC = "Worker Block Sync";
   public static final String WORKER_CLIENT = "Worker Client";
+  public static final String WORKER_CLIENT_LEASE_EXPIRY = "Worker Client Lease Expiry";
   public static final String WORKER_FILESYSTEM_MASTER_SYNC = "Worker FileSystemMaster Sync";
   public static final String WORKER_PIN_LIST_SYNC = "Worker Pin List Sync";
 
@@ -48,6 +49,7 @@ public final class HeartbeatContext {
     sTimerClasses.put(WORKER_FILESYSTEM_MASTER_SYNC, SLEEPING_TIMER_CLASS);
     sTimerClasses.put(WORKER_BLOCK_SYNC, SLEEPING_TIMER_CLASS);
     sTimerClasses.put(WORKER_CLIENT, SLEEPING_TIMER_CLASS);
+    sTimerClasses.put(WORKER_CLIENT_LEASE_EXPIRY, SLEEPING_TIMER_CLASS);
     sTimerClasses.put(WORKER_PIN_LIST_SYNC, SLEEPING_TIMER_CLASS);
   }
 
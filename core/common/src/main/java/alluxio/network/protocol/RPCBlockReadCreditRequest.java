@@ -0,0 +1,82 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.network.protocol;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.primitives.Ints;
+import io.netty.buffer.ByteBuf;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * This represents an RPC request granting the DataServer permission to send more chunks of the
+ * block stream which is active on the channel, see {@link RPCBlockReadStreamRequest}. This request
+ * does not have a response.
+ */
+@ThreadSafe
+public final class RPCBlockReadCreditRequest extends RPCRequest {
+  private final int mCredits;
+
+  /**
+   * Constructs a new RPC request granting credits to the DataServer.
+   *
+   * @param credits the number of additional chunks the DataServer may send
+   */
+  public RPCBlockReadCreditRequest(int credits) {
+    mCredits = credits;
+  }
+
+  @Override
+  public Type getType() {
+    return Type.RPC_BLOCK_READ_CREDIT_REQUEST;
+  }
+
+  /**
+   * Decodes the input {@link ByteBuf} into a {@link RPCBlockReadCreditRequest} object and returns
+   * it.
+   *
+   * @param in the input {@link ByteBuf}
+   * @return The decoded RPCBlockReadCreditRequest object
+   */
+  public static RPCBlockReadCreditRequest decode(ByteBuf in) {
+    return new RPCBlockReadCreditRequest(in.readInt());
+  }
+
+  @Override
+  public int getEncodedLength() {
+    // 1 int (mCredits)
+    return Ints.BYTES;
+  }
+
+  @Override
+  public void encode(ByteBuf out) {
+    out.writeInt(mCredits);
+  }
+
+  @Override
+  public void validate() {
+    Preconditions.checkState(mCredits > 0, "Credits must be positive: %s", mCredits);
+  }
+
+  @Override
+  public String toString() {
+    return Objects.toStringHelper(this).add("credits", mCredits).toString();
+  }
+
+  /**
+   * @return the number of additional chunks the DataServer may send
+   */
+  public int getCredits() {
+    return mCredits;
+  }
+}
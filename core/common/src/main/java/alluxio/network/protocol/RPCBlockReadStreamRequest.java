@@ -0,0 +1,167 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.network.protocol;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
+import io.netty.buffer.ByteBuf;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * This represents an RPC request to stream a range of a block from a DataServer. The DataServer
+ * responds with a sequence of {@link RPCBlockReadResponse}s, each carrying at most
+ * {@link #getChunkSize()} bytes, followed by an empty {@link RPCBlockReadResponse} marking the end
+ * of the stream. The DataServer never has more than the granted number of chunks outstanding;
+ * further chunks are granted by the client through {@link RPCBlockReadCreditRequest}s.
+ */
+@ThreadSafe
+public final class RPCBlockReadStreamRequest extends RPCRequest {
+  private final long mBlockId;
+  private final long mOffset;
+  private final long mLength;
+  private final long mLockId;
+  private final long mSessionId;
+  private final long mChunkSize;
+  private final int mCredits;
+
+  /**
+   * Constructs a new RPC request to stream a range of a block from a DataServer.
+   *
+   * @param blockId the id of the block
+   * @param offset the block offset to begin reading at
+   * @param length the number of bytes to read, or -1 to read to the end of the block
+   * @param lockId the id of the block lock that is held by the client
+   * @param sessionId the id of the client session
+   * @param chunkSize the maximum number of bytes to send in a single response
+   * @param credits the number of chunks the DataServer may send before receiving more credits
+   */
+  public RPCBlockReadStreamRequest(long blockId, long offset, long length, long lockId,
+      long sessionId, long chunkSize, int credits) {
+    mBlockId = blockId;
+    mOffset = offset;
+    mLength = length;
+    mLockId = lockId;
+    mSessionId = sessionId;
+    mChunkSize = chunkSize;
+    mCredits = credits;
+  }
+
+  @Override
+  public Type getType() {
+    return Type.RPC_BLOCK_READ_STREAM_REQUEST;
+  }
+
+  /**
+   * Decodes the input {@link ByteBuf} into a {@link RPCBlockReadStreamRequest} object and returns
+   * it.
+   *
+   * @param in the input {@link ByteBuf}
+   * @return The decoded RPCBlockReadStreamRequest object
+   */
+  public static RPCBlockReadStreamRequest decode(ByteBuf in) {
+    long blockId = in.readLong();
+    long offset = in.readLong();
+    long length = in.readLong();
+    long lockId = in.readLong();
+    long sessionId = in.readLong();
+    long chunkSize = in.readLong();
+    int credits = in.readInt();
+    return new RPCBlockReadStreamRequest(blockId, offset, length, lockId, sessionId, chunkSize,
+        credits);
+  }
+
+  @Override
+  public int getEncodedLength() {
+    // 6 longs (mBLockId, mOffset, mLength, mLockId, mSessionId, mChunkSize) + 1 int (mCredits)
+    return Longs.BYTES * 6 + Ints.BYTES;
+  }
+
+  @Override
+  public void encode(ByteBuf out) {
+    out.writeLong(mBlockId);
+    out.writeLong(mOffset);
+    out.writeLong(mLength);
+    out.writeLong(mLockId);
+    out.writeLong(mSessionId);
+    out.writeLong(mChunkSize);
+    out.writeInt(mCredits);
+  }
+
+  @Override
+  public void validate() {
+    Preconditions.checkState(mOffset >= 0, "Offset cannot be negative: %s", mOffset);
+    Preconditions.checkState(mLength >= 0 || mLength == -1,
+        "Length cannot be negative (except for -1): %s", mLength);
+    Preconditions.checkState(mChunkSize > 0 && mChunkSize <= Integer.MAX_VALUE,
+        "Chunk size must be positive and fit in an int: %s", mChunkSize);
+    Preconditions.checkState(mCredits > 0, "Credits must be positive: %s", mCredits);
+  }
+
+  @Override
+  public String toString() {
+    return Objects.toStringHelper(this).add("blockId", mBlockId).add("offset", mOffset)
+        .add("length", mLength).add("lockId", mLockId).add("sessionId", mSessionId)
+        .add("chunkSize", mChunkSize).add("credits", mCredits).toString();
+  }
+
+  /**
+   * @return the id of the block
+   */
+  public long getBlockId() {
+    return mBlockId;
+  }
+
+  /**
+   * @return the number of bytes to read
+   */
+  public long getLength() {
+    return mLength;
+  }
+
+  /**
+   * @return the block offset to begin reading at
+   */
+  public long getOffset() {
+    return mOffset;
+  }
+
+  /**
+   * @return the id of the lock
+   */
+  public long getLockId() {
+    return mLockId;
+  }
+
+  /**
+   * @return the id of the session
+   */
+  public long getSessionId() {
+    return mSessionId;
+  }
+
+  /**
+   * @return the maximum number of bytes to send in a single response
+   */
+  public long getChunkSize() {
+    return mChunkSize;
+  }
+
+  /**
+   * @return the number of chunks the DataServer may send before receiving more credits
+   */
+  public int getCredits() {
+    return mCredits;
+  }
+}
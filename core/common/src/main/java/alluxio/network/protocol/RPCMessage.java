@@ -40,7 +40,9 @@ public abstract class RPCMessage implements EncodedMessage {
     RPC_FILE_READ_REQUEST(5),
     RPC_FILE_READ_RESPONSE(6),
     RPC_FILE_WRITE_REQUEST(7),
-    RPC_FILE_WRITE_RESPONSE(8);
+    RPC_FILE_WRITE_RESPONSE(8),
+    RPC_BLOCK_READ_STREAM_REQUEST(9),
+    RPC_BLOCK_READ_CREDIT_REQUEST(10);
 
     private final int mId;
 
@@ -101,6 +103,10 @@ public abstract class RPCMessage implements EncodedMessage {
           return RPC_FILE_WRITE_REQUEST;
         case 8:
           return RPC_FILE_WRITE_RESPONSE;
+        case 9:
+          return RPC_BLOCK_READ_STREAM_REQUEST;
+        case 10:
+          return RPC_BLOCK_READ_CREDIT_REQUEST;
         default:
           throw new IllegalArgumentException("Unknown RPCMessage type id. id: " + id);
       }
@@ -182,6 +188,10 @@ public abstract class RPCMessage implements EncodedMessage {
         return RPCFileWriteRequest.decode(in);
       case RPC_FILE_WRITE_RESPONSE:
         return RPCFileWriteResponse.decode(in);
+      case RPC_BLOCK_READ_STREAM_REQUEST:
+        return RPCBlockReadStreamRequest.decode(in);
+      case RPC_BLOCK_READ_CREDIT_REQUEST:
+        return RPCBlockReadCreditRequest.decode(in);
       default:
         throw new IllegalArgumentException("Unknown RPCMessage type. type: " + type);
     }
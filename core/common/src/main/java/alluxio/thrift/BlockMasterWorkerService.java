@@ -89,8 +89,10 @@ public class BlockMasterWorkerService {
      * @param usedBytesOnTiers the map of used bytes on each tier
      * 
      * @param currentBlocksOnTiers the map of list of blocks on each tier
+     * 
+     * @param options the method options
      */
-    public void registerWorker(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, Map<String,List<Long>> currentBlocksOnTiers) throws alluxio.thrift.AlluxioTException, org.apache.thrift.TException;
+    public void registerWorker(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, Map<String,List<Long>> currentBlocksOnTiers, RegisterWorkerTOptions options) throws alluxio.thrift.AlluxioTException, org.apache.thrift.TException;
 
   }
 
@@ -102,7 +104,7 @@ public class BlockMasterWorkerService {
 
     public void heartbeat(long workerId, Map<String,Long> usedBytesOnTiers, List<Long> removedBlockIds, Map<String,List<Long>> addedBlocksOnTiers, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException;
 
-    public void registerWorker(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, Map<String,List<Long>> currentBlocksOnTiers, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException;
+    public void registerWorker(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, Map<String,List<Long>> currentBlocksOnTiers, RegisterWorkerTOptions options, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException;
 
   }
 
@@ -202,13 +204,13 @@ public class BlockMasterWorkerService {
       throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "heartbeat failed: unknown result");
     }
 
-    public void registerWorker(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, Map<String,List<Long>> currentBlocksOnTiers) throws alluxio.thrift.AlluxioTException, org.apache.thrift.TException
+    public void registerWorker(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, Map<String,List<Long>> currentBlocksOnTiers, RegisterWorkerTOptions options) throws alluxio.thrift.AlluxioTException, org.apache.thrift.TException
     {
-      send_registerWorker(workerId, storageTiers, totalBytesOnTiers, usedBytesOnTiers, currentBlocksOnTiers);
+      send_registerWorker(workerId, storageTiers, totalBytesOnTiers, usedBytesOnTiers, currentBlocksOnTiers, options);
       recv_registerWorker();
     }
 
-    public void send_registerWorker(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, Map<String,List<Long>> currentBlocksOnTiers) throws org.apache.thrift.TException
+    public void send_registerWorker(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, Map<String,List<Long>> currentBlocksOnTiers, RegisterWorkerTOptions options) throws org.apache.thrift.TException
     {
       registerWorker_args args = new registerWorker_args();
       args.setWorkerId(workerId);
@@ -216,6 +218,7 @@ public class BlockMasterWorkerService {
       args.setTotalBytesOnTiers(totalBytesOnTiers);
       args.setUsedBytesOnTiers(usedBytesOnTiers);
       args.setCurrentBlocksOnTiers(currentBlocksOnTiers);
+      args.setOptions(options);
       sendBase("registerWorker", args);
     }
 
@@ -364,9 +367,9 @@ public class BlockMasterWorkerService {
       }
     }
 
-    public void registerWorker(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, Map<String,List<Long>> currentBlocksOnTiers, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException {
+    public void registerWorker(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, Map<String,List<Long>> currentBlocksOnTiers, RegisterWorkerTOptions options, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException {
       checkReady();
-      registerWorker_call method_call = new registerWorker_call(workerId, storageTiers, totalBytesOnTiers, usedBytesOnTiers, currentBlocksOnTiers, resultHandler, this, ___protocolFactory, ___transport);
+      registerWorker_call method_call = new registerWorker_call(workerId, storageTiers, totalBytesOnTiers, usedBytesOnTiers, currentBlocksOnTiers, options, resultHandler, this, ___protocolFactory, ___transport);
       this.___currentMethod = method_call;
       ___manager.call(method_call);
     }
@@ -377,13 +380,15 @@ public class BlockMasterWorkerService {
       private Map<String,Long> totalBytesOnTiers;
       private Map<String,Long> usedBytesOnTiers;
       private Map<String,List<Long>> currentBlocksOnTiers;
-      public registerWorker_call(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, Map<String,List<Long>> currentBlocksOnTiers, org.apache.thrift.async.AsyncMethodCallback resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+      private RegisterWorkerTOptions options;
+      public registerWorker_call(long workerId, List<String> storageTiers, Map<String,Long> totalBytesOnTiers, Map<String,Long> usedBytesOnTiers, Map<String,List<Long>> currentBlocksOnTiers, RegisterWorkerTOptions options, org.apache.thrift.async.AsyncMethodCallback resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
         super(client, protocolFactory, transport, resultHandler, false);
         this.workerId = workerId;
         this.storageTiers = storageTiers;
         this.totalBytesOnTiers = totalBytesOnTiers;
         this.usedBytesOnTiers = usedBytesOnTiers;
         this.currentBlocksOnTiers = currentBlocksOnTiers;
+        this.options = options;
       }
 
       public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
@@ -394,6 +399,7 @@ public class BlockMasterWorkerService {
         args.setTotalBytesOnTiers(totalBytesOnTiers);
         args.setUsedBytesOnTiers(usedBytesOnTiers);
         args.setCurrentBlocksOnTiers(currentBlocksOnTiers);
+        args.setOptions(options);
         args.write(prot);
         prot.writeMessageEnd();
       }
@@ -509,7 +515,7 @@ public class BlockMasterWorkerService {
       public registerWorker_result getResult(I iface, registerWorker_args args) throws org.apache.thrift.TException {
         registerWorker_result result = new registerWorker_result();
         try {
-          iface.registerWorker(args.workerId, args.storageTiers, args.totalBytesOnTiers, args.usedBytesOnTiers, args.currentBlocksOnTiers);
+          iface.registerWorker(args.workerId, args.storageTiers, args.totalBytesOnTiers, args.usedBytesOnTiers, args.currentBlocksOnTiers, args.options);
         } catch (alluxio.thrift.AlluxioTException e) {
           result.e = e;
         }
@@ -748,7 +754,7 @@ public class BlockMasterWorkerService {
       }
 
       public void start(I iface, registerWorker_args args, org.apache.thrift.async.AsyncMethodCallback<Void> resultHandler) throws TException {
-        iface.registerWorker(args.workerId, args.storageTiers, args.totalBytesOnTiers, args.usedBytesOnTiers, args.currentBlocksOnTiers,resultHandler);
+        iface.registerWorker(args.workerId, args.storageTiers, args.totalBytesOnTiers, args.usedBytesOnTiers, args.currentBlocksOnTiers, args.options,resultHandler);
       }
     }
 
@@ -3940,6 +3946,7 @@ public class BlockMasterWorkerService {
     private static final org.apache.thrift.protocol.TField TOTAL_BYTES_ON_TIERS_FIELD_DESC = new org.apache.thrift.protocol.TField("totalBytesOnTiers", org.apache.thrift.protocol.TType.MAP, (short)3);
     private static final org.apache.thrift.protocol.TField USED_BYTES_ON_TIERS_FIELD_DESC = new org.apache.thrift.protocol.TField("usedBytesOnTiers", org.apache.thrift.protocol.TType.MAP, (short)4);
     private static final org.apache.thrift.protocol.TField CURRENT_BLOCKS_ON_TIERS_FIELD_DESC = new org.apache.thrift.protocol.TField("currentBlocksOnTiers", org.apache.thrift.protocol.TType.MAP, (short)5);
+    private static final org.apache.thrift.protocol.TField OPTIONS_FIELD_DESC = new org.apache.thrift.protocol.TField("options", org.apache.thrift.protocol.TType.STRUCT, (short)6);
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
@@ -3952,6 +3959,7 @@ public class BlockMasterWorkerService {
     private Map<String,Long> totalBytesOnTiers; // required
     private Map<String,Long> usedBytesOnTiers; // required
     private Map<String,List<Long>> currentBlocksOnTiers; // required
+    private RegisterWorkerTOptions options; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -3974,7 +3982,11 @@ public class BlockMasterWorkerService {
       /**
        * the map of list of blocks on each tier
        */
-      CURRENT_BLOCKS_ON_TIERS((short)5, "currentBlocksOnTiers");
+      CURRENT_BLOCKS_ON_TIERS((short)5, "currentBlocksOnTiers"),
+      /**
+       * the method options
+       */
+      OPTIONS((short)6, "options");
 
       private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -3999,6 +4011,8 @@ public class BlockMasterWorkerService {
             return USED_BYTES_ON_TIERS;
           case 5: // CURRENT_BLOCKS_ON_TIERS
             return CURRENT_BLOCKS_ON_TIERS;
+          case 6: // OPTIONS
+            return OPTIONS;
           default:
             return null;
         }
@@ -4062,6 +4076,8 @@ public class BlockMasterWorkerService {
               new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING), 
               new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
                   new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)))));
+      tmpMap.put(_Fields.OPTIONS, new org.apache.thrift.meta_data.FieldMetaData("options", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, RegisterWorkerTOptions.class)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
       org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(registerWorker_args.class, metaDataMap);
     }
@@ -4074,7 +4090,8 @@ public class BlockMasterWorkerService {
       List<String> storageTiers,
       Map<String,Long> totalBytesOnTiers,
       Map<String,Long> usedBytesOnTiers,
-      Map<String,List<Long>> currentBlocksOnTiers)
+      Map<String,List<Long>> currentBlocksOnTiers,
+      RegisterWorkerTOptions options)
     {
       this();
       this.workerId = workerId;
@@ -4083,6 +4100,7 @@ public class BlockMasterWorkerService {
       this.totalBytesOnTiers = totalBytesOnTiers;
       this.usedBytesOnTiers = usedBytesOnTiers;
       this.currentBlocksOnTiers = currentBlocksOnTiers;
+      this.options = options;
     }
 
     /**
@@ -4118,6 +4136,9 @@ public class BlockMasterWorkerService {
         }
         this.currentBlocksOnTiers = __this__currentBlocksOnTiers;
       }
+      if (other.isSetOptions()) {
+        this.options = new RegisterWorkerTOptions(other.options);
+      }
     }
 
     public registerWorker_args deepCopy() {
@@ -4132,6 +4153,7 @@ public class BlockMasterWorkerService {
       this.totalBytesOnTiers = null;
       this.usedBytesOnTiers = null;
       this.currentBlocksOnTiers = null;
+      this.options = null;
     }
 
     /**
@@ -4331,6 +4353,36 @@ public class BlockMasterWorkerService {
       }
     }
 
+    /**
+     * the method options
+     */
+    public RegisterWorkerTOptions getOptions() {
+      return this.options;
+    }
+
+    /**
+     * the method options
+     */
+    public registerWorker_args setOptions(RegisterWorkerTOptions options) {
+      this.options = options;
+      return this;
+    }
+
+    public void unsetOptions() {
+      this.options = null;
+    }
+
+    /** Returns true if field options is set (has been assigned a value) and false otherwise */
+    public boolean isSetOptions() {
+      return this.options != null;
+    }
+
+    public void setOptionsIsSet(boolean value) {
+      if (!value) {
+        this.options = null;
+      }
+    }
+
     public void setFieldValue(_Fields field, Object value) {
       switch (field) {
       case WORKER_ID:
@@ -4373,6 +4425,14 @@ public class BlockMasterWorkerService {
         }
         break;
 
+      case OPTIONS:
+        if (value == null) {
+          unsetOptions();
+        } else {
+          setOptions((RegisterWorkerTOptions)value);
+        }
+        break;
+
       }
     }
 
@@ -4393,6 +4453,9 @@ public class BlockMasterWorkerService {
       case CURRENT_BLOCKS_ON_TIERS:
         return getCurrentBlocksOnTiers();
 
+      case OPTIONS:
+        return getOptions();
+
       }
       throw new IllegalStateException();
     }
@@ -4414,6 +4477,8 @@ public class BlockMasterWorkerService {
         return isSetUsedBytesOnTiers();
       case CURRENT_BLOCKS_ON_TIERS:
         return isSetCurrentBlocksOnTiers();
+      case OPTIONS:
+        return isSetOptions();
       }
       throw new IllegalStateException();
     }
@@ -4476,6 +4541,15 @@ public class BlockMasterWorkerService {
           return false;
       }
 
+      boolean this_present_options = true && this.isSetOptions();
+      boolean that_present_options = true && that.isSetOptions();
+      if (this_present_options || that_present_options) {
+        if (!(this_present_options && that_present_options))
+          return false;
+        if (!this.options.equals(that.options))
+          return false;
+      }
+
       return true;
     }
 
@@ -4508,6 +4582,11 @@ public class BlockMasterWorkerService {
       if (present_currentBlocksOnTiers)
         list.add(currentBlocksOnTiers);
 
+      boolean present_options = true && (isSetOptions());
+      list.add(present_options);
+      if (present_options)
+        list.add(options);
+
       return list.hashCode();
     }
 
@@ -4569,6 +4648,16 @@ public class BlockMasterWorkerService {
           return lastComparison;
         }
       }
+      lastComparison = Boolean.valueOf(isSetOptions()).compareTo(other.isSetOptions());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetOptions()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.options, other.options);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
       return 0;
     }
 
@@ -4624,6 +4713,14 @@ public class BlockMasterWorkerService {
         sb.append(this.currentBlocksOnTiers);
       }
       first = false;
+      if (!first) sb.append(", ");
+      sb.append("options:");
+      if (this.options == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.options);
+      }
+      first = false;
       sb.append(")");
       return sb.toString();
     }
@@ -4631,6 +4728,9 @@ public class BlockMasterWorkerService {
     public void validate() throws org.apache.thrift.TException {
       // check for required fields
       // check for sub-struct validity
+      if (options != null) {
+        options.validate();
+      }
     }
 
     private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
@@ -4765,6 +4865,15 @@ public class BlockMasterWorkerService {
                 org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
               }
               break;
+            case 6: // OPTIONS
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
+                struct.options = new RegisterWorkerTOptions();
+                struct.options.read(iprot);
+                struct.setOptionsIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
             default:
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
           }
@@ -4841,6 +4950,11 @@ public class BlockMasterWorkerService {
           }
           oprot.writeFieldEnd();
         }
+        if (struct.options != null) {
+          oprot.writeFieldBegin(OPTIONS_FIELD_DESC);
+          struct.options.write(oprot);
+          oprot.writeFieldEnd();
+        }
         oprot.writeFieldStop();
         oprot.writeStructEnd();
       }
@@ -4874,7 +4988,10 @@ public class BlockMasterWorkerService {
         if (struct.isSetCurrentBlocksOnTiers()) {
           optionals.set(4);
         }
-        oprot.writeBitSet(optionals, 5);
+        if (struct.isSetOptions()) {
+          optionals.set(5);
+        }
+        oprot.writeBitSet(optionals, 6);
         if (struct.isSetWorkerId()) {
           oprot.writeI64(struct.workerId);
         }
@@ -4923,12 +5040,15 @@ public class BlockMasterWorkerService {
             }
           }
         }
+        if (struct.isSetOptions()) {
+          struct.options.write(oprot);
+        }
       }
 
       @Override
       public void read(org.apache.thrift.protocol.TProtocol prot, registerWorker_args struct) throws org.apache.thrift.TException {
         TTupleProtocol iprot = (TTupleProtocol) prot;
-        BitSet incoming = iprot.readBitSet(5);
+        BitSet incoming = iprot.readBitSet(6);
         if (incoming.get(0)) {
           struct.workerId = iprot.readI64();
           struct.setWorkerIdIsSet(true);
@@ -5000,6 +5120,11 @@ public class BlockMasterWorkerService {
           }
           struct.setCurrentBlocksOnTiersIsSet(true);
         }
+        if (incoming.get(5)) {
+          struct.options = new RegisterWorkerTOptions();
+          struct.options.read(iprot);
+          struct.setOptionsIsSet(true);
+        }
       }
     }
 
@@ -120,7 +120,8 @@ public class FileSystemMasterClientService {
     /**
      * If the path points to a file, the method returns a singleton with its file information.
      * If the path points to a directory, the method returns a list with file information for the
-     * directory contents.
+     * directory contents. If the options set a batch size, the directory contents are listed in
+     * name order, at most batch size of them, starting after the name set in the options.
      * 
      * @param path the path of the file or directory
      * 
@@ -0,0 +1,282 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.underfs;
+
+import alluxio.Configuration;
+import alluxio.Constants;
+import alluxio.util.ThreadFactoryUtils;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A stream for writing an object into an object store with a multipart upload, which uploads the
+ * object in parts while the object is still being written, instead of spooling the whole object to
+ * the local disk and uploading it when the stream is closed.
+ *
+ * The data is buffered in memory until a part is full, and the full parts are uploaded in parallel
+ * in the background. The number of parts being uploaded is bounded, so the memory used by a stream
+ * is at most the part size times the number of upload threads plus one. An object smaller than a
+ * part is uploaded with a single request when the stream is closed. If a part fails to upload, the
+ * next writes fail, and the multipart upload is aborted when the stream is closed.
+ */
+@NotThreadSafe
+public abstract class MultipartUploadOutputStream extends OutputStream {
+  private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
+
+  /** The initial size of the buffer, which grows up to the part size. */
+  private static final int INITIAL_BUFFER_SIZE = Constants.MB;
+
+  /** The size of the parts, except for the last one. */
+  private final int mPartSize;
+  /** The maximum number of parts being uploaded at the same time. */
+  private final int mNumUploadThreads;
+  /** Permits to upload a part, which bound the number of part buffers in memory. */
+  private final Semaphore mUploadPermits;
+  /** The uploads of the parts submitted so far. */
+  private final List<Future<Void>> mUploads = new ArrayList<>();
+
+  /** The buffer of the part being written. */
+  private byte[] mBuffer = new byte[0];
+  /** The number of bytes in the buffer. */
+  private int mBufferLength = 0;
+  /** The number of the next part to upload, starting at 1. */
+  private int mNextPartNumber = 1;
+  /** The threads uploading the parts, or null if the multipart upload has not started. */
+  private ExecutorService mUploadExecutor;
+  private boolean mClosed = false;
+
+  /**
+   * Creates a new instance of {@link MultipartUploadOutputStream} with the part size and the number
+   * of upload threads from the configuration.
+   */
+  protected MultipartUploadOutputStream() {
+    this(Configuration.getBytes(Constants.UNDERFS_MULTIPART_UPLOAD_PARTITION_SIZE),
+        Configuration.getInt(Constants.UNDERFS_MULTIPART_UPLOAD_THREADS));
+  }
+
+  /**
+   * Creates a new instance of {@link MultipartUploadOutputStream}.
+   *
+   * @param partSize the size of the parts, except for the last one
+   * @param numUploadThreads the maximum number of parts being uploaded at the same time
+   */
+  protected MultipartUploadOutputStream(long partSize, int numUploadThreads) {
+    Preconditions.checkArgument(partSize > 0 && partSize <= Integer.MAX_VALUE,
+        "partSize must be positive and fit in an array");
+    Preconditions.checkArgument(numUploadThreads > 0, "numUploadThreads must be positive");
+    mPartSize = (int) partSize;
+    mNumUploadThreads = numUploadThreads;
+    mUploadPermits = new Semaphore(numUploadThreads);
+  }
+
+  /**
+   * Starts the multipart upload of the object. This is called before the first part is uploaded.
+   *
+   * @throws IOException if the upload cannot be started
+   */
+  protected abstract void initMultipartUpload() throws IOException;
+
+  /**
+   * Uploads a part of the object. This may be called concurrently for different parts.
+   *
+   * @param data the data of the part
+   * @param partNumber the number of the part, starting at 1
+   * @throws IOException if the part cannot be uploaded
+   */
+  protected abstract void uploadPart(byte[] data, int partNumber) throws IOException;
+
+  /**
+   * Completes the multipart upload of the object, once all the parts were uploaded.
+   *
+   * @throws IOException if the upload cannot be completed
+   */
+  protected abstract void completeMultipartUpload() throws IOException;
+
+  /**
+   * Aborts the multipart upload of the object, so that the object store drops the parts uploaded.
+   *
+   * @throws IOException if the upload cannot be aborted
+   */
+  protected abstract void abortMultipartUpload() throws IOException;
+
+  /**
+   * Uploads the whole object with a single request, when it is smaller than a part.
+   *
+   * @param data the data of the object
+   * @throws IOException if the object cannot be uploaded
+   */
+  protected abstract void putObject(byte[] data) throws IOException;
+
+  @Override
+  public void write(int b) throws IOException {
+    if (mBufferLength == mBuffer.length) {
+      makeRoom();
+    }
+    mBuffer[mBufferLength++] = (byte) b;
+  }
+
+  @Override
+  public void write(byte[] b) throws IOException {
+    write(b, 0, b.length);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    Preconditions.checkNotNull(b);
+    Preconditions.checkPositionIndexes(off, off + len, b.length);
+    while (len > 0) {
+      if (mBufferLength == mBuffer.length) {
+        makeRoom();
+      }
+      int toCopy = Math.min(len, mBuffer.length - mBufferLength);
+      System.arraycopy(b, off, mBuffer, mBufferLength, toCopy);
+      mBufferLength += toCopy;
+      off += toCopy;
+      len -= toCopy;
+    }
+  }
+
+  /**
+   * Does nothing, since the object store only accepts parts of at least a minimum size. The data
+   * is uploaded when a part is full, and when the stream is closed.
+   */
+  @Override
+  public void flush() {}
+
+  @Override
+  public void close() throws IOException {
+    if (mClosed) {
+      return;
+    }
+    mClosed = true;
+    if (mUploadExecutor == null) {
+      putObject(Arrays.copyOf(mBuffer, mBufferLength));
+      mBuffer = new byte[0];
+      mBufferLength = 0;
+      return;
+    }
+    try {
+      if (mBufferLength > 0) {
+        uploadBuffer();
+      }
+      mBuffer = new byte[0];
+      mBufferLength = 0;
+      for (Future<Void> upload : mUploads) {
+        waitForUpload(upload);
+      }
+      completeMultipartUpload();
+    } catch (IOException e) {
+      try {
+        abortMultipartUpload();
+      } catch (IOException abortException) {
+        LOG.warn("Failed to abort the multipart upload: {}", abortException.getMessage());
+      }
+      throw e;
+    } finally {
+      mUploadExecutor.shutdownNow();
+    }
+  }
+
+  /**
+   * Makes room in the full buffer, by growing it up to the part size, or by uploading it as a
+   * part.
+   *
+   * @throws IOException if the multipart upload cannot be started, or a part failed to upload
+   */
+  private void makeRoom() throws IOException {
+    if (mClosed) {
+      throw new IOException("The stream is closed.");
+    }
+    if (mBuffer.length < mPartSize) {
+      int newSize = (int) Math.min(mPartSize,
+          Math.max(INITIAL_BUFFER_SIZE, 2L * mBuffer.length));
+      mBuffer = Arrays.copyOf(mBuffer, newSize);
+      return;
+    }
+    uploadBuffer();
+    mBuffer = new byte[mPartSize];
+  }
+
+  /**
+   * Submits the data in the buffer to be uploaded as the next part, starting the multipart upload
+   * first if needed. This blocks while the maximum number of parts are being uploaded.
+   *
+   * @throws IOException if the multipart upload cannot be started, or a part failed to upload
+   */
+  private void uploadBuffer() throws IOException {
+    for (Future<Void> upload : mUploads) {
+      if (upload.isDone()) {
+        // Fails the writes as soon as a part failed.
+        waitForUpload(upload);
+      }
+    }
+    if (mUploadExecutor == null) {
+      initMultipartUpload();
+      mUploadExecutor = Executors.newFixedThreadPool(mNumUploadThreads,
+          ThreadFactoryUtils.build("multipart-upload-%d", true));
+    }
+    try {
+      mUploadPermits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+    final byte[] data =
+        mBufferLength == mBuffer.length ? mBuffer : Arrays.copyOf(mBuffer, mBufferLength);
+    final int partNumber = mNextPartNumber++;
+    mUploads.add(mUploadExecutor.submit(new Callable<Void>() {
+      @Override
+      public Void call() throws IOException {
+        try {
+          uploadPart(data, partNumber);
+          return null;
+        } finally {
+          mUploadPermits.release();
+        }
+      }
+    }));
+    mBufferLength = 0;
+  }
+
+  /**
+   * @param upload the upload of a part
+   * @throws IOException if the part failed to upload
+   */
+  private void waitForUpload(Future<Void> upload) throws IOException {
+    try {
+      upload.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfInstanceOf(e.getCause(), IOException.class);
+      throw new IOException(e.getCause());
+    }
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.underfs;
+
+import alluxio.annotation.PublicApi;
+
+import com.google.common.base.Objects;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The metadata of a file or directory in an {@link UnderFileSystem}, as returned by
+ * {@link UnderFileSystem#listStatus(String)}.
+ */
+@PublicApi
+@ThreadSafe
+public final class UnderFileStatus {
+  private final String mName;
+  private final boolean mIsDirectory;
+  private final long mContentLength;
+  private final long mLastModifiedTimeMs;
+  private final String mOwner;
+  private final String mGroup;
+  private final short mMode;
+
+  /**
+   * Creates a new instance of {@link UnderFileStatus}.
+   *
+   * @param name the name of the file or directory, relative to the listed directory
+   * @param isDirectory whether it is a directory
+   * @param contentLength the size of the file in bytes, or 0 for a directory
+   * @param lastModifiedTimeMs the last modification time in milliseconds, or 0 if unknown
+   * @param owner the owner, or null if unknown
+   * @param group the group, or null if unknown
+   * @param mode the mode
+   */
+  public UnderFileStatus(String name, boolean isDirectory, long contentLength,
+      long lastModifiedTimeMs, String owner, String group, short mode) {
+    mName = name;
+    mIsDirectory = isDirectory;
+    mContentLength = contentLength;
+    mLastModifiedTimeMs = lastModifiedTimeMs;
+    mOwner = owner;
+    mGroup = group;
+    mMode = mode;
+  }
+
+  /**
+   * @param statuses the statuses of the children of a directory
+   * @return the names of the children
+   */
+  public static String[] convertToNames(UnderFileStatus[] statuses) {
+    String[] names = new String[statuses.length];
+    for (int i = 0; i < statuses.length; i++) {
+      names[i] = statuses[i].getName();
+    }
+    return names;
+  }
+
+  /**
+   * @return the name of the file or directory, relative to the listed directory
+   */
+  public String getName() {
+    return mName;
+  }
+
+  /**
+   * @return whether it is a directory
+   */
+  public boolean isDirectory() {
+    return mIsDirectory;
+  }
+
+  /**
+   * @return whether it is a file
+   */
+  public boolean isFile() {
+    return !mIsDirectory;
+  }
+
+  /**
+   * @return the size of the file in bytes, or 0 for a directory
+   */
+  public long getContentLength() {
+    return mContentLength;
+  }
+
+  /**
+   * @return the last modification time in milliseconds, or 0 if unknown
+   */
+  public long getLastModifiedTimeMs() {
+    return mLastModifiedTimeMs;
+  }
+
+  /**
+   * @return the owner, or null if unknown
+   */
+  public String getOwner() {
+    return mOwner;
+  }
+
+  /**
+   * @return the group, or null if unknown
+   */
+  public String getGroup() {
+    return mGroup;
+  }
+
+  /**
+   * @return the mode
+   */
+  public short getMode() {
+    return mMode;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof UnderFileStatus)) {
+      return false;
+    }
+    UnderFileStatus that = (UnderFileStatus) o;
+    return Objects.equal(mName, that.mName)
+        && Objects.equal(mIsDirectory, that.mIsDirectory)
+        && Objects.equal(mContentLength, that.mContentLength)
+        && Objects.equal(mLastModifiedTimeMs, that.mLastModifiedTimeMs)
+        && Objects.equal(mOwner, that.mOwner)
+        && Objects.equal(mGroup, that.mGroup)
+        && Objects.equal(mMode, that.mMode);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(mName, mIsDirectory, mContentLength, mLastModifiedTimeMs, mOwner,
+        mGroup, mMode);
+  }
+
+  @Override
+  public String toString() {
+    return Objects.toStringHelper(this)
+        .add("name", mName)
+        .add("isDirectory", mIsDirectory)
+        .add("contentLength", mContentLength)
+        .add("lastModifiedTimeMs", mLastModifiedTimeMs)
+        .add("owner", mOwner)
+        .add("group", mGroup)
+        .add("mode", mMode)
+        .toString();
+  }
+}
@@ -15,13 +15,16 @@ import alluxio.AlluxioURI;
 import alluxio.Configuration;
 import alluxio.Constants;
 import alluxio.collections.Pair;
+import alluxio.exception.ExceptionMessage;
 import alluxio.security.authorization.Permission;
 import alluxio.underfs.options.CreateOptions;
 import alluxio.underfs.options.MkdirsOptions;
+import alluxio.underfs.options.OpenOptions;
 import alluxio.util.io.PathUtils;
 
 import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -532,6 +535,38 @@ public abstract class UnderFileSystem {
    */
   public abstract String[] list(String path) throws IOException;
 
+  /**
+   * Returns an array of statuses of the files and directories in the directory denoted by this
+   * abstract pathname, which carry the name, type, size, modification time, owner, group and mode
+   * of each child, as in {@link #list(String)} followed by queries of each child.
+   *
+   * <p>
+   * By default the metadata of each child is queried separately. Implementations which get the
+   * metadata of the children in the listing response, like object stores, should override this
+   * method. The modification time of a directory is not queried by default, and is 0.
+   *
+   * @param path the abstract pathname to list
+   * @return An array of statuses of the files and directories in the directory denoted by this
+   *         abstract pathname. The array will be empty if the directory is empty. Returns
+   *         {@code null} if this abstract pathname does not denote a directory.
+   * @throws IOException if a non-Alluxio error occurs
+   */
+  public UnderFileStatus[] listStatus(String path) throws IOException {
+    String[] children = list(path);
+    if (children == null) {
+      return null;
+    }
+    UnderFileStatus[] statuses = new UnderFileStatus[children.length];
+    for (int i = 0; i < children.length; i++) {
+      String childPath = PathUtils.concatPath(path, children[i]);
+      boolean isFile = isFile(childPath);
+      statuses[i] = new UnderFileStatus(children[i], !isFile,
+          isFile ? getFileSize(childPath) : 0, isFile ? getModificationTimeMs(childPath) : 0,
+          getOwner(childPath), getGroup(childPath), getMode(childPath));
+    }
+    return statuses;
+  }
+
   /**
    * Returns an array of strings naming the files and directories in the directory denoted by this
    * abstract pathname, and all of its subdirectories.
@@ -614,6 +649,51 @@ public abstract class UnderFileSystem {
    */
   public abstract InputStream open(String path) throws IOException;
 
+  /**
+   * Opens an {@link InputStream} at the indicated path, starting at the offset of the options and
+   * reading at most the length of the options.
+   *
+   * @param path The file name
+   * @param options the options for open
+   * @return The {@code InputStream} object
+   * @throws IOException if a non-Alluxio error occurs
+   */
+  public InputStream open(String path, OpenOptions options) throws IOException {
+    InputStream inputStream =
+        options.getOffset() == 0 ? open(path) : openAtPosition(path, options.getOffset());
+    if (inputStream == null || options.getLength() < 0) {
+      return inputStream;
+    }
+    return ByteStreams.limit(inputStream, options.getLength());
+  }
+
+  /**
+   * Opens an {@link InputStream} at the indicated path, starting at the given position. By default
+   * the file is opened at the beginning and the stream skips to the position, so implementations
+   * which can open a file at a position directly should override this method.
+   *
+   * @param path The file name
+   * @param position the position in the file to start reading from
+   * @return The {@code InputStream} object
+   * @throws IOException if a non-Alluxio error occurs
+   */
+  protected InputStream openAtPosition(String path, long position) throws IOException {
+    InputStream inputStream = open(path);
+    if (inputStream == null) {
+      return null;
+    }
+    long toSkip = position;
+    while (toSkip > 0) {
+      long skipped = inputStream.skip(toSkip);
+      if (skipped <= 0) {
+        inputStream.close();
+        throw new IOException(ExceptionMessage.FAILED_SKIP.getMessage(toSkip));
+      }
+      toSkip -= skipped;
+    }
+    return inputStream;
+  }
+
   /**
    * Renames a file or folder from {@code src} to {@code dst} in under file system.
    *
@@ -0,0 +1,105 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.underfs.options;
+
+import alluxio.annotation.PublicApi;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Method options for open in UnderFileSystem.
+ */
+@PublicApi
+@NotThreadSafe
+public final class OpenOptions {
+  // Position in the file to start reading from.
+  private long mOffset;
+  // Number of bytes to read from the offset, or -1 to read to the end of the file.
+  private long mLength;
+
+  /**
+   * Constructs a default {@link OpenOptions}.
+   */
+  public OpenOptions() {
+    // By default the whole file is read.
+    mOffset = 0;
+    mLength = -1;
+  }
+
+  /**
+   * @return the position in the file to start reading from
+   */
+  public long getOffset() {
+    return mOffset;
+  }
+
+  /**
+   * @return the number of bytes to read from the offset, or -1 to read to the end of the file
+   */
+  public long getLength() {
+    return mLength;
+  }
+
+  /**
+   * Sets the offset.
+   *
+   * @param offset the position in the file to start reading from
+   * @return the updated option object
+   */
+  public OpenOptions setOffset(long offset) {
+    Preconditions.checkArgument(offset >= 0, "offset must be non-negative");
+    mOffset = offset;
+    return this;
+  }
+
+  /**
+   * Sets the length.
+   *
+   * @param length the number of bytes to read from the offset, or -1 to read to the end of the
+   *        file
+   * @return the updated option object
+   */
+  public OpenOptions setLength(long length) {
+    Preconditions.checkArgument(length >= -1, "length must be non-negative, or -1");
+    mLength = length;
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof OpenOptions)) {
+      return false;
+    }
+    OpenOptions that = (OpenOptions) o;
+    return Objects.equal(mOffset, that.mOffset)
+        && Objects.equal(mLength, that.mLength);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(mOffset, mLength);
+  }
+
+  @Override
+  public String toString() {
+    return Objects.toStringHelper(this)
+        .add("offset", mOffset)
+        .add("length", mLength)
+        .toString();
+  }
+}
@@ -149,4 +149,44 @@ public final class ClientMetrics {
     mMetrics.set(Constants.BYTES_WRITTEN_UFS_INDEX,
         mMetrics.get(Constants.BYTES_WRITTEN_UFS_INDEX) + n);
   }
+
+  /**
+   * Increments BLOCKS_READ_AHEAD_HIT counter by the amount specified.
+   *
+   * @param n amount to increment
+   */
+  public synchronized void incBlocksReadAheadHit(long n) {
+    mMetrics.set(Constants.BLOCKS_READ_AHEAD_HIT_INDEX,
+        mMetrics.get(Constants.BLOCKS_READ_AHEAD_HIT_INDEX) + n);
+  }
+
+  /**
+   * Increments BLOCKS_READ_AHEAD_MISS counter by the amount specified.
+   *
+   * @param n amount to increment
+   */
+  public synchronized void incBlocksReadAheadMiss(long n) {
+    mMetrics.set(Constants.BLOCKS_READ_AHEAD_MISS_INDEX,
+        mMetrics.get(Constants.BLOCKS_READ_AHEAD_MISS_INDEX) + n);
+  }
+
+  /**
+   * Increments METADATA_CACHE_HIT counter by the amount specified.
+   *
+   * @param n amount to increment
+   */
+  public synchronized void incMetadataCacheHit(long n) {
+    mMetrics.set(Constants.METADATA_CACHE_HIT_INDEX,
+        mMetrics.get(Constants.METADATA_CACHE_HIT_INDEX) + n);
+  }
+
+  /**
+   * Increments METADATA_CACHE_MISS counter by the amount specified.
+   *
+   * @param n amount to increment
+   */
+  public synchronized void incMetadataCacheMiss(long n) {
+    mMetrics.set(Constants.METADATA_CACHE_MISS_INDEX,
+        mMetrics.get(Constants.METADATA_CACHE_MISS_INDEX) + n);
+  }
 }
@@ -0,0 +1,125 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.underfs;
+
+import alluxio.util.io.BufferUtils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Unit tests for {@link MultipartUploadOutputStream}.
+ */
+public final class MultipartUploadOutputStreamTest {
+  private static final int PART_SIZE = 10;
+
+  /**
+   * Tests that an object smaller than a part is uploaded with a single request.
+   */
+  @Test
+  public void putSmallObjectTest() throws Exception {
+    TestOutputStream stream = new TestOutputStream(false);
+    stream.write(BufferUtils.getIncreasingByteArray(PART_SIZE - 1));
+    stream.close();
+    Assert.assertFalse(stream.mStarted);
+    Assert.assertArrayEquals(BufferUtils.getIncreasingByteArray(PART_SIZE - 1), stream.mObject);
+  }
+
+  /**
+   * Tests that a larger object is uploaded in parts of the part size, in order.
+   */
+  @Test
+  public void uploadPartsTest() throws Exception {
+    TestOutputStream stream = new TestOutputStream(false);
+    byte[] data = BufferUtils.getIncreasingByteArray(3 * PART_SIZE + 5);
+    stream.write(data[0]);
+    stream.write(data, 1, 14);
+    stream.write(data, 15, data.length - 15);
+    stream.close();
+    Assert.assertTrue(stream.mStarted);
+    Assert.assertTrue(stream.mCompleted);
+    Assert.assertEquals(4, stream.mParts.size());
+    ByteArrayOutputStream object = new ByteArrayOutputStream();
+    for (int i = 1; i <= 4; i++) {
+      object.write(stream.mParts.get(i));
+    }
+    Assert.assertArrayEquals(data, object.toByteArray());
+    Assert.assertNull(stream.mObject);
+  }
+
+  /**
+   * Tests that the upload is aborted when a part fails to upload.
+   */
+  @Test
+  public void abortTest() throws Exception {
+    TestOutputStream stream = new TestOutputStream(true);
+    stream.write(BufferUtils.getIncreasingByteArray(2 * PART_SIZE + 1));
+    try {
+      stream.close();
+      Assert.fail("Closing a stream whose parts failed to upload should fail");
+    } catch (IOException e) {
+      // Expected.
+    }
+    Assert.assertTrue(stream.mAborted);
+    Assert.assertFalse(stream.mCompleted);
+  }
+
+  /**
+   * A stream keeping the uploaded data in memory.
+   */
+  private static final class TestOutputStream extends MultipartUploadOutputStream {
+    private final boolean mFailParts;
+    private final Map<Integer, byte[]> mParts = new ConcurrentHashMap<>();
+    private boolean mStarted;
+    private boolean mCompleted;
+    private boolean mAborted;
+    private byte[] mObject;
+
+    TestOutputStream(boolean failParts) {
+      super(PART_SIZE, 2);
+      mFailParts = failParts;
+    }
+
+    @Override
+    protected void initMultipartUpload() {
+      mStarted = true;
+    }
+
+    @Override
+    protected void uploadPart(byte[] data, int partNumber) throws IOException {
+      if (mFailParts) {
+        throw new IOException("Failed to upload part " + partNumber);
+      }
+      mParts.put(partNumber, data.clone());
+    }
+
+    @Override
+    protected void completeMultipartUpload() {
+      mCompleted = true;
+    }
+
+    @Override
+    protected void abortMultipartUpload() {
+      mAborted = true;
+    }
+
+    @Override
+    protected void putObject(byte[] data) {
+      mObject = data.clone();
+    }
+  }
+}
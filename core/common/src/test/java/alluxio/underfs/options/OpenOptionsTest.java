@@ -0,0 +1,52 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.underfs.options;
+
+import alluxio.CommonTestUtils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link OpenOptions} class.
+ */
+public final class OpenOptionsTest {
+  /**
+   * Tests for default {@link OpenOptions}.
+   */
+  @Test
+  public void defaultsTest() {
+    OpenOptions options = new OpenOptions();
+
+    // Verify that the whole file is read by default.
+    Assert.assertEquals(0, options.getOffset());
+    Assert.assertEquals(-1, options.getLength());
+  }
+
+  /**
+   * Tests getting and setting fields.
+   */
+  @Test
+  public void fieldsTest() {
+    OpenOptions options = new OpenOptions();
+    options.setOffset(10);
+    options.setLength(20);
+
+    Assert.assertEquals(10, options.getOffset());
+    Assert.assertEquals(20, options.getLength());
+  }
+
+  @Test
+  public void equalsTest() throws Exception {
+    CommonTestUtils.testEquals(OpenOptions.class);
+  }
+}
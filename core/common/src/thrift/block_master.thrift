@@ -13,6 +13,13 @@ struct WorkerInfo {
   7: i64 startTimeMs
 }
 
+struct RegisterWorkerTOptions {
+  // Whether this call continues a registration started by a previous call.
+  1: optional bool continued
+  // Whether more calls follow to complete the registration.
+  2: optional bool hasMore
+}
+
 /**
  * This interface contains block master service endpoints for Alluxio clients.
  */
@@ -75,6 +82,7 @@ service BlockMasterWorkerService extends common.AlluxioService {
       /** the list of storage tiers */  2: list<string> storageTiers,
       /** the map of total bytes on each tier */  3: map<string, i64> totalBytesOnTiers,
       /** the map of used bytes on each tier */  4: map<string, i64> usedBytesOnTiers,
-      /** the map of list of blocks on each tier */  5: map<string, list<i64>> currentBlocksOnTiers)
+      /** the map of list of blocks on each tier */  5: map<string, list<i64>> currentBlocksOnTiers,
+      /** the method options */ 6: RegisterWorkerTOptions options)
     throws (1: exception.AlluxioTException e)
 }
@@ -35,6 +35,10 @@ struct ListStatusTOptions {
   // This is deprecated since 1.1.1 and will be removed in 2.0. Use loadMetadataType.
   1: optional bool loadDirectChildren
   2: optional LoadMetadataTType loadMetadataType
+  // Only list the children whose names come after this name, in name order.
+  3: optional string startAfter
+  // The maximum number of children to list, all the children are listed if not positive.
+  4: optional i32 batchSize
 }
 
 /**
@@ -172,7 +176,8 @@ service FileSystemMasterClientService extends common.AlluxioService {
   /**
    * If the path points to a file, the method returns a singleton with its file information.
    * If the path points to a directory, the method returns a list with file information for the
-   * directory contents.
+   * directory contents. If the options set a batch size, the directory contents are listed in
+   * name order, at most batch size of them, starting after the name set in the options.
    */
   list<FileInfo> listStatus( /** the path of the file or directory */ 1: string path,
       /** listStatus options */ 2: ListStatusTOptions options)
@@ -123,7 +123,7 @@ public abstract class AbstractMaster implements Master {
       mJournalWriter.completeAllLogs();
 
       // Phase 2: Replay all the state of the checkpoint and the completed log files.
-      JournalTailer catchupTailer;
+      JournalTailer catchupTailer = null;
       if (mStandbyJournalTailer != null && mStandbyJournalTailer.getLatestJournalTailer() != null
           && mStandbyJournalTailer.getLatestJournalTailer().isValid()) {
         // This master was previously in standby mode, and processed some of the journal. Re-use the
@@ -132,7 +132,13 @@ public abstract class AbstractMaster implements Master {
             getName());
         catchupTailer = mStandbyJournalTailer.getLatestJournalTailer();
         catchupTailer.processNextJournalLogFiles();
-      } else {
+        if (!catchupTailer.isValid()) {
+          // The logs it had not read yet were reflected by a newer checkpoint and deleted.
+          LOG.info("{}: the standby journal tailer is out of date.", getName());
+          catchupTailer = null;
+        }
+      }
+      if (catchupTailer == null) {
         // This master has not successfully processed any of the journal, so create a fresh tailer
         // to process the entire journal.
         catchupTailer = new JournalTailer(this, mJournal);
@@ -167,7 +173,12 @@ public abstract class AbstractMaster implements Master {
   public void stop() throws IOException {
     LOG.info("{}: Stopping {} master.", getName(), mIsLeader ? "leader" : "standby");
     if (mIsLeader) {
-      // Stop this leader master.
+      // Stop this leader master. The async journal writer writes out the remaining entries before
+      // the journal writer is closed.
+      if (mAsyncJournalWriter != null) {
+        mAsyncJournalWriter.close();
+        mAsyncJournalWriter = null;
+      }
       if (mJournalWriter != null) {
         mJournalWriter.close();
         mJournalWriter = null;
@@ -20,11 +20,14 @@ import alluxio.wire.FileInfo;
 
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -39,10 +42,12 @@ public class MasterSource implements Source {
   private static final String MASTER_SOURCE_NAME = "master";
 
   public static final String DIRECTORIES_CREATED = "DirectoriesCreated";
+  public static final String DIRECTORIES_LOADED = "DirectoriesLoaded";
   public static final String FILE_BLOCK_INFOS_GOT = "FileBlockInfosGot";
   public static final String FILE_INFOS_GOT = "FileInfosGot";
   public static final String FILES_COMPLETED = "FilesCompleted";
   public static final String FILES_CREATED = "FilesCreated";
+  public static final String FILES_EXPIRED = "FilesExpired";
   public static final String FILES_FREED = "FilesFreed";
   public static final String FILES_PERSISTED = "FilesPersisted";
   public static final String NEW_BLOCKS_GOT = "NewBlocksGot";
@@ -62,6 +67,8 @@ public class MasterSource implements Source {
   public static final String RENAME_PATH_OPS = "RenamePathOps";
   public static final String SET_ATTRIBUTE_OPS = "SetAttributeOps";
   public static final String UNMOUNT_OPS = "UnmountOps";
+  public static final String JOURNAL_FLUSH_BATCH_SIZE = "JournalFlushBatchSize";
+  public static final String JOURNAL_FLUSH_TIMER = "JournalFlushTimer";
   public static final String CAPACITY_TOTAL = "CapacityTotal";
   public static final String CAPACITY_USED = "CapacityUsed";
   public static final String CAPACITY_FREE = "CapacityFree";
@@ -77,6 +84,8 @@ public class MasterSource implements Source {
 
   private final Counter mDirectoriesCreated =
       mMetricRegistry.counter(MetricRegistry.name(DIRECTORIES_CREATED));
+  private final Counter mDirectoriesLoaded =
+      mMetricRegistry.counter(MetricRegistry.name(DIRECTORIES_LOADED));
   private final Counter mFileBlockInfosGot =
       mMetricRegistry.counter(MetricRegistry.name(FILE_BLOCK_INFOS_GOT));
   private final Counter mFileInfosGot =
@@ -85,6 +94,8 @@ public class MasterSource implements Source {
       mMetricRegistry.counter(MetricRegistry.name(FILES_COMPLETED));
   private final Counter mFilesCreated =
       mMetricRegistry.counter(MetricRegistry.name(FILES_CREATED));
+  private final Counter mFilesExpired =
+      mMetricRegistry.counter(MetricRegistry.name(FILES_EXPIRED));
   private final Counter mFilesFreed =
       mMetricRegistry.counter(MetricRegistry.name(FILES_FREED));
   private final Counter mFilesPersisted =
@@ -125,6 +136,11 @@ public class MasterSource implements Source {
   private final Counter mUnmountOps =
       mMetricRegistry.counter(MetricRegistry.name(UNMOUNT_OPS));
 
+  private final Histogram mJournalFlushBatchSize =
+      mMetricRegistry.histogram(MetricRegistry.name(JOURNAL_FLUSH_BATCH_SIZE));
+  private final Timer mJournalFlushTimer =
+      mMetricRegistry.timer(MetricRegistry.name(JOURNAL_FLUSH_TIMER));
+
   /**
    * Constructs a new {@link MasterSource}.
    */
@@ -249,6 +265,15 @@ public class MasterSource implements Source {
     mDirectoriesCreated.inc(n);
   }
 
+  /**
+   * Increments the counter of directories whose children were loaded from the under file system.
+   *
+   * @param n the increment
+   */
+  public void incDirectoriesLoaded(long n) {
+    mDirectoriesLoaded.inc(n);
+  }
+
   /**
    * Increments the counter of {@link FileBlockInfo}s requests.
    *
@@ -285,6 +310,15 @@ public class MasterSource implements Source {
     mFilesCreated.inc(n);
   }
 
+  /**
+   * Increments the counter of files deleted because their TTL expired.
+   *
+   * @param n the increment
+   */
+  public void incFilesExpired(long n) {
+    mFilesExpired.inc(n);
+  }
+
   /**
    * Increments the counter of freed files.
    *
@@ -455,4 +489,15 @@ public class MasterSource implements Source {
   public void incUnmountOps(long n) {
     mUnmountOps.inc(n);
   }
+
+  /**
+   * Records a batch of entries written and flushed to the journal.
+   *
+   * @param batchSize the number of entries in the batch
+   * @param durationNs the time spent writing and flushing the batch, in nanoseconds
+   */
+  public void updateJournalFlush(int batchSize, long durationNs) {
+    mJournalFlushBatchSize.update(batchSize);
+    mJournalFlushTimer.update(durationNs, TimeUnit.NANOSECONDS);
+  }
 }
@@ -25,6 +25,7 @@ import alluxio.heartbeat.HeartbeatContext;
 import alluxio.heartbeat.HeartbeatExecutor;
 import alluxio.heartbeat.HeartbeatThread;
 import alluxio.master.AbstractMaster;
+import alluxio.master.block.options.RegisterWorkerOptions;
 import alluxio.master.block.meta.MasterBlockInfo;
 import alluxio.master.block.meta.MasterBlockLocation;
 import alluxio.master.block.meta.MasterWorkerInfo;
@@ -66,6 +67,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.concurrent.GuardedBy;
@@ -152,6 +154,13 @@ public final class BlockMaster extends AbstractMaster implements ContainerIdGene
   @SuppressFBWarnings("URF_UNREAD_FIELD")
   private Future<?> mLostWorkerDetectionService;
 
+  /**
+   * Limits the number of worker registration calls processed at the same time, so that many
+   * workers registering at once, e.g. when a cluster starts, do not overwhelm the master.
+   */
+  private final Semaphore mRegisterPermits =
+      new Semaphore(Configuration.getInt(Constants.MASTER_WORKER_REGISTER_CONCURRENCY), true);
+
   /** The next worker id to use. This state must be journaled. */
   private final AtomicLong mNextWorkerId = new AtomicLong(1);
 
@@ -610,7 +619,7 @@ public final class BlockMaster extends AbstractMaster implements ContainerIdGene
   }
 
   /**
-   * Updates metadata when a worker registers with the master.
+   * Updates metadata when a worker registers with the master in a single call.
    *
    * @param workerId the worker id of the worker registering
    * @param storageTiers a list of storage tier aliases in order of their position in the worker's
@@ -623,11 +632,65 @@ public final class BlockMaster extends AbstractMaster implements ContainerIdGene
   public void workerRegister(long workerId, List<String> storageTiers,
       Map<String, Long> totalBytesOnTiers, Map<String, Long> usedBytesOnTiers,
       Map<String, List<Long>> currentBlocksOnTiers) throws NoWorkerException {
+    workerRegister(workerId, storageTiers, totalBytesOnTiers, usedBytesOnTiers,
+        currentBlocksOnTiers, RegisterWorkerOptions.defaults());
+  }
+
+  /**
+   * Updates metadata when a worker registers with the master. A worker with many blocks registers
+   * in several calls, each carrying a batch of its blocks, and the master processes each batch as
+   * it arrives instead of gathering the full block report first.
+   *
+   * @param workerId the worker id of the worker registering
+   * @param storageTiers a list of storage tier aliases in order of their position in the worker's
+   *        hierarchy
+   * @param totalBytesOnTiers a mapping from storage tier alias to total bytes
+   * @param usedBytesOnTiers a mapping from storage tier alias to the used byes
+   * @param currentBlocksOnTiers a mapping from storage tier alias to a list of blocks
+   * @param options the options for registering the worker
+   * @throws NoWorkerException if workerId cannot be found, or if the call continues a registration
+   *         which was not started
+   */
+  public void workerRegister(long workerId, List<String> storageTiers,
+      Map<String, Long> totalBytesOnTiers, Map<String, Long> usedBytesOnTiers,
+      Map<String, List<Long>> currentBlocksOnTiers, RegisterWorkerOptions options)
+      throws NoWorkerException {
     MasterWorkerInfo worker = mWorkers.getFirstByField(mIdIndex, workerId);
     if (worker == null) {
       throw new NoWorkerException(ExceptionMessage.NO_WORKER_FOUND.getMessage(workerId));
     }
 
+    mRegisterPermits.acquireUninterruptibly();
+    try {
+      if (options.isContinued() || options.hasMore()) {
+        registerBatch(worker, storageTiers, totalBytesOnTiers, usedBytesOnTiers,
+            currentBlocksOnTiers, options);
+      } else {
+        registerAll(worker, storageTiers, totalBytesOnTiers, usedBytesOnTiers,
+            currentBlocksOnTiers);
+      }
+    } finally {
+      mRegisterPermits.release();
+    }
+
+    if (!options.hasMore()) {
+      LOG.info("registerWorker(): {}", worker);
+    }
+  }
+
+  /**
+   * Registers a worker whose blocks are all reported in a single call.
+   *
+   * @param worker the worker metadata object
+   * @param storageTiers a list of storage tier aliases in order of their position in the worker's
+   *        hierarchy
+   * @param totalBytesOnTiers a mapping from storage tier alias to total bytes
+   * @param usedBytesOnTiers a mapping from storage tier alias to the used byes
+   * @param currentBlocksOnTiers a mapping from storage tier alias to a list of blocks
+   */
+  private void registerAll(MasterWorkerInfo worker, List<String> storageTiers,
+      Map<String, Long> totalBytesOnTiers, Map<String, Long> usedBytesOnTiers,
+      Map<String, List<Long>> currentBlocksOnTiers) {
     // Gather all blocks on this worker.
     HashSet<Long> blocks = new HashSet<>();
     for (List<Long> blockIds : currentBlocksOnTiers.values()) {
@@ -642,8 +705,45 @@ public final class BlockMaster extends AbstractMaster implements ContainerIdGene
       processWorkerRemovedBlocks(worker, removedBlocks);
       processWorkerAddedBlocks(worker, currentBlocksOnTiers);
     }
+  }
 
-    LOG.info("registerWorker(): {}", worker);
+  /**
+   * Processes one batch of a worker registration done in several calls. The first batch starts
+   * the registration, and the blocks the worker had before which are not reported by any batch
+   * are removed from the worker once the last batch is processed.
+   *
+   * @param worker the worker metadata object
+   * @param storageTiers a list of storage tier aliases in order of their position in the worker's
+   *        hierarchy
+   * @param totalBytesOnTiers a mapping from storage tier alias to total bytes
+   * @param usedBytesOnTiers a mapping from storage tier alias to the used byes
+   * @param blocksOnTiers a mapping from storage tier alias to the blocks in the batch
+   * @param options the options for registering the worker
+   * @throws NoWorkerException if the batch continues a registration which was not started
+   */
+  private void registerBatch(MasterWorkerInfo worker, List<String> storageTiers,
+      Map<String, Long> totalBytesOnTiers, Map<String, Long> usedBytesOnTiers,
+      Map<String, List<Long>> blocksOnTiers, RegisterWorkerOptions options)
+      throws NoWorkerException {
+    synchronized (worker) {
+      if (!options.isContinued()) {
+        worker.startRegister(mGlobalStorageTierAssoc, storageTiers, totalBytesOnTiers,
+            usedBytesOnTiers);
+      } else if (!worker.isRegistering()) {
+        // The master may have restarted or lost the worker since the registration started.
+        throw new NoWorkerException(
+            ExceptionMessage.WORKER_REGISTRATION_NOT_STARTED.getMessage(worker.getId()));
+      }
+      worker.updateLastUpdatedTimeMs();
+      for (List<Long> blockIds : blocksOnTiers.values()) {
+        worker.registerBlocks(blockIds);
+      }
+      processWorkerAddedBlocks(worker, blocksOnTiers);
+      if (!options.hasMore()) {
+        // Detect any lost blocks on this worker.
+        processWorkerRemovedBlocks(worker, worker.finishRegister());
+      }
+    }
   }
 
   /**
@@ -812,7 +912,11 @@ public final class BlockMaster extends AbstractMaster implements ContainerIdGene
                 lastUpdate);
             mLostWorkers.add(worker);
             mWorkers.remove(worker);
-            processWorkerRemovedBlocks(worker, worker.getBlocks());
+            // The blocks not confirmed yet by a registration in progress are still locations of
+            // the worker too.
+            Set<Long> removedBlocks = worker.getBlocks();
+            removedBlocks.addAll(worker.cancelRegister());
+            processWorkerRemovedBlocks(worker, removedBlocks);
           }
         }
       }
@@ -13,9 +13,11 @@ package alluxio.master.block;
 
 import alluxio.Constants;
 import alluxio.exception.AlluxioException;
+import alluxio.master.block.options.RegisterWorkerOptions;
 import alluxio.thrift.AlluxioTException;
 import alluxio.thrift.BlockMasterWorkerService;
 import alluxio.thrift.Command;
+import alluxio.thrift.RegisterWorkerTOptions;
 import alluxio.thrift.WorkerNetAddress;
 import alluxio.wire.ThriftUtils;
 
@@ -56,10 +58,12 @@ public class BlockMasterWorkerServiceHandler implements BlockMasterWorkerService
   @Override
   public void registerWorker(long workerId, List<String> storageTiers,
       Map<String, Long> totalBytesOnTiers, Map<String, Long> usedBytesOnTiers,
-      Map<String, List<Long>> currentBlocksOnTiers) throws AlluxioTException {
+      Map<String, List<Long>> currentBlocksOnTiers, RegisterWorkerTOptions options)
+      throws AlluxioTException {
     try {
-      mBlockMaster.workerRegister(workerId, storageTiers, totalBytesOnTiers,
-          usedBytesOnTiers, currentBlocksOnTiers);
+      mBlockMaster.workerRegister(workerId, storageTiers, totalBytesOnTiers, usedBytesOnTiers,
+          currentBlocksOnTiers, options == null ? RegisterWorkerOptions.defaults()
+              : new RegisterWorkerOptions(options));
     } catch (AlluxioException e) {
       throw e.toThrift();
     }
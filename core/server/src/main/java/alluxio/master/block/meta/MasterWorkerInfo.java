@@ -25,6 +25,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -65,6 +66,11 @@ public final class MasterWorkerInfo {
   private Set<Long> mBlocks;
   /** ids of blocks the worker should remove. */
   private Set<Long> mToRemoveBlocks;
+  /**
+   * ids of blocks the worker had before a registration in batches started, and which were not
+   * reported by the batches received so far, or null if no such registration is in progress.
+   */
+  private Set<Long> mUnconfirmedBlocks;
 
   /**
    * Creates a new instance of {@link MasterWorkerInfo}.
@@ -83,6 +89,7 @@ public final class MasterWorkerInfo {
     mUsedBytesOnTiers = new HashMap<>();
     mBlocks = new HashSet<>();
     mToRemoveBlocks = new HashSet<>();
+    mUnconfirmedBlocks = null;
   }
 
   /**
@@ -99,6 +106,130 @@ public final class MasterWorkerInfo {
   public Set<Long> register(final StorageTierAssoc globalStorageTierAssoc,
       final List<String> storageTierAliases, final Map<String, Long> totalBytesOnTiers,
       final Map<String, Long> usedBytesOnTiers, final Set<Long> blocks) {
+    updateTiers(globalStorageTierAssoc, storageTierAliases, totalBytesOnTiers, usedBytesOnTiers);
+
+    Set<Long> removedBlocks;
+    if (mUnconfirmedBlocks != null) {
+      // A registration in batches was interrupted, the worker had the blocks confirmed so far and
+      // the blocks still unconfirmed.
+      LOG.info("re-registering workerId: {} during a registration in batches", mId);
+      mUnconfirmedBlocks.addAll(mBlocks);
+      removedBlocks = Sets.difference(mUnconfirmedBlocks, blocks);
+    } else if (mIsRegistered) {
+      // This is a re-register of an existing worker. Assume the new block ownership data is more
+      // up-to-date and update the existing block information.
+      LOG.info("re-registering an existing workerId: {}", mId);
+
+      // Compute the difference between the existing block data, and the new data.
+      removedBlocks = Sets.difference(mBlocks, blocks);
+    } else {
+      removedBlocks = Collections.emptySet();
+    }
+
+    // Set the new block information.
+    mBlocks = new HashSet<>(blocks);
+    mUnconfirmedBlocks = null;
+
+    mIsRegistered = true;
+    return removedBlocks;
+  }
+
+  /**
+   * Starts a registration in batches, while updating the storage metadata of the worker. The
+   * blocks of the worker are then reported by {@link #registerBlocks(Collection)}, and the
+   * registration completes with {@link #finishRegister()}.
+   *
+   * The current blocks of the worker are set aside rather than copied, so that the blocks which
+   * are not reported again can be found without building the full block report in memory. If a
+   * registration in batches is already in progress, the blocks it confirmed so far are set aside
+   * with the blocks it did not confirm yet.
+   *
+   * @param globalStorageTierAssoc global mapping between storage aliases and ordinal position
+   * @param storageTierAliases list of storage tier aliases in order of their position in the
+   *        hierarchy
+   * @param totalBytesOnTiers mapping from storage tier alias to total bytes
+   * @param usedBytesOnTiers mapping from storage tier alias to used byes
+   */
+  public void startRegister(final StorageTierAssoc globalStorageTierAssoc,
+      final List<String> storageTierAliases, final Map<String, Long> totalBytesOnTiers,
+      final Map<String, Long> usedBytesOnTiers) {
+    updateTiers(globalStorageTierAssoc, storageTierAliases, totalBytesOnTiers, usedBytesOnTiers);
+    if (mUnconfirmedBlocks != null) {
+      // The registration was interrupted and started again, or its first batch was sent again.
+      // The blocks confirmed so far have to be confirmed again, so that the registration has the
+      // same outcome as if it had only started once.
+      LOG.info("restarting the registration of workerId: {}", mId);
+      mUnconfirmedBlocks.addAll(mBlocks);
+    } else if (mIsRegistered) {
+      LOG.info("re-registering an existing workerId: {}", mId);
+      mUnconfirmedBlocks = mBlocks;
+    } else {
+      mUnconfirmedBlocks = new HashSet<>();
+    }
+    mBlocks = new HashSet<>();
+  }
+
+  /**
+   * @return whether a registration in batches is in progress
+   */
+  public boolean isRegistering() {
+    return mUnconfirmedBlocks != null;
+  }
+
+  /**
+   * Marks blocks reported by a batch of a registration as confirmed. The blocks still have to be
+   * added to the worker with {@link #addBlock(long)}.
+   *
+   * @param blocks the ids of the blocks in the batch
+   */
+  public void registerBlocks(Collection<Long> blocks) {
+    Preconditions.checkState(mUnconfirmedBlocks != null, "no registration is in progress");
+    for (long blockId : blocks) {
+      mUnconfirmedBlocks.remove(blockId);
+    }
+  }
+
+  /**
+   * Completes a registration in batches, and marks the worker as registered.
+   *
+   * @return the blocks removed (or lost) from this worker, which were not reported by any batch
+   */
+  public Set<Long> finishRegister() {
+    Preconditions.checkState(mUnconfirmedBlocks != null, "no registration is in progress");
+    Set<Long> removedBlocks = mUnconfirmedBlocks;
+    mUnconfirmedBlocks = null;
+    mIsRegistered = true;
+    return removedBlocks;
+  }
+
+  /**
+   * Abandons the registration in batches in progress, if any, e.g. when the worker is lost. The
+   * worker has to start its registration again.
+   *
+   * @return the blocks the abandoned registration did not confirm, which the worker may not have
+   *         anymore, or an empty set if no registration is in progress
+   */
+  public Set<Long> cancelRegister() {
+    if (mUnconfirmedBlocks == null) {
+      return Collections.emptySet();
+    }
+    Set<Long> unconfirmedBlocks = mUnconfirmedBlocks;
+    mUnconfirmedBlocks = null;
+    return unconfirmedBlocks;
+  }
+
+  /**
+   * Validates and sets the storage tiers of the worker and their capacity and usage.
+   *
+   * @param globalStorageTierAssoc global mapping between storage aliases and ordinal position
+   * @param storageTierAliases list of storage tier aliases in order of their position in the
+   *        hierarchy
+   * @param totalBytesOnTiers mapping from storage tier alias to total bytes
+   * @param usedBytesOnTiers mapping from storage tier alias to used byes
+   */
+  private void updateTiers(StorageTierAssoc globalStorageTierAssoc,
+      List<String> storageTierAliases, Map<String, Long> totalBytesOnTiers,
+      Map<String, Long> usedBytesOnTiers) {
     // If the storage aliases do not have strictly increasing ordinal value based on the total
     // ordering, throw an error
     for (int i = 0; i < storageTierAliases.size() - 1; i++) {
@@ -131,24 +262,6 @@ public final class MasterWorkerInfo {
     for (long bytes : mUsedBytesOnTiers.values()) {
       mUsedBytes += bytes;
     }
-
-    Set<Long> removedBlocks;
-    if (mIsRegistered) {
-      // This is a re-register of an existing worker. Assume the new block ownership data is more
-      // up-to-date and update the existing block information.
-      LOG.info("re-registering an existing workerId: {}", mId);
-
-      // Compute the difference between the existing block data, and the new data.
-      removedBlocks = Sets.difference(mBlocks, blocks);
-    } else {
-      removedBlocks = Collections.emptySet();
-    }
-
-    // Set the new block information.
-    mBlocks = new HashSet<>(blocks);
-
-    mIsRegistered = true;
-    return removedBlocks;
   }
 
   /**
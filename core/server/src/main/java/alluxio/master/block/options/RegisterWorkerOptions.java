@@ -0,0 +1,107 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.block.options;
+
+import alluxio.thrift.RegisterWorkerTOptions;
+
+import com.google.common.base.Objects;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Method options for registering a worker. A worker may register in several calls, each carrying
+ * a batch of its blocks, so that the master never has to hold the full block report of a worker.
+ */
+@NotThreadSafe
+public final class RegisterWorkerOptions {
+  private boolean mContinued;
+  private boolean mHasMore;
+
+  /**
+   * @return the default {@link RegisterWorkerOptions}, for a registration done in a single call
+   */
+  public static RegisterWorkerOptions defaults() {
+    return new RegisterWorkerOptions();
+  }
+
+  private RegisterWorkerOptions() {
+    mContinued = false;
+    mHasMore = false;
+  }
+
+  /**
+   * Creates a new instance of {@link RegisterWorkerOptions} from {@link RegisterWorkerTOptions}.
+   *
+   * @param options the thrift representation of register worker options
+   */
+  public RegisterWorkerOptions(RegisterWorkerTOptions options) {
+    mContinued = options.isSetContinued() && options.isContinued();
+    mHasMore = options.isSetHasMore() && options.isHasMore();
+  }
+
+  /**
+   * @return whether the call continues a registration started by a previous call
+   */
+  public boolean isContinued() {
+    return mContinued;
+  }
+
+  /**
+   * @return whether more calls follow to complete the registration
+   */
+  public boolean hasMore() {
+    return mHasMore;
+  }
+
+  /**
+   * @param continued whether the call continues a registration started by a previous call
+   * @return the updated options object
+   */
+  public RegisterWorkerOptions setContinued(boolean continued) {
+    mContinued = continued;
+    return this;
+  }
+
+  /**
+   * @param hasMore whether more calls follow to complete the registration
+   * @return the updated options object
+   */
+  public RegisterWorkerOptions setHasMore(boolean hasMore) {
+    mHasMore = hasMore;
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof RegisterWorkerOptions)) {
+      return false;
+    }
+    RegisterWorkerOptions that = (RegisterWorkerOptions) o;
+    return Objects.equal(mContinued, that.mContinued) && Objects.equal(mHasMore, that.mHasMore);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(mContinued, mHasMore);
+  }
+
+  @Override
+  public String toString() {
+    return Objects.toStringHelper(this)
+        .add("continued", mContinued)
+        .add("hasMore", mHasMore)
+        .toString();
+  }
+}
@@ -14,6 +14,7 @@ package alluxio.master.file;
 import alluxio.AlluxioURI;
 import alluxio.Configuration;
 import alluxio.Constants;
+import alluxio.collections.Pair;
 import alluxio.collections.PrefixList;
 import alluxio.exception.AccessControlException;
 import alluxio.exception.AlluxioException;
@@ -44,6 +45,7 @@ import alluxio.master.file.meta.InodePathPair;
 import alluxio.master.file.meta.InodeTree;
 import alluxio.master.file.meta.LockedInodePath;
 import alluxio.master.file.meta.MountTable;
+import alluxio.master.file.meta.OptimisticInodePath;
 import alluxio.master.file.meta.PersistenceState;
 import alluxio.master.file.meta.TempInodePathForChild;
 import alluxio.master.file.meta.TempInodePathForDescendant;
@@ -77,6 +79,8 @@ import alluxio.proto.journal.File.RenameEntry;
 import alluxio.proto.journal.File.SetAttributeEntry;
 import alluxio.proto.journal.File.StringPairEntry;
 import alluxio.proto.journal.Journal.JournalEntry;
+import alluxio.security.User;
+import alluxio.security.authentication.AuthenticatedClientUser;
 import alluxio.security.authorization.Mode;
 import alluxio.security.authorization.Permission;
 import alluxio.thrift.CommandType;
@@ -86,9 +90,13 @@ import alluxio.thrift.FileSystemMasterClientService;
 import alluxio.thrift.FileSystemMasterWorkerService;
 import alluxio.thrift.PersistCommandOptions;
 import alluxio.thrift.PersistFile;
+import alluxio.underfs.UnderFileStatus;
 import alluxio.underfs.UnderFileSystem;
 import alluxio.underfs.options.MkdirsOptions;
+import alluxio.util.CommonUtils;
 import alluxio.util.IdUtils;
+import alluxio.util.SecurityUtils;
+import alluxio.util.ThreadFactoryUtils;
 import alluxio.util.io.PathUtils;
 import alluxio.wire.BlockInfo;
 import alluxio.wire.BlockLocation;
@@ -97,8 +105,10 @@ import alluxio.wire.FileInfo;
 import alluxio.wire.LoadMetadataType;
 import alluxio.wire.WorkerInfo;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.RateLimiter;
 import com.google.protobuf.Message;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.apache.commons.lang.exception.ExceptionUtils;
@@ -114,6 +124,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import javax.annotation.concurrent.NotThreadSafe;
@@ -125,6 +141,15 @@ import javax.annotation.concurrent.NotThreadSafe;
 public final class FileSystemMaster extends AbstractMaster {
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
 
+  /**
+   * The number of times a read-only operation is attempted without locking the inodes, before
+   * falling back to locking them.
+   */
+  private static final int OPTIMISTIC_READ_ATTEMPTS = 3;
+
+  /** The number of directories between two logs of the progress of a recursive metadata load. */
+  private static final int METADATA_LOAD_PROGRESS_LOG_INTERVAL = 1000;
+
   /**
    * Locking in the FileSystemMaster
    *
@@ -222,6 +247,12 @@ public final class FileSystemMaster extends AbstractMaster {
   @SuppressFBWarnings("URF_UNREAD_FIELD")
   private Future<?> mLostFilesDetectionService;
 
+  /**
+   * The threads loading the metadata of the directories of a tree in parallel, or null if this
+   * master is not the leader.
+   */
+  private ExecutorService mMetadataLoadExecutor;
+
   /**
    * @param baseDirectory the base journal directory
    * @return the journal directory for this master
@@ -378,9 +409,21 @@ public final class FileSystemMaster extends AbstractMaster {
       mLostFilesDetectionService = getExecutorService().submit(new HeartbeatThread(
           HeartbeatContext.MASTER_LOST_FILES_DETECTION, new LostFilesDetectionHeartbeatExecutor(),
           Configuration.getInt(Constants.MASTER_HEARTBEAT_INTERVAL_MS)));
+      mMetadataLoadExecutor =
+          Executors.newFixedThreadPool(Configuration.getInt(Constants.MASTER_METADATA_LOAD_THREADS),
+              ThreadFactoryUtils.build("metadata-load-%d", true));
     }
   }
 
+  @Override
+  public void stop() throws IOException {
+    if (mMetadataLoadExecutor != null) {
+      mMetadataLoadExecutor.shutdownNow();
+      mMetadataLoadExecutor = null;
+    }
+    super.stop();
+  }
+
   /**
    * Returns the file id for a given path. If the given path does not exist in Alluxio, the method
    * attempts to load it from UFS.
@@ -441,6 +484,10 @@ public final class FileSystemMaster extends AbstractMaster {
   public FileInfo getFileInfo(AlluxioURI path)
       throws FileDoesNotExistException, InvalidPathException, AccessControlException {
     MasterContext.getMasterSource().incGetFileInfoOps(1);
+    FileInfo fileInfo = getFileInfoOptimistic(path);
+    if (fileInfo != null) {
+      return fileInfo;
+    }
     long flushCounter = AsyncJournalWriter.INVALID_FLUSH_COUNTER;
     try (LockedInodePath inodePath = mInodeTree.lockInodePath(path, InodeTree.LockMode.WRITE)) {
       // This is WRITE locked, since loading metadata is possible.
@@ -455,6 +502,42 @@ public final class FileSystemMaster extends AbstractMaster {
     }
   }
 
+  /**
+   * Returns the {@link FileInfo} for a given path without locking the inodes of the path. This only
+   * succeeds if the path exists, so that no metadata has to be loaded, and none of its inodes is
+   * modified while the {@link FileInfo} is generated.
+   *
+   * @param path the path to get the {@link FileInfo} for
+   * @return the {@link FileInfo} for the given path, or null if the path has to be locked
+   * @throws InvalidPathException if the file path is not valid
+   * @throws AccessControlException if permission checking fails
+   */
+  private FileInfo getFileInfoOptimistic(AlluxioURI path)
+      throws InvalidPathException, AccessControlException {
+    for (int i = 0; i < OPTIMISTIC_READ_ATTEMPTS; i++) {
+      OptimisticInodePath inodePath = mInodeTree.getInodePathOptimistic(path);
+      if (inodePath == null) {
+        return null;
+      }
+      try {
+        mPermissionChecker.checkPermission(Mode.Bits.READ, inodePath);
+        FileInfo fileInfo = getFileInfoInternal(inodePath);
+        if (inodePath.validate()) {
+          return fileInfo;
+        }
+      } catch (AccessControlException | InvalidPathException e) {
+        // The failure is only genuine if it was based on consistent inodes.
+        if (inodePath.validate()) {
+          throw e;
+        }
+      } catch (FileDoesNotExistException | RuntimeException e) {
+        // The inodes were modified concurrently, let the locked path sort it out.
+        return null;
+      }
+    }
+    return null;
+  }
+
   /**
    * @param inodePath the {@link LockedInodePath} to get the {@link FileInfo} for
    * @return the {@link FileInfo} for the given inode
@@ -504,7 +587,9 @@ public final class FileSystemMaster extends AbstractMaster {
   /**
    * Returns a list of {@link FileInfo} for a given path. If the given path is a file, the list only
    * contains a single object. If it is a directory, the resulting list contains all direct children
-   * of the directory.
+   * of the directory. If the options set a batch size, at most that many children are listed, in
+   * name order, starting after the name set in the options, so that huge directories can be listed
+   * in batches.
    * <p>
    * This operation requires users to have
    * {@link Mode.Bits#READ} permission on the path, and also
@@ -520,19 +605,23 @@ public final class FileSystemMaster extends AbstractMaster {
   public List<FileInfo> listStatus(AlluxioURI path, ListStatusOptions listStatusOptions)
       throws AccessControlException, FileDoesNotExistException, InvalidPathException {
     MasterContext.getMasterSource().incGetFileInfoOps(1);
+    List<FileInfo> fileInfos = listStatusOptimistic(path, listStatusOptions);
+    if (fileInfos != null) {
+      return fileInfos;
+    }
     long flushCounter = AsyncJournalWriter.INVALID_FLUSH_COUNTER;
+    LoadMetadataType loadMetadataType = getLoadMetadataType(listStatusOptions);
     try (LockedInodePath inodePath = mInodeTree.lockInodePath(path, InodeTree.LockMode.WRITE)) {
       // This is WRITE locked, since loading metadata is possible.
       mPermissionChecker.checkPermission(Mode.Bits.READ, inodePath);
 
-      LoadMetadataOptions loadMetadataOptions =
-          LoadMetadataOptions.defaults().setCreateAncestors(true).setLoadDirectChildren(
-              listStatusOptions.getLoadMetadataType() != LoadMetadataType.Never);
+      LoadMetadataOptions loadMetadataOptions = LoadMetadataOptions.defaults()
+          .setCreateAncestors(true)
+          .setLoadDirectChildren(loadMetadataType != LoadMetadataType.Never);
       Inode<?> inode;
       if (inodePath.fullPathExists()) {
         inode = inodePath.getInode();
-        if (inode.isDirectory()
-            && listStatusOptions.getLoadMetadataType() != LoadMetadataType.Always
+        if (inode.isDirectory() && loadMetadataType != LoadMetadataType.Always
             && ((InodeDirectory) inode).isDirectChildrenLoaded()) {
           loadMetadataOptions.setLoadDirectChildren(false);
         }
@@ -546,7 +635,8 @@ public final class FileSystemMaster extends AbstractMaster {
       if (inode.isDirectory()) {
         TempInodePathForDescendant tempInodePath = new TempInodePathForDescendant(inodePath);
         mPermissionChecker.checkPermission(Mode.Bits.EXECUTE, inodePath);
-        for (Inode<?> child : ((InodeDirectory) inode).getChildren()) {
+        for (Inode<?> child : ((InodeDirectory) inode).getChildren(
+            listStatusOptions.getStartAfter(), listStatusOptions.getBatchSize())) {
           child.lockRead();
           try {
             // the path to child for getPath should already be locked.
@@ -556,7 +646,8 @@ public final class FileSystemMaster extends AbstractMaster {
             child.unlockRead();
           }
         }
-      } else {
+      } else if (listStatusOptions.getStartAfter() == null) {
+        // A file is listed as a single entry, there is nothing after it.
         ret.add(getFileInfoInternal(inodePath));
       }
       MasterContext.getMasterSource().incFileInfosGot(ret.size());
@@ -567,6 +658,85 @@ public final class FileSystemMaster extends AbstractMaster {
     }
   }
 
+  /**
+   * Gets how to load the metadata of the children of a directory being listed. Metadata is only
+   * loaded with the first batch of a listing, so {@link LoadMetadataType#Always} does not reload
+   * the children for each of the following batches.
+   *
+   * @param listStatusOptions the options of the listing
+   * @return how to load the metadata of the children
+   */
+  private static LoadMetadataType getLoadMetadataType(ListStatusOptions listStatusOptions) {
+    LoadMetadataType loadMetadataType = listStatusOptions.getLoadMetadataType();
+    if (listStatusOptions.getStartAfter() != null && loadMetadataType == LoadMetadataType.Always) {
+      return LoadMetadataType.Once;
+    }
+    return loadMetadataType;
+  }
+
+  /**
+   * Lists the status of a given path without locking the inodes of the path or of its children.
+   * This only succeeds if no metadata has to be loaded for the path, and none of the inodes is
+   * modified while the {@link FileInfo}s are generated.
+   *
+   * @param path the path to get the {@link FileInfo} list for
+   * @param listStatusOptions the {@link alluxio.master.file.options.ListStatusOptions}
+   * @return the list of {@link FileInfo}s, or null if the path has to be locked
+   * @throws AccessControlException if permission checking fails
+   * @throws InvalidPathException if the path is invalid
+   */
+  private List<FileInfo> listStatusOptimistic(AlluxioURI path,
+      ListStatusOptions listStatusOptions) throws AccessControlException, InvalidPathException {
+    LoadMetadataType loadMetadataType = getLoadMetadataType(listStatusOptions);
+    for (int i = 0; i < OPTIMISTIC_READ_ATTEMPTS; i++) {
+      OptimisticInodePath inodePath = mInodeTree.getInodePathOptimistic(path);
+      if (inodePath == null) {
+        return null;
+      }
+      try {
+        Inode<?> inode = inodePath.getInode();
+        if (inode.isDirectory() && inode.isPersisted() && loadMetadataType != LoadMetadataType.Never
+            && (loadMetadataType == LoadMetadataType.Always
+            || !((InodeDirectory) inode).isDirectChildrenLoaded())) {
+          // Loading the children requires the path to be locked.
+          return null;
+        }
+        mPermissionChecker.checkPermission(Mode.Bits.READ, inodePath);
+
+        List<FileInfo> ret = new ArrayList<>();
+        boolean consistent = true;
+        if (inode.isDirectory()) {
+          TempInodePathForDescendant tempInodePath = new TempInodePathForDescendant(inodePath);
+          mPermissionChecker.checkPermission(Mode.Bits.EXECUTE, inodePath);
+          for (Inode<?> child : ((InodeDirectory) inode).getChildren(
+              listStatusOptions.getStartAfter(), listStatusOptions.getBatchSize())) {
+            if (!inodePath.observe(child)) {
+              consistent = false;
+              break;
+            }
+            tempInodePath.setDescendant(child, path.join(child.getName()));
+            ret.add(getFileInfoInternal(tempInodePath));
+          }
+        } else if (listStatusOptions.getStartAfter() == null) {
+          ret.add(getFileInfoInternal(inodePath));
+        }
+        if (consistent && inodePath.validate()) {
+          MasterContext.getMasterSource().incFileInfosGot(ret.size());
+          return ret;
+        }
+      } catch (AccessControlException | InvalidPathException e) {
+        // The failure is only genuine if it was based on consistent inodes.
+        if (inodePath.validate()) {
+          throw e;
+        }
+      } catch (FileDoesNotExistException | RuntimeException e) {
+        // The inodes were modified concurrently, let the locked path sort it out.
+        return null;
+      }
+    }
+    return null;
+  }
+
   /**
    * @return a read-only view of the file system master
    */
@@ -1753,6 +1923,10 @@ public final class FileSystemMaster extends AbstractMaster {
    * and its parent path if path is a file, or {@link Mode.Bits#WRITE} permission on the
    * parent path if path is a directory.
    *
+   * If the options are recursive, the metadata of the whole directory tree is loaded, which also
+   * requires {@link Mode.Bits#WRITE} permission on each directory of the tree, see
+   * {@link #loadMetadataRecursively(AlluxioURI, List)}.
+   *
    * @param path the path for which metadata should be loaded
    * @param options the load metadata options
    * @return the file id of the loaded path
@@ -1768,14 +1942,171 @@ public final class FileSystemMaster extends AbstractMaster {
       throws BlockInfoException, FileDoesNotExistException, InvalidPathException,
       InvalidFileSizeException, FileAlreadyCompletedException, IOException, AccessControlException {
     long flushCounter = AsyncJournalWriter.INVALID_FLUSH_COUNTER;
+    long fileId;
+    List<AlluxioURI> subdirectories = Collections.emptyList();
     try (LockedInodePath inodePath = mInodeTree.lockInodePath(path, InodeTree.LockMode.WRITE)) {
       mPermissionChecker.checkParentPermission(Mode.Bits.WRITE, inodePath);
       flushCounter = loadMetadataAndJournal(inodePath, options);
-      return inodePath.getInode().getId();
+      if (options.isRecursive()) {
+        subdirectories = getPersistedSubdirectories(inodePath);
+      }
+      fileId = inodePath.getInode().getId();
     } finally {
       // finally runs after resources are closed (unlocked).
       waitForJournalFlush(flushCounter);
     }
+    if (!subdirectories.isEmpty()) {
+      // The subdirectories are loaded without holding the lock of the path, since the loading
+      // threads lock the path of each subdirectory.
+      loadMetadataRecursively(path, subdirectories);
+    }
+    return fileId;
+  }
+
+  /**
+   * Loads the metadata of the given directories and all their subdirectories from UFS into
+   * Alluxio, in parallel on the metadata load threads.
+   * <p>
+   * This operation requires the client user to have {@link Mode.Bits#WRITE} permission on each of
+   * the directories, which is checked by the loading threads on behalf of the user.
+   * <p>
+   * Each directory is loaded under its own lock, and the children listed in the directory are
+   * created and journaled together. Its subdirectories are then loaded in turn, so sibling
+   * directories are listed from the UFS concurrently. The journal is flushed once, after the whole
+   * tree is loaded. The progress is logged, and counted by the master metrics.
+   * <p>
+   * If a directory fails to load, the directories being loaded are finished, the others are not
+   * loaded and the failure is thrown.
+   *
+   * @param path the path whose subdirectories are loaded, for logging
+   * @param directories the directories to load
+   * @throws AccessControlException if permission checking fails on a directory
+   * @throws IOException if the metadata of a directory failed to load
+   */
+  private void loadMetadataRecursively(AlluxioURI path, List<AlluxioURI> directories)
+      throws AccessControlException, IOException {
+    Preconditions.checkState(mMetadataLoadExecutor != null, "The master is not the leader.");
+    User user = SecurityUtils.isAuthenticationEnabled() ? AuthenticatedClientUser.get() : null;
+    CompletionService<Pair<Long, List<AlluxioURI>>> completionService =
+        new ExecutorCompletionService<>(mMetadataLoadExecutor);
+    long flushCounter = AsyncJournalWriter.INVALID_FLUSH_COUNTER;
+    long startMs = CommonUtils.getCurrentMs();
+    long numLoaded = 0;
+    int numPending = 0;
+    Throwable failure = null;
+    try {
+      for (AlluxioURI directory : directories) {
+        completionService.submit(new DirectoryMetadataLoader(directory, user));
+        numPending++;
+      }
+      while (numPending > 0) {
+        Pair<Long, List<AlluxioURI>> result;
+        try {
+          result = completionService.take().get();
+        } catch (ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause();
+          }
+          continue;
+        } finally {
+          numPending--;
+        }
+        flushCounter = AsyncJournalWriter.getFlushCounter(flushCounter, result.getFirst());
+        numLoaded++;
+        if (numLoaded % METADATA_LOAD_PROGRESS_LOG_INTERVAL == 0) {
+          LOG.info("Loaded the metadata of {} directories under {}, {} directories per second.",
+              numLoaded, path, numLoaded * Constants.SECOND_MS
+                  / Math.max(1, CommonUtils.getCurrentMs() - startMs));
+        }
+        if (failure != null) {
+          // Stop loading new directories after a failure.
+          continue;
+        }
+        for (AlluxioURI subdirectory : result.getSecond()) {
+          completionService.submit(new DirectoryMetadataLoader(subdirectory, user));
+          numPending++;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } finally {
+      waitForJournalFlush(flushCounter);
+    }
+    if (failure != null) {
+      Throwables.propagateIfInstanceOf(failure, AccessControlException.class);
+      Throwables.propagateIfPossible(failure, IOException.class);
+      throw new IOException(failure);
+    }
+    LOG.info("Loaded the metadata of {} directories under {} in {} ms.", numLoaded, path,
+        CommonUtils.getCurrentMs() - startMs);
+  }
+
+  /**
+   * @param inodePath the locked path of an inode
+   * @return the paths of the persisted subdirectories of the inode, which are empty if the inode
+   *         is not a directory
+   * @throws FileDoesNotExistException if the inode does not exist
+   */
+  private List<AlluxioURI> getPersistedSubdirectories(LockedInodePath inodePath)
+      throws FileDoesNotExistException {
+    Inode<?> inode = inodePath.getInode();
+    if (!inode.isDirectory()) {
+      return Collections.emptyList();
+    }
+    List<AlluxioURI> subdirectories = new ArrayList<>();
+    for (Inode<?> child : ((InodeDirectory) inode).getChildren()) {
+      if (child.isDirectory() && child.isPersisted()) {
+        subdirectories.add(inodePath.getUri().join(child.getName()));
+      }
+    }
+    return subdirectories;
+  }
+
+  /**
+   * Loads the metadata of the children of a directory, and returns the flush counter of the journal
+   * entries written and the paths of the subdirectories of the directory. The client user must
+   * have {@link Mode.Bits#WRITE} permission on the directory.
+   */
+  private final class DirectoryMetadataLoader implements Callable<Pair<Long, List<AlluxioURI>>> {
+    private final AlluxioURI mPath;
+    /** The client user loading the metadata, or null if authentication is not enabled. */
+    private final User mUser;
+
+    /**
+     * @param path the path of the directory
+     * @param user the client user loading the metadata, or null if authentication is not enabled
+     */
+    DirectoryMetadataLoader(AlluxioURI path, User user) {
+      mPath = path;
+      mUser = user;
+    }
+
+    @Override
+    public Pair<Long, List<AlluxioURI>> call() throws AlluxioException, IOException {
+      if (mUser != null) {
+        // The permissions are checked for the user of the thread.
+        AuthenticatedClientUser.set(mUser.getName());
+      }
+      try (LockedInodePath inodePath =
+          mInodeTree.lockFullInodePath(mPath, InodeTree.LockMode.WRITE)) {
+        mPermissionChecker.checkPermission(Mode.Bits.WRITE, inodePath);
+        long counter = AsyncJournalWriter.INVALID_FLUSH_COUNTER;
+        if (inodePath.getInode().isPersisted()) {
+          counter = loadMetadataAndJournal(inodePath,
+              LoadMetadataOptions.defaults().setLoadDirectChildren(true));
+          MasterContext.getMasterSource().incDirectoriesLoaded(1);
+        }
+        return new Pair<>(counter, getPersistedSubdirectories(inodePath));
+      } catch (FileDoesNotExistException e) {
+        // The directory was removed concurrently, there is nothing to load.
+        LOG.debug("Directory {} was removed while its metadata was being loaded.", mPath);
+        return new Pair<>(AsyncJournalWriter.INVALID_FLUSH_COUNTER,
+            Collections.<AlluxioURI>emptyList());
+      } finally {
+        AuthenticatedClientUser.remove();
+      }
+    }
   }
 
   /**
@@ -1802,8 +2133,10 @@ public final class FileSystemMaster extends AbstractMaster {
     MountTable.Resolution resolution = mMountTable.resolve(path);
     AlluxioURI ufsUri = resolution.getUri();
     UnderFileSystem ufs = resolution.getUfs();
+    UnderFileStatus ufsStatus = options.getUnderFileStatus();
     try {
-      if (!ufs.exists(ufsUri.toString())) {
+      // A path listed with its parent exists, so only the other paths need to be checked.
+      if (ufsStatus == null && !ufs.exists(ufsUri.toString())) {
         // The root is special as it is considered as PERSISTED by default.
         // We try to load root once. If it doesn't exist, do not try it again.
         if (path.isRoot()) {
@@ -1814,22 +2147,28 @@ public final class FileSystemMaster extends AbstractMaster {
         throw new FileDoesNotExistException(
             ExceptionMessage.PATH_DOES_NOT_EXIST.getMessage(path.getPath()));
       }
-      if (ufs.isFile(ufsUri.toString())) {
+      boolean isFile = ufsStatus != null ? ufsStatus.isFile() : ufs.isFile(ufsUri.toString());
+      if (isFile) {
         return loadFileMetadataAndJournal(inodePath, resolution, options);
       } else {
         long counter = loadDirectoryMetadataAndJournal(inodePath, options);
         InodeDirectory inode = (InodeDirectory) inodePath.getInode();
 
         if (options.isLoadDirectChildren()) {
-          String[] files = ufs.list(ufsUri.getPath());
+          // The metadata of the children is listed in one call, instead of being queried for each
+          // child, which takes several requests per child on object stores.
+          UnderFileStatus[] files = ufs.listStatus(ufsUri.getPath());
           LoadMetadataOptions loadMetadataOptions = LoadMetadataOptions.defaults();
           loadMetadataOptions.setLoadDirectChildren(false).setCreateAncestors(false);
 
-          for (String file : files) {
-            if (PathUtils.isTemporaryFileName(file) || inode.getChild(file) != null) {
+          for (UnderFileStatus file : files) {
+            if (PathUtils.isTemporaryFileName(file.getName())
+                || inode.getChild(file.getName()) != null) {
               continue;
             }
-            TempInodePathForChild tempInodePath = new TempInodePathForChild(inodePath, file);
+            TempInodePathForChild tempInodePath =
+                new TempInodePathForChild(inodePath, file.getName());
+            loadMetadataOptions.setUnderFileStatus(file);
             counter = loadMetadataAndJournal(tempInodePath, loadMetadataOptions);
           }
           inode.setDirectChildrenLoaded(true);
@@ -1867,17 +2206,17 @@ public final class FileSystemMaster extends AbstractMaster {
     AlluxioURI ufsUri = resolution.getUri();
     UnderFileSystem ufs = resolution.getUfs();
 
+    UnderFileStatus ufsStatus = options.getUnderFileStatus();
+
     long ufsBlockSizeByte = ufs.getBlockSizeByte(ufsUri.toString());
-    long ufsLength = ufs.getFileSize(ufsUri.toString());
+    long ufsLength = ufsStatus != null
+        ? ufsStatus.getContentLength() : ufs.getFileSize(ufsUri.toString());
     // Metadata loaded from UFS has no TTL set.
     CreateFileOptions createFileOptions =
         CreateFileOptions.defaults().setBlockSizeBytes(ufsBlockSizeByte)
             .setRecursive(options.isCreateAncestors()).setMetadataLoad(true).setPersisted(true);
-    String ufsOwner = ufs.getOwner(ufsUri.toString());
-    String ufsGroup = ufs.getGroup(ufsUri.toString());
-    short ufsPermission = ufs.getMode(ufsUri.toString());
-    createFileOptions = createFileOptions.setPermission(
-        new Permission(ufsOwner, ufsGroup, ufsPermission));
+    createFileOptions =
+        createFileOptions.setPermission(getUfsPermission(ufs, ufsUri, ufsStatus));
 
     try {
       long counter = createFileAndJournal(inodePath, createFileOptions);
@@ -1920,11 +2259,8 @@ public final class FileSystemMaster extends AbstractMaster {
     MountTable.Resolution resolution = mMountTable.resolve(inodePath.getUri());
     AlluxioURI ufsUri = resolution.getUri();
     UnderFileSystem ufs = resolution.getUfs();
-    String ufsOwner = ufs.getOwner(ufsUri.toString());
-    String ufsGroup = ufs.getGroup(ufsUri.toString());
-    short ufsPermission = ufs.getMode(ufsUri.toString());
     createDirectoryOptions = createDirectoryOptions.setPermission(
-        new Permission(ufsOwner, ufsGroup, ufsPermission));
+        getUfsPermission(ufs, ufsUri, options.getUnderFileStatus()));
 
     try {
       return createDirectoryAndJournal(inodePath, createDirectoryOptions);
@@ -1934,6 +2270,25 @@ public final class FileSystemMaster extends AbstractMaster {
     }
   }
 
+  /**
+   * Gets the permission of a path in the UFS, from its status if it was listed with its parent, or
+   * by querying the UFS otherwise.
+   *
+   * @param ufs the UFS of the path
+   * @param ufsUri the UFS path
+   * @param ufsStatus the status of the path listed with its parent, or null if it is unknown
+   * @return the permission of the path
+   * @throws IOException if an I/O error occurs
+   */
+  private Permission getUfsPermission(UnderFileSystem ufs, AlluxioURI ufsUri,
+      UnderFileStatus ufsStatus) throws IOException {
+    if (ufsStatus != null) {
+      return new Permission(ufsStatus.getOwner(), ufsStatus.getGroup(), ufsStatus.getMode());
+    }
+    String ufsPath = ufsUri.toString();
+    return new Permission(ufs.getOwner(ufsPath), ufs.getGroup(ufsPath), ufs.getMode(ufsPath));
+  }
+
   /**
    * Loads metadata for the path if it is (non-existing || (persisted && load direct children is
    * set).
@@ -2532,42 +2887,156 @@ public final class FileSystemMaster extends AbstractMaster {
     return mBlockMaster.getWorkerInfoList();
   }
 
+  /**
+   * Deletes a batch of expired files of a directory, as the periodic TTL check does, so that tests
+   * can change the tree between the grouping of the expired files and the deletion of a batch.
+   *
+   * @param parentId the id of the directory
+   * @param files the expired files of the directory
+   * @return the files which were not deleted with the batch and have to be deleted one by one
+   */
+  @VisibleForTesting
+  List<InodeFile> deleteTtlBatch(long parentId, List<InodeFile> files) {
+    return new MasterInodeTtlCheckExecutor().deleteBatch(parentId, files);
+  }
+
   /**
    * This class represents the executor for periodic inode ttl check.
    */
   private final class MasterInodeTtlCheckExecutor implements HeartbeatExecutor {
+    /** The maximum number of files of a directory deleted under one lock and journal flush. */
+    private final int mBatchSize;
+    /** Limits the rate at which expired files are deleted, or null if the rate is not limited. */
+    private final RateLimiter mRateLimiter;
 
     /**
      * Constructs a new {@link MasterInodeTtlCheckExecutor}.
      */
-    public MasterInodeTtlCheckExecutor() {}
+    public MasterInodeTtlCheckExecutor() {
+      mBatchSize = Math.max(1, Configuration.getInt(Constants.MASTER_TTL_CHECKER_BATCH_SIZE));
+      long rateLimit = Configuration.getLong(Constants.MASTER_TTL_CHECKER_RATE_LIMIT);
+      mRateLimiter = rateLimit > 0 ? RateLimiter.create(rateLimit) : null;
+    }
 
     @Override
     public void heartbeat() {
       Set<TtlBucket> expiredBuckets = mTtlBuckets.getExpiredBuckets(System.currentTimeMillis());
+      // Group the expired files by directory, so that the files of a directory are deleted in
+      // batches, each under a single lock of the directory and a single journal flush.
+      Map<Long, List<InodeFile>> filesByParent = new HashMap<>();
       for (TtlBucket bucket : expiredBuckets) {
         for (InodeFile file : bucket.getFiles()) {
-          AlluxioURI path = null;
-          try (LockedInodePath inodePath = mInodeTree
-              .lockFullInodePath(file.getId(), InodeTree.LockMode.READ)) {
-            path = inodePath.getUri();
+          List<InodeFile> files = filesByParent.get(file.getParentId());
+          if (files == null) {
+            files = new ArrayList<>();
+            filesByParent.put(file.getParentId(), files);
+          }
+          files.add(file);
+        }
+      }
+      for (Map.Entry<Long, List<InodeFile>> entry : filesByParent.entrySet()) {
+        List<InodeFile> files = entry.getValue();
+        for (int start = 0; start < files.size(); start += mBatchSize) {
+          List<InodeFile> batch = files.subList(start, Math.min(files.size(), start + mBatchSize));
+          if (mRateLimiter != null) {
+            mRateLimiter.acquire(batch.size());
+          }
+          for (InodeFile file : deleteBatch(entry.getKey(), batch)) {
+            delete(file);
+          }
+        }
+      }
+      mTtlBuckets.removeBuckets(expiredBuckets);
+    }
+
+    /**
+     * Deletes a batch of expired files of a directory while holding the write lock of the
+     * directory, and waits for the journal to be flushed once for the whole batch.
+     *
+     * @param parentId the id of the directory
+     * @param files the expired files of the directory
+     * @return the files which were not deleted with the batch and have to be deleted one by one:
+     *         the files which are not children of the directory anymore, or all the files if the
+     *         directory could not be locked and checked
+     */
+    private List<InodeFile> deleteBatch(long parentId, List<InodeFile> files) {
+      List<InodeFile> movedFiles = new ArrayList<>();
+      long flushCounter = AsyncJournalWriter.INVALID_FLUSH_COUNTER;
+      int numDeleted = 0;
+      boolean batchStarted = false;
+      try (LockedInodePath parentPath =
+          mInodeTree.lockFullInodePath(parentId, InodeTree.LockMode.WRITE)) {
+        Inode<?> parent = parentPath.getInode();
+        if (!parent.isDirectory()) {
+          return new ArrayList<>(files);
+        }
+        // Deleting a path requires WRITE permission at the parent of the path.
+        mPermissionChecker.checkPermission(Mode.Bits.WRITE, parentPath);
+        mMountTable.checkUnderWritableMountPoint(parentPath.getUri());
+        batchStarted = true;
+        // No other operation can reach the children while the directory is write locked.
+        TempInodePathForDescendant filePath = new TempInodePathForDescendant(parentPath);
+        for (InodeFile file : files) {
+          if (file.isDeleted()) {
+            continue;
+          }
+          if (((InodeDirectory) parent).getChild(file.getName()) != file) {
+            movedFiles.add(file);
+            continue;
+          }
+          filePath.setDescendant(file, parentPath.getUri().join(file.getName()));
+          try {
+            MasterContext.getMasterSource().incDeletePathOps(1);
+            flushCounter = deleteAndJournal(filePath, false);
+            numDeleted++;
           } catch (Exception e) {
             LOG.error("Exception trying to clean up {} for ttl check: {}", file.toString(),
                 e.toString());
           }
-          if (path != null) {
-            try {
-              // public delete method will lock the path, and check WRITE permission required at
-              // parent of file
-              delete(path, false);
-            } catch (Exception e) {
-              LOG.error("Exception trying to clean up {} for ttl check: {}", file.toString(),
-                  e.toString());
-            }
-          }
+        }
+      } catch (Exception e) {
+        if (!batchStarted) {
+          // The directory may have been removed or renamed concurrently, the files are deleted
+          // by their current paths instead.
+          LOG.warn("Failed to delete the expired files of directory {} in a batch, deleting them "
+              + "one by one: {}", parentId, e.toString());
+          return new ArrayList<>(files);
+        }
+        LOG.error("Exception trying to clean up the files of directory {} for ttl check: {}",
+            parentId, e.toString());
+      } finally {
+        // finally runs after resources are closed (unlocked).
+        waitForJournalFlush(flushCounter);
+      }
+      MasterContext.getMasterSource().incFilesExpired(numDeleted);
+      return movedFiles;
+    }
+
+    /**
+     * Deletes a single expired file by its current path.
+     *
+     * @param file the expired file
+     */
+    private void delete(InodeFile file) {
+      AlluxioURI path = null;
+      try (LockedInodePath inodePath = mInodeTree
+          .lockFullInodePath(file.getId(), InodeTree.LockMode.READ)) {
+        path = inodePath.getUri();
+      } catch (Exception e) {
+        LOG.error("Exception trying to clean up {} for ttl check: {}", file.toString(),
+            e.toString());
+      }
+      if (path != null) {
+        try {
+          // public delete method will lock the path, and check WRITE permission required at
+          // parent of file
+          FileSystemMaster.this.delete(path, false);
+          MasterContext.getMasterSource().incFilesExpired(1);
+        } catch (Exception e) {
+          LOG.error("Exception trying to clean up {} for ttl check: {}", file.toString(),
+              e.toString());
         }
       }
-      mTtlBuckets.removeBuckets(expiredBuckets);
     }
 
     @Override
@@ -265,6 +265,9 @@ public final class FileSystemMasterClientRestServiceHandler {
    * @param loadDirectChildren whether to load direct children of path
    * @param loadMetadataType the {@link LoadMetadataType}. It overrides loadDirectChildren if it
    *        is set.
+   * @param startAfter the name after which the children of a directory are listed
+   * @param batchSize the maximum number of children of a directory to list, all the children are
+   *        listed if not positive
    * @return the response object
    */
   @GET
@@ -272,7 +275,9 @@ public final class FileSystemMasterClientRestServiceHandler {
   @ReturnType("java.util.List<alluxio.wire.FileInfo>")
   public Response listStatus(@QueryParam("path") String path,
       @Deprecated @QueryParam("loadDirectChildren") boolean loadDirectChildren,
-      @DefaultValue("") @QueryParam("loadMetadataType") String loadMetadataType) {
+      @DefaultValue("") @QueryParam("loadMetadataType") String loadMetadataType,
+      @QueryParam("startAfter") String startAfter,
+      @DefaultValue("0") @QueryParam("batchSize") int batchSize) {
     try {
       Preconditions.checkNotNull(path, "required 'path' parameter is missing");
       ListStatusOptions listStatusOptions = ListStatusOptions.defaults();
@@ -283,6 +288,7 @@ public final class FileSystemMasterClientRestServiceHandler {
       if (!loadMetadataType.isEmpty()) {
         listStatusOptions.setLoadMetadataType(LoadMetadataType.valueOf(loadMetadataType));
       }
+      listStatusOptions.setStartAfter(startAfter).setBatchSize(batchSize);
       return RestUtils
           .createResponse(mFileSystemMaster.listStatus(new AlluxioURI(path), listStatusOptions));
     } catch (AlluxioException | NullPointerException | IllegalArgumentException e) {
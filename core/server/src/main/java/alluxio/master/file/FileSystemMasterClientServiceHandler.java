@@ -214,7 +214,8 @@ public final class FileSystemMasterClientServiceHandler implements
       @Override
       public Long call() throws AlluxioException, IOException {
         return mFileSystemMaster.loadMetadata(new AlluxioURI(alluxioPath),
-            LoadMetadataOptions.defaults().setCreateAncestors(true).setLoadDirectChildren(true));
+            LoadMetadataOptions.defaults().setCreateAncestors(true).setLoadDirectChildren(true)
+                .setRecursive(recursive));
       }
     });
   }
@@ -17,7 +17,10 @@ import alluxio.security.authorization.Permission;
 import alluxio.wire.FileInfo;
 
 import com.google.common.base.Objects;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.annotation.concurrent.NotThreadSafe;
@@ -30,6 +33,12 @@ import javax.annotation.concurrent.NotThreadSafe;
  */
 @NotThreadSafe
 public abstract class Inode<T> implements JournalEntryRepresentable {
+  /** Owners and groups are shared by many inodes, so a single copy of each name is kept. */
+  private static final Interner<String> NAME_INTERNER = Interners.newWeakInterner();
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<Inode, ReentrantReadWriteLock> LOCK_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(Inode.class, ReentrantReadWriteLock.class, "mLock");
+
   protected long mCreationTimeMs;
   private boolean mDeleted;
   protected boolean mDirectory;
@@ -44,7 +53,15 @@ public abstract class Inode<T> implements JournalEntryRepresentable {
   private String mGroup;
   private short mMode;
 
-  private final ReentrantReadWriteLock mLock;
+  /** The lock of the inode, only allocated once the inode is locked for the first time. */
+  private volatile ReentrantReadWriteLock mLock;
+
+  /**
+   * The version of the inode, incremented when the write lock is acquired and again when it is
+   * released, so the version is odd while the inode is being modified. This allows reading the
+   * inode without locking it, see {@link OptimisticInodePath}.
+   */
+  private volatile long mVersion;
 
   protected Inode(long id) {
     mCreationTimeMs = System.currentTimeMillis();
@@ -59,7 +76,6 @@ public abstract class Inode<T> implements JournalEntryRepresentable {
     mPersistenceState = PersistenceState.NOT_PERSISTED;
     mPinned = false;
     mOwner = "";
-    mLock = new ReentrantReadWriteLock();
   }
 
   /**
@@ -174,7 +190,7 @@ public abstract class Inode<T> implements JournalEntryRepresentable {
    * @return the updated object
    */
   public T setGroup(String group) {
-    mGroup = group;
+    mGroup = intern(group);
     return getThis();
   }
 
@@ -220,8 +236,8 @@ public abstract class Inode<T> implements JournalEntryRepresentable {
    */
   public T setPermission(Permission permission) {
     if (permission != null) {
-      mOwner = permission.getOwner();
-      mGroup = permission.getGroup();
+      mOwner = intern(permission.getOwner());
+      mGroup = intern(permission.getGroup());
       mMode = permission.getMode().toShort();
     }
     return getThis();
@@ -250,7 +266,7 @@ public abstract class Inode<T> implements JournalEntryRepresentable {
    * @return the updated object
    */
   public T setOwner(String owner) {
-    mOwner = owner;
+    mOwner = intern(owner);
     return getThis();
   }
 
@@ -267,46 +283,84 @@ public abstract class Inode<T> implements JournalEntryRepresentable {
    */
   protected abstract T getThis();
 
+  /**
+   * @return the lock of this inode, allocated if the inode has never been locked before
+   */
+  private ReentrantReadWriteLock getLock() {
+    ReentrantReadWriteLock lock = mLock;
+    if (lock == null) {
+      LOCK_UPDATER.compareAndSet(this, null, new ReentrantReadWriteLock());
+      lock = mLock;
+    }
+    return lock;
+  }
+
+  /**
+   * @param name an owner or group name, may be null
+   * @return the canonical copy of the name
+   */
+  private static String intern(String name) {
+    return name == null ? null : NAME_INTERNER.intern(name);
+  }
+
   /**
    * Acquires the read lock for this inode.
    */
   public void lockRead() {
-    mLock.readLock().lock();
+    getLock().readLock().lock();
   }
 
   /**
    * Releases the read lock for this inode.
    */
   public void unlockRead() {
-    mLock.readLock().unlock();
+    getLock().readLock().unlock();
   }
 
   /**
    * Acquires the write lock for this inode.
    */
   public void lockWrite() {
-    mLock.writeLock().lock();
+    ReentrantReadWriteLock lock = getLock();
+    lock.writeLock().lock();
+    if (lock.getWriteHoldCount() == 1) {
+      mVersion++;
+    }
   }
 
   /**
    * Releases the write lock for this inode.
    */
   public void unlockWrite() {
-    mLock.writeLock().unlock();
+    ReentrantReadWriteLock lock = getLock();
+    if (lock.getWriteHoldCount() == 1) {
+      mVersion++;
+    }
+    lock.writeLock().unlock();
+  }
+
+  /**
+   * @return the version of the inode, which is odd while the inode is write locked and changes
+   *         every time the inode is write locked
+   */
+  public long getVersion() {
+    return mVersion;
   }
 
   /**
    * @return returns true if the current thread holds a write lock on this inode, false otherwise
    */
   public boolean isWriteLocked() {
-    return mLock.isWriteLockedByCurrentThread();
+    ReentrantReadWriteLock lock = mLock;
+    return lock != null && lock.isWriteLockedByCurrentThread();
   }
 
   /**
    * @return returns true if the current thread holds a read lock on this inode, false otherwise
    */
   public boolean isReadLocked() {
-    return mLock.getReadHoldCount() > 0;
+    ReentrantReadWriteLock lock = mLock;
+    return lock != null && lock.getReadHoldCount() > 0;
   }
 
   @Override
@@ -12,8 +12,6 @@
 package alluxio.master.file.meta;
 
 import alluxio.Constants;
-import alluxio.collections.IndexDefinition;
-import alluxio.collections.IndexedSet;
 import alluxio.master.file.options.CreateDirectoryOptions;
 import alluxio.proto.journal.File.InodeDirectoryEntry;
 import alluxio.proto.journal.Journal.JournalEntry;
@@ -22,8 +20,12 @@ import alluxio.wire.FileInfo;
 
 import com.google.common.collect.ImmutableSet;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -33,15 +35,16 @@ import javax.annotation.concurrent.NotThreadSafe;
  */
 @NotThreadSafe
 public final class InodeDirectory extends Inode<InodeDirectory> {
-  private final IndexDefinition<Inode<?>> mNameIndex = new IndexDefinition<Inode<?>>(true) {
-    @Override
-    public Object getFieldValue(Inode<?> o) {
-      return o.getName();
-    }
-  };
+  /** An empty map of children shared by all the directories without children, never modified. */
+  private static final ConcurrentNavigableMap<String, Inode<?>> NO_CHILDREN =
+      new ConcurrentSkipListMap<>();
 
-  @SuppressWarnings("unchecked")
-  private IndexedSet<Inode<?>> mChildren = new IndexedSet<>(mNameIndex);
+  /**
+   * The children sorted by name, so that a batch of children can be listed without going through
+   * all of them. The map is only allocated once the first child is added. It is a concurrent map,
+   * so that it can be read without locking the directory.
+   */
+  private volatile ConcurrentNavigableMap<String, Inode<?>> mChildren = NO_CHILDREN;
 
   private boolean mMountPoint;
 
@@ -76,7 +79,10 @@ public final class InodeDirectory extends Inode<InodeDirectory> {
    * @param child the inode to add
    */
   public void addChild(Inode<?> child) {
-    mChildren.add(child);
+    if (mChildren == NO_CHILDREN) {
+      mChildren = new ConcurrentSkipListMap<>();
+    }
+    mChildren.put(child.getName(), child);
   }
 
   /**
@@ -84,14 +90,36 @@ public final class InodeDirectory extends Inode<InodeDirectory> {
    * @return the inode with the given name, or null if there is no child with that name
    */
   public Inode<?> getChild(String name) {
-    return mChildren.getFirstByField(mNameIndex, name);
+    return mChildren.get(name);
   }
 
   /**
    * @return an unmodifiable set of the children inodes
    */
   public Set<Inode<?>> getChildren() {
-    return ImmutableSet.copyOf(mChildren.iterator());
+    return ImmutableSet.copyOf(mChildren.values());
+  }
+
+  /**
+   * Returns a batch of the children in name order.
+   *
+   * @param startAfter the name after which the children are returned, or null to return them from
+   *        the first one
+   * @param limit the maximum number of children to return, a non-positive number returns all the
+   *        children after the given name
+   * @return the children with names after the given name, in name order
+   */
+  public List<Inode<?>> getChildren(String startAfter, int limit) {
+    ConcurrentNavigableMap<String, Inode<?>> children =
+        startAfter == null ? mChildren : mChildren.tailMap(startAfter, false);
+    List<Inode<?>> ret = new ArrayList<>();
+    for (Inode<?> child : children.values()) {
+      if (limit > 0 && ret.size() >= limit) {
+        break;
+      }
+      ret.add(child);
+    }
+    return ret;
   }
 
   /**
@@ -99,7 +127,7 @@ public final class InodeDirectory extends Inode<InodeDirectory> {
    */
   public Set<Long> getChildrenIds() {
     Set<Long> ret = new HashSet<>(mChildren.size());
-    for (Inode<?> child : mChildren) {
+    for (Inode<?> child : mChildren.values()) {
       ret.add(child.getId());
     }
     return ret;
@@ -133,7 +161,7 @@ public final class InodeDirectory extends Inode<InodeDirectory> {
    * @return true if the inode was removed, false otherwise
    */
   public boolean removeChild(Inode<?> child) {
-    return mChildren.remove(child);
+    return mChildren.remove(child.getName(), child);
   }
 
   /**
@@ -143,7 +171,7 @@ public final class InodeDirectory extends Inode<InodeDirectory> {
    * @return true if the inode was removed, false otherwise
    */
   public boolean removeChild(String name) {
-    return mChildren.removeByField(mNameIndex, name) == 0;
+    return mChildren.remove(name) != null;
   }
 
   /**
@@ -196,7 +224,8 @@ public final class InodeDirectory extends Inode<InodeDirectory> {
 
   @Override
   public String toString() {
-    return toStringHelper().add("mountPoint", mMountPoint).add("children", mChildren).toString();
+    return toStringHelper().add("mountPoint", mMountPoint).add("children", mChildren.values())
+        .toString();
   }
 
   /**
@@ -0,0 +1,267 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.file.meta;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A compact store of all the {@link Inode}s of the inode tree, indexed by inode id.
+ *
+ * The inodes are kept in open addressing hash tables of primitive ids, so that no entry objects
+ * or boxed ids are allocated per inode. The ids are spread over a fixed number of independently
+ * synchronized stripes to keep contention low.
+ */
+@ThreadSafe
+final class InodeStore implements Iterable<Inode<?>> {
+  /** The number of stripes, must be a power of two. */
+  private static final int NUM_STRIPES = 256;
+  /** The initial capacity of each stripe, must be a power of two. */
+  private static final int INITIAL_STRIPE_CAPACITY = 16;
+
+  private final Stripe[] mStripes;
+
+  /**
+   * Creates a new empty instance of {@link InodeStore}.
+   */
+  InodeStore() {
+    mStripes = new Stripe[NUM_STRIPES];
+    for (int i = 0; i < NUM_STRIPES; i++) {
+      mStripes[i] = new Stripe();
+    }
+  }
+
+  /**
+   * @param id the id of the inode
+   * @return the inode with the given id, or null if there is no such inode
+   */
+  Inode<?> get(long id) {
+    long hash = hash(id);
+    return getStripe(hash).get(id, hash);
+  }
+
+  /**
+   * Adds an inode, unless there is already an inode with the same id.
+   *
+   * @param inode the inode to add
+   * @return true if the inode was added, false otherwise
+   */
+  boolean add(Inode<?> inode) {
+    Preconditions.checkNotNull(inode);
+    long hash = hash(inode.getId());
+    return getStripe(hash).add(inode, hash);
+  }
+
+  /**
+   * Removes an inode.
+   *
+   * @param inode the inode to remove
+   * @return true if the inode was removed, false if it was not in the store
+   */
+  boolean remove(Inode<?> inode) {
+    long hash = hash(inode.getId());
+    return getStripe(hash).remove(inode, hash);
+  }
+
+  /**
+   * @return the number of inodes in the store
+   */
+  int size() {
+    int size = 0;
+    for (Stripe stripe : mStripes) {
+      size += stripe.size();
+    }
+    return size;
+  }
+
+  /**
+   * Removes all the inodes.
+   */
+  void clear() {
+    for (Stripe stripe : mStripes) {
+      stripe.clear();
+    }
+  }
+
+  /**
+   * @return an iterator over a snapshot of the inodes in the store
+   */
+  @Override
+  public Iterator<Inode<?>> iterator() {
+    List<Inode<?>> inodes = new ArrayList<>();
+    for (Stripe stripe : mStripes) {
+      stripe.copyTo(inodes);
+    }
+    return inodes.iterator();
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 0;
+    for (Inode<?> inode : this) {
+      hashCode += inode.hashCode();
+    }
+    return hashCode;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof InodeStore)) {
+      return false;
+    }
+    InodeStore that = (InodeStore) o;
+    if (size() != that.size()) {
+      return false;
+    }
+    for (Inode<?> inode : this) {
+      if (!inode.equals(that.get(inode.getId()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Stripe getStripe(long hash) {
+    return mStripes[(int) (hash >>> 56) & (NUM_STRIPES - 1)];
+  }
+
+  /**
+   * Mixes the bits of an id, since inode ids are block ids whose low bits are often identical.
+   *
+   * @param id the id
+   * @return the hash of the id
+   */
+  private static long hash(long id) {
+    long h = id;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  /**
+   * An open addressing hash table with linear probing. A slot is empty if its inode is null.
+   */
+  private static final class Stripe {
+    @GuardedBy("this")
+    private long[] mIds = new long[INITIAL_STRIPE_CAPACITY];
+    @GuardedBy("this")
+    private Inode<?>[] mInodes = new Inode<?>[INITIAL_STRIPE_CAPACITY];
+    @GuardedBy("this")
+    private int mSize;
+
+    synchronized Inode<?> get(long id, long hash) {
+      int mask = mIds.length - 1;
+      for (int i = (int) hash & mask; mInodes[i] != null; i = (i + 1) & mask) {
+        if (mIds[i] == id) {
+          return mInodes[i];
+        }
+      }
+      return null;
+    }
+
+    synchronized boolean add(Inode<?> inode, long hash) {
+      long id = inode.getId();
+      int mask = mIds.length - 1;
+      int i = (int) hash & mask;
+      for (; mInodes[i] != null; i = (i + 1) & mask) {
+        if (mIds[i] == id) {
+          return false;
+        }
+      }
+      mIds[i] = id;
+      mInodes[i] = inode;
+      mSize++;
+      if (mSize * 4 > mIds.length * 3) {
+        resize(mIds.length * 2);
+      }
+      return true;
+    }
+
+    synchronized boolean remove(Inode<?> inode, long hash) {
+      long id = inode.getId();
+      int mask = mIds.length - 1;
+      int i = (int) hash & mask;
+      for (; mInodes[i] != null; i = (i + 1) & mask) {
+        if (mIds[i] == id) {
+          break;
+        }
+      }
+      if (mInodes[i] == null || !mInodes[i].equals(inode)) {
+        return false;
+      }
+      // Shift the following entries of the probe sequence back, so no tombstone is needed.
+      int hole = i;
+      for (int j = (i + 1) & mask; mInodes[j] != null; j = (j + 1) & mask) {
+        int home = (int) hash(mIds[j]) & mask;
+        // Move the entry if its home slot is not cyclically within (hole, j].
+        if (((j - home) & mask) >= ((j - hole) & mask)) {
+          mIds[hole] = mIds[j];
+          mInodes[hole] = mInodes[j];
+          hole = j;
+        }
+      }
+      mInodes[hole] = null;
+      mIds[hole] = 0;
+      mSize--;
+      return true;
+    }
+
+    synchronized int size() {
+      return mSize;
+    }
+
+    synchronized void clear() {
+      mIds = new long[INITIAL_STRIPE_CAPACITY];
+      mInodes = new Inode<?>[INITIAL_STRIPE_CAPACITY];
+      mSize = 0;
+    }
+
+    synchronized void copyTo(List<Inode<?>> inodes) {
+      for (Inode<?> inode : mInodes) {
+        if (inode != null) {
+          inodes.add(inode);
+        }
+      }
+    }
+
+    @GuardedBy("this")
+    private void resize(int capacity) {
+      long[] ids = mIds;
+      Inode<?>[] inodes = mInodes;
+      mIds = new long[capacity];
+      mInodes = new Inode<?>[capacity];
+      int mask = capacity - 1;
+      for (int k = 0; k < ids.length; k++) {
+        if (inodes[k] != null) {
+          int i = (int) hash(ids[k]) & mask;
+          while (mInodes[i] != null) {
+            i = (i + 1) & mask;
+          }
+          mIds[i] = ids[k];
+          mInodes[i] = inodes[k];
+        }
+      }
+    }
+  }
+}
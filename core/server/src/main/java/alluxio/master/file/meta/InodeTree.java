@@ -14,8 +14,6 @@ package alluxio.master.file.meta;
 import alluxio.AlluxioURI;
 import alluxio.Constants;
 import alluxio.collections.ConcurrentHashSet;
-import alluxio.collections.IndexDefinition;
-import alluxio.collections.IndexedSet;
 import alluxio.exception.AccessControlException;
 import alluxio.exception.BlockInfoException;
 import alluxio.exception.ExceptionMessage;
@@ -94,14 +92,8 @@ public final class InodeTree implements JournalCheckpointStreamable {
   /** Mount table manages the file system mount points. */
   private final MountTable mMountTable;
 
-  private final IndexDefinition<Inode<?>> mIdIndex = new IndexDefinition<Inode<?>>(true) {
-    @Override
-    public Object getFieldValue(Inode<?> o) {
-      return o.getId();
-    }
-  };
-  @SuppressWarnings("unchecked")
-  private final IndexedSet<Inode<?>> mInodes = new IndexedSet<>(mIdIndex);
+  /** All the inodes of the tree, indexed by id. */
+  private final InodeStore mInodes = new InodeStore();
   /** A set of inode ids representing pinned inode files. */
   private final Set<Long> mPinnedInodeFileIds = new ConcurrentHashSet<>(64, 0.90f, 64);
 
@@ -180,7 +172,7 @@ public final class InodeTree implements JournalCheckpointStreamable {
    * @return whether the inode exists
    */
   public boolean inodeIdExists(long id) {
-    return mInodes.getFirstByField(mIdIndex, id) != null;
+    return mInodes.get(id) != null;
   }
 
   /**
@@ -215,6 +207,48 @@ public final class InodeTree implements JournalCheckpointStreamable {
         traversalResult.getInodeLockList());
   }
 
+  /**
+   * Resolves the inodes on the specified path without locking them, for read-only operations. The
+   * caller must check {@link OptimisticInodePath#validate()} after reading the inodes, and retry or
+   * fall back to {@link #lockFullInodePath(AlluxioURI, LockMode)} if the path is not valid anymore.
+   *
+   * @param path the path to resolve
+   * @return the {@link OptimisticInodePath} for the path, or null if the target inode does not
+   *         exist or an inode on the path is being modified
+   * @throws InvalidPathException if the path is invalid
+   */
+  public OptimisticInodePath getInodePathOptimistic(AlluxioURI path)
+      throws InvalidPathException {
+    String[] pathComponents = PathUtils.getPathComponents(path.getPath());
+    if (pathComponents.length == 0 || !pathComponents[0].equals("")) {
+      // Let the locking traversal report the invalid path.
+      return null;
+    }
+    List<Inode<?>> inodes = new ArrayList<>(pathComponents.length);
+    List<Long> versions = new ArrayList<>(pathComponents.length);
+    Inode<?> current = mRoot;
+    for (int i = 0; ; i++) {
+      long version = current.getVersion();
+      if (OptimisticInodePath.isModifying(version)) {
+        return null;
+      }
+      inodes.add(current);
+      versions.add(version);
+      if (i == pathComponents.length - 1) {
+        break;
+      }
+      if (!current.isDirectory()) {
+        return null;
+      }
+      current = ((InodeDirectory) current).getChild(pathComponents[i + 1]);
+      if (current == null) {
+        return null;
+      }
+    }
+    OptimisticInodePath inodePath = new OptimisticInodePath(path, inodes, versions);
+    return inodePath.validate() ? inodePath : null;
+  }
+
   /**
    * Locks existing inodes on the two specified paths. The two paths will be locked in the
    * correct order. The target inodes are not required to exist.
@@ -346,7 +380,7 @@ public final class InodeTree implements JournalCheckpointStreamable {
       throws FileDoesNotExistException {
     int count = 0;
     while (true) {
-      Inode<?> inode = mInodes.getFirstByField(mIdIndex, id);
+      Inode<?> inode = mInodes.get(id);
       if (inode == null) {
         throw new FileDoesNotExistException(ExceptionMessage.INODE_DOES_NOT_EXIST.getMessage(id));
       }
@@ -423,7 +457,7 @@ public final class InodeTree implements JournalCheckpointStreamable {
       builder.append(AlluxioURI.SEPARATOR);
       builder.append(name);
     } else {
-      Inode<?> parentInode = mInodes.getFirstByField(mIdIndex, parentId);
+      Inode<?> parentInode = mInodes.get(parentId);
       if (parentInode == null) {
         throw new FileDoesNotExistException(
             ExceptionMessage.INODE_DOES_NOT_EXIST.getMessage(parentId));
@@ -706,7 +740,7 @@ public final class InodeTree implements JournalCheckpointStreamable {
   public void deleteInode(LockedInodePath inodePath, long opTimeMs)
       throws FileDoesNotExistException {
     Inode<?> inode = inodePath.getInode();
-    InodeDirectory parent = (InodeDirectory) mInodes.getFirstByField(mIdIndex, inode.getParentId());
+    InodeDirectory parent = (InodeDirectory) mInodes.get(inode.getParentId());
     if (parent == null) {
       throw new FileDoesNotExistException(
           ExceptionMessage.INODE_DOES_NOT_EXIST.getMessage(inode.getParentId()));
@@ -856,7 +890,7 @@ public final class InodeTree implements JournalCheckpointStreamable {
     InodeDirectory parentDirectory = mCachedInode;
     if (inode.getParentId() != mCachedInode.getId()) {
       parentDirectory =
-          (InodeDirectory) mInodes.getFirstByField(mIdIndex, inode.getParentId());
+          (InodeDirectory) mInodes.get(inode.getParentId());
       mCachedInode = parentDirectory;
     }
     parentDirectory.addChild(inode);
@@ -869,7 +903,7 @@ public final class InodeTree implements JournalCheckpointStreamable {
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(mRoot, mIdIndex, mInodes, mPinnedInodeFileIds, mContainerIdGenerator,
+    return Objects.hashCode(mRoot, mInodes, mPinnedInodeFileIds, mContainerIdGenerator,
         mDirectoryIdGenerator, mCachedInode);
   }
 
@@ -883,7 +917,6 @@ public final class InodeTree implements JournalCheckpointStreamable {
     }
     InodeTree that = (InodeTree) o;
     return Objects.equal(mRoot, that.mRoot)
-        && Objects.equal(mIdIndex, that.mIdIndex)
         && Objects.equal(mInodes, that.mInodes)
         && Objects.equal(mPinnedInodeFileIds, that.mPinnedInodeFileIds)
         && Objects.equal(mContainerIdGenerator, that.mContainerIdGenerator)
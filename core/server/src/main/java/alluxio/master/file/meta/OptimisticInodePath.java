@@ -0,0 +1,85 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.file.meta;
+
+import alluxio.AlluxioURI;
+import alluxio.exception.InvalidPathException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A path of {@link Inode}s which are not locked, for read-only operations. The version of every
+ * inode read through this path is recorded, and {@link #validate()} tells whether any of them has
+ * been modified since. Everything read from the inodes must be discarded if the path is not valid
+ * anymore, since it may be inconsistent.
+ *
+ * This avoids acquiring the locks of the inodes, which are shared by all the operations on paths
+ * with a common prefix, at the cost of retrying when an inode is concurrently modified.
+ */
+@NotThreadSafe
+public final class OptimisticInodePath extends LockedInodePath {
+  private final List<Inode<?>> mObservedInodes;
+  private final List<Long> mObservedVersions;
+
+  /**
+   * Creates a new instance of {@link OptimisticInodePath}.
+   *
+   * @param uri the uri of the path
+   * @param inodes the inodes of the path, from the root
+   * @param versions the versions of the inodes, as read before traversing them
+   * @throws InvalidPathException if the path is invalid
+   */
+  OptimisticInodePath(AlluxioURI uri, List<Inode<?>> inodes, List<Long> versions)
+      throws InvalidPathException {
+    super(uri, inodes, new InodeLockList());
+    mObservedInodes = new ArrayList<>(inodes);
+    mObservedVersions = new ArrayList<>(versions);
+  }
+
+  /**
+   * Records the version of an inode which is about to be read, e.g. a child of the target inode.
+   *
+   * @param inode the inode
+   * @return false if the inode is being modified, in which case the path is not valid anymore
+   */
+  public boolean observe(Inode<?> inode) {
+    long version = inode.getVersion();
+    mObservedInodes.add(inode);
+    mObservedVersions.add(version);
+    return !isModifying(version);
+  }
+
+  /**
+   * @return true if none of the inodes read through this path has been modified since its version
+   *         was recorded, false otherwise
+   */
+  public boolean validate() {
+    for (int i = 0; i < mObservedInodes.size(); i++) {
+      long version = mObservedVersions.get(i);
+      if (isModifying(version) || mObservedInodes.get(i).getVersion() != version) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param version the version of an inode
+   * @return true if the version belongs to an inode which is being modified
+   */
+  static boolean isModifying(long version) {
+    return (version & 1) != 0;
+  }
+}
@@ -24,6 +24,8 @@ import javax.annotation.concurrent.NotThreadSafe;
 @NotThreadSafe
 public final class ListStatusOptions {
   private LoadMetadataType mLoadMetadataType;
+  private String mStartAfter;
+  private int mBatchSize;
 
   /**
    * @return the default {@link ListStatusOptions}
@@ -34,6 +36,8 @@ public final class ListStatusOptions {
 
   private ListStatusOptions() {
     mLoadMetadataType = LoadMetadataType.Once;
+    mStartAfter = null;
+    mBatchSize = 0;
   }
 
   /**
@@ -43,6 +47,8 @@ public final class ListStatusOptions {
    */
   public ListStatusOptions(ListStatusTOptions options) {
     mLoadMetadataType = LoadMetadataType.fromThrift(options.getLoadMetadataType());
+    mStartAfter = options.isSetStartAfter() ? options.getStartAfter() : null;
+    mBatchSize = options.isSetBatchSize() ? options.getBatchSize() : 0;
   }
 
   /**
@@ -64,6 +70,42 @@ public final class ListStatusOptions {
     return this;
   }
 
+  /**
+   * @return the name after which the children of a directory are listed, or null to list them
+   *         from the first one
+   */
+  public String getStartAfter() {
+    return mStartAfter;
+  }
+
+  /**
+   * @param startAfter the name after which the children of a directory are listed, in name order;
+   *        null to list them from the first one
+   * @return the updated options
+   */
+  public ListStatusOptions setStartAfter(String startAfter) {
+    mStartAfter = startAfter;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of children of a directory to list, or a non-positive number to
+   *         list all of them
+   */
+  public int getBatchSize() {
+    return mBatchSize;
+  }
+
+  /**
+   * @param batchSize the maximum number of children of a directory to list, in name order; a
+   *        non-positive number lists all of them
+   * @return the updated options
+   */
+  public ListStatusOptions setBatchSize(int batchSize) {
+    mBatchSize = batchSize;
+    return this;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -73,18 +115,22 @@ public final class ListStatusOptions {
       return false;
     }
     ListStatusOptions that = (ListStatusOptions) o;
-    return Objects.equal(mLoadMetadataType, that.mLoadMetadataType);
+    return Objects.equal(mLoadMetadataType, that.mLoadMetadataType)
+        && Objects.equal(mStartAfter, that.mStartAfter)
+        && mBatchSize == that.mBatchSize;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(mLoadMetadataType);
+    return Objects.hashCode(mLoadMetadataType, mStartAfter, mBatchSize);
   }
 
   @Override
   public String toString() {
     return Objects.toStringHelper(this)
         .add("loadMetadataType", mLoadMetadataType.toString())
+        .add("startAfter", mStartAfter)
+        .add("batchSize", mBatchSize)
         .toString();
   }
 }
@@ -11,6 +11,8 @@
 
 package alluxio.master.file.options;
 
+import alluxio.underfs.UnderFileStatus;
+
 import com.google.common.base.Objects;
 
 import javax.annotation.concurrent.NotThreadSafe;
@@ -22,6 +24,8 @@ import javax.annotation.concurrent.NotThreadSafe;
 public final class LoadMetadataOptions {
   private boolean mCreateAncestors;
   private boolean mLoadDirectChildren;
+  private boolean mRecursive;
+  private UnderFileStatus mUnderFileStatus;
 
   /**
    * @return the default {@link LoadMetadataOptions}
@@ -33,6 +37,8 @@ public final class LoadMetadataOptions {
   private LoadMetadataOptions() {
     mCreateAncestors = false;
     mLoadDirectChildren = false;
+    mRecursive = false;
+    mUnderFileStatus = null;
   }
 
   /**
@@ -51,6 +57,22 @@ public final class LoadMetadataOptions {
     return mLoadDirectChildren;
   }
 
+  /**
+   * @return the recursive flag value; it specifies whether the metadata of the whole directory tree
+   *         should be loaded
+   */
+  public boolean isRecursive() {
+    return mRecursive;
+  }
+
+  /**
+   * @return the status of the path in the under file system, or null if it is unknown. It is known
+   *         when the path was listed with its parent, and saves querying the under file system
+   */
+  public UnderFileStatus getUnderFileStatus() {
+    return mUnderFileStatus;
+  }
+
   /**
    * Sets the recursive flag.
    *
@@ -75,6 +97,30 @@ public final class LoadMetadataOptions {
     return this;
   }
 
+  /**
+   * Sets the recursive flag.
+   *
+   * @param recursive the recursive flag value to use; it specifies whether the metadata of the
+   *        whole directory tree should be loaded
+   * @return the updated object
+   */
+  public LoadMetadataOptions setRecursive(boolean recursive) {
+    mRecursive = recursive;
+    return this;
+  }
+
+  /**
+   * Sets the status of the path in the under file system, as listed with its parent.
+   *
+   * @param underFileStatus the status of the path in the under file system, or null if it is
+   *        unknown
+   * @return the updated object
+   */
+  public LoadMetadataOptions setUnderFileStatus(UnderFileStatus underFileStatus) {
+    mUnderFileStatus = underFileStatus;
+    return this;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -85,17 +131,22 @@ public final class LoadMetadataOptions {
     }
     LoadMetadataOptions that = (LoadMetadataOptions) o;
     return Objects.equal(mCreateAncestors, that.mCreateAncestors)
-        && Objects.equal(mLoadDirectChildren, that.mLoadDirectChildren);
+        && Objects.equal(mLoadDirectChildren, that.mLoadDirectChildren)
+        && Objects.equal(mRecursive, that.mRecursive)
+        && Objects.equal(mUnderFileStatus, that.mUnderFileStatus);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(mCreateAncestors, mLoadDirectChildren);
+    return Objects.hashCode(mCreateAncestors, mLoadDirectChildren, mRecursive,
+        mUnderFileStatus);
   }
 
   @Override
   public String toString() {
     return Objects.toStringHelper(this).add("createAncestors", mCreateAncestors)
-        .add("loadDirectChildren", mLoadDirectChildren).toString();
+        .add("loadDirectChildren", mLoadDirectChildren)
+        .add("recursive", mRecursive)
+        .add("underFileStatus", mUnderFileStatus).toString();
   }
 }
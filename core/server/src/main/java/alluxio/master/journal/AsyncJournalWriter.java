@@ -13,72 +13,101 @@ package alluxio.master.journal;
 
 import alluxio.Configuration;
 import alluxio.Constants;
+import alluxio.master.MasterContext;
 import alluxio.proto.journal.Journal.JournalEntry;
+import alluxio.util.ThreadFactoryUtils;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
 import java.io.IOException;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.ReentrantLock;
 
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
- * This enables async journal writing, as well as some batched journal flushing.
+ * This enables async journal writing, with group commit of journal entries.
+ *
+ * Entries are appended to a bounded queue, and a dedicated flusher thread writes all the queued
+ * entries to the journal and flushes them at once. Callers wait on a future for the entries they
+ * appended to be flushed, so no caller ever writes to the journal itself. When the queue is full,
+ * appending blocks until the flusher catches up.
  */
 @ThreadSafe
-public final class AsyncJournalWriter {
+public final class AsyncJournalWriter implements Closeable {
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
 
   /** An invalid journal flush counter. */
   public static final long INVALID_FLUSH_COUNTER = -1;
 
+  /** The interval at which blocked threads check whether the flusher has stopped. */
+  private static final long POLL_INTERVAL_MS = 100;
+
   private final JournalWriter mJournalWriter;
-  private final ConcurrentLinkedQueue<JournalEntry> mQueue;
+  private final BlockingQueue<JournalEntry> mQueue;
   private final AtomicLong mCounter;
   private final AtomicLong mFlushCounter;
-  /** Maximum number of nanoseconds for a batch flush. */
+  /** Maximum number of nanoseconds spent writing a batch before it is flushed. */
   private final long mFlushBatchTime;
+  private final Thread mFlusher;
 
-  /**
-   * Use a {@link ReentrantLock} to guard the journal writing. Using the fairness policy seems to
-   * result in better throughput.
-   */
-  private final ReentrantLock mFlushLock = new ReentrantLock(true);
+  /** Futures of callers waiting for a flush, ordered by the counter they wait for. */
+  @GuardedBy("mWaiters")
+  private final PriorityQueue<FlushWaiter> mWaiters;
+  /** The error which stopped the flusher, all pending and future flushes fail with it. */
+  @GuardedBy("mWaiters")
+  private IOException mError;
+
+  /** Whether {@link #close()} has been called. */
+  private volatile boolean mClosed;
 
   /**
-   * Creates a {@link AsyncJournalWriter}.
+   * Creates a {@link AsyncJournalWriter} and starts its flusher thread.
    *
    * @param journalWriter the {@link JournalWriter} to use for writing
    */
   public AsyncJournalWriter(JournalWriter journalWriter) {
     mJournalWriter = Preconditions.checkNotNull(journalWriter);
-    mQueue = new ConcurrentLinkedQueue<>();
+    mQueue =
+        new ArrayBlockingQueue<>(Configuration.getInt(Constants.MASTER_JOURNAL_QUEUE_SIZE_MAX));
     mCounter = new AtomicLong(0);
     mFlushCounter = new AtomicLong(0);
     // convert milliseconds to nanoseconds.
     mFlushBatchTime =
         1000000L * Configuration.getLong(Constants.MASTER_JOURNAL_FLUSH_BATCH_TIME_MS);
+    mWaiters = new PriorityQueue<>();
+    mFlusher = ThreadFactoryUtils.build("AsyncJournalWriter-%d", true).newThread(new Runnable() {
+      @Override
+      public void run() {
+        flushLoop();
+      }
+    });
+    mFlusher.start();
   }
 
   /**
-   * Appends a {@link JournalEntry} for writing to the journal.
+   * Appends a {@link JournalEntry} for writing to the journal. Blocks while the queue of entries
+   * waiting to be written is full.
    *
    * @param entry the {@link JournalEntry} to append
    * @return a counter for the entry, for flushing
    */
   public long appendEntry(JournalEntry entry) {
-    // TODO(gpang): handle bounding the queue if it becomes too large.
-
     /**
      * Protocol for appending entries
      *
-     * This protocol is lock free, to reduce the overhead in critical sections. It uses
-     * {@link AtomicLong} and {@link ConcurrentLinkedQueue} which are both lock-free.
-     *
      * The invariant that must be satisfied is that the 'counter' that is returned must be
      * greater than or equal to the actual counter of the entry in the queue.
      *
@@ -91,53 +120,101 @@ public final class AsyncJournalWriter {
      * equal to the counter for the entries in the queue.
      */
     mCounter.incrementAndGet();
-    mQueue.offer(entry);
+    boolean interrupted = false;
+    try {
+      while (true) {
+        checkFlusherRunning();
+        try {
+          if (mQueue.offer(entry, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+            break;
+          }
+        } catch (InterruptedException e) {
+          // The entry must not be lost, since the master state has already been modified.
+          interrupted = true;
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
     return mCounter.get();
   }
 
   /**
-   * Flushes and waits until the specified counter is flushed to the journal. If the specified
-   * counter is already flushed, this is essentially a no-op.
+   * Returns a future which completes once the specified counter is flushed to the journal. If the
+   * specified counter is already flushed, the future is already complete.
    *
    * @param counter the counter to flush
-   * @throws IOException if an error occurs in flushing the journal
+   * @return a future which completes once the counter is flushed, or fails with the
+   *         {@link IOException} which stopped the journal writer
    */
-  public void flush(final long counter) throws IOException {
+  public ListenableFuture<Void> flushAsync(final long counter) {
     if (counter <= mFlushCounter.get()) {
-      return;
+      return Futures.immediateFuture(null);
     }
-    // Using reentrant lock, since it seems to result in higher throughput than using 'synchronized'
-    mFlushLock.lock();
-    try {
-      long startTime = System.nanoTime();
-      long flushCounter = mFlushCounter.get();
-      if (counter <= flushCounter) {
-        // The specified counter is already flushed, so just return.
-        return;
+    synchronized (mWaiters) {
+      if (counter <= mFlushCounter.get()) {
+        return Futures.immediateFuture(null);
       }
-      while (counter > flushCounter) {
-        for (;;) {
-          JournalEntry entry = mQueue.poll();
-          if (entry == null) {
-            // No more entries in the queue. Break out of the infinite for-loop.
-            break;
-          }
-          mJournalWriter.getEntryOutputStream().writeEntry(entry);
-          flushCounter++;
-
-          if (flushCounter >= counter) {
-            if ((System.nanoTime() - startTime) >= mFlushBatchTime) {
-              // This thread has been writing to the journal for enough time. Break out of the
-              // infinite for-loop.
-              break;
-            }
-          }
+      if (mError != null) {
+        return Futures.immediateFailedFuture(mError);
+      }
+      FlushWaiter waiter = new FlushWaiter(counter);
+      mWaiters.add(waiter);
+      return waiter.mFuture;
+    }
+  }
+
+  /**
+   * Waits until the specified counter is flushed to the journal. If the specified counter is
+   * already flushed, this is essentially a no-op.
+   *
+   * @param counter the counter to flush
+   * @throws IOException if an error occurs in flushing the journal
+   */
+  public void flush(final long counter) throws IOException {
+    ListenableFuture<Void> future = flushAsync(counter);
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          future.get();
+          return;
+        } catch (InterruptedException e) {
+          // The entry is flushed regardless, so wait for it like an uninterruptible write.
+          interrupted = true;
+        } catch (ExecutionException e) {
+          Throwables.propagateIfInstanceOf(e.getCause(), IOException.class);
+          throw Throwables.propagate(e.getCause());
         }
       }
-      mJournalWriter.getEntryOutputStream().flush();
-      mFlushCounter.set(flushCounter);
     } finally {
-      mFlushLock.unlock();
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Writes out all the appended entries and stops the flusher thread. Entries appended afterwards
+   * are rejected.
+   *
+   * @throws IOException if the flusher fails or is interrupted while writing the remaining entries
+   */
+  @Override
+  public void close() throws IOException {
+    mClosed = true;
+    try {
+      mFlusher.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+    synchronized (mWaiters) {
+      if (mError != null) {
+        throw mError;
+      }
     }
   }
 
@@ -152,4 +229,104 @@ public final class AsyncJournalWriter {
   public static long getFlushCounter(long counter1, long counter2) {
     return Math.max(counter1, counter2);
   }
+
+  /**
+   * Throws if the flusher has stopped, since an appended entry would never be written.
+   */
+  private void checkFlusherRunning() {
+    Preconditions.checkState(!mClosed, "The async journal writer is closed.");
+    synchronized (mWaiters) {
+      if (mError != null) {
+        throw new RuntimeException(mError);
+      }
+    }
+  }
+
+  /**
+   * The loop of the flusher thread. Every iteration waits for an entry, writes it and whatever
+   * else is queued (for at most {@link #mFlushBatchTime}) as one batch, flushes the journal and
+   * completes the futures of the flushed entries. The loop ends once the writer is closed and the
+   * queue is empty, or writing the journal fails.
+   */
+  private void flushLoop() {
+    try {
+      while (true) {
+        JournalEntry entry = mQueue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        if (entry == null) {
+          if (mClosed && mQueue.isEmpty()) {
+            return;
+          }
+          continue;
+        }
+        long startTime = System.nanoTime();
+        JournalOutputStream outputStream = mJournalWriter.getEntryOutputStream();
+        int batchSize = 0;
+        do {
+          outputStream.writeEntry(entry);
+          batchSize++;
+        } while ((System.nanoTime() - startTime) < mFlushBatchTime
+            && (entry = mQueue.poll()) != null);
+        outputStream.flush();
+        long flushCounter = mFlushCounter.addAndGet(batchSize);
+        MasterContext.getMasterSource().updateJournalFlush(batchSize,
+            System.nanoTime() - startTime);
+        completeWaiters(flushCounter);
+      }
+    } catch (IOException e) {
+      LOG.error("Failed to write the journal, stopping the async journal writer", e);
+      failWaiters(e);
+    } catch (InterruptedException e) {
+      LOG.error("Async journal writer interrupted, stopping", e);
+      failWaiters(new IOException(e));
+    } catch (RuntimeException e) {
+      LOG.error("Failed to write the journal, stopping the async journal writer", e);
+      failWaiters(new IOException(e));
+    }
+  }
+
+  /**
+   * Completes the futures of all callers waiting for at most the given counter.
+   *
+   * @param flushCounter the counter which has been flushed
+   */
+  private void completeWaiters(long flushCounter) {
+    synchronized (mWaiters) {
+      while (!mWaiters.isEmpty() && mWaiters.peek().mCounter <= flushCounter) {
+        mWaiters.poll().mFuture.set(null);
+      }
+    }
+  }
+
+  /**
+   * Fails the futures of all waiting callers, and of all callers waiting from now on.
+   *
+   * @param error the error which stopped the flusher
+   */
+  private void failWaiters(IOException error) {
+    synchronized (mWaiters) {
+      mError = error;
+      FlushWaiter waiter;
+      while ((waiter = mWaiters.poll()) != null) {
+        waiter.mFuture.setException(error);
+      }
+    }
+  }
+
+  /**
+   * A caller waiting for a counter to be flushed.
+   */
+  private static final class FlushWaiter implements Comparable<FlushWaiter> {
+    private final long mCounter;
+    private final SettableFuture<Void> mFuture;
+
+    private FlushWaiter(long counter) {
+      mCounter = counter;
+      mFuture = SettableFuture.create();
+    }
+
+    @Override
+    public int compareTo(FlushWaiter other) {
+      return Long.compare(mCounter, other.mCounter);
+    }
+  }
 }
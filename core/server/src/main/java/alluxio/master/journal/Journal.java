@@ -12,6 +12,13 @@
 package alluxio.master.journal;
 
 import alluxio.AlluxioURI;
+import alluxio.proto.journal.Journal.JournalEntry;
+import alluxio.underfs.UnderFileSystem;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -22,7 +29,13 @@ import javax.annotation.concurrent.ThreadSafe;
  *
  * To construct the full state of the master, all the entries must be applied to the checkpoint in
  * order. The entry file most recently being written to is in the base journal folder, where the
- * completed entry files are in the "completed/" sub-directory.
+ * completed entry files are in the "completed/" sub-directory. The completed entry files which are
+ * reflected by the checkpoint may be deleted, so the first completed entry file is not necessarily
+ * the one with log number {@link #FIRST_COMPLETED_LOG_NUMBER}.
+ *
+ * Standby masters write newer checkpoints next to the checkpoint file written by the leader, each
+ * named after the sequence number of the latest entry it reflects. Such a checkpoint is only used
+ * when it is newer than the checkpoint file, see {@link #getLatestCheckpointFilePath}.
  */
 @ThreadSafe
 public abstract class Journal {
@@ -34,6 +47,8 @@ public abstract class Journal {
   private static final String CURRENT_LOG_EXTENSION = ".out";
   /** The filename of the checkpoint file. */
   private static final String CHECKPOINT_FILENAME = "checkpoint.data";
+  /** The prefix of the filenames of the checkpoints written by standby masters. */
+  private static final String STANDBY_CHECKPOINT_FILENAME_PREFIX = CHECKPOINT_FILENAME + ".";
   /** The base of the entry log filenames, without the file extension. */
   private static final String ENTRY_LOG_FILENAME_BASE = "log";
   /** The directory where this journal is stored. */
@@ -93,6 +108,123 @@ public abstract class Journal {
     return getCompletedDirectory() + String.format("%s.%020d", ENTRY_LOG_FILENAME_BASE, logNumber);
   }
 
+  /**
+   * Returns the path of a checkpoint written by a standby master.
+   *
+   * @param sequenceNumber the sequence number of the latest entry reflected by the checkpoint
+   * @return the absolute path of the checkpoint
+   */
+  public String getStandbyCheckpointFilePath(long sequenceNumber) {
+    return mDirectory
+        + String.format("%s%020d", STANDBY_CHECKPOINT_FILENAME_PREFIX, sequenceNumber);
+  }
+
+  /**
+   * Returns the log numbers of the existing completed log files. The completed logs which are
+   * reflected by the checkpoint may have been deleted, so the log numbers do not necessarily start
+   * at {@link #FIRST_COMPLETED_LOG_NUMBER}, but they have no gaps.
+   *
+   * @param ufs the under file system storing this journal
+   * @return the log numbers of the completed log files, in increasing order
+   * @throws IOException if the completed log files cannot be listed
+   */
+  public List<Long> getCompletedLogNumbers(UnderFileSystem ufs) throws IOException {
+    return listNumberedFiles(ufs, getCompletedDirectory(), ENTRY_LOG_FILENAME_BASE + ".");
+  }
+
+  /**
+   * Returns the sequence numbers of the existing checkpoints written by standby masters. Some of
+   * them may be older than the checkpoint file written by the leader.
+   *
+   * @param ufs the under file system storing this journal
+   * @return the sequence numbers of the standby checkpoints, in increasing order
+   * @throws IOException if the checkpoints cannot be listed
+   */
+  public List<Long> getStandbyCheckpointSequenceNumbers(UnderFileSystem ufs) throws IOException {
+    return listNumberedFiles(ufs, mDirectory, STANDBY_CHECKPOINT_FILENAME_PREFIX);
+  }
+
+  /**
+   * Returns the sequence number of the latest checkpoint written by a standby master, if it is
+   * newer than the checkpoint file written by the leader.
+   *
+   * The leader numbers the entries of its checkpoint after the latest entry it replayed, so a
+   * standby checkpoint reflecting an entry before the first entry of the checkpoint file is older
+   * than the checkpoint file, and must not be used.
+   *
+   * @param ufs the under file system storing this journal
+   * @return the sequence number of the latest standby checkpoint, or -1 if there is no standby
+   *         checkpoint newer than the checkpoint file
+   * @throws IOException if an I/O error occurs
+   */
+  public long getLatestStandbyCheckpointSequenceNumber(UnderFileSystem ufs) throws IOException {
+    List<Long> sequenceNumbers = getStandbyCheckpointSequenceNumbers(ufs);
+    if (sequenceNumbers.isEmpty() || !ufs.exists(getCheckpointFilePath())) {
+      return -1;
+    }
+    long sequenceNumber = sequenceNumbers.get(sequenceNumbers.size() - 1);
+    if (sequenceNumber < getFirstSequenceNumber(ufs, getCheckpointFilePath())) {
+      return -1;
+    }
+    return sequenceNumber;
+  }
+
+  /**
+   * @param ufs the under file system storing this journal
+   * @return the absolute path of the latest checkpoint, which is either the checkpoint file or a
+   *         newer checkpoint written by a standby master
+   * @throws IOException if an I/O error occurs
+   */
+  public String getLatestCheckpointFilePath(UnderFileSystem ufs) throws IOException {
+    long sequenceNumber = getLatestStandbyCheckpointSequenceNumber(ufs);
+    return sequenceNumber == -1 ? getCheckpointFilePath()
+        : getStandbyCheckpointFilePath(sequenceNumber);
+  }
+
+  /**
+   * @param ufs the under file system storing this journal
+   * @param path the path of a checkpoint or of a log file
+   * @return the sequence number of the first entry of the file, or -1 if the file has no entries
+   * @throws IOException if an I/O error occurs
+   */
+  public long getFirstSequenceNumber(UnderFileSystem ufs, String path) throws IOException {
+    JournalInputStream inputStream = mJournalFormatter.deserialize(ufs.open(path));
+    try {
+      JournalEntry entry = inputStream.getNextEntry();
+      return entry == null ? -1 : entry.getSequenceNumber();
+    } finally {
+      inputStream.close();
+    }
+  }
+
+  /**
+   * @param ufs the under file system storing this journal
+   * @param directory the directory to list
+   * @param prefix the prefix of the filenames, followed by a number
+   * @return the numbers of the files named with the prefix, in increasing order
+   * @throws IOException if the directory cannot be listed
+   */
+  private static List<Long> listNumberedFiles(UnderFileSystem ufs, String directory,
+      String prefix) throws IOException {
+    List<Long> numbers = new ArrayList<>();
+    String[] names = ufs.list(directory);
+    if (names == null) {
+      return numbers;
+    }
+    for (String name : names) {
+      if (!name.startsWith(prefix)) {
+        continue;
+      }
+      try {
+        numbers.add(Long.parseLong(name.substring(prefix.length())));
+      } catch (NumberFormatException e) {
+        // Not a numbered file, e.g. a temporary file.
+      }
+    }
+    Collections.sort(numbers);
+    return numbers;
+  }
+
   /**
    * @return the {@link JournalFormatter} for this journal
    */
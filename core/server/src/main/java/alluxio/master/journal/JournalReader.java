@@ -11,6 +11,7 @@
 
 package alluxio.master.journal;
 
+import alluxio.Configuration;
 import alluxio.Constants;
 import alluxio.underfs.UnderFileSystem;
 
@@ -19,16 +20,23 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.List;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
 /**
  * This class manages reading from the journal. The reading must occur in two phases:
  *
- * 1. First, the checkpoint file must be read.
+ * 1. First, the latest checkpoint must be read, which is either the checkpoint file or a newer
+ * checkpoint written by a standby master.
  *
- * 2. Afterwards, completed entries are read in order. Only completed logs are read, so the last log
- * currently being written is not read until it is marked as complete.
+ * 2. Afterwards, completed entries are read in order, starting from the first completed log which
+ * still exists. Only completed logs are read, so the last log currently being written is not read
+ * until it is marked as complete.
+ *
+ * When the journal is written by {@link ProtoBufJournalFormatter}, the entries are read and parsed
+ * ahead of the caller by a {@link PipelinedJournalInputStream}, unless
+ * {@link Constants#MASTER_JOURNAL_REPLAY_THREADS} is 0.
  */
 @NotThreadSafe
 public class JournalReader {
@@ -39,6 +47,10 @@ public class JournalReader {
   private final UnderFileSystem mUfs;
   /** Absolute path for the journal checkpoint file. */
   private final String mCheckpointPath;
+  /** The number of threads parsing the entries of a file, 0 to parse them in the caller thread. */
+  private final int mReplayThreads;
+  /** The number of entries parsed together by a replay thread. */
+  private final int mReplayBatchSize;
 
   /** true if the checkpoint has already been read. */
   private boolean mCheckpointRead = false;
@@ -48,6 +60,8 @@ public class JournalReader {
   private long mCheckpointLastModifiedTime = -1;
   /** The log number for the completed log file. */
   private long mCurrentLogNumber = Journal.FIRST_COMPLETED_LOG_NUMBER;
+  /** true if the next completed log was deleted, because a newer checkpoint reflects it. */
+  private boolean mLogsDeleted = false;
 
   /**
    * Creates a new instance of {@link JournalReader}.
@@ -58,16 +72,19 @@ public class JournalReader {
     mJournal = Preconditions.checkNotNull(journal);
     mUfs = UnderFileSystem.get(mJournal.getDirectory());
     mCheckpointPath = mJournal.getCheckpointFilePath();
+    mReplayThreads = Configuration.getInt(Constants.MASTER_JOURNAL_REPLAY_THREADS);
+    mReplayBatchSize = Configuration.getInt(Constants.MASTER_JOURNAL_REPLAY_BATCH_SIZE);
   }
 
   /**
-   * Checks to see if the journal checkpoint has not been updated. If it has been updated since the
-   * creation of this reader, this reader is no longer valid.
+   * Checks to see if the journal checkpoint has not been updated, and if the next completed log
+   * was not deleted. Otherwise, this reader is no longer valid.
    *
-   * @return true if the checkpoint file has not been modified
+   * @return true if the checkpoint file has not been modified, and the next log was not deleted
    */
   public boolean isValid() {
-    return mCheckpointRead && (mCheckpointOpenedTime == mCheckpointLastModifiedTime);
+    return mCheckpointRead && (mCheckpointOpenedTime == mCheckpointLastModifiedTime)
+        && !mLogsDeleted;
   }
 
   /**
@@ -83,9 +100,16 @@ public class JournalReader {
     }
     mCheckpointOpenedTime = getCheckpointLastModifiedTimeMs();
 
-    LOG.info("Opening journal checkpoint file: {}", mCheckpointPath);
-    JournalInputStream jis =
-        mJournal.getJournalFormatter().deserialize(mUfs.open(mCheckpointPath));
+    // The completed logs reflected by the checkpoint may have been deleted. They are listed before
+    // the latest checkpoint is located, since they are only deleted once a newer checkpoint exists.
+    List<Long> logNumbers = mJournal.getCompletedLogNumbers(mUfs);
+    if (!logNumbers.isEmpty()) {
+      mCurrentLogNumber = logNumbers.get(0);
+    }
+
+    String checkpointPath = mJournal.getLatestCheckpointFilePath(mUfs);
+    LOG.info("Opening journal checkpoint file: {}", checkpointPath);
+    JournalInputStream jis = openInputStream(checkpointPath);
 
     mCheckpointRead = true;
     return jis;
@@ -106,19 +130,39 @@ public class JournalReader {
     }
     String currentLogPath = mJournal.getCompletedLogFilePath(mCurrentLogNumber);
     if (!mUfs.exists(currentLogPath)) {
+      List<Long> logNumbers = mJournal.getCompletedLogNumbers(mUfs);
+      if (!logNumbers.isEmpty() && logNumbers.get(0) > mCurrentLogNumber) {
+        // The log was reflected by a newer checkpoint and deleted before it was read.
+        LOG.info("Journal log file: {} was deleted. This reader is no longer valid.",
+            currentLogPath);
+        mLogsDeleted = true;
+        return null;
+      }
       LOG.debug("Journal log file: {} does not exist yet.", currentLogPath);
       return null;
     }
     // Open input stream from the current log file.
     LOG.info("Opening journal log file: {}", currentLogPath);
-    JournalInputStream jis =
-        mJournal.getJournalFormatter().deserialize(mUfs.open(currentLogPath));
+    JournalInputStream jis = openInputStream(currentLogPath);
 
     // Increment the log file number.
     mCurrentLogNumber++;
     return jis;
   }
 
+  /**
+   * @param path the path of the checkpoint or of a log file
+   * @return the {@link JournalInputStream} for the file
+   * @throws IOException if the file cannot be opened
+   */
+  private JournalInputStream openInputStream(String path) throws IOException {
+    JournalFormatter formatter = mJournal.getJournalFormatter();
+    if (mReplayThreads > 0 && formatter instanceof ProtoBufJournalFormatter) {
+      return new PipelinedJournalInputStream(mUfs.open(path), mReplayThreads, mReplayBatchSize);
+    }
+    return formatter.deserialize(mUfs.open(path));
+  }
+
   /**
    * @return the last modified time of the checkpoint file in ms
    * @throws IOException if the checkpoint does not exist
@@ -14,12 +14,15 @@ package alluxio.master.journal;
 import alluxio.Constants;
 import alluxio.master.Master;
 import alluxio.proto.journal.Journal.JournalEntry;
+import alluxio.underfs.UnderFileSystem;
 
 import com.google.common.base.Preconditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.UUID;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -39,6 +42,10 @@ public final class JournalTailer {
   private final JournalReader mReader;
   /** This keeps track of the latest sequence number seen in the journal entries. */
   private long mLatestSequenceNumber = 0;
+  /** The sequence number of the latest entry reflected by the checkpoint. */
+  private long mCheckpointSequenceNumber = 0;
+  /** The number of log entries applied to the master since the checkpoint was read or written. */
+  private long mNumEntriesSinceCheckpoint = 0;
 
   /**
    * Creates a new instance of {@link JournalTailer}.
@@ -78,6 +85,14 @@ public final class JournalTailer {
     return mLatestSequenceNumber;
   }
 
+  /**
+   * @return the number of log entries applied to the master since the checkpoint was read or
+   *         written by this tailer
+   */
+  public long getNumEntriesSinceCheckpoint() {
+    return mNumEntriesSinceCheckpoint;
+  }
+
   /**
    * Loads and (optionally) processes the journal checkpoint file.
    *
@@ -92,14 +107,108 @@ public final class JournalTailer {
     // The checkpoint stream must be retrieved before retrieving any log file streams, because the
     // journal reader verifies that the checkpoint was read before the log files.
     JournalInputStream is = mReader.getCheckpointInputStream();
+    try {
+      if (applyToMaster) {
+        // Only apply the checkpoint to the master, if specified.
+        mMaster.processJournalCheckpoint(is);
+      }
+      // update the latest sequence number seen.
+      mLatestSequenceNumber = is.getLatestSequenceNumber();
+      mCheckpointSequenceNumber = mLatestSequenceNumber;
+      mNumEntriesSinceCheckpoint = 0;
+    } finally {
+      // Stops the threads reading the checkpoint ahead, if any.
+      is.close();
+    }
+  }
+
+  /**
+   * Writes a checkpoint of the current state of the master, which reflects the checkpoint and all
+   * the log entries processed so far. This is used by standby masters, so that the completed logs
+   * reflected by the new checkpoint can be deleted, and do not have to be replayed when a master
+   * starts.
+   *
+   * The checkpoint is written next to the checkpoint file, named after the sequence number of the
+   * latest log entry processed, and is only installed if it is newer than all the existing
+   * checkpoints. The checkpoint file written by the leader is never replaced, and the older
+   * standby checkpoints are only deleted once the new one is installed. All the entries of the new
+   * checkpoint carry the sequence number of the latest log entry processed, so that readers skip
+   * the log entries which are already reflected by the checkpoint.
+   *
+   * The master must not be modified while the checkpoint is written.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  public void writeCheckpoint() throws IOException {
+    UnderFileSystem ufs = UnderFileSystem.get(mJournal.getDirectory());
+    if (!isNewerThanCheckpoints(ufs)) {
+      LOG.info("{}: Not writing a checkpoint at sequence number {}, a newer checkpoint exists.",
+          mMaster.getName(), mLatestSequenceNumber);
+      mNumEntriesSinceCheckpoint = 0;
+      return;
+    }
+    String checkpointPath = mJournal.getStandbyCheckpointFilePath(mLatestSequenceNumber);
+    // Other standby masters may write a checkpoint at the same time.
+    String tempCheckpointPath = checkpointPath + "." + UUID.randomUUID() + ".tmp";
+    LOG.info("{}: Writing checkpoint file {} at sequence number {}", mMaster.getName(),
+        tempCheckpointPath, mLatestSequenceNumber);
+    final DataOutputStream outputStream = new DataOutputStream(ufs.create(tempCheckpointPath));
+    try {
+      mMaster.streamToJournalCheckpoint(new JournalOutputStream() {
+        @Override
+        public void writeEntry(JournalEntry entry) throws IOException {
+          mJournal.getJournalFormatter().serialize(
+              entry.toBuilder().setSequenceNumber(mLatestSequenceNumber).build(), outputStream);
+        }
+
+        @Override
+        public void close() throws IOException {
+          outputStream.close();
+        }
 
-    if (applyToMaster) {
-      // Only apply the checkpoint to the master, if specified.
-      mMaster.processJournalCheckpoint(is);
+        @Override
+        public void flush() throws IOException {
+          outputStream.flush();
+        }
+      });
+    } finally {
+      outputStream.close();
+    }
+    // A newer checkpoint may have been written in the meantime.
+    if (!isNewerThanCheckpoints(ufs)) {
+      LOG.info("{}: Discarding checkpoint file {}, a newer checkpoint exists.", mMaster.getName(),
+          tempCheckpointPath);
+      ufs.delete(tempCheckpointPath, false);
+      mNumEntriesSinceCheckpoint = 0;
+      return;
+    }
+    if (!ufs.rename(tempCheckpointPath, checkpointPath)) {
+      ufs.delete(tempCheckpointPath, false);
+      throw new IOException("Failed to rename " + tempCheckpointPath + " to " + checkpointPath);
     }
-    // update the latest sequence number seen.
-    mLatestSequenceNumber = is.getLatestSequenceNumber();
-    is.close();
+    LOG.info("{}: Renamed checkpoint file {} to {}", mMaster.getName(), tempCheckpointPath,
+        checkpointPath);
+    // Readers always use the latest checkpoint, so the older ones are not needed anymore.
+    for (long sequenceNumber : mJournal.getStandbyCheckpointSequenceNumbers(ufs)) {
+      if (sequenceNumber < mLatestSequenceNumber) {
+        ufs.delete(mJournal.getStandbyCheckpointFilePath(sequenceNumber), false);
+      }
+    }
+    mCheckpointSequenceNumber = mLatestSequenceNumber;
+    mNumEntriesSinceCheckpoint = 0;
+  }
+
+  /**
+   * @param ufs the under file system storing the journal
+   * @return whether a checkpoint at the latest sequence number processed would be newer than the
+   *         checkpoint file and all the existing standby checkpoints
+   * @throws IOException if an I/O error occurs
+   */
+  private boolean isNewerThanCheckpoints(UnderFileSystem ufs) throws IOException {
+    // The leader numbers the entries of the checkpoint file after the latest entry it replayed.
+    return mLatestSequenceNumber
+        >= mJournal.getFirstSequenceNumber(ufs, mJournal.getCheckpointFilePath())
+        && mLatestSequenceNumber > mJournal.getLatestStandbyCheckpointSequenceNumber(ufs);
   }
 
   /**
@@ -118,13 +227,22 @@ public final class JournalTailer {
       JournalInputStream inputStream = mReader.getNextInputStream();
       if (inputStream != null) {
         LOG.info("{}: Processing a completed log file.", mMaster.getName());
-        JournalEntry entry;
-        while ((entry = inputStream.getNextEntry()) != null) {
-          mMaster.processJournalEntry(entry);
-          // update the latest sequence number seen.
-          mLatestSequenceNumber = inputStream.getLatestSequenceNumber();
+        try {
+          JournalEntry entry;
+          while ((entry = inputStream.getNextEntry()) != null) {
+            if (entry.getSequenceNumber() <= mCheckpointSequenceNumber) {
+              // The checkpoint already reflects this entry.
+              continue;
+            }
+            mMaster.processJournalEntry(entry);
+            mNumEntriesSinceCheckpoint++;
+            // update the latest sequence number seen.
+            mLatestSequenceNumber = inputStream.getLatestSequenceNumber();
+          }
+        } finally {
+          // Stops the threads reading the log ahead, if any.
+          inputStream.close();
         }
-        inputStream.close();
         numFilesProcessed++;
         LOG.info("{}: Finished processing the log file.", mMaster.getName());
       } else {
@@ -26,7 +26,8 @@ import javax.annotation.concurrent.NotThreadSafe;
 
 /**
  * This thread continually tails the journal and applies it to the master, until the master
- * initiates the shutdown of the thread.
+ * initiates the shutdown of the thread. It also periodically replaces the journal checkpoint with
+ * the state of the master, so that the completed logs do not grow without bound.
  */
 @NotThreadSafe
 public final class JournalTailerThread extends Thread {
@@ -38,6 +39,12 @@ public final class JournalTailerThread extends Thread {
   private final Journal mJournal;
   private final int mShutdownQuietWaitTimeMs;
   private final int mJournalTailerSleepTimeMs;
+  /** The number of applied log entries after which a checkpoint is written, 0 to disable. */
+  private final long mCheckpointPeriodEntries;
+  /** The time (in ms) after which a checkpoint is written if entries were applied, 0 to disable. */
+  private final long mCheckpointPeriodMs;
+  /** The time (in ms) when the checkpoint was last read or written. */
+  private long mLastCheckpointTimeMs;
   /** This becomes true when the master initiates the shutdown. */
   private volatile boolean mInitiateShutdown = false;
 
@@ -58,6 +65,9 @@ public final class JournalTailerThread extends Thread {
     mShutdownQuietWaitTimeMs =
         Configuration.getInt(Constants.MASTER_JOURNAL_TAILER_SHUTDOWN_QUIET_WAIT_TIME_MS);
     mJournalTailerSleepTimeMs = Configuration.getInt(Constants.MASTER_JOURNAL_TAILER_SLEEP_TIME_MS);
+    mCheckpointPeriodEntries =
+        Configuration.getLong(Constants.MASTER_JOURNAL_CHECKPOINT_PERIOD_ENTRIES);
+    mCheckpointPeriodMs = Configuration.getLong(Constants.MASTER_JOURNAL_CHECKPOINT_PERIOD_MS);
   }
 
   /**
@@ -117,6 +127,7 @@ public final class JournalTailerThread extends Thread {
         }
         LOG.info("{}: Start loading the checkpoint file.", mMaster.getName());
         mJournalTailer.processJournalCheckpoint(true);
+        mLastCheckpointTimeMs = CommonUtils.getCurrentMs();
         LOG.info("{}: Checkpoint file has been loaded.", mMaster.getName());
 
         // Continually process completed log files.
@@ -124,7 +135,9 @@ public final class JournalTailerThread extends Thread {
           if (mJournalTailer.processNextJournalLogFiles() > 0) {
             // Reset the shutdown timer.
             waitForShutdownStart = -1;
+            maybeWriteCheckpoint();
           } else {
+            maybeWriteCheckpoint();
             if (mInitiateShutdown) {
               if (waitForShutdownStart == -1) {
                 waitForShutdownStart = CommonUtils.getCurrentMs();
@@ -153,4 +166,28 @@ public final class JournalTailerThread extends Thread {
     LOG.info("{}: Journal tailer has been shutdown.", mMaster.getName());
     mStopped = true;
   }
+
+  /**
+   * Replaces the journal checkpoint with the state of the master, if enough log entries were
+   * applied, or enough time passed, since the checkpoint was last read or written. A master which
+   * is about to become the leader does not write a checkpoint, since it writes one when it starts.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  private void maybeWriteCheckpoint() throws IOException {
+    long numEntries = mJournalTailer.getNumEntriesSinceCheckpoint();
+    if (mInitiateShutdown || numEntries == 0) {
+      return;
+    }
+    boolean enoughEntries = mCheckpointPeriodEntries > 0 && numEntries >= mCheckpointPeriodEntries;
+    boolean enoughTime = mCheckpointPeriodMs > 0
+        && CommonUtils.getCurrentMs() - mLastCheckpointTimeMs >= mCheckpointPeriodMs;
+    if (!enoughEntries && !enoughTime) {
+      return;
+    }
+    LOG.info("{}: Writing a checkpoint after applying {} log entries.", mMaster.getName(),
+        numEntries);
+    mJournalTailer.writeCheckpoint();
+    mLastCheckpointTimeMs = CommonUtils.getCurrentMs();
+  }
 }
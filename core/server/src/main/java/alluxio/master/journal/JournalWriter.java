@@ -25,6 +25,7 @@ import org.slf4j.LoggerFactory;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.List;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -39,6 +40,10 @@ import javax.annotation.concurrent.ThreadSafe;
  *
  * The latest state can be reconstructed by reading the checkpoint file, and applying all the
  * completed logs and then the remaining log in progress.
+ *
+ * Standby masters may write newer checkpoints next to the checkpoint file, see
+ * {@link JournalTailer#writeCheckpoint()}. The writer then deletes the completed logs which are
+ * reflected by the latest one, when it rotates the current log.
  */
 @ThreadSafe
 public final class JournalWriter {
@@ -66,6 +71,9 @@ public final class JournalWriter {
   /** The sequence number for the next entry in the log. */
   private long mNextEntrySequenceNumber = 1;
 
+  /** The sequence number of the standby checkpoint the completed logs were last deleted for. */
+  private long mCheckpointSequenceNumber = -1;
+
   /**
    * Creates a new instance of {@link JournalWriter}.
    *
@@ -87,14 +95,10 @@ public final class JournalWriter {
    */
   public synchronized void completeAllLogs() throws IOException {
     LOG.info("Marking all logs as complete.");
-    // Loop over all complete logs starting from the beginning, to determine the next log number.
-    mNextCompleteLogNumber = Journal.FIRST_COMPLETED_LOG_NUMBER;
-    String logFilename = mJournal.getCompletedLogFilePath(mNextCompleteLogNumber);
-    while (mUfs.exists(logFilename)) {
-      mNextCompleteLogNumber++;
-      // generate the next completed log filename in the sequence.
-      logFilename = mJournal.getCompletedLogFilePath(mNextCompleteLogNumber);
-    }
+    // The next log number follows the last complete log.
+    List<Long> logNumbers = mJournal.getCompletedLogNumbers(mUfs);
+    mNextCompleteLogNumber = logNumbers.isEmpty() ? Journal.FIRST_COMPLETED_LOG_NUMBER
+        : logNumbers.get(logNumbers.size() - 1) + 1;
     completeCurrentLog();
   }
 
@@ -178,16 +182,11 @@ public final class JournalWriter {
    */
   private synchronized void deleteCompletedLogs() throws IOException {
     LOG.info("Deleting all completed log files...");
-    // Loop over all complete logs starting from the beginning.
     // TODO(gpang): should the deletes start from the end?
-    long logNumber = Journal.FIRST_COMPLETED_LOG_NUMBER;
-    String logFilename = mJournal.getCompletedLogFilePath(logNumber);
-    while (mUfs.exists(logFilename)) {
+    for (long logNumber : mJournal.getCompletedLogNumbers(mUfs)) {
+      String logFilename = mJournal.getCompletedLogFilePath(logNumber);
       LOG.info("Deleting completed log: {}", logFilename);
       mUfs.delete(logFilename, true);
-      logNumber++;
-      // generate the next completed log filename in the sequence.
-      logFilename = mJournal.getCompletedLogFilePath(logNumber);
     }
     LOG.info("Finished deleting all completed log files.");
 
@@ -195,6 +194,61 @@ public final class JournalWriter {
     mNextCompleteLogNumber = Journal.FIRST_COMPLETED_LOG_NUMBER;
   }
 
+  /**
+   * Deletes the completed logs which are entirely reflected by the latest checkpoint written by a
+   * standby master, if a newer one was written since the last call. The last completed log is
+   * never deleted.
+   *
+   * The entries of a checkpoint written by a standby master all carry the sequence number of the
+   * latest log entry the checkpoint reflects, so a completed log is reflected by the checkpoint if
+   * a later log starts with an entry following that sequence number. Standby checkpoints older
+   * than the checkpoint file written by this master are ignored, see
+   * {@link Journal#getLatestStandbyCheckpointSequenceNumber(UnderFileSystem)}.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  public synchronized void deleteCheckpointedLogs() throws IOException {
+    long checkpointSequenceNumber = mJournal.getLatestStandbyCheckpointSequenceNumber(mUfs);
+    if (checkpointSequenceNumber <= mCheckpointSequenceNumber) {
+      return;
+    }
+    List<Long> logNumbers = mJournal.getCompletedLogNumbers(mUfs);
+    // The number of the first logs known to be reflected by the checkpoint.
+    int numCheckpointedLogs = 0;
+    for (int i = 1; i < logNumbers.size(); i++) {
+      long sequenceNumber = mJournal.getFirstSequenceNumber(mUfs,
+          mJournal.getCompletedLogFilePath(logNumbers.get(i)));
+      if (sequenceNumber == -1) {
+        // An empty log does not tell where the previous logs end.
+        continue;
+      }
+      if (sequenceNumber > checkpointSequenceNumber + 1) {
+        break;
+      }
+      numCheckpointedLogs = i;
+    }
+    for (int i = 0; i < numCheckpointedLogs; i++) {
+      String logFilename = mJournal.getCompletedLogFilePath(logNumbers.get(i));
+      LOG.info("Deleting completed log reflected by the checkpoint at sequence number {}: {}",
+          checkpointSequenceNumber, logFilename);
+      mUfs.delete(logFilename, false);
+    }
+    mCheckpointSequenceNumber = checkpointSequenceNumber;
+  }
+
+  /**
+   * Deletes all the checkpoints written by standby masters.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  private synchronized void deleteStandbyCheckpoints() throws IOException {
+    for (long sequenceNumber : mJournal.getStandbyCheckpointSequenceNumbers(mUfs)) {
+      String checkpointPath = mJournal.getStandbyCheckpointFilePath(sequenceNumber);
+      LOG.info("Deleting standby checkpoint: {}", checkpointPath);
+      mUfs.delete(checkpointPath, false);
+    }
+  }
+
   /**
    * Moves the current log file to the completed folder, marking it as complete. If successful, the
    * current log file will no longer exist. The current log must already be closed before this call.
@@ -280,6 +334,10 @@ public final class JournalWriter {
       LOG.info("Renamed checkpoint file {} to {}", mTempCheckpointPath,
           mJournal.getCheckpointFilePath());
 
+      // The checkpoint is newer than the checkpoints written by standby masters, which are ignored
+      // by the readers from now on.
+      deleteStandbyCheckpoints();
+
       // The checkpoint already reflects the information in the completed logs.
       deleteCompletedLogs();
 
@@ -375,6 +433,12 @@ public final class JournalWriter {
         completeCurrentLog();
         mRawOutputStream = openCurrentLog();
         mDataOutputStream = new DataOutputStream(mRawOutputStream);
+        try {
+          deleteCheckpointedLogs();
+        } catch (IOException e) {
+          // The logs will be deleted at a later rotation.
+          LOG.warn("Failed to delete the completed logs reflected by the checkpoint", e);
+        }
       }
     }
   }
@@ -0,0 +1,206 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.journal;
+
+import alluxio.Constants;
+import alluxio.proto.journal.Journal.JournalEntry;
+import alluxio.util.ThreadFactoryUtils;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.Futures;
+import com.google.protobuf.CodedInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A {@link JournalInputStream} for the length delimited protocol buffer entries written by
+ * {@link ProtoBufJournalFormatter}, which reads and parses the entries ahead of the caller.
+ *
+ * A reader thread splits the stream into batches of serialized entries, and the batches are parsed
+ * in parallel by a pool of decoding threads. The parsed batches are handed to the caller in the
+ * order of the stream, so the caller still applies the entries one by one in journal order, while
+ * the I/O and the parsing of the next entries overlap with it. The number of batches read ahead is
+ * bounded, to bound the memory used.
+ */
+@NotThreadSafe
+public final class PipelinedJournalInputStream implements JournalInputStream {
+  /** The batch marking the end of the stream. */
+  private static final List<JournalEntry> END_OF_STREAM = Collections.emptyList();
+
+  /** The stream to read the entries from. */
+  private final InputStream mInputStream;
+  /** The maximum number of entries in a batch. */
+  private final int mBatchSize;
+  /** The threads parsing the batches. */
+  private final ExecutorService mDecodeExecutor;
+  /** The batches being parsed, in the order of the stream. */
+  private final BlockingQueue<Future<List<JournalEntry>>> mBatches;
+  /** The thread reading the stream. */
+  private final Thread mReaderThread;
+
+  /** The entries of the current batch which were not returned yet. */
+  private Iterator<JournalEntry> mCurrentBatch = Collections.<JournalEntry>emptyList().iterator();
+  /** Whether the end of the stream was reached, or reading it failed. */
+  private boolean mEndOfStream = false;
+  private boolean mClosed = false;
+  private long mLatestSequenceNumber;
+
+  /**
+   * Creates a new instance of {@link PipelinedJournalInputStream}, and starts reading the given
+   * stream.
+   *
+   * @param inputStream the stream to read the entries from
+   * @param numDecodeThreads the number of threads parsing the entries
+   * @param batchSize the maximum number of entries in a batch
+   */
+  public PipelinedJournalInputStream(InputStream inputStream, int numDecodeThreads,
+      int batchSize) {
+    Preconditions.checkArgument(numDecodeThreads > 0, "numDecodeThreads must be positive");
+    Preconditions.checkArgument(batchSize > 0, "batchSize must be positive");
+    mInputStream = Preconditions.checkNotNull(inputStream);
+    mBatchSize = batchSize;
+    mDecodeExecutor = Executors.newFixedThreadPool(numDecodeThreads,
+        ThreadFactoryUtils.build("journal-decoder-%d", true));
+    mBatches = new ArrayBlockingQueue<>(2 * numDecodeThreads);
+    mReaderThread = ThreadFactoryUtils.build("journal-reader-%d", true).newThread(new Runnable() {
+      @Override
+      public void run() {
+        readBatches();
+      }
+    });
+    mReaderThread.start();
+  }
+
+  @Override
+  public JournalEntry getNextEntry() throws IOException {
+    while (!mCurrentBatch.hasNext()) {
+      if (mEndOfStream) {
+        return null;
+      }
+      List<JournalEntry> batch;
+      try {
+        batch = mBatches.take().get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      } catch (ExecutionException e) {
+        mEndOfStream = true;
+        mDecodeExecutor.shutdownNow();
+        Throwables.propagateIfInstanceOf(e.getCause(), IOException.class);
+        throw Throwables.propagate(e.getCause());
+      }
+      if (batch == END_OF_STREAM) {
+        mEndOfStream = true;
+        mDecodeExecutor.shutdown();
+        return null;
+      }
+      mCurrentBatch = batch.iterator();
+    }
+    JournalEntry entry = mCurrentBatch.next();
+    mLatestSequenceNumber = entry.getSequenceNumber();
+    return entry;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (mClosed) {
+      return;
+    }
+    mClosed = true;
+    mReaderThread.interrupt();
+    mDecodeExecutor.shutdownNow();
+    mInputStream.close();
+  }
+
+  @Override
+  public long getLatestSequenceNumber() {
+    return mLatestSequenceNumber;
+  }
+
+  /**
+   * Splits the stream into batches of serialized entries and submits them to be parsed, until the
+   * end of the stream, a failure, or until this stream is closed.
+   */
+  private void readBatches() {
+    InputStream inputStream = new BufferedInputStream(mInputStream, Constants.MB);
+    try {
+      Future<List<JournalEntry>> last;
+      try {
+        while (true) {
+          final List<byte[]> frames = new ArrayList<>(mBatchSize);
+          byte[] frame;
+          while (frames.size() < mBatchSize && (frame = readFrame(inputStream)) != null) {
+            frames.add(frame);
+          }
+          if (!frames.isEmpty()) {
+            mBatches.put(mDecodeExecutor.submit(new Callable<List<JournalEntry>>() {
+              @Override
+              public List<JournalEntry> call() throws IOException {
+                List<JournalEntry> entries = new ArrayList<>(frames.size());
+                for (byte[] serializedEntry : frames) {
+                  entries.add(JournalEntry.parseFrom(serializedEntry));
+                }
+                return entries;
+              }
+            }));
+          }
+          if (frames.size() < mBatchSize) {
+            break;
+          }
+        }
+        last = Futures.immediateFuture(END_OF_STREAM);
+      } catch (IOException e) {
+        last = Futures.immediateFailedFuture(e);
+      }
+      mBatches.put(last);
+    } catch (InterruptedException | RejectedExecutionException e) {
+      // This stream was closed.
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Reads the next serialized entry, framed the way
+   * {@link JournalEntry#writeDelimitedTo(java.io.OutputStream)} frames it.
+   *
+   * @param inputStream the stream to read from
+   * @return the serialized entry, or null at the end of the stream
+   * @throws IOException if the entry cannot be read, or is truncated
+   */
+  private static byte[] readFrame(InputStream inputStream) throws IOException {
+    int firstByte = inputStream.read();
+    if (firstByte == -1) {
+      return null;
+    }
+    byte[] frame = new byte[CodedInputStream.readRawVarint32(firstByte, inputStream)];
+    ByteStreams.readFully(inputStream, frame);
+    return frame;
+  }
+}
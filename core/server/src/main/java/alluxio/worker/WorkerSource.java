@@ -32,6 +32,8 @@ public class WorkerSource implements Source {
   public static final String BLOCKS_DELETED = "BlocksDeleted";
   public static final String BLOCKS_EVICTED = "BlocksEvicted";
   public static final String BLOCKS_PROMOTED = "BlocksPromoted";
+  public static final String BLOCKS_READ_AHEAD_HIT = "BlocksReadAheadHit";
+  public static final String BLOCKS_READ_AHEAD_MISS = "BlocksReadAheadMiss";
   public static final String BLOCKS_READ_LOCAL = "BlocksReadLocal";
   public static final String BLOCKS_READ_REMOTE = "BlocksReadRemote";
   public static final String BLOCKS_WRITTEN_LOCAL = "BlocksWrittenLocal";
@@ -42,6 +44,8 @@ public class WorkerSource implements Source {
   public static final String BYTES_WRITTEN_LOCAL = "BytesWrittenLocal";
   public static final String BYTES_WRITTEN_REMOTE = "BytesWrittenRemote";
   public static final String BYTES_WRITTEN_UFS = "BytesWrittenUfs";
+  public static final String METADATA_CACHE_HIT = "MetadataCacheHit";
+  public static final String METADATA_CACHE_MISS = "MetadataCacheMiss";
   public static final String CAPACITY_TOTAL = "CapacityTotal";
   public static final String CAPACITY_USED = "CapacityUsed";
   public static final String CAPACITY_FREE = "CapacityFree";
@@ -81,6 +85,14 @@ public class WorkerSource implements Source {
       .name(BYTES_WRITTEN_REMOTE));
   private final Counter mBytesWrittenUfs = mMetricRegistry.counter(MetricRegistry
       .name(BYTES_WRITTEN_UFS));
+  private final Counter mBlocksReadAheadHit = mMetricRegistry.counter(MetricRegistry
+      .name(BLOCKS_READ_AHEAD_HIT));
+  private final Counter mBlocksReadAheadMiss = mMetricRegistry.counter(MetricRegistry
+      .name(BLOCKS_READ_AHEAD_MISS));
+  private final Counter mMetadataCacheHit = mMetricRegistry.counter(MetricRegistry
+      .name(METADATA_CACHE_HIT));
+  private final Counter mMetadataCacheMiss = mMetricRegistry.counter(MetricRegistry
+      .name(METADATA_CACHE_MISS));
 
   /**
    * Constructs a new {@link WorkerSource}.
@@ -232,6 +244,45 @@ public class WorkerSource implements Source {
     mBytesWrittenUfs.inc(n);
   }
 
+  /**
+   * Increments the counter of blocks read ahead by clients and then read.
+   *
+   * @param n the increment
+   */
+  public void incBlocksReadAheadHit(long n) {
+    mBlocksReadAheadHit.inc(n);
+  }
+
+  /**
+   * Increments the counter of blocks read ahead by clients but not read, or which failed to be
+   * read ahead.
+   *
+   * @param n the increment
+   */
+  public void incBlocksReadAheadMiss(long n) {
+    mBlocksReadAheadMiss.inc(n);
+  }
+
+  /**
+   * Increments the counter of file statuses and block locations found in the metadata cache of
+   * clients.
+   *
+   * @param n the increment
+   */
+  public void incMetadataCacheHit(long n) {
+    mMetadataCacheHit.inc(n);
+  }
+
+  /**
+   * Increments the counter of file statuses and block locations not found in the metadata cache
+   * of clients.
+   *
+   * @param n the increment
+   */
+  public void incMetadataCacheMiss(long n) {
+    mMetadataCacheMiss.inc(n);
+  }
+
   /**
    * Registers metric gauges.
    *
@@ -36,7 +36,6 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 
-import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
@@ -49,6 +48,9 @@ public final class BlockLockManager {
   /** The unique id of each lock. */
   private static final AtomicLong LOCK_ID_GEN = new AtomicLong(0);
 
+  /** The number of stripes of the block lock and session maps, a power of two. */
+  private static final int NUM_STRIPES = 64;
+
   /** A pool of read write locks. */
   private final ResourcePool<ClientRWLock> mLockPool = new ResourcePool<ClientRWLock>(
       Configuration.getInt(Constants.WORKER_TIERED_STORE_BLOCK_LOCKS)) {
@@ -61,22 +63,24 @@ public final class BlockLockManager {
     }
   };
 
-  /** A map from block id to the read write lock used to guard that block. */
-  @GuardedBy("mSharedMapsLock")
-  private final Map<Long, ClientRWLock> mLocks = new HashMap<>();
-
-  /** A map from a session id to all the locks hold by this session. */
-  @GuardedBy("mSharedMapsLock")
-  private final Map<Long, Set<Long>> mSessionIdToLockIdsMap = new HashMap<>();
+  /**
+   * Maps from block id to the read write lock used to guard that block, striped by block id. Each
+   * stripe is guarded by its own monitor.
+   */
+  private final Map<Long, ClientRWLock>[] mLocks = newStripes();
 
-  /** A map from a lock id to the lock record of it. */
-  @GuardedBy("mSharedMapsLock")
-  private final Map<Long, LockRecord> mLockIdToRecordMap = new HashMap<>();
+  /**
+   * Maps from a session id to all the locks hold by this session, striped by session id. Each
+   * stripe is guarded by its own monitor.
+   */
+  private final Map<Long, Set<Long>>[] mSessionIdToLockIdsMaps = newStripes();
 
   /**
-   * To guard access to the maps maintained by this class.
+   * A map from a lock id to the lock record of it. Removing a record from this map is what
+   * releases a lock id, so that a lock is only unlocked once when it is released concurrently by
+   * its owner and by a session cleanup.
    */
-  private final Object mSharedMapsLock = new Object();
+  private final ConcurrentMap<Long, LockRecord> mLockIdToRecordMap = new ConcurrentHashMap<>();
 
   /**
    * Constructs a new {@link BlockLockManager}.
@@ -106,14 +110,18 @@ public final class BlockLockManager {
     lock.lock();
     try {
       long lockId = LOCK_ID_GEN.getAndIncrement();
-      synchronized (mSharedMapsLock) {
-        mLockIdToRecordMap.put(lockId, new LockRecord(sessionId, blockId, lock));
-        Set<Long> sessionLockIds = mSessionIdToLockIdsMap.get(sessionId);
+      Map<Long, Set<Long>> sessionIdToLockIds = stripe(mSessionIdToLockIdsMaps, sessionId);
+      // The lock id is added to the session before its record is, under the monitor of the
+      // session, so that a concurrent cleanup of the session either releases the new lock or
+      // does not see its record at all.
+      synchronized (sessionIdToLockIds) {
+        Set<Long> sessionLockIds = sessionIdToLockIds.get(sessionId);
         if (sessionLockIds == null) {
-          mSessionIdToLockIdsMap.put(sessionId, Sets.newHashSet(lockId));
+          sessionIdToLockIds.put(sessionId, Sets.newHashSet(lockId));
         } else {
           sessionLockIds.add(lockId);
         }
+        mLockIdToRecordMap.put(lockId, new LockRecord(sessionId, blockId, lock));
       }
       return lockId;
     } catch (RuntimeException e) {
@@ -132,13 +140,14 @@ public final class BlockLockManager {
    * @return the block lock
    */
   private ClientRWLock getBlockLock(long blockId) {
-    // Loop until we either find the block lock in the mLocks map, or successfully acquire a new
+    Map<Long, ClientRWLock> locks = stripe(mLocks, blockId);
+    // Loop until we either find the block lock in the locks map, or successfully acquire a new
     // block lock from the lock pool.
     while (true) {
       ClientRWLock blockLock;
       // Check whether a lock has already been allocated for the block id.
-      synchronized (mSharedMapsLock) {
-        blockLock = mLocks.get(blockId);
+      synchronized (locks) {
+        blockLock = locks.get(blockId);
         if (blockLock != null) {
           blockLock.addReference();
           return blockLock;
@@ -150,13 +159,13 @@ public final class BlockLockManager {
       // allocated to another thread, in which case we could just use that lock.
       blockLock = mLockPool.acquire(1, TimeUnit.SECONDS);
       if (blockLock != null) {
-        synchronized (mSharedMapsLock) {
+        synchronized (locks) {
           // Check if someone else acquired a block lock for blockId while we were acquiring one.
-          if (mLocks.containsKey(blockId)) {
+          if (locks.containsKey(blockId)) {
             mLockPool.release(blockLock);
-            blockLock = mLocks.get(blockId);
+            blockLock = locks.get(blockId);
           } else {
-            mLocks.put(blockId, blockLock);
+            locks.put(blockId, blockLock);
           }
           blockLock.addReference();
           return blockLock;
@@ -172,24 +181,24 @@ public final class BlockLockManager {
    * @throws BlockDoesNotExistException if lock id cannot be found
    */
   public void unlockBlock(long lockId) throws BlockDoesNotExistException {
-    Lock lock;
-    LockRecord record;
-    synchronized (mSharedMapsLock) {
-      record = mLockIdToRecordMap.get(lockId);
-      if (record == null) {
-        throw new BlockDoesNotExistException(ExceptionMessage.LOCK_RECORD_NOT_FOUND_FOR_LOCK_ID,
-            lockId);
-      }
-      long sessionId = record.getSessionId();
-      lock = record.getLock();
-      mLockIdToRecordMap.remove(lockId);
-      Set<Long> sessionLockIds = mSessionIdToLockIdsMap.get(sessionId);
-      sessionLockIds.remove(lockId);
-      if (sessionLockIds.isEmpty()) {
-        mSessionIdToLockIdsMap.remove(sessionId);
+    LockRecord record = mLockIdToRecordMap.remove(lockId);
+    if (record == null) {
+      throw new BlockDoesNotExistException(ExceptionMessage.LOCK_RECORD_NOT_FOUND_FOR_LOCK_ID,
+          lockId);
+    }
+    long sessionId = record.getSessionId();
+    Map<Long, Set<Long>> sessionIdToLockIds = stripe(mSessionIdToLockIdsMaps, sessionId);
+    synchronized (sessionIdToLockIds) {
+      Set<Long> sessionLockIds = sessionIdToLockIds.get(sessionId);
+      // The session may have been cleaned up since the record was removed.
+      if (sessionLockIds != null) {
+        sessionLockIds.remove(lockId);
+        if (sessionLockIds.isEmpty()) {
+          sessionIdToLockIds.remove(sessionId);
+        }
       }
     }
-    unlock(lock, record.getBlockId());
+    unlock(record.getLock(), record.getBlockId());
   }
 
   /**
@@ -201,33 +210,34 @@ public final class BlockLockManager {
    */
   // TODO(bin): Temporary, remove me later.
   public void unlockBlock(long sessionId, long blockId) throws BlockDoesNotExistException {
-    synchronized (mSharedMapsLock) {
-      Set<Long> sessionLockIds = mSessionIdToLockIdsMap.get(sessionId);
+    LockRecord record = null;
+    Map<Long, Set<Long>> sessionIdToLockIds = stripe(mSessionIdToLockIdsMaps, sessionId);
+    synchronized (sessionIdToLockIds) {
+      Set<Long> sessionLockIds = sessionIdToLockIds.get(sessionId);
       if (sessionLockIds == null) {
         LOG.warn("Attempted to unlock block {} with session {}, but the session has not taken"
             + " any block locks", blockId, sessionId);
         return;
       }
       for (long lockId : sessionLockIds) {
-        LockRecord record = mLockIdToRecordMap.get(lockId);
-        if (record == null) {
-          throw new BlockDoesNotExistException(ExceptionMessage.LOCK_RECORD_NOT_FOUND_FOR_LOCK_ID,
-              lockId);
-        }
-        if (blockId == record.getBlockId()) {
-          mLockIdToRecordMap.remove(lockId);
+        LockRecord candidate = mLockIdToRecordMap.get(lockId);
+        // A missing record is being released concurrently by unlockBlock(long).
+        if (candidate != null && blockId == candidate.getBlockId()
+            && mLockIdToRecordMap.remove(lockId, candidate)) {
+          record = candidate;
           sessionLockIds.remove(lockId);
           if (sessionLockIds.isEmpty()) {
-            mSessionIdToLockIdsMap.remove(sessionId);
+            sessionIdToLockIds.remove(sessionId);
           }
-          Lock lock = record.getLock();
-          unlock(lock, blockId);
-          return;
+          break;
         }
       }
+    }
+    if (record == null) {
       throw new BlockDoesNotExistException(
           ExceptionMessage.LOCK_RECORD_NOT_FOUND_FOR_BLOCK_AND_SESSION, blockId, sessionId);
     }
+    unlock(record.getLock(), blockId);
   }
 
   /**
@@ -242,20 +252,18 @@ public final class BlockLockManager {
    */
   public void validateLock(long sessionId, long blockId, long lockId)
       throws BlockDoesNotExistException, InvalidWorkerStateException {
-    synchronized (mSharedMapsLock) {
-      LockRecord record = mLockIdToRecordMap.get(lockId);
-      if (record == null) {
-        throw new BlockDoesNotExistException(ExceptionMessage.LOCK_RECORD_NOT_FOUND_FOR_LOCK_ID,
-            lockId);
-      }
-      if (sessionId != record.getSessionId()) {
-        throw new InvalidWorkerStateException(ExceptionMessage.LOCK_ID_FOR_DIFFERENT_SESSION,
-            lockId, record.getSessionId(), sessionId);
-      }
-      if (blockId != record.getBlockId()) {
-        throw new InvalidWorkerStateException(ExceptionMessage.LOCK_ID_FOR_DIFFERENT_BLOCK, lockId,
-            record.getBlockId(), blockId);
-      }
+    LockRecord record = mLockIdToRecordMap.get(lockId);
+    if (record == null) {
+      throw new BlockDoesNotExistException(ExceptionMessage.LOCK_RECORD_NOT_FOUND_FOR_LOCK_ID,
+          lockId);
+    }
+    if (sessionId != record.getSessionId()) {
+      throw new InvalidWorkerStateException(ExceptionMessage.LOCK_ID_FOR_DIFFERENT_SESSION,
+          lockId, record.getSessionId(), sessionId);
+    }
+    if (blockId != record.getBlockId()) {
+      throw new InvalidWorkerStateException(ExceptionMessage.LOCK_ID_FOR_DIFFERENT_BLOCK, lockId,
+          record.getBlockId(), blockId);
     }
   }
 
@@ -265,22 +273,21 @@ public final class BlockLockManager {
    * @param sessionId the id of the session to cleanup
    */
   public void cleanupSession(long sessionId) {
-    synchronized (mSharedMapsLock) {
-      Set<Long> sessionLockIds = mSessionIdToLockIdsMap.get(sessionId);
-      if (sessionLockIds == null) {
-        return;
-      }
-      for (long lockId : sessionLockIds) {
-        LockRecord record = mLockIdToRecordMap.get(lockId);
-        if (record == null) {
-          LOG.error(ExceptionMessage.LOCK_RECORD_NOT_FOUND_FOR_LOCK_ID.getMessage(lockId));
-          continue;
-        }
-        Lock lock = record.getLock();
-        unlock(lock, record.getBlockId());
-        mLockIdToRecordMap.remove(lockId);
+    Set<Long> sessionLockIds;
+    Map<Long, Set<Long>> sessionIdToLockIds = stripe(mSessionIdToLockIdsMaps, sessionId);
+    synchronized (sessionIdToLockIds) {
+      sessionLockIds = sessionIdToLockIds.remove(sessionId);
+    }
+    if (sessionLockIds == null) {
+      return;
+    }
+    for (long lockId : sessionLockIds) {
+      LockRecord record = mLockIdToRecordMap.remove(lockId);
+      if (record == null) {
+        // The lock is being released concurrently by unlockBlock(long).
+        continue;
       }
-      mSessionIdToLockIdsMap.remove(sessionId);
+      unlock(record.getLock(), record.getBlockId());
     }
   }
 
@@ -290,13 +297,11 @@ public final class BlockLockManager {
    * @return a set of locked blocks
    */
   public Set<Long> getLockedBlocks() {
-    synchronized (mSharedMapsLock) {
-      Set<Long> set = new HashSet<>();
-      for (LockRecord lockRecord : mLockIdToRecordMap.values()) {
-        set.add(lockRecord.getBlockId());
-      }
-      return set;
+    Set<Long> set = new HashSet<>();
+    for (LockRecord lockRecord : mLockIdToRecordMap.values()) {
+      set.add(lockRecord.getBlockId());
     }
+    return set;
   }
 
   /**
@@ -318,15 +323,16 @@ public final class BlockLockManager {
    * @param blockId the block id for which to potentially release the block lock
    */
   private void releaseBlockLockIfUnused(long blockId) {
-    synchronized (mSharedMapsLock) {
-      ClientRWLock lock = mLocks.get(blockId);
+    Map<Long, ClientRWLock> locks = stripe(mLocks, blockId);
+    synchronized (locks) {
+      ClientRWLock lock = locks.get(blockId);
       if (lock == null) {
         // Someone else probably released the block lock already.
         return;
       }
       // If we were the last worker with a reference to the lock, clean it up.
       if (lock.dropReference() == 0) {
-        mLocks.remove(blockId);
+        locks.remove(blockId);
         mLockPool.release(lock);
       }
     }
@@ -335,45 +341,74 @@ public final class BlockLockManager {
   /**
    * Checks the internal state of the manager to make sure invariants hold.
    *
-   * This method is intended for testing purposes. A runtime exception will be thrown if invalid
-   * state is encountered.
+   * This method is intended for testing purposes, and must not be called while locks are taken or
+   * released concurrently. A runtime exception will be thrown if invalid state is encountered.
    */
   public void validate() {
-    synchronized (mSharedMapsLock) {
-      // Compute block lock reference counts based off of lock records
-      ConcurrentMap<Long, AtomicInteger> blockLockReferenceCounts = new ConcurrentHashMap<>();
-      for (LockRecord record : mLockIdToRecordMap.values()) {
-        blockLockReferenceCounts.putIfAbsent(record.getBlockId(), new AtomicInteger(0));
-        blockLockReferenceCounts.get(record.getBlockId()).incrementAndGet();
-      }
+    // Compute block lock reference counts based off of lock records
+    ConcurrentMap<Long, AtomicInteger> blockLockReferenceCounts = new ConcurrentHashMap<>();
+    for (LockRecord record : mLockIdToRecordMap.values()) {
+      blockLockReferenceCounts.putIfAbsent(record.getBlockId(), new AtomicInteger(0));
+      blockLockReferenceCounts.get(record.getBlockId()).incrementAndGet();
+    }
 
-      // Check that the reference count for each block lock matches the lock record counts.
-      for (Entry<Long, ClientRWLock> entry : mLocks.entrySet()) {
-        long blockId = entry.getKey();
-        ClientRWLock lock = entry.getValue();
-        Integer recordCount = blockLockReferenceCounts.get(blockId).get();
-        Integer referenceCount = lock.getReferenceCount();
-        if (!Objects.equal(recordCount, referenceCount)) {
-          throw new IllegalStateException("There are " + recordCount + " lock records for block"
-              + " id " + blockId + ", but the reference count is " + referenceCount);
+    // Check that the reference count for each block lock matches the lock record counts.
+    for (Map<Long, ClientRWLock> locks : mLocks) {
+      synchronized (locks) {
+        for (Entry<Long, ClientRWLock> entry : locks.entrySet()) {
+          long blockId = entry.getKey();
+          ClientRWLock lock = entry.getValue();
+          Integer recordCount = blockLockReferenceCounts.get(blockId).get();
+          Integer referenceCount = lock.getReferenceCount();
+          if (!Objects.equal(recordCount, referenceCount)) {
+            throw new IllegalStateException("There are " + recordCount + " lock records for block"
+                + " id " + blockId + ", but the reference count is " + referenceCount);
+          }
         }
       }
+    }
 
-      // Check that if a lock id is mapped to by a session id, the lock record for that lock id
-      // contains that session id.
-      for (Entry<Long, Set<Long>> entry : mSessionIdToLockIdsMap.entrySet()) {
-        for (Long lockId : entry.getValue()) {
-          LockRecord record = mLockIdToRecordMap.get(lockId);
-          if (record.getSessionId() != entry.getKey()) {
-            throw new IllegalStateException("The session id map contains lock id " + lockId
-                + "under session id " + entry.getKey() + ", but the record for that lock id ("
-                + record + ")" + " doesn't contain that session id");
+    // Check that if a lock id is mapped to by a session id, the lock record for that lock id
+    // contains that session id.
+    for (Map<Long, Set<Long>> sessionIdToLockIds : mSessionIdToLockIdsMaps) {
+      synchronized (sessionIdToLockIds) {
+        for (Entry<Long, Set<Long>> entry : sessionIdToLockIds.entrySet()) {
+          for (Long lockId : entry.getValue()) {
+            LockRecord record = mLockIdToRecordMap.get(lockId);
+            if (record.getSessionId() != entry.getKey()) {
+              throw new IllegalStateException("The session id map contains lock id " + lockId
+                  + "under session id " + entry.getKey() + ", but the record for that lock id ("
+                  + record + ")" + " doesn't contain that session id");
+            }
           }
         }
       }
     }
   }
 
+  /**
+   * @return a new array of {@link #NUM_STRIPES} empty maps
+   */
+  @SuppressWarnings("unchecked")
+  private static <V> Map<Long, V>[] newStripes() {
+    Map<Long, V>[] stripes = new Map[NUM_STRIPES];
+    for (int i = 0; i < NUM_STRIPES; i++) {
+      stripes[i] = new HashMap<>();
+    }
+    return stripes;
+  }
+
+  /**
+   * @param stripes the stripes of a map
+   * @param id a block or session id
+   * @return the stripe holding the given id
+   */
+  private static <V> Map<Long, V> stripe(Map<Long, V>[] stripes, long id) {
+    int hash = (int) (id ^ (id >>> 32));
+    hash ^= hash >>> 16;
+    return stripes[hash & (NUM_STRIPES - 1)];
+  }
+
   /**
    * Inner class to keep record of a lock.
    */
@@ -12,6 +12,7 @@
 package alluxio.worker.block;
 
 import alluxio.AbstractMasterClient;
+import alluxio.Configuration;
 import alluxio.Constants;
 import alluxio.exception.AlluxioException;
 import alluxio.exception.ConnectionFailedException;
@@ -19,6 +20,7 @@ import alluxio.thrift.AlluxioService;
 import alluxio.thrift.AlluxioTException;
 import alluxio.thrift.BlockMasterWorkerService;
 import alluxio.thrift.Command;
+import alluxio.thrift.RegisterWorkerTOptions;
 import alluxio.wire.WorkerNetAddress;
 
 import org.apache.thrift.TException;
@@ -27,6 +29,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -138,7 +141,9 @@ public final class BlockMasterClient extends AbstractMasterClient {
   }
 
   /**
-   * The method the worker should execute to register with the block master.
+   * The method the worker should execute to register with the block master. The blocks are sent
+   * in batches of at most {@link Constants#WORKER_BLOCK_REGISTER_BATCH_SIZE} block ids, so that a
+   * worker with many blocks registers in several calls, which the master processes one by one.
    *
    * @param workerId the worker id of the worker registering
    * @param storageTierAliases a list of storage tier aliases in ordinal order
@@ -152,11 +157,65 @@ public final class BlockMasterClient extends AbstractMasterClient {
   public synchronized void register(final long workerId, final List<String> storageTierAliases,
       final Map<String, Long> totalBytesOnTiers, final Map<String, Long> usedBytesOnTiers,
       final Map<String, List<Long>> currentBlocksOnTiers) throws AlluxioException, IOException {
+    int batchSize = Configuration.getInt(Constants.WORKER_BLOCK_REGISTER_BATCH_SIZE);
+    long numBlocks = 0;
+    for (List<Long> blockIds : currentBlocksOnTiers.values()) {
+      numBlocks += blockIds.size();
+    }
+    if (batchSize <= 0 || numBlocks <= batchSize) {
+      registerBatch(workerId, storageTierAliases, totalBytesOnTiers, usedBytesOnTiers,
+          currentBlocksOnTiers, new RegisterWorkerTOptions());
+      return;
+    }
+
+    long numSentBlocks = 0;
+    Map<String, List<Long>> batch = new HashMap<>();
+    int batchBlocks = 0;
+    for (Map.Entry<String, List<Long>> entry : currentBlocksOnTiers.entrySet()) {
+      List<Long> blockIds = entry.getValue();
+      int start = 0;
+      while (start < blockIds.size()) {
+        int end = Math.min(blockIds.size(), start + batchSize - batchBlocks);
+        batch.put(entry.getKey(), blockIds.subList(start, end));
+        batchBlocks += end - start;
+        start = end;
+        if (batchBlocks == batchSize) {
+          numSentBlocks += batchBlocks;
+          registerBatch(workerId, storageTierAliases, totalBytesOnTiers, usedBytesOnTiers, batch,
+              new RegisterWorkerTOptions().setContinued(numSentBlocks > batchBlocks)
+                  .setHasMore(numSentBlocks < numBlocks));
+          batch = new HashMap<>();
+          batchBlocks = 0;
+        }
+      }
+    }
+    if (batchBlocks > 0) {
+      registerBatch(workerId, storageTierAliases, totalBytesOnTiers, usedBytesOnTiers, batch,
+          new RegisterWorkerTOptions().setContinued(true).setHasMore(false));
+    }
+  }
+
+  /**
+   * Sends one registration call to the block master.
+   *
+   * @param workerId the worker id of the worker registering
+   * @param storageTierAliases a list of storage tier aliases in ordinal order
+   * @param totalBytesOnTiers mapping from storage tier alias to total bytes
+   * @param usedBytesOnTiers mapping from storage tier alias to used bytes
+   * @param blocksOnTiers mapping from storage tier alias to the blocks sent by this call
+   * @param options the options telling the master how the call relates to the other calls
+   * @throws AlluxioException if registering the worker fails
+   * @throws IOException if an I/O error occurs or the workerId doesn't exist
+   */
+  private void registerBatch(final long workerId, final List<String> storageTierAliases,
+      final Map<String, Long> totalBytesOnTiers, final Map<String, Long> usedBytesOnTiers,
+      final Map<String, List<Long>> blocksOnTiers, final RegisterWorkerTOptions options)
+      throws AlluxioException, IOException {
     retryRPC(new RpcCallableThrowsAlluxioTException<Void>() {
       @Override
       public Void call() throws AlluxioTException, TException {
         mClient.registerWorker(workerId, storageTierAliases, totalBytesOnTiers, usedBytesOnTiers,
-            currentBlocksOnTiers);
+            blocksOnTiers, options);
         return null;
       }
     });
@@ -96,6 +96,15 @@ public final class BlockMetricsReporter extends AbstractBlockStoreEventListener
       mWorkerSource.incBytesWrittenLocal(metrics.get(Constants.BYTES_WRITTEN_LOCAL_INDEX));
       mWorkerSource.incBytesWrittenRemote(metrics.get(Constants.BYTES_WRITTEN_REMOTE_INDEX));
       mWorkerSource.incBytesWrittenUfs(metrics.get(Constants.BYTES_WRITTEN_UFS_INDEX));
+      // Older clients do not send the read-ahead and metadata cache metrics.
+      if (metrics.size() > Constants.BLOCKS_READ_AHEAD_MISS_INDEX) {
+        mWorkerSource.incBlocksReadAheadHit(metrics.get(Constants.BLOCKS_READ_AHEAD_HIT_INDEX));
+        mWorkerSource.incBlocksReadAheadMiss(metrics.get(Constants.BLOCKS_READ_AHEAD_MISS_INDEX));
+      }
+      if (metrics.size() > Constants.METADATA_CACHE_MISS_INDEX) {
+        mWorkerSource.incMetadataCacheHit(metrics.get(Constants.METADATA_CACHE_HIT_INDEX));
+        mWorkerSource.incMetadataCacheMiss(metrics.get(Constants.METADATA_CACHE_MISS_INDEX));
+      }
     }
   }
 }
@@ -583,6 +583,16 @@ public final class BlockWorker extends AbstractWorker {
     mBlockStore.unlockBlock(sessionId, blockId);
   }
 
+  /**
+   * Registers a listener of the events of the underlying block store, such as the removal of a
+   * block.
+   *
+   * @param listener the listener to register
+   */
+  public void registerBlockStoreEventListener(BlockStoreEventListener listener) {
+    mBlockStore.registerBlockStoreEventListener(listener);
+  }
+
   /**
    * Handles the heartbeat from a client.
    *
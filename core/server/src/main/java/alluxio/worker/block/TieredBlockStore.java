@@ -42,13 +42,13 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -88,7 +88,9 @@ public final class TieredBlockStore implements BlockStore {
   private final Allocator mAllocator;
   private final Evictor mEvictor;
 
-  private final List<BlockStoreEventListener> mBlockStoreEventListeners = new ArrayList<>();
+  /** Listeners of block store events, copied on write so that events are dispatched lock-free. */
+  private final List<BlockStoreEventListener> mBlockStoreEventListeners =
+      new CopyOnWriteArrayList<>();
 
   /** A set of pinned inodes fetched from the master. */
   private final Set<Long> mPinnedInodes = new HashSet<>();
@@ -220,10 +222,8 @@ public final class TieredBlockStore implements BlockStore {
   public void commitBlock(long sessionId, long blockId) throws BlockAlreadyExistsException,
       InvalidWorkerStateException, BlockDoesNotExistException, IOException {
     BlockStoreLocation loc = commitBlockInternal(sessionId, blockId);
-    synchronized (mBlockStoreEventListeners) {
-      for (BlockStoreEventListener listener : mBlockStoreEventListeners) {
-        listener.onCommitBlock(sessionId, blockId, loc);
-      }
+    for (BlockStoreEventListener listener : mBlockStoreEventListeners) {
+      listener.onCommitBlock(sessionId, blockId, loc);
     }
   }
 
@@ -231,10 +231,8 @@ public final class TieredBlockStore implements BlockStore {
   public void abortBlock(long sessionId, long blockId) throws BlockAlreadyExistsException,
       BlockDoesNotExistException, InvalidWorkerStateException, IOException {
     abortBlockInternal(sessionId, blockId);
-    synchronized (mBlockStoreEventListeners) {
-      for (BlockStoreEventListener listener : mBlockStoreEventListeners) {
-        listener.onAbortBlock(sessionId, blockId);
-      }
+    for (BlockStoreEventListener listener : mBlockStoreEventListeners) {
+      listener.onAbortBlock(sessionId, blockId);
     }
   }
 
@@ -270,11 +268,9 @@ public final class TieredBlockStore implements BlockStore {
     for (int i = 0; i < MAX_RETRIES + 1; i++) {
       MoveBlockResult moveResult = moveBlockInternal(sessionId, blockId, oldLocation, newLocation);
       if (moveResult.getSuccess()) {
-        synchronized (mBlockStoreEventListeners) {
-          for (BlockStoreEventListener listener : mBlockStoreEventListeners) {
-            listener.onMoveBlockByClient(sessionId, blockId, moveResult.getSrcLocation(),
-                moveResult.getDstLocation());
-          }
+        for (BlockStoreEventListener listener : mBlockStoreEventListeners) {
+          listener.onMoveBlockByClient(sessionId, blockId, moveResult.getSrcLocation(),
+              moveResult.getDstLocation());
         }
         return;
       }
@@ -296,10 +292,8 @@ public final class TieredBlockStore implements BlockStore {
   public void removeBlock(long sessionId, long blockId, BlockStoreLocation location)
       throws InvalidWorkerStateException, BlockDoesNotExistException, IOException {
     removeBlockInternal(sessionId, blockId, location);
-    synchronized (mBlockStoreEventListeners) {
-      for (BlockStoreEventListener listener : mBlockStoreEventListeners) {
-        listener.onRemoveBlockByClient(sessionId, blockId);
-      }
+    for (BlockStoreEventListener listener : mBlockStoreEventListeners) {
+      listener.onRemoveBlockByClient(sessionId, blockId);
     }
   }
 
@@ -312,10 +306,8 @@ public final class TieredBlockStore implements BlockStore {
     if (!hasBlock) {
       throw new BlockDoesNotExistException(ExceptionMessage.NO_BLOCK_ID_FOUND, blockId);
     }
-    synchronized (mBlockStoreEventListeners) {
-      for (BlockStoreEventListener listener : mBlockStoreEventListeners) {
-        listener.onAccessBlock(sessionId, blockId);
-      }
+    for (BlockStoreEventListener listener : mBlockStoreEventListeners) {
+      listener.onAccessBlock(sessionId, blockId);
     }
   }
 
@@ -373,9 +365,7 @@ public final class TieredBlockStore implements BlockStore {
 
   @Override
   public void registerBlockStoreEventListener(BlockStoreEventListener listener) {
-    synchronized (mBlockStoreEventListeners) {
-      mBlockStoreEventListeners.add(listener);
-    }
+    mBlockStoreEventListeners.add(listener);
   }
 
   /**
@@ -611,10 +601,8 @@ public final class TieredBlockStore implements BlockStore {
         LOG.info("Failed to evict blockId {}, it could be already deleted", blockInfo.getFirst());
         continue;
       }
-      synchronized (mBlockStoreEventListeners) {
-        for (BlockStoreEventListener listener : mBlockStoreEventListeners) {
-          listener.onRemoveBlockByWorker(sessionId, blockInfo.getFirst());
-        }
+      for (BlockStoreEventListener listener : mBlockStoreEventListeners) {
+        listener.onRemoveBlockByWorker(sessionId, blockInfo.getFirst());
       }
     }
     // 2. transfer blocks among tiers.
@@ -652,11 +640,9 @@ public final class TieredBlockStore implements BlockStore {
           continue;
         }
         if (moveResult.getSuccess()) {
-          synchronized (mBlockStoreEventListeners) {
-            for (BlockStoreEventListener listener : mBlockStoreEventListeners) {
-              listener.onMoveBlockByWorker(sessionId, blockId, moveResult.getSrcLocation(),
-                  newLocation);
-            }
+          for (BlockStoreEventListener listener : mBlockStoreEventListeners) {
+            listener.onMoveBlockByWorker(sessionId, blockId, moveResult.getSrcLocation(),
+                newLocation);
           }
         }
       }
@@ -0,0 +1,339 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.block.evictor;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * An indexed binary min-heap of block ids ordered by a priority. The ids and priorities are kept
+ * in primitive arrays, together with an open addressing index from block id to heap position, so
+ * that updating or removing a block takes O(log n) time without allocating objects.
+ *
+ * The blocks can be iterated in increasing order of priority without modifying the heap: the k
+ * first blocks are visited in O(k log k) time, by expanding the heap from its root in best-first
+ * order. Only one iteration can be in progress at a time, and the heap must not be modified while
+ * it is in progress.
+ */
+@NotThreadSafe
+final class BlockPriorityHeap {
+  private static final int INITIAL_CAPACITY = 16;
+  /** Marks an empty slot of the index. */
+  private static final int EMPTY = -1;
+
+  private long[] mBlockIds = new long[INITIAL_CAPACITY];
+  private double[] mPriorities = new double[INITIAL_CAPACITY];
+  private int mSize;
+
+  /** Block ids of the index, the slot is empty if its position is {@link #EMPTY}. */
+  private long[] mIndexIds = new long[INITIAL_CAPACITY];
+  /** Heap positions of the index. */
+  private int[] mIndexPositions = newIndexPositions(INITIAL_CAPACITY);
+
+  /** Heap positions to visit next during an iteration, as a min-heap ordered by priority. */
+  private int[] mFrontier = new int[INITIAL_CAPACITY];
+
+  /**
+   * @return the number of blocks in the heap
+   */
+  int size() {
+    return mSize;
+  }
+
+  /**
+   * @param blockId the id of a block
+   * @return whether the block is in the heap
+   */
+  boolean contains(long blockId) {
+    return mIndexPositions[findSlot(blockId)] != EMPTY;
+  }
+
+  /**
+   * @param blockId the id of a block
+   * @return the priority of the block, or {@link Double#NaN} if the block is not in the heap
+   */
+  double getPriority(long blockId) {
+    int position = mIndexPositions[findSlot(blockId)];
+    return position == EMPTY ? Double.NaN : mPriorities[position];
+  }
+
+  /**
+   * Adds a block, or updates its priority if it is already in the heap.
+   *
+   * @param blockId the id of the block
+   * @param priority the priority of the block
+   */
+  void put(long blockId, double priority) {
+    int slot = findSlot(blockId);
+    int position = mIndexPositions[slot];
+    if (position != EMPTY) {
+      double oldPriority = mPriorities[position];
+      mPriorities[position] = priority;
+      if (priority < oldPriority) {
+        siftUp(position);
+      } else {
+        siftDown(position);
+      }
+      return;
+    }
+    if (mSize == mBlockIds.length) {
+      mBlockIds = Arrays.copyOf(mBlockIds, mSize * 2);
+      mPriorities = Arrays.copyOf(mPriorities, mSize * 2);
+    }
+    position = mSize++;
+    mBlockIds[position] = blockId;
+    mPriorities[position] = priority;
+    mIndexIds[slot] = blockId;
+    mIndexPositions[slot] = position;
+    if (mSize * 4 > mIndexIds.length * 3) {
+      resizeIndex(mIndexIds.length * 2);
+    }
+    siftUp(position);
+  }
+
+  /**
+   * Removes a block.
+   *
+   * @param blockId the id of the block
+   * @return true if the block was removed, false if it was not in the heap
+   */
+  boolean remove(long blockId) {
+    int slot = findSlot(blockId);
+    int position = mIndexPositions[slot];
+    if (position == EMPTY) {
+      return false;
+    }
+    removeFromIndex(slot);
+    mSize--;
+    if (position != mSize) {
+      double priority = mPriorities[position];
+      move(mSize, position);
+      if (mPriorities[position] < priority) {
+        siftUp(position);
+      } else {
+        siftDown(position);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Removes all the blocks.
+   */
+  void clear() {
+    mSize = 0;
+    Arrays.fill(mIndexPositions, EMPTY);
+  }
+
+  /**
+   * Returns an iterator over the block ids in increasing order of priority. The iterator does not
+   * support removal, and is invalidated by any modification of the heap.
+   *
+   * @return the iterator
+   */
+  Iterator<Long> iterator() {
+    return new Iterator<Long>() {
+      private int mFrontierSize = mSize > 0 ? pushFrontier(0, 0) : 0;
+
+      @Override
+      public boolean hasNext() {
+        return mFrontierSize > 0;
+      }
+
+      @Override
+      public Long next() {
+        if (mFrontierSize == 0) {
+          throw new NoSuchElementException();
+        }
+        int position = mFrontier[0];
+        mFrontierSize = popFrontier(mFrontierSize);
+        int child = 2 * position + 1;
+        if (child < mSize) {
+          mFrontierSize = pushFrontier(mFrontierSize, child);
+        }
+        if (child + 1 < mSize) {
+          mFrontierSize = pushFrontier(mFrontierSize, child + 1);
+        }
+        return mBlockIds[position];
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  /**
+   * Adds a heap position to the frontier of an iteration.
+   *
+   * @param frontierSize the size of the frontier
+   * @param position the heap position
+   * @return the new size of the frontier
+   */
+  private int pushFrontier(int frontierSize, int position) {
+    if (frontierSize == mFrontier.length) {
+      mFrontier = Arrays.copyOf(mFrontier, frontierSize * 2);
+    }
+    int i = frontierSize;
+    while (i > 0) {
+      int parent = (i - 1) / 2;
+      if (mPriorities[mFrontier[parent]] <= mPriorities[position]) {
+        break;
+      }
+      mFrontier[i] = mFrontier[parent];
+      i = parent;
+    }
+    mFrontier[i] = position;
+    return frontierSize + 1;
+  }
+
+  /**
+   * Removes the heap position with the lowest priority from the frontier of an iteration.
+   *
+   * @param frontierSize the size of the frontier
+   * @return the new size of the frontier
+   */
+  private int popFrontier(int frontierSize) {
+    int size = frontierSize - 1;
+    int last = mFrontier[size];
+    int i = 0;
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= size) {
+        break;
+      }
+      if (child + 1 < size && mPriorities[mFrontier[child + 1]] < mPriorities[mFrontier[child]]) {
+        child++;
+      }
+      if (mPriorities[last] <= mPriorities[mFrontier[child]]) {
+        break;
+      }
+      mFrontier[i] = mFrontier[child];
+      i = child;
+    }
+    mFrontier[i] = last;
+    return size;
+  }
+
+  private void siftUp(int position) {
+    long blockId = mBlockIds[position];
+    double priority = mPriorities[position];
+    int i = position;
+    while (i > 0) {
+      int parent = (i - 1) / 2;
+      if (mPriorities[parent] <= priority) {
+        break;
+      }
+      move(parent, i);
+      i = parent;
+    }
+    set(i, blockId, priority);
+  }
+
+  private void siftDown(int position) {
+    long blockId = mBlockIds[position];
+    double priority = mPriorities[position];
+    int i = position;
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= mSize) {
+        break;
+      }
+      if (child + 1 < mSize && mPriorities[child + 1] < mPriorities[child]) {
+        child++;
+      }
+      if (priority <= mPriorities[child]) {
+        break;
+      }
+      move(child, i);
+      i = child;
+    }
+    set(i, blockId, priority);
+  }
+
+  /**
+   * Moves the block at a heap position to another heap position, and updates the index.
+   */
+  private void move(int from, int to) {
+    set(to, mBlockIds[from], mPriorities[from]);
+  }
+
+  private void set(int position, long blockId, double priority) {
+    mBlockIds[position] = blockId;
+    mPriorities[position] = priority;
+    mIndexPositions[findSlot(blockId)] = position;
+  }
+
+  /**
+   * @param blockId the id of a block
+   * @return the slot of the index holding the block, or the empty slot where it would be added
+   */
+  private int findSlot(long blockId) {
+    int mask = mIndexIds.length - 1;
+    int slot = hash(blockId) & mask;
+    while (mIndexPositions[slot] != EMPTY && mIndexIds[slot] != blockId) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Empties a slot of the index, shifting the following entries of its probe sequence back so
+   * that no tombstone is needed.
+   */
+  private void removeFromIndex(int slot) {
+    int mask = mIndexIds.length - 1;
+    int hole = slot;
+    for (int i = (slot + 1) & mask; mIndexPositions[i] != EMPTY; i = (i + 1) & mask) {
+      int home = hash(mIndexIds[i]) & mask;
+      // Move the entry if its home slot is not cyclically within (hole, i].
+      if (((i - home) & mask) >= ((i - hole) & mask)) {
+        mIndexIds[hole] = mIndexIds[i];
+        mIndexPositions[hole] = mIndexPositions[i];
+        hole = i;
+      }
+    }
+    mIndexPositions[hole] = EMPTY;
+  }
+
+  private void resizeIndex(int capacity) {
+    mIndexIds = new long[capacity];
+    mIndexPositions = newIndexPositions(capacity);
+    for (int position = 0; position < mSize; position++) {
+      int slot = findSlot(mBlockIds[position]);
+      mIndexIds[slot] = mBlockIds[position];
+      mIndexPositions[slot] = position;
+    }
+  }
+
+  private static int[] newIndexPositions(int capacity) {
+    int[] positions = new int[capacity];
+    Arrays.fill(positions, EMPTY);
+    return positions;
+  }
+
+  /**
+   * Mixes the bits of a block id, since block ids of the same container only differ in their low
+   * bits.
+   */
+  private static int hash(long blockId) {
+    long h = blockId;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    return (int) h;
+  }
+}
@@ -21,19 +21,11 @@ import alluxio.worker.block.meta.BlockMeta;
 import alluxio.worker.block.meta.StorageDirView;
 import alluxio.worker.block.meta.StorageTierView;
 
-import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Iterators;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -47,20 +39,28 @@ import javax.annotation.concurrent.NotThreadSafe;
  * combines LRU and LFU, it evicts blocks with small frequency or large recency. When
  * {@link #mStepFactor} is close to 0, LRFU is close to LFU. Conversely, LRFU is close to LRU
  * when {@link #mStepFactor} is close to 1.
+ *
+ * Rather than decaying the CRF of every block before each eviction, each block is kept in a heap
+ * keyed by ln(CRF(t)) + t * {@link #mStepFactor} * ln({@link #mAttenuationFactor}), where t is
+ * the logic time of its last update. Since all CRF values decay by the same factor as time
+ * passes, this key does not change until the block is accessed again, and the blocks ordered by
+ * it are in increasing order of their current CRF.
  */
 @NotThreadSafe
 public final class LRFUEvictor extends AbstractEvictor {
-  // Map from block id to the last updated logic time count
-  private final Map<Long, Long> mBlockIdToLastUpdateTime = new ConcurrentHashMap<>();
-  // Map from block id to the CRF value of the block
-  private final Map<Long, Double> mBlockIdToCRFValue = new ConcurrentHashMap<>();
+  /** Blocks keyed by their time independent CRF, see the class javadoc. Guards the fields below. */
+  private final BlockPriorityHeap mBlockHeap = new BlockPriorityHeap();
+  // Blocks removed from the iterator, which are removed from the heap after the iteration
+  private final List<Long> mRemovedFromIterator = new ArrayList<>();
   // In the range of [0, 1]. Closer to 0, LRFU closer to LFU. Closer to 1, LRFU closer to LRU
   private final double mStepFactor;
   // In the range of [2, INF]
   private final double mAttenuationFactor;
+  // The natural logarithm of the CRF decay for each logic time unit
+  private final double mLogDecayPerTimeUnit;
 
   //logic time count
-  private AtomicLong mLogicTimeCount = new AtomicLong(0L);
+  private long mLogicTimeCount = 0L;
 
   /**
    * Creates a new instance of {@link LRFUEvictor}.
@@ -76,40 +76,36 @@ public final class LRFUEvictor extends AbstractEvictor {
         "Step factor should be in the range of [0.0, 1.0]");
     Preconditions.checkArgument(mAttenuationFactor >= 2.0,
         "Attenuation factor should be no less than 2.0");
+    mLogDecayPerTimeUnit = mStepFactor * Math.log(mAttenuationFactor);
 
-    // Preloading blocks
+    // Preloading blocks, with a CRF of 0
     for (StorageTierView tier : mManagerView.getTierViews()) {
       for (StorageDirView dir : tier.getDirViews()) {
         for (BlockMeta block : dir.getEvictableBlocks()) {
-          mBlockIdToLastUpdateTime.put(block.getBlockId(), 0L);
-          mBlockIdToCRFValue.put(block.getBlockId(), 0.0);
+          mBlockHeap.put(block.getBlockId(), Double.NEGATIVE_INFINITY);
         }
       }
     }
   }
 
-  /**
-   * Calculates weight of an access, which is the function value of
-   * F(t) = pow (1.0 / {@link #mAttenuationFactor}, t * {@link #mStepFactor}).
-   *
-   * @param logicTimeInterval time interval since that access to current
-   * @return Function value of F(t)
-   */
-  private double calculateAccessWeight(long logicTimeInterval) {
-    return Math.pow(1.0 / mAttenuationFactor, logicTimeInterval * mStepFactor);
-  }
-
   @Override
   public EvictionPlan freeSpaceWithView(long bytesToBeAvailable, BlockStoreLocation location,
       BlockMetadataManagerView view) {
-    synchronized (mBlockIdToLastUpdateTime) {
-      updateCRFValue();
+    synchronized (mBlockHeap) {
       mManagerView = view;
 
       List<BlockTransferInfo> toMove = new ArrayList<>();
       List<Pair<Long, BlockStoreLocation>> toEvict = new ArrayList<>();
       EvictionPlan plan = new EvictionPlan(toMove, toEvict);
-      StorageDirView candidateDir = cascadingEvict(bytesToBeAvailable, location, plan);
+      StorageDirView candidateDir;
+      try {
+        candidateDir = cascadingEvict(bytesToBeAvailable, location, plan);
+      } finally {
+        for (long blockId : mRemovedFromIterator) {
+          mBlockHeap.remove(blockId);
+        }
+        mRemovedFromIterator.clear();
+      }
 
       mManagerView.clearBlockMarks();
       if (candidateDir == null) {
@@ -120,31 +116,33 @@ public final class LRFUEvictor extends AbstractEvictor {
     }
   }
 
-  @Override
-  protected Iterator<Long> getBlockIterator() {
-    return Iterators.transform(getSortedCRF().iterator(),
-        new Function<Map.Entry<Long, Double>, Long>() {
-          @Override
-          public Long apply(Entry<Long, Double> input) {
-            return input.getKey();
-          }
-        });
-  }
-
   /**
-   * Sorts all blocks in ascending order of CRF.
+   * Returns the blocks in increasing order of CRF. Only the blocks actually visited are ordered,
+   * so finding the first k candidates takes O(k log k) time. Removing a block through the
+   * iterator is deferred to the end of the eviction, since the heap cannot change while it is
+   * being iterated.
    *
-   * @return the sorted CRF of all blocks
+   * @return an iterator over the ids of the blocks in increasing order of CRF
    */
-  private List<Map.Entry<Long, Double>> getSortedCRF() {
-    List<Map.Entry<Long, Double>> sortedCRF = new ArrayList<>(mBlockIdToCRFValue.entrySet());
-    Collections.sort(sortedCRF, new Comparator<Map.Entry<Long, Double>>() {
+  @Override
+  protected Iterator<Long> getBlockIterator() {
+    final Iterator<Long> it = mBlockHeap.iterator();
+    return new Iterator<Long>() {
+      @Override
+      public boolean hasNext() {
+        return it.hasNext();
+      }
+
+      @Override
+      public Long next() {
+        return it.next();
+      }
+
       @Override
-      public int compare(Entry<Long, Double> o1, Entry<Long, Double> o2) {
-        return Double.compare(o1.getValue(), o2.getValue());
+      public void remove() {
+        // The block is queued by onRemoveBlockFromIterator
       }
-    });
-    return sortedCRF;
+    };
   }
 
   @Override
@@ -169,67 +167,41 @@ public final class LRFUEvictor extends AbstractEvictor {
 
   @Override
   protected void onRemoveBlockFromIterator(long blockId) {
-    mBlockIdToLastUpdateTime.remove(blockId);
-    mBlockIdToCRFValue.remove(blockId);
-  }
-
-  /**
-   * This function is used to update CRF of all the blocks according to current logic time. When
-   * some block is accessed in some time, only CRF of that block itself will be updated to current
-   * time, other blocks who are not accessed recently will only be updated until
-   * {@link #freeSpaceWithView(long, BlockStoreLocation, BlockMetadataManagerView)} is called
-   * because blocks need to be sorted in the increasing order of CRF. When this function is called,
-   * {@link #mBlockIdToLastUpdateTime} and {@link #mBlockIdToCRFValue} need to be locked in case
-   * of the changing of values.
-   */
-  private void updateCRFValue() {
-    long currentLogicTime = mLogicTimeCount.get();
-    for (Entry<Long, Double> entry : mBlockIdToCRFValue.entrySet()) {
-      long blockId = entry.getKey();
-      double crfValue = entry.getValue();
-      mBlockIdToCRFValue.put(blockId, crfValue
-          * calculateAccessWeight(currentLogicTime - mBlockIdToLastUpdateTime.get(blockId)));
-      mBlockIdToLastUpdateTime.put(blockId, currentLogicTime);
-    }
+    mRemovedFromIterator.add(blockId);
   }
 
   /**
-   * Updates {@link #mBlockIdToLastUpdateTime} and {@link #mBlockIdToCRFValue} when block is
-   * accessed or committed. Only CRF of the accessed or committed block will be updated, CRF
-   * of other blocks will be lazily updated (only when {@link #updateCRFValue()} is called).
-   * If the block is updated at the first time, CRF of the block will be set to 1.0, otherwise
-   * the CRF of the block will be set to {1.0 + old CRF * F(current time - last update time)}.
+   * Updates the CRF of a block when it is accessed or committed. If the block is updated at the
+   * first time, CRF of the block will be set to 1.0, otherwise the CRF of the block will be set to
+   * {1.0 + old CRF * F(current time - last update time)}. The CRF of other blocks is not changed,
+   * since their keys in the heap do not depend on the current time.
    *
    * @param blockId id of the block to be accessed or committed
    */
   private void updateOnAccessAndCommit(long blockId) {
-    synchronized (mBlockIdToLastUpdateTime) {
-      long currentLogicTime = mLogicTimeCount.incrementAndGet();
-      // update CRF value
+    synchronized (mBlockHeap) {
+      long currentLogicTime = ++mLogicTimeCount;
+      double timeOffset = currentLogicTime * mLogDecayPerTimeUnit;
       // CRF(currentLogicTime)=CRF(lastUpdateTime)*F(currentLogicTime-lastUpdateTime)+F(0)
-      if (mBlockIdToCRFValue.containsKey(blockId)) {
-        mBlockIdToCRFValue.put(blockId, mBlockIdToCRFValue.get(blockId)
-            * calculateAccessWeight(currentLogicTime - mBlockIdToLastUpdateTime.get(blockId))
-            + 1.0);
+      // with key = ln(CRF(t)) + timeOffset(t), so CRF(currentLogicTime)=exp(key - timeOffset)
+      double key = mBlockHeap.getPriority(blockId);
+      if (Double.isNaN(key)) {
+        mBlockHeap.put(blockId, timeOffset);
       } else {
-        mBlockIdToCRFValue.put(blockId, 1.0);
+        mBlockHeap.put(blockId, Math.log1p(Math.exp(key - timeOffset)) + timeOffset);
       }
-      // update currentLogicTime to lastUpdateTime
-      mBlockIdToLastUpdateTime.put(blockId, currentLogicTime);
     }
   }
 
   /**
-   * Updates {@link #mBlockIdToLastUpdateTime} and {@link #mBlockIdToCRFValue} when block is
-   * removed.
+   * Updates the heap when block is removed.
    *
    * @param blockId id of the block to be removed
    */
   private void updateOnRemoveBlock(long blockId) {
-    synchronized (mBlockIdToLastUpdateTime) {
-      mLogicTimeCount.incrementAndGet();
-      mBlockIdToCRFValue.remove(blockId);
-      mBlockIdToLastUpdateTime.remove(blockId);
+    synchronized (mBlockHeap) {
+      mLogicTimeCount++;
+      mBlockHeap.remove(blockId);
     }
   }
 }
@@ -68,7 +68,11 @@ public class LRUEvictor extends AbstractEvictor {
 
   @Override
   protected Iterator<Long> getBlockIterator() {
-    List<Long> blocks = new ArrayList<>(mLRUCache.keySet());
+    List<Long> blocks;
+    // Events may be dispatched while the keys are copied, so hold the map lock while iterating.
+    synchronized (mLRUCache) {
+      blocks = new ArrayList<>(mLRUCache.keySet());
+    }
     return blocks.iterator();
   }
 
@@ -17,8 +17,11 @@ import alluxio.StorageTierAssoc;
 import alluxio.WorkerStorageTierAssoc;
 import alluxio.exception.BlockDoesNotExistException;
 import alluxio.exception.InvalidWorkerStateException;
+import alluxio.exception.WorkerOutOfSpaceException;
+import alluxio.network.protocol.RPCBlockReadCreditRequest;
 import alluxio.network.protocol.RPCBlockReadRequest;
 import alluxio.network.protocol.RPCBlockReadResponse;
+import alluxio.network.protocol.RPCBlockReadStreamRequest;
 import alluxio.network.protocol.RPCBlockWriteRequest;
 import alluxio.network.protocol.RPCBlockWriteResponse;
 import alluxio.network.protocol.RPCResponse;
@@ -30,9 +33,11 @@ import alluxio.worker.block.io.BlockReader;
 import alluxio.worker.block.io.BlockWriter;
 
 import com.google.common.base.Preconditions;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.AttributeKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,11 +48,20 @@ import java.nio.channels.FileChannel;
 import javax.annotation.concurrent.NotThreadSafe;
 
 /**
- * This class handles {@link RPCBlockReadRequest}s and {@link RPCBlockWriteRequest}s.
+ * This class handles {@link RPCBlockReadRequest}s, {@link RPCBlockReadStreamRequest}s and
+ * {@link RPCBlockWriteRequest}s. Responses are written without closing the channel, so clients can
+ * reuse a connection for many requests. The channel is only closed if writing a response fails.
+ * A channel keeps at most one block stream and one block write session open at a time.
  */
 @NotThreadSafe
 public final class BlockDataServerHandler {
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
+  /** The block stream being sent on a channel, at most one stream is active per channel. */
+  private static final AttributeKey<BlockReadStream> READ_STREAM_KEY =
+      AttributeKey.valueOf("BlockReadStream");
+  /** The block being written on a channel, at most one block is written per channel at a time. */
+  private static final AttributeKey<BlockWriteSession> WRITE_SESSION_KEY =
+      AttributeKey.valueOf("BlockWriteSession");
 
   /** The Block Worker which handles blocks stored in the Alluxio storage of the worker. */
   private final BlockWorker mWorker;
@@ -55,12 +69,16 @@ public final class BlockDataServerHandler {
   private final FileTransferType mTransferType;
   /** An object storing the mapping of tier aliases to ordinals. */
   private final StorageTierAssoc mStorageTierAssoc;
+  /** The minimum number of bytes to reserve at once for a block written by a client. */
+  private final long mReservationBytes;
 
   BlockDataServerHandler(BlockWorker worker) {
     mWorker = worker;
     mStorageTierAssoc = new WorkerStorageTierAssoc();
     mTransferType = Configuration
         .getEnum(Constants.WORKER_NETWORK_NETTY_FILE_TRANSFER_TYPE, FileTransferType.class);
+    mReservationBytes =
+        Configuration.getBytes(Constants.WORKER_NETWORK_NETTY_BLOCK_WRITE_RESERVATION_BYTES);
   }
 
   /**
@@ -92,11 +110,11 @@ public final class BlockDataServerHandler {
       final long fileLength = reader.getLength();
       validateBounds(req, fileLength);
       final long readLength = returnLength(offset, len, fileLength);
-      buffer = getDataBuffer(req, reader, readLength);
+      buffer = getDataBuffer(reader, offset, readLength);
       RPCBlockReadResponse resp =
           new RPCBlockReadResponse(blockId, offset, readLength, buffer, RPCResponse.Status.SUCCESS);
       ChannelFuture future = ctx.writeAndFlush(resp);
-      future.addListener(ChannelFutureListener.CLOSE);
+      future.addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
       future.addListener(new ClosableResourceChannelListener(reader));
       future.addListener(new ReleasableResourceChannelListener(buffer));
       mWorker.accessBlock(sessionId, blockId);
@@ -106,25 +124,155 @@ public final class BlockDataServerHandler {
       RPCBlockReadResponse resp =
           RPCBlockReadResponse.createErrorResponse(req, RPCResponse.Status.FILE_DNE);
       ChannelFuture future = ctx.writeAndFlush(resp);
-      future.addListener(ChannelFutureListener.CLOSE);
+      future.addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
       if (reader != null) {
         reader.close();
       }
     }
   }
 
+  /**
+   * Handles a {@link RPCBlockReadStreamRequest} by sending the requested range of the block as a
+   * sequence of chunks. Chunks are only sent while the client has credits left and the channel is
+   * writable, so neither side buffers more than a bounded amount of data. Sending resumes on
+   * {@link #handleBlockReadCreditRequest} and {@link #channelWritabilityChanged}.
+   *
+   * @param ctx The context of this request which handles the result of this operation
+   * @param req The initiating {@link RPCBlockReadStreamRequest}
+   */
+  void handleBlockReadStreamRequest(final ChannelHandlerContext ctx,
+      final RPCBlockReadStreamRequest req) {
+    final long blockId = req.getBlockId();
+    final long offset = req.getOffset();
+    final long len = req.getLength();
+
+    BlockReader reader = null;
+    try {
+      req.validate();
+      Preconditions.checkState(ctx.channel().attr(READ_STREAM_KEY).get() == null,
+          "A block stream is already active on the channel");
+      reader = mWorker.readBlockRemote(req.getSessionId(), blockId, req.getLockId());
+      final long fileLength = reader.getLength();
+      Preconditions.checkArgument(offset <= fileLength,
+          "Offset(%s) is larger than file length(%s)", offset, fileLength);
+      Preconditions.checkArgument(len == -1 || offset + len <= fileLength,
+          "Offset(%s) plus length(%s) is larger than file length(%s)", offset, len, fileLength);
+      mWorker.accessBlock(req.getSessionId(), blockId);
+      ctx.channel().attr(READ_STREAM_KEY)
+          .set(new BlockReadStream(req, reader, offset + returnLength(offset, len, fileLength)));
+    } catch (Exception e) {
+      LOG.error("Failed to start streaming block {}: {}", blockId, e.getMessage(), e);
+      ChannelFuture future = ctx.writeAndFlush(
+          new RPCBlockReadResponse(blockId, offset, 0, null, RPCResponse.Status.FILE_DNE));
+      future.addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+      if (reader != null) {
+        closeQuietly(reader);
+      }
+      return;
+    }
+    sendChunks(ctx);
+  }
+
+  /**
+   * Handles a {@link RPCBlockReadCreditRequest} by resuming the block stream of the channel.
+   * Credits for a stream which already completed or failed are ignored.
+   *
+   * @param ctx The context of this request which handles the result of this operation
+   * @param req The initiating {@link RPCBlockReadCreditRequest}
+   */
+  void handleBlockReadCreditRequest(final ChannelHandlerContext ctx,
+      final RPCBlockReadCreditRequest req) {
+    req.validate();
+    BlockReadStream stream = ctx.channel().attr(READ_STREAM_KEY).get();
+    if (stream == null) {
+      return;
+    }
+    stream.addCredits(req.getCredits());
+    sendChunks(ctx);
+  }
+
+  /**
+   * Resumes the block stream of the channel once the channel drops below its low water mark.
+   *
+   * @param ctx the context of the channel
+   */
+  void channelWritabilityChanged(final ChannelHandlerContext ctx) {
+    if (ctx.channel().isWritable()) {
+      sendChunks(ctx);
+    }
+  }
+
+  /**
+   * Releases the block stream and the write session of the channel, if any, once the channel is
+   * closed.
+   *
+   * @param ctx the context of the channel
+   */
+  void channelInactive(final ChannelHandlerContext ctx) {
+    BlockReadStream stream = ctx.channel().attr(READ_STREAM_KEY).getAndRemove();
+    if (stream != null) {
+      closeQuietly(stream.getReader());
+    }
+    closeWriteSession(ctx.channel());
+  }
+
+  /**
+   * Sends chunks of the block stream of the channel until the stream is done, the client runs out
+   * of credits or the channel is no longer writable. Once the whole range has been sent, an empty
+   * response marks the end of the stream and the block reader is closed.
+   *
+   * @param ctx the context of the channel
+   */
+  private void sendChunks(final ChannelHandlerContext ctx) {
+    Channel channel = ctx.channel();
+    BlockReadStream stream = channel.attr(READ_STREAM_KEY).get();
+    if (stream == null) {
+      return;
+    }
+    final long blockId = stream.getBlockId();
+    try {
+      while (!stream.isDone() && stream.hasCredits() && channel.isWritable()) {
+        long chunkLength = stream.nextChunkLength();
+        DataBuffer buffer = getDataBuffer(stream.getReader(), stream.getPosition(), chunkLength);
+        ChannelFuture future = ctx.writeAndFlush(new RPCBlockReadResponse(blockId,
+            stream.getPosition(), chunkLength, buffer, RPCResponse.Status.SUCCESS));
+        future.addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+        future.addListener(new ReleasableResourceChannelListener(buffer));
+        stream.chunkSent(chunkLength);
+      }
+      if (stream.isDone()) {
+        channel.attr(READ_STREAM_KEY).remove();
+        ChannelFuture future = ctx.writeAndFlush(new RPCBlockReadResponse(blockId,
+            stream.getEnd(), 0, null, RPCResponse.Status.SUCCESS));
+        future.addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+        future.addListener(new ClosableResourceChannelListener(stream.getReader()));
+      }
+    } catch (Exception e) {
+      LOG.error("Failed to stream block {}: {}", blockId, e.getMessage(), e);
+      channel.attr(READ_STREAM_KEY).remove();
+      ChannelFuture future = ctx.writeAndFlush(new RPCBlockReadResponse(blockId,
+          stream.getPosition(), 0, null, RPCResponse.Status.FILE_DNE));
+      future.addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+      future.addListener(new ClosableResourceChannelListener(stream.getReader()));
+    }
+  }
+
   /**
    * Handles a {@link RPCBlockWriteRequest} by writing the data through a {@link BlockWriter}
    * provided by the block worker. This method takes care of requesting space and creating the
    * block if necessary.
    *
+   * The block writer is kept open on the channel as long as the following requests continue the
+   * same block, so a client streaming a block does not reopen the block file for every packet.
+   * Space is reserved in increments of
+   * {@link Constants#WORKER_NETWORK_NETTY_BLOCK_WRITE_RESERVATION_BYTES} rather than per packet,
+   * the surplus is given back when the block is committed or aborted. An empty request ends the
+   * write session of the channel, which clients send before committing the block.
+   *
    * @param ctx The context of this request which handles the result of this operation
    * @param req The initiating {@link RPCBlockWriteRequest}
    * @throws IOException if an I/O exception occurs when writing the data
    */
-  // TODO(hy): This write request handler is very simple in order to be stateless. Therefore, the
-  // block file is opened and closed for every request. If this is too slow, then this handler
-  // should be optimized to keep state.
   void handleBlockWriteRequest(final ChannelHandlerContext ctx, final RPCBlockWriteRequest req)
       throws IOException {
     final long sessionId = req.getSessionId();
@@ -132,37 +280,116 @@ public final class BlockDataServerHandler {
     final long offset = req.getOffset();
     final long length = req.getLength();
     final DataBuffer data = req.getPayloadDataBuffer();
+    Channel channel = ctx.channel();
 
-    BlockWriter writer = null;
     try {
       req.validate();
-      ByteBuffer buffer = data.getReadOnlyByteBuffer();
-
-      if (offset == 0) {
-        // This is the first write to the block, so create the temp block file. The file will only
-        // be created if the first write starts at offset 0. This allocates enough space for the
-        // write.
-        mWorker.createBlockRemote(sessionId, blockId, mStorageTierAssoc.getAlias(0), length);
+      BlockWriteSession session = channel.attr(WRITE_SESSION_KEY).get();
+      if (session != null && !session.continues(req)) {
+        closeWriteSession(channel);
+        session = null;
+      }
+      if (session == null) {
+        session = openWriteSession(req);
+        channel.attr(WRITE_SESSION_KEY).set(session);
+      }
+      if (length > 0) {
+        reserveSpace(session, sessionId, length);
+        session.getWriter().append(data.getReadOnlyByteBuffer());
+        session.written(length);
       } else {
-        // Allocate enough space in the existing temporary block for the write.
-        mWorker.requestSpace(sessionId, blockId, length);
+        closeWriteSession(channel);
       }
-      writer = mWorker.getTempBlockWriterRemote(sessionId, blockId);
-      writer.append(buffer);
 
       RPCBlockWriteResponse resp =
           new RPCBlockWriteResponse(sessionId, blockId, offset, length, RPCResponse.Status.SUCCESS);
       ChannelFuture future = ctx.writeAndFlush(resp);
-      future.addListener(ChannelFutureListener.CLOSE);
-      future.addListener(new ClosableResourceChannelListener(writer));
+      future.addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
     } catch (Exception e) {
       LOG.error("Error writing remote block : {}", e.getMessage(), e);
+      closeWriteSession(channel);
       RPCBlockWriteResponse resp =
           RPCBlockWriteResponse.createErrorResponse(req, RPCResponse.Status.WRITE_ERROR);
       ChannelFuture future = ctx.writeAndFlush(resp);
-      future.addListener(ChannelFutureListener.CLOSE);
-      if (writer != null) {
-        writer.close();
+      future.addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+    }
+  }
+
+  /**
+   * Opens a block writer for the block of a write request which does not continue the write
+   * session of the channel. The temporary block is created if the request starts at offset 0,
+   * otherwise the block was created by an earlier write session. Since space is reserved up front,
+   * that session may have reserved more than the bytes written so far, but only the bytes written
+   * are known to be reserved; any space reserved again by the new session is given back with the
+   * rest of the surplus when the block is committed or aborted.
+   *
+   * @param req the write request
+   * @return the new write session
+   * @throws Exception if the block cannot be created or opened
+   */
+  private BlockWriteSession openWriteSession(RPCBlockWriteRequest req) throws Exception {
+    final long sessionId = req.getSessionId();
+    final long blockId = req.getBlockId();
+    long reservedBytes = req.getOffset();
+    if (req.getOffset() == 0) {
+      // This is the first write to the block, so create the temp block file. The file will only
+      // be created if the first write starts at offset 0.
+      reservedBytes = req.getLength() == 0 ? 0 : Math.max(req.getLength(), mReservationBytes);
+      try {
+        mWorker.createBlockRemote(sessionId, blockId, mStorageTierAssoc.getAlias(0), reservedBytes);
+      } catch (WorkerOutOfSpaceException e) {
+        if (reservedBytes == req.getLength()) {
+          throw e;
+        }
+        reservedBytes = req.getLength();
+        mWorker.createBlockRemote(sessionId, blockId, mStorageTierAssoc.getAlias(0), reservedBytes);
+      }
+    }
+    return new BlockWriteSession(req, mWorker.getTempBlockWriterRemote(sessionId, blockId),
+        reservedBytes);
+  }
+
+  /**
+   * Makes sure enough space is reserved for the next packet of a write session. More space than
+   * needed is requested up front, falling back to the exact amount if the worker is short on space.
+   *
+   * @param session the write session
+   * @param sessionId the session id of the client
+   * @param length the length of the next packet
+   * @throws Exception if the space cannot be reserved
+   */
+  private void reserveSpace(BlockWriteSession session, long sessionId, long length)
+      throws Exception {
+    long missingBytes = session.getMissingBytes(length);
+    if (missingBytes == 0) {
+      return;
+    }
+    long bytes = Math.max(missingBytes, mReservationBytes);
+    try {
+      mWorker.requestSpace(sessionId, session.getBlockId(), bytes);
+    } catch (WorkerOutOfSpaceException e) {
+      if (bytes == missingBytes) {
+        throw e;
+      }
+      bytes = missingBytes;
+      mWorker.requestSpace(sessionId, session.getBlockId(), bytes);
+    }
+    session.reserved(bytes);
+  }
+
+  /**
+   * Ends the write session of the channel, if any, and closes its block writer.
+   *
+   * @param channel the channel
+   */
+  private void closeWriteSession(Channel channel) {
+    BlockWriteSession session = channel.attr(WRITE_SESSION_KEY).getAndRemove();
+    if (session != null) {
+      try {
+        session.getWriter().close();
+      } catch (IOException e) {
+        LOG.warn("Failed to close block writer of block {}: {}", session.getBlockId(),
+            e.getMessage());
       }
     }
   }
@@ -195,26 +422,38 @@ public final class BlockDataServerHandler {
    * Returns the appropriate {@link DataBuffer} representing the data to send, depending on the
    * configurable transfer type.
    *
-   * @param req The initiating {@link RPCBlockReadRequest}
    * @param reader The {@link BlockReader} for the block to read
+   * @param offset The block offset to begin reading at
    * @param readLength The length, in bytes, of the data to read from the block
    * @return a {@link DataBuffer} representing the data
    * @throws IOException if an I/O error occurs when reading the data
    */
-  private DataBuffer getDataBuffer(RPCBlockReadRequest req, BlockReader reader, long readLength)
+  private DataBuffer getDataBuffer(BlockReader reader, long offset, long readLength)
       throws IOException, IllegalArgumentException {
     switch (mTransferType) {
       case MAPPED:
-        ByteBuffer data = reader.read(req.getOffset(), (int) readLength);
+        ByteBuffer data = reader.read(offset, (int) readLength);
         return new DataByteBuffer(data, readLength);
       case TRANSFER: // intend to fall through as TRANSFER is the default type.
       default:
         if (reader.getChannel() instanceof FileChannel) {
-          return new DataFileChannel((FileChannel) reader.getChannel(), req.getOffset(),
-              readLength);
+          return new DataFileChannel((FileChannel) reader.getChannel(), offset, readLength);
         }
         reader.close();
         throw new IllegalArgumentException("Only FileChannel is supported!");
     }
   }
+
+  /**
+   * Closes a block reader, logging instead of propagating any failure.
+   *
+   * @param reader the reader to close
+   */
+  private void closeQuietly(BlockReader reader) {
+    try {
+      reader.close();
+    } catch (IOException e) {
+      LOG.warn("Failed to close block reader: {}", e.getMessage());
+    }
+  }
 }
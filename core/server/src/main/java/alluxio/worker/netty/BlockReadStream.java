@@ -0,0 +1,113 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.netty;
+
+import alluxio.network.protocol.RPCBlockReadStreamRequest;
+import alluxio.worker.block.io.BlockReader;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * The state of a block range which is being streamed to a client over a channel. An instance is
+ * only accessed from the event loop of its channel.
+ */
+@NotThreadSafe
+final class BlockReadStream {
+  private final long mBlockId;
+  private final BlockReader mReader;
+  private final long mChunkSize;
+  private final long mEnd;
+  private long mPos;
+  private int mCredits;
+
+  /**
+   * Creates the state of a new block stream.
+   *
+   * @param req the request initiating the stream
+   * @param reader the reader of the block, closed once the stream is done
+   * @param end the block offset to stop streaming at (exclusive)
+   */
+  BlockReadStream(RPCBlockReadStreamRequest req, BlockReader reader, long end) {
+    mBlockId = req.getBlockId();
+    mReader = reader;
+    mChunkSize = req.getChunkSize();
+    mEnd = end;
+    mPos = req.getOffset();
+    mCredits = req.getCredits();
+  }
+
+  /**
+   * @return the id of the block being streamed
+   */
+  long getBlockId() {
+    return mBlockId;
+  }
+
+  /**
+   * @return the reader of the block
+   */
+  BlockReader getReader() {
+    return mReader;
+  }
+
+  /**
+   * @return the block offset of the next chunk to send
+   */
+  long getPosition() {
+    return mPos;
+  }
+
+  /**
+   * @return the block offset to stop streaming at (exclusive)
+   */
+  long getEnd() {
+    return mEnd;
+  }
+
+  /**
+   * @return whether all the chunks of the range have been sent
+   */
+  boolean isDone() {
+    return mPos >= mEnd;
+  }
+
+  /**
+   * @return whether the client allows another chunk to be sent
+   */
+  boolean hasCredits() {
+    return mCredits > 0;
+  }
+
+  /**
+   * @param credits the number of additional chunks the client allows to be sent
+   */
+  void addCredits(int credits) {
+    mCredits += credits;
+  }
+
+  /**
+   * @return the length of the next chunk to send
+   */
+  long nextChunkLength() {
+    return Math.min(mChunkSize, mEnd - mPos);
+  }
+
+  /**
+   * Records that a chunk has been sent, consuming one credit.
+   *
+   * @param length the length of the chunk
+   */
+  void chunkSent(long length) {
+    mPos += length;
+    mCredits--;
+  }
+}
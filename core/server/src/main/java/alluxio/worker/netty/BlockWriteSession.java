@@ -0,0 +1,97 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.netty;
+
+import alluxio.network.protocol.RPCBlockWriteRequest;
+import alluxio.worker.block.io.BlockWriter;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * The state of a temporary block which is being written by a client over a channel. The block
+ * writer is kept open across write requests so that consecutive packets of the same block are
+ * appended without reopening the block file. An instance is only accessed from the event loop of
+ * its channel.
+ */
+@NotThreadSafe
+final class BlockWriteSession {
+  private final long mSessionId;
+  private final long mBlockId;
+  private final BlockWriter mWriter;
+  /** The number of bytes written to the block so far. */
+  private long mPos;
+  /** The number of bytes reserved for the block so far. */
+  private long mReservedBytes;
+
+  /**
+   * Creates the state of a new block write session.
+   *
+   * @param req the request opening the session
+   * @param writer the writer of the temporary block, closed once the session ends
+   * @param reservedBytes the number of bytes already reserved for the block
+   */
+  BlockWriteSession(RPCBlockWriteRequest req, BlockWriter writer, long reservedBytes) {
+    mSessionId = req.getSessionId();
+    mBlockId = req.getBlockId();
+    mWriter = writer;
+    mPos = req.getOffset();
+    mReservedBytes = reservedBytes;
+  }
+
+  /**
+   * @return the id of the block being written
+   */
+  long getBlockId() {
+    return mBlockId;
+  }
+
+  /**
+   * @return the writer of the block
+   */
+  BlockWriter getWriter() {
+    return mWriter;
+  }
+
+  /**
+   * @param req a write request
+   * @return whether the request continues this session, i.e. it writes the same block for the same
+   *         session at the offset following the data written so far
+   */
+  boolean continues(RPCBlockWriteRequest req) {
+    return req.getSessionId() == mSessionId && req.getBlockId() == mBlockId
+        && req.getOffset() == mPos;
+  }
+
+  /**
+   * @param length the length of the next packet
+   * @return the number of bytes which must be reserved before the packet can be written
+   */
+  long getMissingBytes(long length) {
+    return Math.max(0, mPos + length - mReservedBytes);
+  }
+
+  /**
+   * @param bytes the number of bytes additionally reserved for the block
+   */
+  void reserved(long bytes) {
+    mReservedBytes += bytes;
+  }
+
+  /**
+   * Records that a packet has been written to the block.
+   *
+   * @param length the length of the packet
+   */
+  void written(long length) {
+    mPos += length;
+  }
+}
@@ -12,7 +12,9 @@
 package alluxio.worker.netty;
 
 import alluxio.Constants;
+import alluxio.network.protocol.RPCBlockReadCreditRequest;
 import alluxio.network.protocol.RPCBlockReadRequest;
+import alluxio.network.protocol.RPCBlockReadStreamRequest;
 import alluxio.network.protocol.RPCBlockWriteRequest;
 import alluxio.network.protocol.RPCErrorResponse;
 import alluxio.network.protocol.RPCFileReadRequest;
@@ -66,6 +68,14 @@ public final class DataServerHandler extends SimpleChannelInboundHandler<RPCMess
         assert msg instanceof RPCBlockReadRequest;
         mBlockHandler.handleBlockReadRequest(ctx, (RPCBlockReadRequest) msg);
         break;
+      case RPC_BLOCK_READ_STREAM_REQUEST:
+        assert msg instanceof RPCBlockReadStreamRequest;
+        mBlockHandler.handleBlockReadStreamRequest(ctx, (RPCBlockReadStreamRequest) msg);
+        break;
+      case RPC_BLOCK_READ_CREDIT_REQUEST:
+        assert msg instanceof RPCBlockReadCreditRequest;
+        mBlockHandler.handleBlockReadCreditRequest(ctx, (RPCBlockReadCreditRequest) msg);
+        break;
       case RPC_BLOCK_WRITE_REQUEST:
         assert msg instanceof RPCBlockWriteRequest;
         mBlockHandler.handleBlockWriteRequest(ctx, (RPCBlockWriteRequest) msg);
@@ -90,6 +100,18 @@ public final class DataServerHandler extends SimpleChannelInboundHandler<RPCMess
     }
   }
 
+  @Override
+  public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+    mBlockHandler.channelWritabilityChanged(ctx);
+    super.channelWritabilityChanged(ctx);
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+    mBlockHandler.channelInactive(ctx);
+    super.channelInactive(ctx);
+  }
+
   @Override
   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
     LOG.warn("Exception thrown while processing request", cause);
@@ -91,13 +91,13 @@ public class UnderFileSystemDataServerHandler {
       RPCFileReadResponse resp =
           new RPCFileReadResponse(ufsFileId, offset, bytesRead, buf, RPCResponse.Status.SUCCESS);
       ChannelFuture future = ctx.writeAndFlush(resp);
-      future.addListener(ChannelFutureListener.CLOSE);
+      future.addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
     } catch (Exception e) {
       LOG.error("Failed to read ufs file, may have been closed due to a client timeout.", e);
       RPCFileReadResponse resp =
           RPCFileReadResponse.createErrorResponse(req, RPCResponse.Status.UFS_READ_FAILED);
       ChannelFuture future = ctx.writeAndFlush(resp);
-      future.addListener(ChannelFutureListener.CLOSE);
+      future.addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
     }
   }
 
@@ -127,13 +127,13 @@ public class UnderFileSystemDataServerHandler {
       RPCFileWriteResponse resp =
           new RPCFileWriteResponse(ufsFileId, offset, length, RPCResponse.Status.SUCCESS);
       ChannelFuture future = ctx.writeAndFlush(resp);
-      future.addListener(ChannelFutureListener.CLOSE);
+      future.addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
     } catch (Exception e) {
       LOG.error("Failed to write ufs file.", e);
       RPCFileWriteResponse resp =
           RPCFileWriteResponse.createErrorResponse(req, RPCResponse.Status.UFS_WRITE_FAILED);
       ChannelFuture future = ctx.writeAndFlush(resp);
-      future.addListener(ChannelFutureListener.CLOSE);
+      future.addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
     }
   }
 }
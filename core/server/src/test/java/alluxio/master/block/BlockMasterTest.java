@@ -15,11 +15,13 @@ import alluxio.collections.IndexDefinition;
 import alluxio.collections.IndexedSet;
 import alluxio.exception.AlluxioException;
 import alluxio.exception.BlockInfoException;
+import alluxio.exception.NoWorkerException;
 import alluxio.heartbeat.HeartbeatContext;
 import alluxio.heartbeat.HeartbeatScheduler;
 import alluxio.heartbeat.ManuallyScheduleHeartbeat;
 import alluxio.master.block.meta.MasterBlockInfo;
 import alluxio.master.block.meta.MasterWorkerInfo;
+import alluxio.master.block.options.RegisterWorkerOptions;
 import alluxio.master.journal.Journal;
 import alluxio.master.journal.ReadWriteJournal;
 import alluxio.thrift.Command;
@@ -167,6 +169,155 @@ public class BlockMasterTest {
         expectedBlocks, actualBlocks);
   }
 
+  /**
+   * Tests that a worker can register in several batches, and that the blocks of the worker which
+   * are not reported by any batch are removed from the worker once the last batch is processed.
+   */
+  @Test
+  public void registerInBatchesTest() throws Exception {
+    long workerId = mMaster.getWorkerId(NET_ADDRESS_1);
+    MasterWorkerInfo workerInfo = mPrivateAccess.getWorkerById(workerId);
+    mMaster.workerRegister(workerId, Arrays.asList("MEM"), ImmutableMap.of("MEM", 100L),
+        ImmutableMap.of("MEM", 0L), new HashMap<String, List<Long>>());
+    mMaster.commitBlock(workerId, 1L, "MEM", 1L, 1L);
+    mMaster.commitBlock(workerId, 2L, "MEM", 2L, 1L);
+    mMaster.commitBlock(workerId, 3L, "MEM", 3L, 1L);
+
+    mMaster.workerRegister(workerId, Arrays.asList("MEM"), ImmutableMap.of("MEM", 100L),
+        ImmutableMap.of("MEM", 2L), ImmutableMap.<String, List<Long>>of("MEM", Arrays.asList(1L)),
+        RegisterWorkerOptions.defaults().setHasMore(true));
+    Assert.assertTrue(workerInfo.isRegistering());
+    // Block 3 is only removed once the worker has reported all of its blocks.
+    Assert.assertEquals(1, mMaster.getBlockInfo(3L).getLocations().size());
+
+    mMaster.workerRegister(workerId, Arrays.asList("MEM"), ImmutableMap.of("MEM", 100L),
+        ImmutableMap.of("MEM", 2L), ImmutableMap.<String, List<Long>>of("MEM", Arrays.asList(2L)),
+        RegisterWorkerOptions.defaults().setContinued(true));
+    Assert.assertFalse(workerInfo.isRegistering());
+    Assert.assertEquals(ImmutableSet.of(1L, 2L), workerInfo.getBlocks());
+    Assert.assertEquals(2L, workerInfo.getUsedBytes());
+    Assert.assertEquals(1, mMaster.getBlockInfo(1L).getLocations().size());
+    Assert.assertEquals(1, mMaster.getBlockInfo(2L).getLocations().size());
+    Assert.assertEquals(0, mMaster.getBlockInfo(3L).getLocations().size());
+    Assert.assertTrue(mMaster.getLostBlocks().contains(3L));
+  }
+
+  /**
+   * Tests that a registration in batches which is interrupted and started again, with its first
+   * batch sent twice, removes the blocks which were confirmed by the interrupted registration but
+   * are not reported anymore.
+   */
+  @Test
+  public void restartRegisterInBatchesTest() throws Exception {
+    long workerId = mMaster.getWorkerId(NET_ADDRESS_1);
+    MasterWorkerInfo workerInfo = mPrivateAccess.getWorkerById(workerId);
+    mMaster.workerRegister(workerId, Arrays.asList("MEM"), ImmutableMap.of("MEM", 100L),
+        ImmutableMap.of("MEM", 0L), new HashMap<String, List<Long>>());
+    mMaster.commitBlock(workerId, 1L, "MEM", 1L, 1L);
+    mMaster.commitBlock(workerId, 2L, "MEM", 2L, 1L);
+    mMaster.commitBlock(workerId, 3L, "MEM", 3L, 1L);
+
+    // The interrupted registration confirms the blocks 1 and 2.
+    mMaster.workerRegister(workerId, Arrays.asList("MEM"), ImmutableMap.of("MEM", 100L),
+        ImmutableMap.of("MEM", 2L),
+        ImmutableMap.<String, List<Long>>of("MEM", Arrays.asList(1L, 2L)),
+        RegisterWorkerOptions.defaults().setHasMore(true));
+    // The registration starts again, and its first batch is sent twice.
+    for (int i = 0; i < 2; i++) {
+      mMaster.workerRegister(workerId, Arrays.asList("MEM"), ImmutableMap.of("MEM", 100L),
+          ImmutableMap.of("MEM", 1L), ImmutableMap.<String, List<Long>>of("MEM", Arrays.asList(1L)),
+          RegisterWorkerOptions.defaults().setHasMore(true));
+      Assert.assertTrue(workerInfo.isRegistering());
+    }
+    mMaster.workerRegister(workerId, Arrays.asList("MEM"), ImmutableMap.of("MEM", 100L),
+        ImmutableMap.of("MEM", 1L), new HashMap<String, List<Long>>(),
+        RegisterWorkerOptions.defaults().setContinued(true));
+
+    Assert.assertFalse(workerInfo.isRegistering());
+    Assert.assertEquals(ImmutableSet.of(1L), workerInfo.getBlocks());
+    Assert.assertEquals(1, mMaster.getBlockInfo(1L).getLocations().size());
+    Assert.assertEquals(0, mMaster.getBlockInfo(2L).getLocations().size());
+    Assert.assertEquals(0, mMaster.getBlockInfo(3L).getLocations().size());
+  }
+
+  /**
+   * Tests that a registration in one call, while a registration in batches is in progress,
+   * removes the blocks which are not reported, whether they were confirmed by a batch or not.
+   */
+  @Test
+  public void registerDuringRegisterInBatchesTest() throws Exception {
+    long workerId = mMaster.getWorkerId(NET_ADDRESS_1);
+    MasterWorkerInfo workerInfo = mPrivateAccess.getWorkerById(workerId);
+    mMaster.workerRegister(workerId, Arrays.asList("MEM"), ImmutableMap.of("MEM", 100L),
+        ImmutableMap.of("MEM", 0L), new HashMap<String, List<Long>>());
+    mMaster.commitBlock(workerId, 1L, "MEM", 1L, 1L);
+    mMaster.commitBlock(workerId, 2L, "MEM", 2L, 1L);
+    mMaster.commitBlock(workerId, 3L, "MEM", 3L, 1L);
+
+    mMaster.workerRegister(workerId, Arrays.asList("MEM"), ImmutableMap.of("MEM", 100L),
+        ImmutableMap.of("MEM", 2L), ImmutableMap.<String, List<Long>>of("MEM", Arrays.asList(1L)),
+        RegisterWorkerOptions.defaults().setHasMore(true));
+    mMaster.workerRegister(workerId, Arrays.asList("MEM"), ImmutableMap.of("MEM", 100L),
+        ImmutableMap.of("MEM", 1L), ImmutableMap.<String, List<Long>>of("MEM", Arrays.asList(2L)));
+
+    Assert.assertFalse(workerInfo.isRegistering());
+    Assert.assertEquals(ImmutableSet.of(2L), workerInfo.getBlocks());
+    Assert.assertEquals(0, mMaster.getBlockInfo(1L).getLocations().size());
+    Assert.assertEquals(1, mMaster.getBlockInfo(2L).getLocations().size());
+    Assert.assertEquals(0, mMaster.getBlockInfo(3L).getLocations().size());
+  }
+
+  /**
+   * Tests that continuing a registration which was not started fails, so that the worker starts
+   * its registration again.
+   */
+  @Test
+  public void registerContinuedWithoutStartTest() throws Exception {
+    long workerId = mMaster.getWorkerId(NET_ADDRESS_1);
+    mThrown.expect(NoWorkerException.class);
+    mMaster.workerRegister(workerId, Arrays.asList("MEM"), ImmutableMap.of("MEM", 100L),
+        ImmutableMap.of("MEM", 0L), new HashMap<String, List<Long>>(),
+        RegisterWorkerOptions.defaults().setContinued(true));
+  }
+
+  /**
+   * Tests that a worker lost during a registration in batches is removed from the locations of
+   * all its blocks, whether they were confirmed by a batch or not, and that the worker has to
+   * start its registration again.
+   */
+  @Test
+  public void lostWorkerDuringRegisterInBatchesTest() throws Exception {
+    long workerId = mMaster.getWorkerId(NET_ADDRESS_1);
+    MasterWorkerInfo workerInfo = mPrivateAccess.getWorkerById(workerId);
+    mMaster.workerRegister(workerId, Arrays.asList("MEM"), ImmutableMap.of("MEM", 100L),
+        ImmutableMap.of("MEM", 0L), new HashMap<String, List<Long>>());
+    mMaster.commitBlock(workerId, 1L, "MEM", 1L, 1L);
+    mMaster.commitBlock(workerId, 2L, "MEM", 2L, 1L);
+    mMaster.workerRegister(workerId, Arrays.asList("MEM"), ImmutableMap.of("MEM", 100L),
+        ImmutableMap.of("MEM", 2L), ImmutableMap.<String, List<Long>>of("MEM", Arrays.asList(1L)),
+        RegisterWorkerOptions.defaults().setHasMore(true));
+
+    Whitebox.setInternalState(workerInfo, "mLastUpdatedTimeMs", 0);
+    HeartbeatScheduler.await(HeartbeatContext.MASTER_LOST_WORKER_DETECTION, 5, TimeUnit.SECONDS);
+    HeartbeatScheduler.schedule(HeartbeatContext.MASTER_LOST_WORKER_DETECTION);
+    Assert.assertTrue(HeartbeatScheduler.await(HeartbeatContext.MASTER_LOST_WORKER_DETECTION, 1,
+        TimeUnit.SECONDS));
+
+    Assert.assertEquals(1, mMaster.getLostWorkersInfo().size());
+    Assert.assertFalse(workerInfo.isRegistering());
+    Assert.assertTrue(workerInfo.getBlocks().isEmpty());
+    Assert.assertEquals(0, mMaster.getBlockInfo(1L).getLocations().size());
+    Assert.assertEquals(0, mMaster.getBlockInfo(2L).getLocations().size());
+    Assert.assertTrue(mMaster.getLostBlocks().containsAll(Arrays.asList(1L, 2L)));
+
+    // The worker comes back, and cannot continue the registration it started before being lost.
+    Assert.assertEquals(workerId, mMaster.getWorkerId(NET_ADDRESS_1));
+    mThrown.expect(NoWorkerException.class);
+    mMaster.workerRegister(workerId, Arrays.asList("MEM"), ImmutableMap.of("MEM", 100L),
+        ImmutableMap.of("MEM", 2L), ImmutableMap.<String, List<Long>>of("MEM", Arrays.asList(2L)),
+        RegisterWorkerOptions.defaults().setContinued(true));
+  }
+
   /**
    * Tests the {@link BlockMaster#removeBlocks(List, boolean)} method.
    */
@@ -25,6 +25,9 @@ import alluxio.heartbeat.HeartbeatContext;
 import alluxio.heartbeat.HeartbeatScheduler;
 import alluxio.heartbeat.ManuallyScheduleHeartbeat;
 import alluxio.master.block.BlockMaster;
+import alluxio.master.file.meta.InodeFile;
+import alluxio.master.file.meta.InodeTree;
+import alluxio.master.file.meta.LockedInodePath;
 import alluxio.master.file.meta.PersistenceState;
 import alluxio.master.file.meta.TtlBucket;
 import alluxio.master.file.meta.TtlBucketPrivateAccess;
@@ -562,6 +565,75 @@ public final class FileSystemMasterTest {
     }
   }
 
+  /**
+   * Tests listing a directory in batches, and listing a file with a batch size.
+   */
+  @Test
+  public void listStatusInBatchesTest() throws Exception {
+    final int files = 10;
+    final int batchSize = 4;
+    // Create the files out of name order.
+    for (int i = files - 1; i >= 0; i--) {
+      createFileWithSingleBlock(NESTED_URI.join("file" + String.format("%05d", i)));
+    }
+
+    ListStatusOptions options = ListStatusOptions.defaults()
+        .setLoadMetadataType(LoadMetadataType.Never).setBatchSize(batchSize);
+    List<String> paths = new ArrayList<>();
+    List<FileInfo> infos;
+    do {
+      infos = mFileSystemMaster.listStatus(NESTED_URI, options);
+      Assert.assertTrue(infos.size() <= batchSize);
+      for (FileInfo info : infos) {
+        paths.add(info.getPath());
+        options.setStartAfter(info.getName());
+      }
+    } while (infos.size() == batchSize);
+    Assert.assertEquals(files, paths.size());
+    for (int i = 0; i < files; i++) {
+      Assert.assertEquals(NESTED_URI.join("file" + String.format("%05d", i)).toString(),
+          paths.get(i));
+    }
+
+    // A file is listed as a single entry, with nothing after it.
+    options.setStartAfter(null);
+    infos = mFileSystemMaster.listStatus(NESTED_URI.join("file00000"), options);
+    Assert.assertEquals(1, infos.size());
+    options.setStartAfter(infos.get(0).getName());
+    infos = mFileSystemMaster.listStatus(NESTED_URI.join("file00000"), options);
+    Assert.assertTrue(infos.isEmpty());
+  }
+
+  /**
+   * Tests that listing a directory in batches with {@link LoadMetadataType#Always} only loads the
+   * metadata of the children with the first batch.
+   */
+  @Test
+  public void listStatusInBatchesLoadMetadataTest() throws Exception {
+    FileUtils.createDir(Paths.get(mUnderFS).resolve("a").toString());
+    FileUtils.createFile(Paths.get(mUnderFS).resolve("a/f1").toString());
+    FileUtils.createFile(Paths.get(mUnderFS).resolve("a/f2").toString());
+    AlluxioURI uri = new AlluxioURI("/a");
+    ListStatusOptions options = ListStatusOptions.defaults()
+        .setLoadMetadataType(LoadMetadataType.Always).setBatchSize(1);
+    List<FileInfo> infos = mFileSystemMaster.listStatus(uri, options);
+    Assert.assertEquals(1, infos.size());
+    Assert.assertEquals("f1", infos.get(0).getName());
+
+    // The next batch does not load the file created in the under storage since the first batch.
+    FileUtils.createFile(Paths.get(mUnderFS).resolve("a/f3").toString());
+    options.setStartAfter("f1").setBatchSize(10);
+    infos = mFileSystemMaster.listStatus(uri, options);
+    Assert.assertEquals(1, infos.size());
+    Assert.assertEquals("f2", infos.get(0).getName());
+
+    // A new listing loads it.
+    options.setStartAfter(null);
+    infos = mFileSystemMaster.listStatus(uri, options);
+    Assert.assertEquals(3, infos.size());
+    Assert.assertEquals("f3", infos.get(2).getName());
+  }
+
   @Test
   public void getFileBlockInfoListTest() throws Exception {
     createFileWithSingleBlock(ROOT_FILE_URI);
@@ -671,6 +743,96 @@ public final class FileSystemMasterTest {
     mFileSystemMaster.getFileInfo(fileId);
   }
 
+  /**
+   * Tests that the TTL check deletes all the expired files of a directory, and leaves the files of
+   * the directory which did not expire.
+   */
+  @Test
+  public void ttlExpiredFilesInDirectoryTest() throws Exception {
+    CreateFileOptions ttlOptions =
+        CreateFileOptions.defaults().setBlockSizeBytes(Constants.KB).setRecursive(true).setTtl(0);
+    List<Long> expiredIds = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      expiredIds.add(mFileSystemMaster.createFile(NESTED_URI.join("file" + i), ttlOptions));
+    }
+    long keptId = mFileSystemMaster.createFile(NESTED_URI.join("kept"),
+        CreateFileOptions.defaults().setBlockSizeBytes(Constants.KB));
+
+    executeTtlCheckOnce();
+    for (long fileId : expiredIds) {
+      try {
+        mFileSystemMaster.getFileInfo(fileId);
+        Assert.fail("File " + fileId + " should have been deleted by the TTL check");
+      } catch (FileDoesNotExistException e) {
+        // expected
+      }
+    }
+    Assert.assertEquals(keptId, mFileSystemMaster.getFileInfo(NESTED_URI.join("kept")).getFileId());
+  }
+
+  /**
+   * Tests that an expired file moved to another directory after the TTL check grouped the files by
+   * directory is not deleted with the batch of its former directory, and is deleted by its current
+   * path.
+   */
+  @Test
+  public void ttlFileMovedDuringBatchTest() throws Exception {
+    CreateFileOptions ttlOptions =
+        CreateFileOptions.defaults().setBlockSizeBytes(Constants.KB).setRecursive(true).setTtl(0);
+    long fileId = mFileSystemMaster.createFile(NESTED_URI.join("file"), ttlOptions);
+    long movedId = mFileSystemMaster.createFile(NESTED_URI.join("moved"), ttlOptions);
+    long parentId = mFileSystemMaster.getFileId(NESTED_URI);
+    List<InodeFile> batch = Lists.newArrayList(getInodeFile(fileId), getInodeFile(movedId));
+
+    // The file is moved between the grouping of the expired files and the deletion of the batch.
+    mFileSystemMaster.rename(NESTED_URI.join("moved"), ROOT_FILE_URI);
+    List<InodeFile> remaining = mFileSystemMaster.deleteTtlBatch(parentId, batch);
+    Assert.assertEquals(Lists.newArrayList(getInodeFile(movedId)), remaining);
+    try {
+      mFileSystemMaster.getFileInfo(fileId);
+      Assert.fail("File " + fileId + " should have been deleted with the batch");
+    } catch (FileDoesNotExistException e) {
+      // expected
+    }
+    Assert.assertEquals(movedId, mFileSystemMaster.getFileInfo(ROOT_FILE_URI).getFileId());
+
+    // The moved file is still in its TTL bucket, and is deleted by its current path.
+    executeTtlCheckOnce();
+    mThrown.expect(FileDoesNotExistException.class);
+    mFileSystemMaster.getFileInfo(movedId);
+  }
+
+  /**
+   * Tests that all the files of a TTL batch are left to be deleted one by one when the directory of
+   * the batch cannot be locked.
+   */
+  @Test
+  public void ttlBatchDirectoryNotLockedTest() throws Exception {
+    CreateFileOptions ttlOptions =
+        CreateFileOptions.defaults().setBlockSizeBytes(Constants.KB).setRecursive(true).setTtl(0);
+    long fileId = mFileSystemMaster.createFile(NESTED_URI.join("file"), ttlOptions);
+    long movedId = mFileSystemMaster.createFile(NESTED_URI.join("moved"), ttlOptions);
+    List<InodeFile> batch = Lists.newArrayList(getInodeFile(fileId), getInodeFile(movedId));
+
+    // The former directory of the batch does not exist anymore.
+    mFileSystemMaster.createDirectory(new AlluxioURI("/removed"),
+        CreateDirectoryOptions.defaults());
+    long removedDirId = mFileSystemMaster.getFileId(new AlluxioURI("/removed"));
+    mFileSystemMaster.delete(new AlluxioURI("/removed"), false);
+    Assert.assertEquals(batch, mFileSystemMaster.deleteTtlBatch(removedDirId, batch));
+    Assert.assertEquals(fileId, mFileSystemMaster.getFileInfo(NESTED_URI.join("file")).getFileId());
+
+    executeTtlCheckOnce();
+    for (long id : new long[] {fileId, movedId}) {
+      try {
+        mFileSystemMaster.getFileInfo(id);
+        Assert.fail("File " + id + " should have been deleted by the TTL check");
+      } catch (FileDoesNotExistException e) {
+        // expected
+      }
+    }
+  }
+
   /**
    * Tests that an exception is thrown when trying to get information about a file after it has been
    * deleted because of a TTL of 0.
@@ -1147,6 +1309,27 @@ public final class FileSystemMasterTest {
         LoadMetadataOptions.defaults().setCreateAncestors(true).setLoadDirectChildren(true));
   }
 
+  /**
+   * Tests that loading the metadata of a directory recursively loads its whole tree.
+   */
+  @Test
+  public void loadMetadataRecursiveTest() throws Exception {
+    FileUtils.createDir(Paths.get(mUnderFS).resolve("a/b/c").toString());
+    FileUtils.createDir(Paths.get(mUnderFS).resolve("a/d").toString());
+    FileUtils.createFile(Paths.get(mUnderFS).resolve("a/b/f1").toString());
+    FileUtils.createFile(Paths.get(mUnderFS).resolve("a/d/f2").toString());
+    int numPaths = mFileSystemMaster.getNumberOfPaths();
+
+    mFileSystemMaster.loadMetadata(new AlluxioURI("alluxio:/a"), LoadMetadataOptions.defaults()
+        .setCreateAncestors(true).setLoadDirectChildren(true).setRecursive(true));
+    Assert.assertEquals(numPaths + 6, mFileSystemMaster.getNumberOfPaths());
+
+    // Loading the tree again does not load anything new.
+    mFileSystemMaster.loadMetadata(new AlluxioURI("alluxio:/a"), LoadMetadataOptions.defaults()
+        .setCreateAncestors(true).setLoadDirectChildren(true).setRecursive(true));
+    Assert.assertEquals(numPaths + 6, mFileSystemMaster.getNumberOfPaths());
+  }
+
   /**
    * Tests load root metadata. It should not fail.
    */
@@ -1155,6 +1338,14 @@ public final class FileSystemMasterTest {
     mFileSystemMaster.loadMetadata(new AlluxioURI("alluxio:/"), LoadMetadataOptions.defaults());
   }
 
+  private InodeFile getInodeFile(long fileId) throws Exception {
+    InodeTree inodeTree = (InodeTree) Whitebox.getInternalState(mFileSystemMaster, "mInodeTree");
+    try (LockedInodePath inodePath =
+        inodeTree.lockFullInodePath(fileId, InodeTree.LockMode.READ)) {
+      return inodePath.getInodeFile();
+    }
+  }
+
   private long createFileWithSingleBlock(AlluxioURI uri) throws Exception {
     mFileSystemMaster.createFile(uri, sNestedFileOptions);
     long blockId = mFileSystemMaster.getNewBlockIdForFile(uri);
@@ -25,6 +25,7 @@ import alluxio.master.file.options.CompleteFileOptions;
 import alluxio.master.file.options.CreateDirectoryOptions;
 import alluxio.master.file.options.CreateFileOptions;
 import alluxio.master.file.options.ListStatusOptions;
+import alluxio.master.file.options.LoadMetadataOptions;
 import alluxio.master.file.options.SetAttributeOptions;
 import alluxio.master.journal.Journal;
 import alluxio.master.journal.ReadWriteJournal;
@@ -47,6 +48,10 @@ import org.junit.rules.TemporaryFolder;
 import org.powermock.reflect.Whitebox;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -84,6 +89,7 @@ public final class PermissionCheckTest {
   private static final String TEST_FILE_URI = "/testFile";
 
   private FileSystemMaster mFileSystemMaster;
+  private String mUnderFS;
 
   @Rule
   public TemporaryFolder mTestFolder = new TemporaryFolder();
@@ -141,6 +147,9 @@ public final class PermissionCheckTest {
     Configuration.set(Constants.SECURITY_GROUP_MAPPING, FakeUserGroupsMapping.class.getName());
     Configuration.set(Constants.SECURITY_AUTHORIZATION_PERMISSION_ENABLED, "true");
     Configuration.set(Constants.SECURITY_AUTHORIZATION_PERMISSION_SUPERGROUP, TEST_SUPER_GROUP);
+    // under storage
+    mUnderFS = mTestFolder.newFolder().getAbsolutePath();
+    Configuration.set(Constants.UNDERFS_ADDRESS, mUnderFS);
 
     Journal blockJournal = new ReadWriteJournal(mTestFolder.newFolder().getAbsolutePath());
     Journal fsJournal = new ReadWriteJournal(mTestFolder.newFolder().getAbsolutePath());
@@ -795,6 +804,44 @@ public final class PermissionCheckTest {
         (short) 0600, false);
   }
 
+  /**
+   * Tests that loading the metadata of a directory tree checks the WRITE permission of the user on
+   * each directory of the tree.
+   */
+  @Test
+  public void loadMetadataRecursiveFailTest() throws Exception {
+    // "/testDir/dir" [755] has a "writable" [777] and a "notWritable" [755] subdirectory in the
+    // under storage, all of them owned by the user running the test.
+    Path ufsDir = Paths.get(mUnderFS, TEST_DIR_URI, "dir");
+    createUfsDirectory(ufsDir, "rwxr-xr-x");
+    createUfsDirectory(ufsDir.resolve("writable"), "rwxrwxrwx");
+    Files.createFile(ufsDir.resolve("writable").resolve("file"));
+    createUfsDirectory(ufsDir.resolve("notWritable"), "rwxr-xr-x");
+    Files.createFile(ufsDir.resolve("notWritable").resolve("file"));
+
+    String dir = PathUtils.concatPath(TEST_DIR_URI, "dir");
+    AuthenticatedClientUser.set(TEST_USER_1.getUser());
+    try {
+      mFileSystemMaster.loadMetadata(new AlluxioURI(dir),
+          LoadMetadataOptions.defaults().setLoadDirectChildren(true).setRecursive(true));
+      Assert.fail("Loading a directory which is not writable by the user should fail");
+    } catch (AccessControlException e) {
+      Assert.assertEquals(ExceptionMessage.PERMISSION_DENIED.getMessage(
+          toExceptionMessage(TEST_USER_1.getUser(), Mode.Bits.WRITE,
+              PathUtils.concatPath(dir, "notWritable"), "notWritable")), e.getMessage());
+    }
+    InodeTree inodeTree = Whitebox.getInternalState(mFileSystemMaster, "mInodeTree");
+    Assert.assertTrue(
+        inodeTree.inodePathExists(new AlluxioURI(PathUtils.concatPath(dir, "writable/file"))));
+    Assert.assertFalse(
+        inodeTree.inodePathExists(new AlluxioURI(PathUtils.concatPath(dir, "notWritable/file"))));
+  }
+
+  private static void createUfsDirectory(Path path, String mode) throws IOException {
+    Files.createDirectories(path);
+    Files.setPosixFilePermissions(path, PosixFilePermissions.fromString(mode));
+  }
+
   private void verifySetAcl(TestUser runUser, String path, String owner, String group,
       short permission, boolean recursive) throws Exception {
     AuthenticatedClientUser.set(runUser.getUser());
@@ -16,9 +16,11 @@ import alluxio.master.file.options.CreateDirectoryOptions;
 import alluxio.security.authorization.Permission;
 import alluxio.wire.FileInfo;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import org.junit.Assert;
 import org.junit.Test;
+import org.powermock.reflect.Whitebox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -215,6 +217,32 @@ public final class InodeDirectoryTest extends AbstractInodeTest {
         System.currentTimeMillis() - start));
   }
 
+  /**
+   * Tests the {@link InodeDirectory#getChildren(String, int)} method.
+   */
+  @Test
+  public void getChildrenInBatchesTest() {
+    InodeDirectory inodeDirectory = createInodeDirectory();
+    Assert.assertTrue(inodeDirectory.getChildren(null, 2).isEmpty());
+    // Names testFile1 to testFile5, added out of order.
+    for (int i : new int[] {3, 1, 5, 2, 4}) {
+      inodeDirectory.addChild(createInodeFile(i));
+    }
+
+    Assert.assertEquals(Lists.newArrayList(createInodeFile(1), createInodeFile(2)),
+        inodeDirectory.getChildren(null, 2));
+    Assert.assertEquals(Lists.newArrayList(createInodeFile(3), createInodeFile(4)),
+        inodeDirectory.getChildren("testFile2", 2));
+    // The name to start after does not need to be the name of a child.
+    Assert.assertEquals(Lists.newArrayList(createInodeFile(3), createInodeFile(4)),
+        inodeDirectory.getChildren("testFile20", 2));
+    Assert.assertEquals(Lists.newArrayList(createInodeFile(5)),
+        inodeDirectory.getChildren("testFile4", 2));
+    Assert.assertTrue(inodeDirectory.getChildren("testFile5", 2).isEmpty());
+    Assert.assertEquals(5, inodeDirectory.getChildren(null, 0).size());
+    Assert.assertEquals(5, inodeDirectory.getNumberOfChildren());
+  }
+
   /**
    * Tests the {@link InodeDirectory#getMode()} method.
    */
@@ -250,4 +278,21 @@ public final class InodeDirectoryTest extends AbstractInodeTest {
     Assert.assertEquals(inodeDirectory.getLastModificationTimeMs(),
         info.getLastModificationTimeMs());
   }
+
+  /**
+   * Tests that the directories without children share an empty map of children, which is only
+   * replaced once a child is added.
+   */
+  @Test
+  public void sharedEmptyChildrenTest() {
+    InodeDirectory directory1 = createInodeDirectory();
+    InodeDirectory directory2 = createInodeDirectory();
+    Object noChildren = Whitebox.getInternalState(directory1, "mChildren");
+    Assert.assertSame(noChildren, Whitebox.getInternalState(directory2, "mChildren"));
+
+    directory2.addChild(createInodeFile(1));
+    Assert.assertNotSame(noChildren, Whitebox.getInternalState(directory2, "mChildren"));
+    Assert.assertEquals(0, directory1.getNumberOfChildren());
+    Assert.assertEquals(1, directory2.getNumberOfChildren());
+  }
 }
@@ -19,6 +19,7 @@ import alluxio.security.authorization.Permission;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.powermock.reflect.Whitebox;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -167,4 +168,36 @@ public final class InodeFileTest extends AbstractInodeTest {
     Assert.assertEquals(new Permission(TEST_PERMISSION).applyFileUMask().getMode().toShort(),
         inode1.getMode());
   }
+
+  /**
+   * Tests that the owner and group of the inodes are interned, so that the inodes share a single
+   * copy of each name.
+   */
+  @Test
+  public void internOwnerAndGroupTest() {
+    InodeFile inode1 = createInodeFile(1);
+    InodeFile inode2 = createInodeFile(2);
+    inode2.setPermission(new Permission(new StringBuilder(TEST_USER_NAME).toString(),
+        new StringBuilder(TEST_GROUP_NAME).toString(), (short) 0755));
+    Assert.assertSame(inode1.getOwner(), inode2.getOwner());
+    Assert.assertSame(inode1.getGroup(), inode2.getGroup());
+    inode2.setOwner(new StringBuilder(TEST_GROUP_NAME).toString());
+    Assert.assertSame(inode1.getGroup(), inode2.getOwner());
+  }
+
+  /**
+   * Tests that the lock of an inode is only allocated once the inode is locked.
+   */
+  @Test
+  public void lazyLockTest() {
+    InodeFile inode = createInodeFile(1);
+    Assert.assertNull(Whitebox.getInternalState(inode, "mLock"));
+    inode.lockRead();
+    inode.unlockRead();
+    Object lock = Whitebox.getInternalState(inode, "mLock");
+    Assert.assertNotNull(lock);
+    inode.lockWrite();
+    inode.unlockWrite();
+    Assert.assertSame(lock, Whitebox.getInternalState(inode, "mLock"));
+  }
 }
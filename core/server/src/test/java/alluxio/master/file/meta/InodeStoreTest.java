@@ -0,0 +1,103 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.file.meta;
+
+import com.google.common.collect.Sets;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Unit tests for {@link InodeStore}.
+ */
+public final class InodeStoreTest extends AbstractInodeTest {
+  private InodeStore mStore;
+
+  /**
+   * Sets up a new store before a test runs.
+   */
+  @Before
+  public void before() {
+    mStore = new InodeStore();
+  }
+
+  /**
+   * Tests adding, getting and removing inodes.
+   */
+  @Test
+  public void addGetRemoveTest() {
+    InodeFile file = createInodeFile(1);
+    Assert.assertTrue(mStore.add(file));
+    Assert.assertFalse(mStore.add(file));
+    Assert.assertEquals(1, mStore.size());
+    Assert.assertSame(file, mStore.get(file.getId()));
+    Assert.assertNull(mStore.get(file.getId() + 1));
+
+    Assert.assertTrue(mStore.remove(file));
+    Assert.assertFalse(mStore.remove(file));
+    Assert.assertNull(mStore.get(file.getId()));
+    Assert.assertEquals(0, mStore.size());
+  }
+
+  /**
+   * Tests that the store behaves like a map while inodes are added and removed at random, which
+   * exercises the resizing and the removal from probe sequences.
+   */
+  @Test
+  public void randomAddRemoveTest() {
+    Random random = new Random(0);
+    Map<Long, InodeFile> expected = new HashMap<>();
+    List<InodeFile> files = new ArrayList<>();
+    for (int i = 0; i < 10000; i++) {
+      files.add(createInodeFile(i));
+    }
+    for (int i = 0; i < 50000; i++) {
+      InodeFile file = files.get(random.nextInt(files.size()));
+      if (random.nextBoolean()) {
+        Assert.assertEquals(!expected.containsKey(file.getId()), mStore.add(file));
+        expected.put(file.getId(), file);
+      } else {
+        Assert.assertEquals(expected.remove(file.getId()) != null, mStore.remove(file));
+      }
+    }
+    Assert.assertEquals(expected.size(), mStore.size());
+    for (InodeFile file : files) {
+      Assert.assertSame(expected.get(file.getId()), mStore.get(file.getId()));
+    }
+    Assert.assertEquals(Sets.newHashSet(expected.values()), Sets.newHashSet(mStore));
+  }
+
+  /**
+   * Tests that stores with the same inodes are equal.
+   */
+  @Test
+  public void equalsTest() {
+    InodeStore other = new InodeStore();
+    for (int i = 0; i < 100; i++) {
+      InodeFile file = createInodeFile(i);
+      mStore.add(file);
+      other.add(file);
+    }
+    Assert.assertEquals(mStore, other);
+    Assert.assertEquals(mStore.hashCode(), other.hashCode());
+    other.remove(createInodeFile(0));
+    Assert.assertNotEquals(mStore, other);
+    mStore.clear();
+    Assert.assertEquals(0, mStore.size());
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.file.meta;
+
+import alluxio.AlluxioURI;
+import alluxio.Constants;
+import alluxio.master.block.ContainerIdGenerable;
+import alluxio.master.file.options.CreateDirectoryOptions;
+import alluxio.master.file.options.CreateFileOptions;
+import alluxio.security.authorization.Permission;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the heap used per inode by the {@link InodeTree}.
+ *
+ * The tree is filled the way the master fills it when it replays its journal: the inodes are
+ * created from journal entries, with their own copies of their names, owners and groups. Run it
+ * with a fixed heap size and compare the results across revisions, e.g.
+ *
+ * <pre>
+ * java -Xms4g -Xmx4g -cp ... alluxio.master.file.meta.InodeTreeMemoryBenchmark 1000000 1000
+ * </pre>
+ */
+public final class InodeTreeMemoryBenchmark {
+  private InodeTreeMemoryBenchmark() {} // prevent instantiation
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the number of files (default 1000000) and the number of files per directory
+   *        (default 1000)
+   * @throws Exception if the inode tree cannot be built
+   */
+  public static void main(String[] args) throws Exception {
+    int numFiles = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+    int filesPerDirectory = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+    ContainerIdGenerable containerIdGenerator = new ContainerIdGenerable() {
+      private long mNextContainerId = 0;
+
+      @Override
+      public synchronized long getNewContainerId() {
+        return mNextContainerId++;
+      }
+    };
+    InodeDirectoryIdGenerator directoryIdGenerator =
+        new InodeDirectoryIdGenerator(containerIdGenerator);
+
+    long before = usedMemory();
+    InodeTree tree = new InodeTree(containerIdGenerator, directoryIdGenerator, new MountTable());
+    tree.initializeRoot(newPermission());
+    long rootId;
+    try (LockedInodePath inodePath =
+        tree.lockFullInodePath(new AlluxioURI("/"), InodeTree.LockMode.READ)) {
+      rootId = inodePath.getInode().getId();
+    }
+    InodeDirectory directory = null;
+    for (int i = 0; i < numFiles; i++) {
+      if (i % filesPerDirectory == 0) {
+        directory = InodeDirectory.create(directoryIdGenerator.getNewDirectoryId(), rootId,
+            "dir" + i, CreateDirectoryOptions.defaults().setPermission(newPermission()));
+        tree.addInodeFromJournal(directory.toJournalEntry());
+      }
+      InodeFile file = InodeFile.create(containerIdGenerator.getNewContainerId(),
+          directory.getId(), "file" + i, CreateFileOptions.defaults()
+              .setBlockSizeBytes(Constants.MB).setPermission(newPermission()));
+      tree.addInodeFromJournal(file.toJournalEntry());
+    }
+    long after = usedMemory();
+
+    int numInodes = tree.getSize();
+    System.out.printf("Inodes: %d, heap used: %d bytes, bytes per inode: %.1f%n", numInodes,
+        after - before, (double) (after - before) / numInodes);
+  }
+
+  /**
+   * @return a permission with its own copies of the owner and group names, like the permissions of
+   *         inodes read from the journal
+   */
+  private static Permission newPermission() {
+    return new Permission(new StringBuilder("user").toString(),
+        new StringBuilder("group").toString(), (short) 0755);
+  }
+
+  /**
+   * @return the heap used after garbage collection, in bytes
+   */
+  private static long usedMemory() throws InterruptedException {
+    Runtime runtime = Runtime.getRuntime();
+    List<Long> samples = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      System.gc();
+      Thread.sleep(100);
+      samples.add(runtime.totalMemory() - runtime.freeMemory());
+    }
+    long min = Long.MAX_VALUE;
+    for (long sample : samples) {
+      min = Math.min(min, sample);
+    }
+    return min;
+  }
+}
@@ -621,6 +621,55 @@ public final class InodeTreeTest {
     }
   }
 
+  /**
+   * Tests the {@link InodeTree#getInodePathOptimistic(AlluxioURI)} method.
+   */
+  @Test
+  public void getInodePathOptimisticTest() throws Exception {
+    createPath(mTree, NESTED_FILE_URI, sNestedFileOptions);
+
+    OptimisticInodePath inodePath = mTree.getInodePathOptimistic(NESTED_FILE_URI);
+    Assert.assertNotNull(inodePath);
+    Assert.assertEquals(NESTED_FILE_URI.getName(), inodePath.getInode().getName());
+    Assert.assertEquals(4, inodePath.getInodeList().size());
+    Assert.assertTrue(inodePath.validate());
+
+    // A path which does not exist must be resolved by locking it.
+    Assert.assertNull(mTree.getInodePathOptimistic(new AlluxioURI("/nested/missing")));
+    Assert.assertNull(mTree.getInodePathOptimistic(NESTED_FILE_URI.join("child")));
+  }
+
+  /**
+   * Tests that an {@link OptimisticInodePath} is not valid anymore once one of its inodes is write
+   * locked, and that no path is resolved through a write locked inode.
+   */
+  @Test
+  public void getInodePathOptimisticConcurrentWriteTest() throws Exception {
+    createPath(mTree, NESTED_FILE_URI, sNestedFileOptions);
+    Inode<?> nested = getInodeByPath(mTree, NESTED_URI);
+
+    OptimisticInodePath inodePath = mTree.getInodePathOptimistic(NESTED_FILE_URI);
+    Assert.assertNotNull(inodePath);
+    long version = nested.getVersion();
+    nested.lockWrite();
+    try {
+      Assert.assertFalse(inodePath.validate());
+      Assert.assertNull(mTree.getInodePathOptimistic(NESTED_FILE_URI));
+      Assert.assertFalse(inodePath.observe(nested));
+    } finally {
+      nested.unlockWrite();
+    }
+    Assert.assertNotEquals(version, nested.getVersion());
+    Assert.assertFalse(inodePath.validate());
+    Assert.assertTrue(mTree.getInodePathOptimistic(NESTED_FILE_URI).validate());
+
+    // Read locks do not invalidate the path.
+    inodePath = mTree.getInodePathOptimistic(NESTED_FILE_URI);
+    nested.lockRead();
+    nested.unlockRead();
+    Assert.assertTrue(inodePath.validate());
+  }
+
   // Helper to create a path.
   InodeTree.CreatePathResult createPath(InodeTree root, AlluxioURI path,
       CreatePathOptions<?> options)
@@ -43,6 +43,13 @@ public class ListStatusOptionsTest {
     listStatusTOptions.setLoadMetadataType(LoadMetadataTType.Always);
     ListStatusOptions options = new ListStatusOptions(listStatusTOptions);
     Assert.assertEquals(LoadMetadataType.Always, options.getLoadMetadataType());
+    Assert.assertNull(options.getStartAfter());
+    Assert.assertEquals(0, options.getBatchSize());
+
+    listStatusTOptions.setStartAfter("file").setBatchSize(10);
+    options = new ListStatusOptions(listStatusTOptions);
+    Assert.assertEquals("file", options.getStartAfter());
+    Assert.assertEquals(10, options.getBatchSize());
   }
 
   @Test
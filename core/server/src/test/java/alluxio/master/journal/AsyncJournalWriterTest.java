@@ -0,0 +1,116 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.journal;
+
+import alluxio.proto.journal.File.DeleteFileEntry;
+import alluxio.proto.journal.Journal.JournalEntry;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.io.IOException;
+
+/**
+ * Tests for the {@link AsyncJournalWriter} class.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(JournalWriter.class)
+public class AsyncJournalWriterTest {
+  private JournalOutputStream mOutputStream;
+  private AsyncJournalWriter mAsyncJournalWriter;
+
+  /** The exception expected to be thrown. */
+  @Rule
+  public ExpectedException mThrown = ExpectedException.none();
+
+  /**
+   * Creates an async journal writer on top of a mocked journal.
+   */
+  @Before
+  public void before() throws Exception {
+    mOutputStream = Mockito.mock(JournalOutputStream.class);
+    JournalWriter journalWriter = Mockito.mock(JournalWriter.class);
+    Mockito.when(journalWriter.getEntryOutputStream()).thenReturn(mOutputStream);
+    mAsyncJournalWriter = new AsyncJournalWriter(journalWriter);
+  }
+
+  /**
+   * Stops the async journal writer.
+   */
+  @After
+  public void after() throws Exception {
+    try {
+      mAsyncJournalWriter.close();
+    } catch (IOException e) {
+      // Expected for the tests making the journal fail.
+    }
+  }
+
+  /**
+   * Tests that appended entries are written in order and flushed once their counter is flushed.
+   */
+  @Test
+  public void flushTest() throws Exception {
+    JournalEntry entry1 = createEntry(1);
+    JournalEntry entry2 = createEntry(2);
+    long counter1 = mAsyncJournalWriter.appendEntry(entry1);
+    long counter2 = mAsyncJournalWriter.appendEntry(entry2);
+    Assert.assertTrue(counter2 > counter1);
+
+    mAsyncJournalWriter.flush(counter2);
+    InOrder inOrder = Mockito.inOrder(mOutputStream);
+    inOrder.verify(mOutputStream).writeEntry(entry1);
+    inOrder.verify(mOutputStream).writeEntry(entry2);
+    inOrder.verify(mOutputStream).flush();
+    Assert.assertTrue(mAsyncJournalWriter.flushAsync(counter1).isDone());
+  }
+
+  /**
+   * Tests that closing the writer writes out the entries which have not been flushed yet.
+   */
+  @Test
+  public void closeTest() throws Exception {
+    JournalEntry entry = createEntry(1);
+    mAsyncJournalWriter.appendEntry(entry);
+    mAsyncJournalWriter.close();
+    Mockito.verify(mOutputStream).writeEntry(entry);
+    Mockito.verify(mOutputStream, Mockito.atLeastOnce()).flush();
+  }
+
+  /**
+   * Tests that a failure to flush the journal is reported to the waiting callers.
+   */
+  @Test
+  public void flushFailureTest() throws Exception {
+    Mockito.doThrow(new IOException("flush failed")).when(mOutputStream).flush();
+    long counter = mAsyncJournalWriter.appendEntry(createEntry(1));
+
+    mThrown.expect(IOException.class);
+    mThrown.expectMessage("flush failed");
+    mAsyncJournalWriter.flush(counter);
+  }
+
+  private JournalEntry createEntry(long id) {
+    return JournalEntry.newBuilder()
+        .setDeleteFile(DeleteFileEntry.newBuilder().setId(id).setRecursive(false).build())
+        .build();
+  }
+}
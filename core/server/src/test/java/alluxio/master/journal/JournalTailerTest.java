@@ -0,0 +1,73 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.journal;
+
+import alluxio.master.Master;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+
+/**
+ * Unit tests for {@link JournalTailer}.
+ */
+public final class JournalTailerTest {
+  private Master mMaster;
+  private JournalInputStream mCheckpointInputStream;
+  private JournalTailer mTailer;
+
+  /**
+   * Sets up a tailer reading a mocked checkpoint for a mocked master.
+   */
+  @Before
+  public void before() throws Exception {
+    mMaster = Mockito.mock(Master.class);
+    mCheckpointInputStream = Mockito.mock(JournalInputStream.class);
+    Mockito.when(mCheckpointInputStream.getLatestSequenceNumber()).thenReturn(10L);
+    JournalReader reader = Mockito.mock(JournalReader.class);
+    Mockito.when(reader.getCheckpointInputStream()).thenReturn(mCheckpointInputStream);
+    ReadOnlyJournal journal = Mockito.mock(ReadOnlyJournal.class);
+    Mockito.when(journal.getNewReader()).thenReturn(reader);
+    mTailer = new JournalTailer(mMaster, journal);
+  }
+
+  /**
+   * Tests that the checkpoint stream is closed once the checkpoint is processed.
+   */
+  @Test
+  public void processJournalCheckpointTest() throws Exception {
+    mTailer.processJournalCheckpoint(true);
+    Mockito.verify(mMaster).processJournalCheckpoint(mCheckpointInputStream);
+    Mockito.verify(mCheckpointInputStream).close();
+    Assert.assertEquals(10L, mTailer.getLatestSequenceNumber());
+  }
+
+  /**
+   * Tests that the checkpoint stream is closed when the master fails to process the checkpoint.
+   */
+  @Test
+  public void processJournalCheckpointFailureTest() throws Exception {
+    Mockito.doThrow(new IOException("failed")).when(mMaster)
+        .processJournalCheckpoint(mCheckpointInputStream);
+    try {
+      mTailer.processJournalCheckpoint(true);
+      Assert.fail("Processing the checkpoint should fail");
+    } catch (IOException e) {
+      // Expected.
+    }
+    Mockito.verify(mCheckpointInputStream).close();
+    Assert.assertEquals(0L, mTailer.getLatestSequenceNumber());
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.journal;
+
+import alluxio.Configuration;
+import alluxio.ConfigurationTestUtils;
+import alluxio.Constants;
+import alluxio.proto.journal.Block.BlockContainerIdGeneratorEntry;
+import alluxio.proto.journal.Journal.JournalEntry;
+import alluxio.underfs.UnderFileSystem;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Unit tests for {@link JournalWriter}.
+ */
+public final class JournalWriterTest {
+  /** Rule to create a new temporary folder during each test. */
+  @Rule
+  public TemporaryFolder mTestFolder = new TemporaryFolder();
+
+  private ReadWriteJournal mJournal;
+  private UnderFileSystem mUfs;
+
+  /**
+   * Sets up a journal whose logs are rotated at every flush.
+   */
+  @Before
+  public void before() throws Exception {
+    Configuration.set(Constants.MASTER_JOURNAL_LOG_SIZE_BYTES_MAX, "1");
+    mJournal = new ReadWriteJournal(mTestFolder.newFolder().getAbsolutePath());
+    mUfs = UnderFileSystem.get(mJournal.getDirectory());
+  }
+
+  /**
+   * Resets the configuration after a test ran.
+   */
+  @After
+  public void after() {
+    ConfigurationTestUtils.resetConfiguration();
+  }
+
+  /**
+   * Tests that {@link JournalWriter#deleteCheckpointedLogs()} only deletes the completed logs which
+   * are reflected by a checkpoint written by a standby master, that a new reader starts from the
+   * standby checkpoint and the first remaining log, and that a reader which had not read the
+   * deleted logs is no longer valid.
+   */
+  @Test
+  public void deleteCheckpointedLogsTest() throws Exception {
+    JournalWriter writer = mJournal.getNewWriter();
+    JournalOutputStream checkpointStream = writer.getCheckpointOutputStream(0);
+    // Sequence number 1.
+    checkpointStream.writeEntry(newEntry(0));
+    checkpointStream.close();
+    JournalOutputStream entryStream = writer.getEntryOutputStream();
+    // Sequence numbers 2 to 5, in the completed logs 1 to 4.
+    for (int i = 1; i <= 4; i++) {
+      entryStream.writeEntry(newEntry(i));
+      entryStream.flush();
+    }
+    entryStream.close();
+    Assert.assertEquals(Arrays.asList(1L, 2L, 3L, 4L), mJournal.getCompletedLogNumbers(mUfs));
+
+    // A standby checkpoint reflecting the entries up to sequence number 3, in the logs 1 and 2.
+    JournalReader staleReader = mJournal.getNewReader();
+    staleReader.getCheckpointInputStream().close();
+    writeStandbyCheckpoint(3);
+    mJournal.getNewWriter().deleteCheckpointedLogs();
+    Assert.assertEquals(Arrays.asList(3L, 4L), mJournal.getCompletedLogNumbers(mUfs));
+    Assert.assertEquals(mJournal.getStandbyCheckpointFilePath(3),
+        mJournal.getLatestCheckpointFilePath(mUfs));
+
+    JournalReader reader = mJournal.getNewReader();
+    JournalInputStream checkpointInputStream = reader.getCheckpointInputStream();
+    Assert.assertEquals(3L, checkpointInputStream.getNextEntry().getSequenceNumber());
+    checkpointInputStream.close();
+    JournalInputStream inputStream = reader.getNextInputStream();
+    Assert.assertEquals(4L, inputStream.getNextEntry().getSequenceNumber());
+    inputStream.close();
+
+    // The reader which read the checkpoint before the logs were deleted is no longer valid.
+    Assert.assertTrue(staleReader.isValid());
+    Assert.assertNull(staleReader.getNextInputStream());
+    Assert.assertFalse(staleReader.isValid());
+  }
+
+  /**
+   * Tests that a checkpoint written by a standby master which is older than the checkpoint file
+   * written by the leader is ignored, by the readers and when deleting the completed logs.
+   */
+  @Test
+  public void ignoreStaleStandbyCheckpointTest() throws Exception {
+    // A standby checkpoint left over from before the leader wrote its checkpoint.
+    writeStandbyCheckpoint(5);
+    JournalWriter writer = mJournal.getNewWriter();
+    JournalOutputStream checkpointStream = writer.getCheckpointOutputStream(10);
+    // Sequence number 11.
+    checkpointStream.writeEntry(newEntry(0));
+    checkpointStream.close();
+    // Closing the checkpoint deletes the older standby checkpoints.
+    Assert.assertTrue(mJournal.getStandbyCheckpointSequenceNumbers(mUfs).isEmpty());
+    JournalOutputStream entryStream = writer.getEntryOutputStream();
+    // Sequence numbers 12 to 14, in the completed logs 1 to 3.
+    for (int i = 1; i <= 3; i++) {
+      entryStream.writeEntry(newEntry(i));
+      entryStream.flush();
+    }
+    entryStream.close();
+
+    // A stale standby checkpoint, e.g. written by a slow standby master.
+    writeStandbyCheckpoint(7);
+    Assert.assertEquals(-1, mJournal.getLatestStandbyCheckpointSequenceNumber(mUfs));
+    Assert.assertEquals(mJournal.getCheckpointFilePath(),
+        mJournal.getLatestCheckpointFilePath(mUfs));
+    mJournal.getNewWriter().deleteCheckpointedLogs();
+    Assert.assertEquals(Arrays.asList(1L, 2L, 3L), mJournal.getCompletedLogNumbers(mUfs));
+
+    JournalReader reader = mJournal.getNewReader();
+    JournalInputStream checkpointInputStream = reader.getCheckpointInputStream();
+    Assert.assertEquals(11L, checkpointInputStream.getNextEntry().getSequenceNumber());
+    checkpointInputStream.close();
+  }
+
+  /**
+   * Writes a checkpoint as a standby master does.
+   *
+   * @param sequenceNumber the sequence number of the latest entry reflected by the checkpoint
+   */
+  private void writeStandbyCheckpoint(long sequenceNumber) throws Exception {
+    try (OutputStream outputStream =
+        mUfs.create(mJournal.getStandbyCheckpointFilePath(sequenceNumber))) {
+      mJournal.getJournalFormatter().serialize(
+          newEntry(2).toBuilder().setSequenceNumber(sequenceNumber).build(), outputStream);
+    }
+  }
+
+  private static JournalEntry newEntry(long nextContainerId) {
+    return JournalEntry.newBuilder().setBlockContainerIdGenerator(
+        BlockContainerIdGeneratorEntry.newBuilder().setNextContainerId(nextContainerId)).build();
+  }
+}
@@ -0,0 +1,196 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.journal;
+
+import alluxio.AlluxioURI;
+import alluxio.Constants;
+import alluxio.master.block.ContainerIdGenerable;
+import alluxio.master.file.meta.InodeDirectory;
+import alluxio.master.file.meta.InodeDirectoryIdGenerator;
+import alluxio.master.file.meta.InodeFile;
+import alluxio.master.file.meta.InodeTree;
+import alluxio.master.file.meta.MountTable;
+import alluxio.master.file.options.CreateDirectoryOptions;
+import alluxio.master.file.options.CreateFileOptions;
+import alluxio.proto.journal.Block.BlockContainerIdGeneratorEntry;
+import alluxio.proto.journal.Journal.JournalEntry;
+import alluxio.security.authorization.Permission;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Unit tests for {@link PipelinedJournalInputStream}.
+ */
+public final class PipelinedJournalInputStreamTest {
+  private final JournalFormatter mFormatter = new ProtoBufJournalFormatter();
+
+  /**
+   * Tests that the entries are returned in the order of the stream, across batches.
+   */
+  @Test
+  public void readInOrderTest() throws Exception {
+    int numEntries = 1000;
+    JournalInputStream inputStream =
+        new PipelinedJournalInputStream(new ByteArrayInputStream(serialize(numEntries)), 4, 7);
+    for (int i = 1; i <= numEntries; i++) {
+      JournalEntry entry = inputStream.getNextEntry();
+      Assert.assertEquals(i, entry.getSequenceNumber());
+      Assert.assertEquals(i, entry.getBlockContainerIdGenerator().getNextContainerId());
+      Assert.assertEquals(i, inputStream.getLatestSequenceNumber());
+    }
+    Assert.assertNull(inputStream.getNextEntry());
+    Assert.assertNull(inputStream.getNextEntry());
+    inputStream.close();
+  }
+
+  /**
+   * Tests reading an empty stream, and a stream whose size is a multiple of the batch size.
+   */
+  @Test
+  public void readEndOfStreamTest() throws Exception {
+    JournalInputStream inputStream =
+        new PipelinedJournalInputStream(new ByteArrayInputStream(new byte[0]), 1, 10);
+    Assert.assertNull(inputStream.getNextEntry());
+    inputStream.close();
+
+    inputStream = new PipelinedJournalInputStream(new ByteArrayInputStream(serialize(20)), 2, 10);
+    for (int i = 1; i <= 20; i++) {
+      Assert.assertEquals(i, inputStream.getNextEntry().getSequenceNumber());
+    }
+    Assert.assertNull(inputStream.getNextEntry());
+    inputStream.close();
+  }
+
+  /**
+   * Tests that a truncated stream fails after the entries before the truncated one are returned.
+   */
+  @Test
+  public void readTruncatedTest() throws Exception {
+    byte[] bytes = serialize(10);
+    JournalInputStream inputStream = new PipelinedJournalInputStream(
+        new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1)), 2, 3);
+    for (int i = 1; i <= 9; i++) {
+      Assert.assertEquals(i, inputStream.getNextEntry().getSequenceNumber());
+    }
+    try {
+      inputStream.getNextEntry();
+      Assert.fail("Reading a truncated entry should fail");
+    } catch (IOException e) {
+      // Expected.
+    }
+    inputStream.close();
+  }
+
+  /**
+   * Tests that a stream can be closed before it is read entirely.
+   */
+  @Test
+  public void closeBeforeEndTest() throws Exception {
+    JournalInputStream inputStream =
+        new PipelinedJournalInputStream(new ByteArrayInputStream(serialize(10000)), 1, 1);
+    Assert.assertEquals(1, inputStream.getNextEntry().getSequenceNumber());
+    inputStream.close();
+    inputStream.close();
+  }
+
+  /**
+   * Tests that a checkpoint of inodes replayed through the stream builds the same inode tree as
+   * when it is replayed sequentially.
+   */
+  @Test
+  public void replayInodeTreeTest() throws Exception {
+    int numDirectories = 10;
+    int filesPerDirectory = 100;
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    CreateDirectoryOptions directoryOptions = CreateDirectoryOptions.defaults()
+        .setPermission(new Permission("user", "group", (short) 0755));
+    CreateFileOptions fileOptions = CreateFileOptions.defaults().setBlockSizeBytes(Constants.KB)
+        .setPermission(new Permission("user", "group", (short) 0644));
+    long nextId = 0;
+    long rootId = nextId++;
+    mFormatter.serialize(InodeDirectory.create(rootId, InodeTree.NO_PARENT, "", directoryOptions)
+        .toJournalEntry(), outputStream);
+    for (int i = 0; i < numDirectories; i++) {
+      long directoryId = nextId++;
+      mFormatter.serialize(InodeDirectory.create(directoryId, rootId, "dir" + i, directoryOptions)
+          .toJournalEntry(), outputStream);
+      for (int j = 0; j < filesPerDirectory; j++) {
+        mFormatter.serialize(InodeFile.create(nextId++, directoryId, "file" + j, fileOptions)
+            .toJournalEntry(), outputStream);
+      }
+    }
+    byte[] checkpoint = outputStream.toByteArray();
+
+    InodeTree sequentialTree = replay(
+        mFormatter.deserialize(new ByteArrayInputStream(checkpoint)));
+    InodeTree pipelinedTree =
+        replay(new PipelinedJournalInputStream(new ByteArrayInputStream(checkpoint), 4, 7));
+    Assert.assertEquals(nextId, sequentialTree.getSize());
+    Assert.assertEquals(sequentialTree.getSize(), pipelinedTree.getSize());
+    for (int i = 0; i < numDirectories; i++) {
+      for (int j = 0; j < filesPerDirectory; j++) {
+        AlluxioURI path = new AlluxioURI("/dir" + i + "/file" + j);
+        Assert.assertTrue(sequentialTree.inodePathExists(path));
+        Assert.assertTrue(pipelinedTree.inodePathExists(path));
+      }
+    }
+  }
+
+  /**
+   * Replays a checkpoint of inodes into a new inode tree, and closes the stream.
+   *
+   * @param inputStream the stream of the checkpoint entries
+   * @return the inode tree
+   */
+  private InodeTree replay(JournalInputStream inputStream) throws Exception {
+    ContainerIdGenerable containerIdGenerator = new ContainerIdGenerable() {
+      private long mNextContainerId = 0;
+
+      @Override
+      public synchronized long getNewContainerId() {
+        return mNextContainerId++;
+      }
+    };
+    InodeTree tree = new InodeTree(containerIdGenerator,
+        new InodeDirectoryIdGenerator(containerIdGenerator), new MountTable());
+    try {
+      JournalEntry entry;
+      while ((entry = inputStream.getNextEntry()) != null) {
+        tree.addInodeFromJournal(entry);
+      }
+    } finally {
+      inputStream.close();
+    }
+    return tree;
+  }
+
+  /**
+   * @param numEntries the number of entries
+   * @return the entries with the sequence numbers 1 to numEntries, serialized by the formatter
+   */
+  private byte[] serialize(int numEntries) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    for (int i = 1; i <= numEntries; i++) {
+      mFormatter.serialize(JournalEntry.newBuilder().setSequenceNumber(i)
+          .setBlockContainerIdGenerator(
+              BlockContainerIdGeneratorEntry.newBuilder().setNextContainerId(i))
+          .build(), outputStream);
+    }
+    return outputStream.toByteArray();
+  }
+}
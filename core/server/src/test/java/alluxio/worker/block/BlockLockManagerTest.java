@@ -306,6 +306,131 @@ public class BlockLockManagerTest {
     manager.validate();
   }
 
+  /**
+   * Tests that each lock is released exactly once when sessions are cleaned up while their owners
+   * release the same locks concurrently.
+   */
+  @Test(timeout = 10000)
+  public void cleanupSessionWhileUnlockingTest() throws Throwable {
+    final int numSessions = 32;
+    final int locksPerSession = 20;
+    final BlockLockManager manager = new BlockLockManager();
+    final CyclicBarrier barrier = new CyclicBarrier(2 * numSessions);
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int session = 0; session < numSessions; session++) {
+      final long sessionId = session;
+      final List<Long> lockIds = new ArrayList<>();
+      for (int i = 0; i < locksPerSession; i++) {
+        lockIds.add(manager.lockBlock(sessionId, session * locksPerSession + i,
+            BlockLockType.READ));
+      }
+      threads.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            barrier.await();
+            for (long lockId : lockIds) {
+              try {
+                manager.unlockBlock(lockId);
+              } catch (BlockDoesNotExistException e) {
+                // Already released by the session cleanup.
+              }
+            }
+          } catch (Throwable t) {
+            failure.set(t);
+          }
+        }
+      }));
+      threads.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            barrier.await();
+            manager.cleanupSession(sessionId);
+          } catch (Throwable t) {
+            failure.set(t);
+          }
+        }
+      }));
+    }
+    for (Thread t : threads) {
+      t.start();
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+    // Unlocking a lock twice would have thrown, and leaked locks would show up here.
+    Assert.assertTrue(manager.getLockedBlocks().isEmpty());
+    manager.validate();
+    // Every block can be write locked again.
+    for (int blockId = 0; blockId < numSessions * locksPerSession; blockId++) {
+      manager.unlockBlock(manager.lockBlock(TEST_SESSION_ID, blockId, BlockLockType.WRITE));
+    }
+  }
+
+  /**
+   * Tests that the state of the manager stays consistent when sessions are cleaned up while they
+   * take new locks concurrently, and that a last cleanup releases all the locks.
+   */
+  @Test(timeout = 10000)
+  public void cleanupSessionWhileLockingTest() throws Throwable {
+    final int numSessions = 32;
+    final int locksPerSession = 20;
+    final BlockLockManager manager = new BlockLockManager();
+    final CyclicBarrier barrier = new CyclicBarrier(2 * numSessions);
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int session = 0; session < numSessions; session++) {
+      final long sessionId = session;
+      threads.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            barrier.await();
+            for (int i = 0; i < locksPerSession; i++) {
+              manager.lockBlock(sessionId, sessionId * locksPerSession + i, BlockLockType.READ);
+            }
+          } catch (Throwable t) {
+            failure.set(t);
+          }
+        }
+      }));
+      threads.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            barrier.await();
+            for (int i = 0; i < locksPerSession; i++) {
+              manager.cleanupSession(sessionId);
+            }
+          } catch (Throwable t) {
+            failure.set(t);
+          }
+        }
+      }));
+    }
+    for (Thread t : threads) {
+      t.start();
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+    // Every lock which survived the concurrent cleanups is recorded under its session.
+    manager.validate();
+    for (int session = 0; session < numSessions; session++) {
+      manager.cleanupSession(session);
+    }
+    Assert.assertTrue(manager.getLockedBlocks().isEmpty());
+    manager.validate();
+  }
+
   private void setMaxLocks(int maxLocks) {
     Configuration.set(Constants.WORKER_TIERED_STORE_BLOCK_LOCKS, Integer.toString(maxLocks));
   }
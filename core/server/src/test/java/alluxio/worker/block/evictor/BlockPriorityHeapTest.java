@@ -0,0 +1,112 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.block.evictor;
+
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Unit tests for {@link BlockPriorityHeap}.
+ */
+public final class BlockPriorityHeapTest {
+  private BlockPriorityHeap mHeap;
+
+  /**
+   * Sets up a new heap before a test runs.
+   */
+  @Before
+  public void before() {
+    mHeap = new BlockPriorityHeap();
+  }
+
+  /**
+   * Tests adding, updating and removing blocks.
+   */
+  @Test
+  public void putRemoveTest() {
+    mHeap.put(1, 3.0);
+    mHeap.put(2, 1.0);
+    mHeap.put(3, 2.0);
+    Assert.assertEquals(3, mHeap.size());
+    Assert.assertEquals(Lists.newArrayList(2L, 3L, 1L), Lists.newArrayList(mHeap.iterator()));
+
+    mHeap.put(1, 0.0);
+    Assert.assertEquals(0.0, mHeap.getPriority(1), 0.0);
+    Assert.assertEquals(Lists.newArrayList(1L, 2L, 3L), Lists.newArrayList(mHeap.iterator()));
+
+    Assert.assertTrue(mHeap.remove(2));
+    Assert.assertFalse(mHeap.remove(2));
+    Assert.assertFalse(mHeap.contains(2));
+    Assert.assertTrue(Double.isNaN(mHeap.getPriority(2)));
+    Assert.assertEquals(Lists.newArrayList(1L, 3L), Lists.newArrayList(mHeap.iterator()));
+
+    mHeap.clear();
+    Assert.assertEquals(0, mHeap.size());
+    Assert.assertFalse(mHeap.iterator().hasNext());
+  }
+
+  /**
+   * Tests that the iterator throws once all blocks have been visited.
+   */
+  @Test(expected = NoSuchElementException.class)
+  public void iteratorExhaustedTest() {
+    mHeap.put(1, 1.0);
+    Iterator<Long> it = mHeap.iterator();
+    it.next();
+    it.next();
+  }
+
+  /**
+   * Tests that the heap iterates in priority order while blocks are added, updated and removed at
+   * random, which exercises the resizing and the removal from the index.
+   */
+  @Test
+  public void randomOperationsTest() {
+    Random random = new Random(0);
+    final Map<Long, Double> expected = new HashMap<>();
+    for (int i = 0; i < 50000; i++) {
+      long blockId = random.nextInt(5000);
+      if (random.nextInt(3) > 0) {
+        double priority = random.nextDouble();
+        mHeap.put(blockId, priority);
+        expected.put(blockId, priority);
+      } else {
+        Assert.assertEquals(expected.remove(blockId) != null, mHeap.remove(blockId));
+      }
+    }
+    Assert.assertEquals(expected.size(), mHeap.size());
+
+    List<Long> sorted = new ArrayList<>(expected.keySet());
+    Collections.sort(sorted, new Comparator<Long>() {
+      @Override
+      public int compare(Long o1, Long o2) {
+        return Double.compare(expected.get(o1), expected.get(o2));
+      }
+    });
+    Assert.assertEquals(sorted, Lists.newArrayList(mHeap.iterator()));
+    for (Map.Entry<Long, Double> entry : expected.entrySet()) {
+      Assert.assertEquals(entry.getValue(), mHeap.getPriority(entry.getKey()), 0.0);
+    }
+  }
+}
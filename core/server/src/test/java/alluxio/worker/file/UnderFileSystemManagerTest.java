@@ -21,6 +21,7 @@ import alluxio.security.authorization.Mode;
 import alluxio.security.authorization.Permission;
 import alluxio.underfs.UnderFileSystem;
 import alluxio.underfs.options.CreateOptions;
+import alluxio.underfs.options.OpenOptions;
 import alluxio.util.io.PathUtils;
 
 import org.junit.Assert;
@@ -79,7 +80,8 @@ public final class UnderFileSystemManagerTest {
     Mockito.when(mMockUfs.create(Mockito.anyString())).thenReturn(mMockOutputStream);
     Mockito.when(mMockUfs.create(Mockito.anyString(),
         Mockito.any(CreateOptions.class))).thenReturn(mMockOutputStream);
-    Mockito.when(mMockUfs.open(Mockito.anyString())).thenReturn(mMockInputStream);
+    Mockito.when(mMockUfs.open(Mockito.anyString(),
+        Mockito.any(OpenOptions.class))).thenReturn(mMockInputStream);
     Mockito.when(mMockUfs.rename(Mockito.anyString(), Mockito.anyString())).thenReturn(true);
     Mockito.when(mMockUfs.getFileSize(Mockito.anyString())).thenReturn(FILE_LENGTH);
     PowerMockito.mockStatic(UnderFileSystem.class);
@@ -288,7 +290,8 @@ public final class UnderFileSystemManagerTest {
   }
 
   /**
-   * Tests getting an input stream to a valid file at a position returns the correct input stream.
+   * Tests getting an input stream to a valid file at a position opens the file at the position
+   * instead of skipping to it.
    */
   @Test
   public void getInputStreamAtPositionTest() throws Exception {
@@ -297,7 +300,8 @@ public final class UnderFileSystemManagerTest {
     long id = mManager.openFile(SESSION_ID, mUri);
     InputStream in = mManager.getInputStreamAtPosition(id, position);
     Assert.assertEquals(mMockInputStream, getInternalInputStream(in));
-    Mockito.verify(mMockInputStream).skip(position);
+    Mockito.verify(mMockUfs).open(mUri.toString(), new OpenOptions().setOffset(position));
+    Mockito.verify(mMockInputStream, Mockito.never()).skip(position);
     in.close();
   }
 
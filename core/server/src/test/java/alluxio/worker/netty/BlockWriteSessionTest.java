@@ -0,0 +1,159 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.netty;
+
+import alluxio.ConfigurationTestUtils;
+import alluxio.network.protocol.RPCBlockWriteRequest;
+import alluxio.util.io.FileUtils;
+import alluxio.worker.block.BlockStoreLocation;
+import alluxio.worker.block.TieredBlockStore;
+import alluxio.worker.block.TieredBlockStoreTestUtils;
+import alluxio.worker.block.io.BlockWriter;
+import alluxio.worker.block.meta.TempBlockMeta;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Tests for the {@link BlockWriteSession} class.
+ */
+public class BlockWriteSessionTest {
+  private static final long SESSION_ID = 1;
+  private static final long BLOCK_ID = 2;
+  private static final long PACKET_SIZE = 100;
+
+  private BlockWriteSession mSession;
+
+  /** Rule to create a new temporary folder during each test. */
+  @Rule
+  public TemporaryFolder mTestFolder = new TemporaryFolder();
+
+  /**
+   * Creates a session for a block which is written from the start.
+   */
+  @Before
+  public void before() {
+    mSession = new BlockWriteSession(createRequest(SESSION_ID, BLOCK_ID, 0),
+        Mockito.mock(BlockWriter.class), 2 * PACKET_SIZE);
+  }
+
+  /**
+   * Resets the configuration changed by the tests writing to a block store.
+   */
+  @After
+  public void after() {
+    ConfigurationTestUtils.resetConfiguration();
+  }
+
+  /**
+   * Tests that only requests following the data written so far continue the session.
+   */
+  @Test
+  public void continuesTest() {
+    Assert.assertTrue(mSession.continues(createRequest(SESSION_ID, BLOCK_ID, 0)));
+    mSession.written(PACKET_SIZE);
+    Assert.assertTrue(mSession.continues(createRequest(SESSION_ID, BLOCK_ID, PACKET_SIZE)));
+    Assert.assertFalse(mSession.continues(createRequest(SESSION_ID, BLOCK_ID, 0)));
+    Assert.assertFalse(mSession.continues(createRequest(SESSION_ID, BLOCK_ID + 1, PACKET_SIZE)));
+    Assert.assertFalse(mSession.continues(createRequest(SESSION_ID + 1, BLOCK_ID, PACKET_SIZE)));
+  }
+
+  /**
+   * Tests that space is only missing once the written data exceeds the reserved space.
+   */
+  @Test
+  public void missingBytesTest() {
+    Assert.assertEquals(0, mSession.getMissingBytes(PACKET_SIZE));
+    mSession.written(PACKET_SIZE);
+    Assert.assertEquals(0, mSession.getMissingBytes(PACKET_SIZE));
+    mSession.written(PACKET_SIZE);
+    Assert.assertEquals(PACKET_SIZE, mSession.getMissingBytes(PACKET_SIZE));
+    mSession.reserved(PACKET_SIZE);
+    Assert.assertEquals(0, mSession.getMissingBytes(PACKET_SIZE));
+  }
+
+  /**
+   * Tests that the space reserved ahead of the data written is given back when the block is
+   * committed.
+   */
+  @Test
+  public void releaseSurplusOnCommitTest() throws Exception {
+    TieredBlockStore blockStore = createBlockStore();
+    BlockWriteSession session = writeBlock(blockStore, 3);
+    Assert.assertEquals(4 * PACKET_SIZE, blockStore.getBlockStoreMeta().getUsedBytes());
+    session.getWriter().close();
+    blockStore.commitBlock(SESSION_ID, BLOCK_ID);
+    Assert.assertEquals(3 * PACKET_SIZE, blockStore.getBlockStoreMeta().getUsedBytes());
+  }
+
+  /**
+   * Tests that all the space reserved for the block is given back when the block is aborted.
+   */
+  @Test
+  public void releaseSpaceOnAbortTest() throws Exception {
+    TieredBlockStore blockStore = createBlockStore();
+    BlockWriteSession session = writeBlock(blockStore, 3);
+    Assert.assertEquals(4 * PACKET_SIZE, blockStore.getBlockStoreMeta().getUsedBytes());
+    session.getWriter().close();
+    blockStore.abortBlock(SESSION_ID, BLOCK_ID);
+    Assert.assertEquals(0, blockStore.getBlockStoreMeta().getUsedBytes());
+  }
+
+  /**
+   * @return a new block store in a temporary folder
+   */
+  private TieredBlockStore createBlockStore() throws Exception {
+    TieredBlockStoreTestUtils.setupDefaultConf(mTestFolder.newFolder().getAbsolutePath());
+    return new TieredBlockStore();
+  }
+
+  /**
+   * Writes packets to a new temporary block of a block store the way the data server does, with
+   * space reserved two packets at a time.
+   *
+   * @param blockStore the block store
+   * @param numPackets the number of packets to write
+   * @return the write session of the block
+   */
+  private BlockWriteSession writeBlock(TieredBlockStore blockStore, int numPackets)
+      throws Exception {
+    long reservationBytes = 2 * PACKET_SIZE;
+    TempBlockMeta tempBlockMeta = blockStore.createBlockMeta(SESSION_ID, BLOCK_ID,
+        BlockStoreLocation.anyDirInTier(TieredBlockStoreTestUtils.TIER_ALIAS[0]),
+        reservationBytes);
+    FileUtils.createBlockPath(tempBlockMeta.getPath());
+    BlockWriteSession session = new BlockWriteSession(createRequest(SESSION_ID, BLOCK_ID, 0),
+        blockStore.getBlockWriter(SESSION_ID, BLOCK_ID), reservationBytes);
+    for (int i = 0; i < numPackets; i++) {
+      long missingBytes = session.getMissingBytes(PACKET_SIZE);
+      if (missingBytes > 0) {
+        long bytes = Math.max(missingBytes, reservationBytes);
+        blockStore.requestSpace(SESSION_ID, BLOCK_ID, bytes);
+        session.reserved(bytes);
+      }
+      session.getWriter().append(ByteBuffer.allocate((int) PACKET_SIZE));
+      session.written(PACKET_SIZE);
+    }
+    return session;
+  }
+
+  private RPCBlockWriteRequest createRequest(long sessionId, long blockId, long offset) {
+    return new RPCBlockWriteRequest(sessionId, blockId, offset, PACKET_SIZE, null);
+  }
+}
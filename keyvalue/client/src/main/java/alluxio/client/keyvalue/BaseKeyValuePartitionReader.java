@@ -12,33 +12,55 @@
 package alluxio.client.keyvalue;
 
 import alluxio.Constants;
+import alluxio.client.ClientContext;
 import alluxio.client.block.AlluxioBlockStore;
+import alluxio.client.block.BlockInStream;
+import alluxio.client.block.BufferedBlockInStream;
 import alluxio.exception.AlluxioException;
 import alluxio.util.io.BufferUtils;
+import alluxio.util.io.ByteIOUtils;
 import alluxio.wire.BlockInfo;
 import alluxio.wire.WorkerNetAddress;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.io.ByteStreams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
 /**
  * Default implementation of {@link KeyValuePartitionReader} to talk to a remote key-value worker to
  * get the value of a given key.
+ * <p>
+ * If the partition has a bloom filter, it is read once from the partition file, and lookups of
+ * keys the filter rules out are answered without querying the worker.
  */
 @NotThreadSafe
 final class BaseKeyValuePartitionReader implements KeyValuePartitionReader {
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
+  /** Maximum number of key-value pairs fetched by each scan of the partition. */
+  static final int SCAN_BATCH_NUM_PAIRS = 1000;
 
   private KeyValueWorkerClient mClient;
   private long mBlockId;
+  private long mBlockLength;
   private boolean mClosed;
+  /** The bloom filter of the partition, or null if it has none or is not loaded yet. */
+  private BloomFilter mBloomFilter;
+  /** Whether the bloom filter has been loaded. */
+  private boolean mBloomFilterLoaded;
 
   // TODO(binfan): take parition id as input
   /**
@@ -51,6 +73,7 @@ final class BaseKeyValuePartitionReader implements KeyValuePartitionReader {
   BaseKeyValuePartitionReader(long blockId) throws AlluxioException, IOException {
     mBlockId = blockId;
     BlockInfo info = AlluxioBlockStore.get().getInfo(mBlockId);
+    mBlockLength = info.getLength();
     WorkerNetAddress workerAddr = info.getLocations().get(0).getWorkerAddress();
     mClient = new KeyValueWorkerClient(workerAddr);
     mClosed = false;
@@ -72,6 +95,32 @@ final class BaseKeyValuePartitionReader implements KeyValuePartitionReader {
     return getInternal(key);
   }
 
+  @Override
+  public List<ByteBuffer> multiGet(List<ByteBuffer> keys) throws IOException, AlluxioException {
+    Preconditions.checkState(!mClosed, "Can not query a reader closed");
+    Preconditions.checkNotNull(keys);
+    // Only queries the worker for the keys which may be in the partition.
+    List<Integer> keyIndexes = new ArrayList<>(keys.size());
+    List<ByteBuffer> candidateKeys = new ArrayList<>(keys.size());
+    for (int i = 0; i < keys.size(); i++) {
+      if (mightContain(keys.get(i))) {
+        keyIndexes.add(i);
+        candidateKeys.add(keys.get(i));
+      }
+    }
+    List<ByteBuffer> values = new ArrayList<>(Collections.<ByteBuffer>nCopies(keys.size(), null));
+    if (candidateKeys.isEmpty()) {
+      return values;
+    }
+    List<ByteBuffer> candidateValues = mClient.multiGet(mBlockId, candidateKeys);
+    for (int i = 0; i < candidateValues.size(); i++) {
+      if (candidateValues.get(i).remaining() > 0) {
+        values.set(keyIndexes.get(i), candidateValues.get(i));
+      }
+    }
+    return values;
+  }
+
   @Override
   public void close() {
     if (mClosed) {
@@ -91,6 +140,9 @@ final class BaseKeyValuePartitionReader implements KeyValuePartitionReader {
    */
   private ByteBuffer getInternal(ByteBuffer key) throws IOException, AlluxioException {
     Preconditions.checkState(!mClosed, "Can not query a reader closed");
+    if (!mightContain(key)) {
+      return null;
+    }
     ByteBuffer value = mClient.get(mBlockId, key);
     if (value.remaining() == 0) {
       return null;
@@ -98,37 +150,138 @@ final class BaseKeyValuePartitionReader implements KeyValuePartitionReader {
     return value;
   }
 
+  /**
+   * @param key the key to lookup
+   * @return false if the key is not in this partition, true if it may be
+   */
+  private boolean mightContain(ByteBuffer key) {
+    if (!mBloomFilterLoaded) {
+      mBloomFilter = loadBloomFilter();
+      mBloomFilterLoaded = true;
+    }
+    return mBloomFilter == null || mBloomFilter.mightContain(key);
+  }
+
+  /**
+   * Reads the bloom filter of the partition.
+   *
+   * @return the bloom filter, or null if the partition has none or it cannot be read
+   */
+  private BloomFilter loadBloomFilter() {
+    try (BufferedBlockInStream inStream = AlluxioBlockStore.get().getInStream(mBlockId)) {
+      return loadBloomFilter(inStream, mBlockLength);
+    } catch (IOException | IllegalArgumentException e) {
+      // Lookups are still correct without the filter, they are only served by the worker.
+      LOG.debug("Failed to read the bloom filter of block {}", mBlockId, e);
+      return null;
+    }
+  }
+
+  /**
+   * Reads the bloom filter from the end of a partition file, see
+   * {@link BaseKeyValuePartitionWriter}.
+   *
+   * @param inStream the stream to read the partition file from
+   * @param length the length of the partition file
+   * @return the bloom filter, or null if the partition has none
+   * @throws IOException if the partition file cannot be read
+   * @throws IllegalArgumentException if the bloom filter is invalid
+   */
+  static BloomFilter loadBloomFilter(BlockInStream inStream, long length) throws IOException {
+    int footerSize = BaseKeyValuePartitionWriter.BLOOM_FILTER_FOOTER_SIZE_BYTES;
+    byte[] footer = new byte[footerSize];
+    inStream.seek(length - Constants.BYTES_IN_INTEGER);
+    ByteStreams.readFully(inStream, footer, 0, Constants.BYTES_IN_INTEGER);
+    int indexOffset = ByteIOUtils.readInt(footer, 0);
+    if (indexOffset < footerSize) {
+      return null;
+    }
+    inStream.seek(indexOffset - footerSize);
+    ByteStreams.readFully(inStream, footer);
+    int filterLength = ByteIOUtils.readInt(footer, 0);
+    if (ByteIOUtils.readInt(footer, Constants.BYTES_IN_INTEGER)
+        != BaseKeyValuePartitionWriter.BLOOM_FILTER_MAGIC
+        || filterLength <= 0 || filterLength > indexOffset - footerSize) {
+      return null;
+    }
+    byte[] bloomFilter = new byte[filterLength];
+    inStream.seek(indexOffset - footerSize - filterLength);
+    ByteStreams.readFully(inStream, bloomFilter);
+    return BloomFilter.loadFromByteArray(ByteBuffer.wrap(bloomFilter));
+  }
+
+  /**
+   * Iterator over the pairs of the partition, which scans the partition in batches of pairs and
+   * fetches the next batch in the background while the current one is iterated.
+   */
   private class Iterator implements KeyValueIterator {
-    private ByteBuffer mNextKey;
+    /** The keys and values of the current batch of pairs, interleaved. */
+    private List<ByteBuffer> mBatch;
+    /** The index of the next key in the current batch. */
+    private int mBatchIndex = 0;
+    /** The next batch being fetched, or null if the current batch is the last one. */
+    private Future<List<ByteBuffer>> mNextBatch;
 
     /**
-     * Gets the first key-value pair and constructs a new key-value partition iterator.
+     * Gets the first batch of key-value pairs and constructs a new key-value partition iterator.
      *
-     * @throws IOException if a non-Alluxio error happens when getting the first key-value pair
-     * @throws AlluxioException if an Alluxio error happens when getting the first key-value pair
+     * @throws IOException if a non-Alluxio error happens when getting the first key-value pairs
+     * @throws AlluxioException if an Alluxio error happens when getting the first key-value pairs
      */
     public Iterator() throws IOException, AlluxioException {
-      mNextKey = nextKey(null);
+      mBatch = mClient.scan(mBlockId, null, SCAN_BATCH_NUM_PAIRS);
+      prefetchNextBatch();
     }
 
     @Override
     public boolean hasNext() {
-      return mNextKey != null;
+      return mBatchIndex < mBatch.size();
     }
 
     @Override
     public KeyValuePair next() throws IOException, AlluxioException {
-      KeyValuePair ret = new KeyValuePair(mNextKey, get(mNextKey));
-      mNextKey = nextKey(mNextKey);
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      KeyValuePair ret = new KeyValuePair(mBatch.get(mBatchIndex), mBatch.get(mBatchIndex + 1));
+      mBatchIndex += 2;
+      if (mBatchIndex == mBatch.size() && mNextBatch != null) {
+        mBatch = waitForNextBatch();
+        mBatchIndex = 0;
+        prefetchNextBatch();
+      }
       return ret;
     }
 
-    private ByteBuffer nextKey(ByteBuffer key) throws IOException, AlluxioException {
-      List<ByteBuffer> nextKeys = mClient.getNextKeys(mBlockId, key, 1);
-      if (!nextKeys.isEmpty()) {
-        return nextKeys.get(0);
+    /**
+     * Starts fetching the batch following the current one, unless the partition is all scanned.
+     */
+    private void prefetchNextBatch() {
+      if (mBatch.isEmpty()) {
+        mNextBatch = null;
+        return;
+      }
+      final ByteBuffer lastKey = mBatch.get(mBatch.size() - 2);
+      mNextBatch = ClientContext.getFileReadAheadExecutorService().submit(
+          new Callable<List<ByteBuffer>>() {
+            @Override
+            public List<ByteBuffer> call() throws IOException, AlluxioException {
+              return mClient.scan(mBlockId, lastKey, SCAN_BATCH_NUM_PAIRS);
+            }
+          });
+    }
+
+    private List<ByteBuffer> waitForNextBatch() throws IOException, AlluxioException {
+      try {
+        return mNextBatch.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      } catch (ExecutionException e) {
+        Throwables.propagateIfInstanceOf(e.getCause(), IOException.class);
+        Throwables.propagateIfInstanceOf(e.getCause(), AlluxioException.class);
+        throw Throwables.propagate(e.getCause());
       }
-      return null;
     }
   }
 
@@ -14,6 +14,7 @@ package alluxio.client.keyvalue;
 import alluxio.Configuration;
 import alluxio.Constants;
 import alluxio.client.AbstractOutStream;
+import alluxio.client.keyvalue.options.CreateStoreOptions;
 import alluxio.util.io.ByteIOUtils;
 
 import com.google.common.base.Preconditions;
@@ -21,6 +22,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -31,8 +33,10 @@ import javax.annotation.concurrent.NotThreadSafe;
  * A partition file consists of:
  * <ul>
  *   <li>A payload buffer which is an array of (key,value) pairs;</li>
+ *   <li>An optional bloom filter of the keys, followed by its length in bytes and a 4-bytes magic
+ *   number {@link #BLOOM_FILTER_MAGIC};</li>
  *   <li>A index which is a hash table maps each key to the offset in bytes into the payload
- *   buffer;</li>
+ *   buffer, of the {@link IndexType} the writer is created with;</li>
  *   <li>A 4-bytes pointer in the end indicating the offset of the index.</li>
  * </ul>
  *
@@ -40,6 +44,10 @@ import javax.annotation.concurrent.NotThreadSafe;
 @NotThreadSafe
 final class BaseKeyValuePartitionWriter implements KeyValuePartitionWriter {
   private static final Logger LOG = LoggerFactory.getLogger(Constants.LOGGER_TYPE);
+  /** The magic number following the bloom filter, which tells whether a partition has one. */
+  static final int BLOOM_FILTER_MAGIC = 0x626c6f6f;
+  /** The size of the length and magic number following the bloom filter. */
+  static final int BLOOM_FILTER_FOOTER_SIZE_BYTES = 2 * Constants.BYTES_IN_INTEGER;
 
   /** Handle to write to the underlying file. */
   private final AbstractOutStream mFileOutStream;
@@ -55,21 +63,41 @@ final class BaseKeyValuePartitionWriter implements KeyValuePartitionWriter {
   private boolean mCanceled;
   /** Maximum size of this partition in bytes. */
   private long mMaxSizeBytes;
+  /** Number of bits per key of the bloom filter, or 0 if no bloom filter is written. */
+  private final int mBloomFilterBitsPerKey;
+  /** The hashes of the keys added, from which the bloom filter is built. */
+  private long[] mKeyHashes = new long[0];
 
   /**
-   * Constructs a {@link BaseKeyValuePartitionWriter} given an output stream.
+   * Constructs a {@link BaseKeyValuePartitionWriter} given an output stream, with the default
+   * index type of {@link CreateStoreOptions}.
    *
    * @param fileOutStream output stream to store the key-value file
    */
   BaseKeyValuePartitionWriter(AbstractOutStream fileOutStream) {
+    this(fileOutStream, CreateStoreOptions.defaults().getIndexType());
+  }
+
+  /**
+   * Constructs a {@link BaseKeyValuePartitionWriter} given an output stream and the type of its
+   * index.
+   *
+   * @param fileOutStream output stream to store the key-value file
+   * @param indexType the type of the index of the partition
+   */
+  BaseKeyValuePartitionWriter(AbstractOutStream fileOutStream, IndexType indexType) {
     mFileOutStream = Preconditions.checkNotNull(fileOutStream);
     // TODO(binfan): write a header in the file
 
     mPayloadWriter = new BasePayloadWriter(mFileOutStream);
-    mIndex = LinearProbingIndex.createEmptyIndex();
+    mIndex = indexType.createEmptyIndex();
     mClosed = false;
     mCanceled = false;
     mMaxSizeBytes = Configuration.getBytes(Constants.KEY_VALUE_PARTITION_SIZE_BYTES_MAX);
+    mBloomFilterBitsPerKey =
+        Configuration.getInt(Constants.KEY_VALUE_PARTITION_BLOOM_FILTER_BITS_PER_KEY);
+    Preconditions.checkArgument(mBloomFilterBitsPerKey >= 0,
+        Constants.KEY_VALUE_PARTITION_BLOOM_FILTER_BITS_PER_KEY + " must be non-negative");
   }
 
   @Override
@@ -100,6 +128,12 @@ final class BaseKeyValuePartitionWriter implements KeyValuePartitionWriter {
     Preconditions.checkArgument(value.length > 0, "Cannot put an empty value");
     Preconditions.checkState(!mClosed);
     mIndex.put(key, value, mPayloadWriter);
+    if (mBloomFilterBitsPerKey > 0) {
+      if (mKeyCount == mKeyHashes.length) {
+        mKeyHashes = Arrays.copyOf(mKeyHashes, Math.max(16, mKeyHashes.length * 2));
+      }
+      mKeyHashes[mKeyCount] = BloomFilter.hash(key);
+    }
     mKeyCount++;
   }
 
@@ -125,12 +159,34 @@ final class BaseKeyValuePartitionWriter implements KeyValuePartitionWriter {
   public long byteCount() {
     Preconditions.checkState(!mClosed);
     // last pointer to index
-    return mFileOutStream.getBytesWritten() + mIndex.byteCount() + Integer.SIZE / Byte.SIZE;
+    return mFileOutStream.getBytesWritten() + bloomFilterByteCount() + mIndex.byteCount()
+        + Integer.SIZE / Byte.SIZE;
+  }
+
+  /**
+   * @return the number of bytes of the bloom filter section, 0 if there is no bloom filter
+   */
+  private long bloomFilterByteCount() {
+    if (mBloomFilterBitsPerKey == 0 || mKeyCount == 0) {
+      return 0;
+    }
+    return BloomFilter.byteCount(mKeyCount, mBloomFilterBitsPerKey)
+        + BLOOM_FILTER_FOOTER_SIZE_BYTES;
   }
 
   private void build() throws IOException {
     Preconditions.checkState(!mClosed);
     mFileOutStream.flush();
+    if (mBloomFilterBitsPerKey > 0 && mKeyCount > 0) {
+      BloomFilter bloomFilter = BloomFilter.createEmpty(mKeyCount, mBloomFilterBitsPerKey);
+      for (int i = 0; i < mKeyCount; i++) {
+        bloomFilter.putHash(mKeyHashes[i]);
+      }
+      mKeyHashes = null;
+      mFileOutStream.write(bloomFilter.getBytes());
+      ByteIOUtils.writeInt(mFileOutStream, bloomFilter.byteCount());
+      ByteIOUtils.writeInt(mFileOutStream, BLOOM_FILTER_MAGIC);
+    }
     int indexOffset = mFileOutStream.getBytesWritten();
     mFileOutStream.write(mIndex.getBytes());
     ByteIOUtils.writeInt(mFileOutStream, indexOffset);
@@ -12,9 +12,12 @@
 package alluxio.client.keyvalue;
 
 import alluxio.AlluxioURI;
+import alluxio.Configuration;
 import alluxio.Constants;
 import alluxio.client.ClientContext;
 import alluxio.exception.AlluxioException;
+import alluxio.exception.BlockDoesNotExistException;
+import alluxio.exception.ConnectionFailedException;
 import alluxio.thrift.PartitionInfo;
 import alluxio.util.io.BufferUtils;
 
@@ -25,7 +28,11 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -41,6 +48,12 @@ class BaseKeyValueStoreReader implements KeyValueStoreReader {
 
   /** A list of partitions of the store. */
   private final List<PartitionInfo> mPartitions;
+  /**
+   * The readers of the partitions queried recently, keyed by block id in access order, which are
+   * reused across the lookups so that a partition is not opened and its bloom filter not read for
+   * each lookup. The least recently used reader is closed once there are too many of them.
+   */
+  private final Map<Long, KeyValuePartitionReader> mPartitionReaders;
 
   /**
    * Constructs a {@link BaseKeyValueStoreReader} instance.
@@ -55,10 +68,41 @@ class BaseKeyValueStoreReader implements KeyValueStoreReader {
     mMasterClient = new KeyValueMasterClient(mMasterAddress);
     mPartitions = mMasterClient.getPartitionInfo(uri);
     mMasterClient.close();
+    final int maxPartitionReaders =
+        Configuration.getInt(Constants.KEY_VALUE_READER_PARTITION_CACHE_SIZE);
+    Preconditions.checkArgument(maxPartitionReaders > 0,
+        Constants.KEY_VALUE_READER_PARTITION_CACHE_SIZE + " must be positive");
+    mPartitionReaders = new LinkedHashMap<Long, KeyValuePartitionReader>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, KeyValuePartitionReader> eldest) {
+        if (size() <= maxPartitionReaders) {
+          return false;
+        }
+        closePartitionReader(eldest.getValue());
+        return true;
+      }
+    };
   }
 
   @Override
   public void close() {
+    for (KeyValuePartitionReader reader : mPartitionReaders.values()) {
+      closePartitionReader(reader);
+    }
+    mPartitionReaders.clear();
+  }
+
+  /**
+   * Closes a partition reader, only logging failures.
+   *
+   * @param reader the partition reader
+   */
+  private static void closePartitionReader(KeyValuePartitionReader reader) {
+    try {
+      reader.close();
+    } catch (IOException e) {
+      LOG.warn("Failed to close the partition reader", e);
+    }
   }
 
   @Override
@@ -71,8 +115,108 @@ class BaseKeyValueStoreReader implements KeyValueStoreReader {
   }
 
   @Override
-  public ByteBuffer get(ByteBuffer key) throws IOException, AlluxioException {
+  public ByteBuffer get(final ByteBuffer key) throws IOException, AlluxioException {
     Preconditions.checkNotNull(key);
+    PartitionInfo partition = getPartition(key);
+    if (partition == null) {
+      return null;
+    }
+    // The key is either in this partition or not in the kv store
+    return readPartition(partition.getBlockId(), new PartitionRead<ByteBuffer>() {
+      @Override
+      public ByteBuffer read(KeyValuePartitionReader reader) throws IOException, AlluxioException {
+        return reader.get(key);
+      }
+    });
+  }
+
+  @Override
+  public List<ByteBuffer> multiGet(List<ByteBuffer> keys) throws IOException, AlluxioException {
+    Preconditions.checkNotNull(keys);
+    // Groups the indexes of the keys by the partition which may contain them.
+    Map<Long, List<Integer>> keyIndexesByBlock = new LinkedHashMap<>();
+    for (int i = 0; i < keys.size(); i++) {
+      PartitionInfo partition = getPartition(Preconditions.checkNotNull(keys.get(i)));
+      if (partition == null) {
+        continue;
+      }
+      List<Integer> keyIndexes = keyIndexesByBlock.get(partition.getBlockId());
+      if (keyIndexes == null) {
+        keyIndexes = new ArrayList<>();
+        keyIndexesByBlock.put(partition.getBlockId(), keyIndexes);
+      }
+      keyIndexes.add(i);
+    }
+    List<ByteBuffer> values = new ArrayList<>(Collections.<ByteBuffer>nCopies(keys.size(), null));
+    for (Map.Entry<Long, List<Integer>> entry : keyIndexesByBlock.entrySet()) {
+      final List<ByteBuffer> partitionKeys = new ArrayList<>(entry.getValue().size());
+      for (int keyIndex : entry.getValue()) {
+        partitionKeys.add(keys.get(keyIndex));
+      }
+      List<ByteBuffer> partitionValues =
+          readPartition(entry.getKey(), new PartitionRead<List<ByteBuffer>>() {
+            @Override
+            public List<ByteBuffer> read(KeyValuePartitionReader reader)
+                throws IOException, AlluxioException {
+              return reader.multiGet(partitionKeys);
+            }
+          });
+      for (int i = 0; i < partitionValues.size(); i++) {
+        values.set(entry.getValue().get(i), partitionValues.get(i));
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Reads a partition with its cached reader. The reader is bound to the worker which had the
+   * block of the partition when the reader was opened, so if the block is not found there or the
+   * worker cannot be reached, the reader is dropped and the read is retried once with a reader
+   * opened on the current location of the block.
+   *
+   * @param blockId the block id of the partition
+   * @param read the read of the partition
+   * @param <T> the type of the value read
+   * @return the value read
+   * @throws IOException if non-Alluxio error occurs
+   * @throws AlluxioException if Alluxio error occurs
+   */
+  private <T> T readPartition(long blockId, PartitionRead<T> read)
+      throws IOException, AlluxioException {
+    try {
+      return read.read(getPartitionReader(blockId));
+    } catch (BlockDoesNotExistException | ConnectionFailedException | IOException e) {
+      LOG.debug("Failed to read partition {} from its cached reader, opening it again", blockId, e);
+    }
+    KeyValuePartitionReader staleReader = mPartitionReaders.remove(blockId);
+    if (staleReader != null) {
+      closePartitionReader(staleReader);
+    }
+    return read.read(getPartitionReader(blockId));
+  }
+
+  /**
+   * @param blockId the block id of the partition
+   * @return the reader of the partition, opened on the first lookup in the partition since it was
+   *         last used
+   * @throws IOException if non-Alluxio error occurs
+   * @throws AlluxioException if Alluxio error occurs
+   */
+  private KeyValuePartitionReader getPartitionReader(long blockId)
+      throws IOException, AlluxioException {
+    KeyValuePartitionReader reader = mPartitionReaders.get(blockId);
+    if (reader == null) {
+      reader = KeyValuePartitionReader.Factory.create(blockId);
+      mPartitionReaders.put(blockId, reader);
+    }
+    return reader;
+  }
+
+  /**
+   * @param key the key
+   * @return the partition whose key range contains the key, or null if there is none
+   */
+  private PartitionInfo getPartition(ByteBuffer key) {
     int left = 0;
     int right = mPartitions.size();
     while (left < right) {
@@ -84,16 +228,27 @@ class BaseKeyValueStoreReader implements KeyValueStoreReader {
       } else if (key.compareTo(partition.bufferForKeyLimit()) > 0) {
         left = middle + 1;
       } else {
-        // The key is either in this partition or not in the kv store
-        long blockId = partition.getBlockId();
-        try (KeyValuePartitionReader reader = KeyValuePartitionReader.Factory.create(blockId)) {
-          return reader.get(key);
-        }
+        return partition;
       }
     }
     return null;
   }
 
+  /**
+   * A read of a partition.
+   *
+   * @param <T> the type of the value read
+   */
+  private interface PartitionRead<T> {
+    /**
+     * @param reader the reader of the partition
+     * @return the value read
+     * @throws IOException if non-Alluxio error occurs
+     * @throws AlluxioException if Alluxio error occurs
+     */
+    T read(KeyValuePartitionReader reader) throws IOException, AlluxioException;
+  }
+
   @Override
   public KeyValueIterator iterator() throws IOException, AlluxioException {
     return new KeyValueStoreIterator(mPartitions);
@@ -12,28 +12,52 @@
 package alluxio.client.keyvalue;
 
 import alluxio.AlluxioURI;
+import alluxio.Configuration;
 import alluxio.Constants;
 import alluxio.client.ClientContext;
 import alluxio.client.file.FileSystem;
+import alluxio.client.keyvalue.options.CreateStoreOptions;
 import alluxio.exception.AlluxioException;
 import alluxio.exception.ExceptionMessage;
 import alluxio.exception.PreconditionMessage;
 import alluxio.thrift.PartitionInfo;
+import alluxio.util.ThreadFactoryUtils;
 import alluxio.util.io.BufferUtils;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.NotThreadSafe;
 
 /**
  * Default implementation of {@link KeyValueStoreWriter} to create an Alluxio key-value store.
+ * <p>
+ * The input keys are split into partitions of consecutive key ranges. Once a partition is full,
+ * it is completed in the background by one of
+ * {@link Constants#KEY_VALUE_WRITER_PARTITION_COMPLETION_THREADS} threads while the next partition
+ * is written, so that several partitions are in flight at the same time.
+ * <p>
+ * The store can also be written concurrently by the range writers created with
+ * {@link #createRangeWriter()}, each writing its own partitions. The partitions are registered
+ * with the master when the store is closed, in the order of their key ranges, so the store has
+ * the same layout as if it was written by a single writer.
  */
 @NotThreadSafe
 class BaseKeyValueStoreWriter implements KeyValueStoreWriter {
@@ -42,36 +66,50 @@ class BaseKeyValueStoreWriter implements KeyValueStoreWriter {
   private final FileSystem mFileSystem = FileSystem.Factory.get();
   private final KeyValueMasterClient mMasterClient;
   private final AlluxioURI mStoreUri;
-
-  private long mPartitionIndex;
-  private KeyValuePartitionWriter mWriter = null;
-  /** Min key in the current partition. */
-  private ByteBuffer mKeyStart = null;
-  /** Max key in the current partition. */
-  private ByteBuffer mKeyLimit = null;
+  /** The type of the index of the partitions of the store. */
+  private final IndexType mIndexType;
+  /** The threads completing the full partitions, or null to complete them synchronously. */
+  private final ExecutorService mPartitionCompletionExecutor;
+  /** Maximum number of partitions of a range being completed in the background. */
+  private final int mMaxPendingPartitions;
+  /** The index of the next partition, shared by all the ranges. */
+  private final AtomicLong mPartitionIndex = new AtomicLong(0);
+  /** The first key range of the store, written by this writer. */
+  private final RangeWriter mFirstRange;
+  /** The key ranges of the store, in the order of their keys. */
+  @GuardedBy("mRanges")
+  private final List<RangeWriter> mRanges = new ArrayList<>();
   /** Whether this writer is closed. */
   private boolean mClosed;
   /** Whether this writer is canceled. */
   private boolean mCanceled;
-  /** Byte array of the last input key. */
-  private byte[] mLastKey = null;
 
   /**
    * Constructs a {@link BaseKeyValueStoreWriter}. This constructor will create a new key-value
    * store at the given {@link AlluxioURI}.
    *
    * @param uri URI of the store
+   * @param options the options to create the store with
    * @throws IOException if a non-Alluxio exception occurs
    * @throws AlluxioException if an unexpected Alluxio exception is thrown
    */
-  BaseKeyValueStoreWriter(AlluxioURI uri) throws IOException, AlluxioException {
+  BaseKeyValueStoreWriter(AlluxioURI uri, CreateStoreOptions options)
+      throws IOException, AlluxioException {
     LOG.info("Create KeyValueStoreWriter for {}", uri);
     mMasterClient = new KeyValueMasterClient(ClientContext.getMasterAddress());
 
     mStoreUri = Preconditions.checkNotNull(uri);
+    mIndexType = options.getIndexType();
     mMasterClient.createStore(mStoreUri);
-    mPartitionIndex = 0;
     mClosed = false;
+    mMaxPendingPartitions =
+        Configuration.getInt(Constants.KEY_VALUE_WRITER_PARTITION_COMPLETION_THREADS);
+    Preconditions.checkArgument(mMaxPendingPartitions >= 0,
+        Constants.KEY_VALUE_WRITER_PARTITION_COMPLETION_THREADS + " must be non-negative");
+    mPartitionCompletionExecutor = mMaxPendingPartitions == 0 ? null
+        : Executors.newFixedThreadPool(mMaxPendingPartitions,
+            ThreadFactoryUtils.build("key-value-partition-completion-%d", true));
+    mFirstRange = createRangeWriter();
   }
 
   @Override
@@ -81,15 +119,21 @@ class BaseKeyValueStoreWriter implements KeyValueStoreWriter {
     }
     try {
       if (mCanceled) {
-        mWriter.cancel();
+        mFirstRange.cancel();
         // TODO(binfan): cancel all other written partitions
       } else {
-        completePartition();
+        mFirstRange.close();
+        for (PartitionInfo info : getPartitions()) {
+          mMasterClient.completePartition(mStoreUri, info);
+        }
         mMasterClient.completeStore(mStoreUri);
       }
     } catch (AlluxioException e) {
       throw new IOException(e);
     } finally {
+      if (mPartitionCompletionExecutor != null) {
+        mPartitionCompletionExecutor.shutdownNow();
+      }
       mMasterClient.close();
     }
     mClosed = true;
@@ -103,88 +147,275 @@ class BaseKeyValueStoreWriter implements KeyValueStoreWriter {
 
   @Override
   public void put(byte[] key, byte[] value) throws IOException, AlluxioException {
-    Preconditions.checkNotNull(key, PreconditionMessage.ERR_PUT_NULL_KEY);
-    Preconditions.checkNotNull(value, PreconditionMessage.ERR_PUT_NULL_KEY);
-    Preconditions.checkArgument(key.length > 0, PreconditionMessage.ERR_PUT_EMPTY_KEY);
-    Preconditions.checkArgument(value.length > 0, PreconditionMessage.ERR_PUT_EMPTY_VALUE);
-
-    // Since the input keys are guaranteed in non-decreasing order by the client, only the last
-    // input key needs to be checked in order to prevent inputting same key.
-    if (mLastKey != null && Arrays.equals(key, mLastKey)) {
-      throw new IOException(ExceptionMessage.KEY_ALREADY_EXISTS.getMessage());
+    mFirstRange.put(key, value);
+  }
+
+  @Override
+  public void put(ByteBuffer key, ByteBuffer value) throws IOException, AlluxioException {
+    mFirstRange.put(key, value);
+  }
+
+  @Override
+  public RangeWriter createRangeWriter() {
+    Preconditions.checkState(!mClosed, PreconditionMessage.ERR_CLOSED_KEY_VALUE_STORE_WRITER);
+    RangeWriter range = new RangeWriter();
+    synchronized (mRanges) {
+      mRanges.add(range);
     }
+    return range;
+  }
 
-    // If this is the first put to the first partition in this store, create a new partition; or
-    // if this is a put to an existing but full partition, create a new partition and switch to
-    // this one.
-    if (mWriter == null || !mWriter.canPut(key, value)) {
-      // Need to save the existing partition before switching to the next partition.
-      if (mWriter != null) {
-        completePartition();
+  /**
+   * Gets the partitions of all the key ranges once they are all closed, checking that the keys of
+   * each partition are greater than the keys of the previous partitions.
+   *
+   * @return the partitions of the store in the order of their keys
+   * @throws IOException if the key ranges overlap
+   */
+  private List<PartitionInfo> getPartitions() throws IOException {
+    List<PartitionInfo> partitions = new ArrayList<>();
+    synchronized (mRanges) {
+      for (RangeWriter range : mRanges) {
+        Preconditions.checkState(range.mClosed,
+            PreconditionMessage.ERR_KEY_VALUE_RANGE_WRITER_NOT_CLOSED);
+        if (range.mCanceled) {
+          continue;
+        }
+        for (PartitionInfo info : range.mCompletedPartitions) {
+          if (!partitions.isEmpty() && info.bufferForKeyStart()
+              .compareTo(partitions.get(partitions.size() - 1).bufferForKeyLimit()) <= 0) {
+            throw new IOException(ExceptionMessage.KEY_RANGES_OVERLAP.getMessage(mStoreUri));
+          }
+          partitions.add(info);
+        }
       }
-      mWriter = KeyValuePartitionWriter.Factory.create(getPartitionName());
-      mKeyStart = null;
-      mKeyLimit = null;
     }
+    return partitions;
+  }
 
-    // If we are still unable to put this key-value pair after switching partition, throw exception.
-    if (!mWriter.canPut(key, value)) {
-      throw new IOException(ExceptionMessage.KEY_VALUE_TOO_LARGE
-          .getMessage(key.length, value.length));
+  /**
+   * Waits for a partition to be completed.
+   *
+   * @param completion the completion of the partition
+   * @return the info of the partition
+   * @throws IOException if non-Alluxio error occurs when completing the partition
+   * @throws AlluxioException if Alluxio error occurs when completing the partition
+   */
+  private static PartitionInfo waitFor(Future<PartitionInfo> completion)
+      throws IOException, AlluxioException {
+    try {
+      return completion.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfInstanceOf(e.getCause(), IOException.class);
+      Throwables.propagateIfInstanceOf(e.getCause(), AlluxioException.class);
+      throw Throwables.propagate(e.getCause());
     }
+  }
+
+  /**
+   * Writer of a key range of the store. The keys of a range must be greater than the keys of the
+   * ranges created before it. Each range is written by a single thread, but different ranges can
+   * be written concurrently.
+   */
+  @NotThreadSafe
+  final class RangeWriter implements KeyValueStoreWriter {
+    /** The completions of the partitions in the background, from the oldest to the newest. */
+    private final Deque<Future<PartitionInfo>> mPendingPartitions = new ArrayDeque<>();
+    /** The partitions completed, in the order of their keys. */
+    private final List<PartitionInfo> mCompletedPartitions = new ArrayList<>();
 
-    mWriter.put(key, value);
+    private KeyValuePartitionWriter mWriter = null;
+    /** URI of the current partition. */
+    private AlluxioURI mPartitionUri = null;
+    /** Min key in the current partition. */
+    private ByteBuffer mKeyStart = null;
+    /** Max key in the current partition. */
+    private ByteBuffer mKeyLimit = null;
+    /** Byte array of the last input key. */
+    private byte[] mLastKey = null;
+    /**
+     * Whether this range is closed. It is only written by the writing thread, and read by the
+     * thread closing the store once all the ranges are closed.
+     */
+    private volatile boolean mClosed;
+    /** Whether this range is canceled, in which case its partitions are not added to the store. */
+    private volatile boolean mCanceled;
 
-    // Update the last input key.
-    mLastKey = key;
+    private RangeWriter() {}
 
-    ByteBuffer keyBuf = ByteBuffer.wrap(key);
-    // Update the min key in the current partition.
-    if (mKeyStart == null || keyBuf.compareTo(mKeyStart) < 0) {
-      mKeyStart = ByteBuffer.allocate(key.length);
-      mKeyStart.put(key);
-      mKeyStart.flip();
+    @Override
+    public void close() throws IOException {
+      if (mClosed) {
+        return;
+      }
+      try {
+        if (mCanceled) {
+          if (mWriter != null) {
+            mWriter.cancel();
+          }
+          try {
+            waitForPendingPartitions(0);
+          } catch (IOException | AlluxioException e) {
+            LOG.warn("Failed to complete a partition of canceled store {}", mStoreUri, e);
+          }
+        } else {
+          completePartition();
+          waitForPendingPartitions(0);
+        }
+      } catch (AlluxioException e) {
+        throw new IOException(e);
+      }
+      mClosed = true;
     }
-    // Update the max key in the current partition.
-    if (mKeyLimit == null || keyBuf.compareTo(mKeyLimit) > 0) {
-      mKeyLimit = ByteBuffer.allocate(key.length);
-      mKeyLimit.put(key);
-      mKeyLimit.flip();
+
+    @Override
+    public void cancel() throws IOException {
+      mCanceled = true;
+      close();
     }
-  }
 
-  @Override
-  public void put(ByteBuffer key, ByteBuffer value) throws IOException, AlluxioException {
-    Preconditions.checkNotNull(key, PreconditionMessage.ERR_PUT_NULL_KEY);
-    Preconditions.checkNotNull(value, PreconditionMessage.ERR_PUT_NULL_VALUE);
-    // TODO(binfan): make efficient implementation
-    byte[] keyArray = BufferUtils.newByteArrayFromByteBuffer(key);
-    byte[] valueArray = BufferUtils.newByteArrayFromByteBuffer(value);
-    put(keyArray, valueArray);
-  }
+    @Override
+    public void put(byte[] key, byte[] value) throws IOException, AlluxioException {
+      Preconditions.checkNotNull(key, PreconditionMessage.ERR_PUT_NULL_KEY);
+      Preconditions.checkNotNull(value, PreconditionMessage.ERR_PUT_NULL_KEY);
+      Preconditions.checkArgument(key.length > 0, PreconditionMessage.ERR_PUT_EMPTY_KEY);
+      Preconditions.checkArgument(value.length > 0, PreconditionMessage.ERR_PUT_EMPTY_VALUE);
 
-  /**
-   * @return {@link AlluxioURI} to the current partition file
-   */
-  private AlluxioURI getPartitionName() {
-    return new AlluxioURI(String.format("%s/part-%05d", mStoreUri, mPartitionIndex));
+      // Since the input keys are guaranteed in non-decreasing order by the client, only the last
+      // input key needs to be checked in order to prevent inputting same key.
+      if (mLastKey != null && Arrays.equals(key, mLastKey)) {
+        throw new IOException(ExceptionMessage.KEY_ALREADY_EXISTS.getMessage());
+      }
+
+      // If this is the first put to the first partition in this range, create a new partition; or
+      // if this is a put to an existing but full partition, create a new partition and switch to
+      // this one.
+      if (mWriter == null || !mWriter.canPut(key, value)) {
+        // Need to save the existing partition before switching to the next partition.
+        if (mWriter != null) {
+          completePartition();
+        }
+        mPartitionUri = new AlluxioURI(
+            String.format("%s/part-%05d", mStoreUri, mPartitionIndex.getAndIncrement()));
+        mWriter = KeyValuePartitionWriter.Factory.create(mPartitionUri, mIndexType);
+        mKeyStart = null;
+        mKeyLimit = null;
+      }
+
+      // If we are still unable to put this key-value pair after switching partition, throw
+      // exception.
+      if (!mWriter.canPut(key, value)) {
+        throw new IOException(ExceptionMessage.KEY_VALUE_TOO_LARGE
+            .getMessage(key.length, value.length));
+      }
+
+      mWriter.put(key, value);
+
+      // Update the last input key.
+      mLastKey = key;
+
+      ByteBuffer keyBuf = ByteBuffer.wrap(key);
+      // Update the min key in the current partition.
+      if (mKeyStart == null || keyBuf.compareTo(mKeyStart) < 0) {
+        mKeyStart = ByteBuffer.allocate(key.length);
+        mKeyStart.put(key);
+        mKeyStart.flip();
+      }
+      // Update the max key in the current partition.
+      if (mKeyLimit == null || keyBuf.compareTo(mKeyLimit) > 0) {
+        mKeyLimit = ByteBuffer.allocate(key.length);
+        mKeyLimit.put(key);
+        mKeyLimit.flip();
+      }
+    }
+
+    @Override
+    public void put(ByteBuffer key, ByteBuffer value) throws IOException, AlluxioException {
+      Preconditions.checkNotNull(key, PreconditionMessage.ERR_PUT_NULL_KEY);
+      Preconditions.checkNotNull(value, PreconditionMessage.ERR_PUT_NULL_VALUE);
+      // TODO(binfan): make efficient implementation
+      byte[] keyArray = BufferUtils.newByteArrayFromByteBuffer(key);
+      byte[] valueArray = BufferUtils.newByteArrayFromByteBuffer(value);
+      put(keyArray, valueArray);
+    }
+
+    @Override
+    public RangeWriter createRangeWriter() {
+      return BaseKeyValueStoreWriter.this.createRangeWriter();
+    }
+
+    /**
+     * Completes the current partition, in the background if there are threads to complete the
+     * partitions. This waits for the oldest partition of this range being completed when there
+     * are already too many of them.
+     *
+     * @throws IOException if non-Alluxio error occurs
+     * @throws AlluxioException if Alluxio error occurs
+     */
+    private void completePartition() throws IOException, AlluxioException {
+      if (mWriter == null) {
+        return;
+      }
+      PartitionCompleter completer =
+          new PartitionCompleter(mWriter, mPartitionUri, mKeyStart, mKeyLimit);
+      mWriter = null;
+      if (mPartitionCompletionExecutor == null) {
+        mCompletedPartitions.add(completer.call());
+        return;
+      }
+      waitForPendingPartitions(mMaxPendingPartitions - 1);
+      mPendingPartitions.addLast(mPartitionCompletionExecutor.submit(completer));
+    }
+
+    /**
+     * Waits for the oldest partitions of this range being completed, until at most the given
+     * number of partitions are still being completed.
+     *
+     * @param maxPendingPartitions the number of partitions which can still be completed after this
+     * @throws IOException if non-Alluxio error occurs when completing a partition
+     * @throws AlluxioException if Alluxio error occurs when completing a partition
+     */
+    private void waitForPendingPartitions(int maxPendingPartitions)
+        throws IOException, AlluxioException {
+      while (mPendingPartitions.size() > maxPendingPartitions) {
+        mCompletedPartitions.add(waitFor(mPendingPartitions.removeFirst()));
+      }
+    }
   }
 
   /**
-   * Completes the current partition.
-   *
-   * @throws IOException if non-Alluxio error occurs
-   * @throws AlluxioException if Alluxio error occurs
+   * Completes a full partition: closes its writer, which writes the index of the partition and
+   * commits its block, and then returns the info to register the partition with the master.
    */
-  private void completePartition() throws IOException, AlluxioException {
-    if (mWriter == null) {
-      return;
+  private final class PartitionCompleter implements Callable<PartitionInfo> {
+    private final KeyValuePartitionWriter mPartitionWriter;
+    private final AlluxioURI mUri;
+    private final ByteBuffer mStart;
+    private final ByteBuffer mLimit;
+
+    /**
+     * @param writer the writer of the partition
+     * @param uri the URI of the partition
+     * @param keyStart the min key in the partition
+     * @param keyLimit the max key in the partition
+     */
+    PartitionCompleter(KeyValuePartitionWriter writer, AlluxioURI uri, ByteBuffer keyStart,
+        ByteBuffer keyLimit) {
+      mPartitionWriter = writer;
+      mUri = uri;
+      mStart = keyStart;
+      mLimit = keyLimit;
+    }
+
+    @Override
+    public PartitionInfo call() throws IOException, AlluxioException {
+      mPartitionWriter.close();
+      List<Long> blockIds = mFileSystem.getStatus(mUri).getBlockIds();
+      long blockId = blockIds.get(0);
+      return new PartitionInfo(mStart, mLimit, blockId, mPartitionWriter.keyCount());
     }
-    mWriter.close();
-    List<Long> blockIds = mFileSystem.getStatus(getPartitionName()).getBlockIds();
-    long blockId = blockIds.get(0);
-    PartitionInfo info = new PartitionInfo(mKeyStart, mKeyLimit, blockId, mWriter.keyCount());
-    mMasterClient.completePartition(mStoreUri, info);
-    mPartitionIndex++;
   }
 }
@@ -14,6 +14,7 @@ package alluxio.client.keyvalue;
 import alluxio.AlluxioURI;
 import alluxio.annotation.PublicApi;
 import alluxio.client.ClientContext;
+import alluxio.client.keyvalue.options.CreateStoreOptions;
 import alluxio.exception.AlluxioException;
 import alluxio.exception.FileDoesNotExistException;
 import alluxio.exception.InvalidPathException;
@@ -49,8 +50,14 @@ public final class BaseKeyValueSystem implements KeyValueSystem {
 
   @Override
   public KeyValueStoreWriter createStore(AlluxioURI uri) throws IOException, AlluxioException {
+    return createStore(uri, CreateStoreOptions.defaults());
+  }
+
+  @Override
+  public KeyValueStoreWriter createStore(AlluxioURI uri, CreateStoreOptions options)
+      throws IOException, AlluxioException {
     Preconditions.checkNotNull(uri, PreconditionMessage.URI_KEY_VALUE_STORE_NULL);
-    return new BaseKeyValueStoreWriter(uri);
+    return new BaseKeyValueStoreWriter(uri, options);
   }
 
   @Override
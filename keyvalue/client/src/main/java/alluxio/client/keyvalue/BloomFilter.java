@@ -0,0 +1,175 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.keyvalue;
+
+import alluxio.Constants;
+import alluxio.util.io.BufferUtils;
+import alluxio.util.io.ByteIOUtils;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A bloom filter of the keys of a key-value partition, which tells that a key is not in the
+ * partition without looking it up.
+ * <p>
+ * The filter is stored as the number of hash functions and the number of bits, followed by the
+ * bits. The bit positions of a key are derived from a single 64-bit hash of the key by double
+ * hashing.
+ */
+@NotThreadSafe
+public final class BloomFilter {
+  private static final int HASHER_SEED = 0x3c6e;
+  private static final HashFunction HASHER = Hashing.murmur3_128(HASHER_SEED);
+  private static final int HEADER_SIZE_BYTES = 2 * Constants.BYTES_IN_INTEGER;
+  /** The maximum number of hash functions, past which more bits per key do not pay off. */
+  private static final int MAX_NUM_HASH_FUNCTIONS = 30;
+
+  private final int mNumHashFunctions;
+  private final int mNumBits;
+  private final byte[] mBits;
+
+  /**
+   * Creates an empty bloom filter.
+   *
+   * @param numKeys the number of keys the filter is sized for
+   * @param bitsPerKey the number of bits per key, the false positive rate is about 1% for 10 bits
+   *        per key
+   * @return the empty bloom filter
+   */
+  public static BloomFilter createEmpty(int numKeys, int bitsPerKey) {
+    Preconditions.checkArgument(numKeys >= 0, "numKeys must be non-negative");
+    Preconditions.checkArgument(bitsPerKey > 0, "bitsPerKey must be positive");
+    long numBits = numBits(numKeys, bitsPerKey);
+    Preconditions.checkArgument(numBits <= Integer.MAX_VALUE - Byte.SIZE, "Too many bits");
+    // The number of hash functions minimizing the false positive rate is ln(2) * bits per key.
+    int numHashFunctions = (int) Math.round(bitsPerKey * Math.log(2));
+    numHashFunctions = Math.min(MAX_NUM_HASH_FUNCTIONS, Math.max(1, numHashFunctions));
+    return new BloomFilter(numHashFunctions, (int) numBits, new byte[(int) numBits / Byte.SIZE]);
+  }
+
+  /**
+   * @param numKeys the number of keys the filter is sized for
+   * @param bitsPerKey the number of bits per key
+   * @return the number of bytes of a filter created by {@link #createEmpty(int, int)}
+   */
+  public static long byteCount(int numKeys, int bitsPerKey) {
+    return HEADER_SIZE_BYTES + numBits(numKeys, bitsPerKey) / Byte.SIZE;
+  }
+
+  /**
+   * Loads a bloom filter from its bytes, see {@link #getBytes()}.
+   *
+   * @param buffer the bytes of the filter
+   * @return the bloom filter
+   */
+  public static BloomFilter loadFromByteArray(ByteBuffer buffer) {
+    Preconditions.checkArgument(buffer.remaining() >= HEADER_SIZE_BYTES,
+        "The bloom filter is truncated");
+    int numHashFunctions = ByteIOUtils.readInt(buffer, buffer.position());
+    int numBits = ByteIOUtils.readInt(buffer, buffer.position() + Constants.BYTES_IN_INTEGER);
+    Preconditions.checkArgument(numHashFunctions > 0 && numBits > 0 && numBits % Byte.SIZE == 0
+        && buffer.remaining() - HEADER_SIZE_BYTES == numBits / Byte.SIZE,
+        "The bloom filter is corrupted");
+    byte[] bits = BufferUtils.newByteArrayFromByteBuffer(
+        BufferUtils.sliceByteBuffer(buffer, buffer.position() + HEADER_SIZE_BYTES));
+    return new BloomFilter(numHashFunctions, numBits, bits);
+  }
+
+  private static long numBits(int numKeys, int bitsPerKey) {
+    // Rounds the number of bits up to whole bytes, with at least one byte.
+    return Math.max(Byte.SIZE, ((long) numKeys * bitsPerKey + Byte.SIZE - 1) / Byte.SIZE
+        * Byte.SIZE);
+  }
+
+  private BloomFilter(int numHashFunctions, int numBits, byte[] bits) {
+    mNumHashFunctions = numHashFunctions;
+    mNumBits = numBits;
+    mBits = bits;
+  }
+
+  /**
+   * Adds a key to the filter.
+   *
+   * @param key the key
+   */
+  public void put(byte[] key) {
+    putHash(hash(key));
+  }
+
+  /**
+   * Adds a key to the filter, given its hash.
+   *
+   * @param hash the hash of the key, see {@link #hash(byte[])}
+   */
+  void putHash(long hash) {
+    int hash1 = (int) hash;
+    int hash2 = (int) (hash >>> 32);
+    for (int i = 1; i <= mNumHashFunctions; i++) {
+      int bit = bitIndex(hash1 + i * hash2);
+      mBits[bit / Byte.SIZE] |= 1 << (bit % Byte.SIZE);
+    }
+  }
+
+  /**
+   * @param key the key
+   * @return false if the key was never added to the filter, true if it may have been added
+   */
+  public boolean mightContain(ByteBuffer key) {
+    long hash = hash(BufferUtils.newByteArrayFromByteBuffer(key));
+    int hash1 = (int) hash;
+    int hash2 = (int) (hash >>> 32);
+    for (int i = 1; i <= mNumHashFunctions; i++) {
+      int bit = bitIndex(hash1 + i * hash2);
+      if ((mBits[bit / Byte.SIZE] & (1 << (bit % Byte.SIZE))) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the number of bytes of the filter, see {@link #getBytes()}
+   */
+  public int byteCount() {
+    return HEADER_SIZE_BYTES + mBits.length;
+  }
+
+  /**
+   * @return the bytes of the filter, which can be loaded by {@link #loadFromByteArray(ByteBuffer)}
+   */
+  public byte[] getBytes() {
+    byte[] bytes = new byte[byteCount()];
+    ByteIOUtils.writeInt(bytes, 0, mNumHashFunctions);
+    ByteIOUtils.writeInt(bytes, Constants.BYTES_IN_INTEGER, mNumBits);
+    System.arraycopy(mBits, 0, bytes, HEADER_SIZE_BYTES, mBits.length);
+    return bytes;
+  }
+
+  /**
+   * @param key the key
+   * @return the hash of the key, from which the bit positions of the key are derived
+   */
+  static long hash(byte[] key) {
+    return HASHER.hashBytes(key).asLong();
+  }
+
+  private int bitIndex(int combinedHash) {
+    // Flips the bits of a negative hash, so that the index is positive.
+    return (combinedHash < 0 ? ~combinedHash : combinedHash) % mNumBits;
+  }
+}
@@ -0,0 +1,397 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.keyvalue;
+
+import alluxio.Constants;
+import alluxio.util.io.BufferUtils;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Index structure made of buckets of {@link #SLOTS_PER_BUCKET} slots, probed linearly bucket by
+ * bucket. Each slot stores a fingerprint (a byte) and an offset (an int) indicating where to find
+ * the key and the value in the payload. The fingerprints of a bucket are stored together, so that
+ * a lookup compares a key with the fingerprints of a whole bucket at once, as a single long.
+ * <p>
+ * A bucket looks like:
+ * ==================================================================
+ * | fingerprint 0 (byte) | ... | fingerprint 7 (byte) |
+ * ==================================================================
+ * | offset 0 (int) | ... | offset 7 (int) |
+ * ==================================================================
+ *
+ * If a fingerprint is zero, it indicates the slot is empty. The slots of a bucket are filled in
+ * order, so a lookup stops at the first bucket which is not full.
+ * <p>
+ * Unlike {@link LinearProbingIndex}, the hash table is only built once all the keys are added,
+ * with enough buckets for the keys at a load factor of {@link #LOAD_FACTOR}. The keys are hashed
+ * without allocating any object.
+ * <p>
+ * The overall byte array of the index looks like:
+ * | {@link #MAGIC} (int) | key count (int) | number of buckets (int) | the above buckets |
+ */
+@NotThreadSafe
+public final class BucketizedIndex implements Index {
+  /**
+   * The first int of the index. It is negative, so it tells this index from a
+   * {@link LinearProbingIndex} whose first int is its key count.
+   */
+  public static final int MAGIC = 0xb0c4e7ed;
+  /** Number of slots per bucket, the fingerprints of a bucket fit in a long. */
+  public static final int SLOTS_PER_BUCKET = Long.SIZE / Byte.SIZE;
+  /** The maximum ratio of the number of keys to the number of slots. */
+  public static final double LOAD_FACTOR = 0.8;
+
+  private static final int HEADER_SIZE_BYTES = 3 * Constants.BYTES_IN_INTEGER;
+  private static final int BUCKET_SIZE_BYTES = SLOTS_PER_BUCKET * (1 + Constants.BYTES_IN_INTEGER);
+  private static final long HASH_SEED = 0x2f0b1d4e5a6c7381L;
+  private static final long HASH_MULTIPLIER = 0xc6a4a7935bd1e995L;
+  private static final int HASH_SHIFT = 47;
+  /** The lowest bit of each byte of a long. */
+  private static final long LOW_BITS = 0x0101010101010101L;
+  /** The highest bit of each byte of a long. */
+  private static final long HIGH_BITS = 0x8080808080808080L;
+
+  /** Number of keys. */
+  private int mKeyCount;
+  /** Hashes of the keys added, or null if the index is loaded from a byte array. */
+  private long[] mKeyHashes;
+  /** Payload offsets of the keys added, or null if the index is loaded from a byte array. */
+  private int[] mKeyOffsets;
+  /** Buffer of the buckets, or null if the hash table is not built since the last key added. */
+  private ByteBuffer mHashTableBuf;
+  /** Bytes of the index, or null if the hash table is not built since the last key added. */
+  private byte[] mBytes;
+  private int mNumBuckets;
+
+  /**
+   * @return an instance of bucketized index, with no key added
+   */
+  public static BucketizedIndex createEmptyIndex() {
+    return new BucketizedIndex();
+  }
+
+  /**
+   * Creates an instance of bucketized index by loading its content from a buffer. The
+   * {@link ByteBuffer#position} must be at the beginning of index.
+   *
+   * @param buffer input buffer storing the index
+   * @return an instance of bucketized index
+   */
+  public static BucketizedIndex loadFromByteArray(ByteBuffer buffer) {
+    int position = buffer.position();
+    Preconditions.checkArgument(buffer.remaining() >= HEADER_SIZE_BYTES
+        && buffer.getInt(position) == MAGIC, "The buffer does not hold a bucketized index");
+    int keyCount = buffer.getInt(position + Constants.BYTES_IN_INTEGER);
+    int numBuckets = buffer.getInt(position + 2 * Constants.BYTES_IN_INTEGER);
+    Preconditions.checkArgument(
+        buffer.remaining() - HEADER_SIZE_BYTES == (long) numBuckets * BUCKET_SIZE_BYTES,
+        "The bucketized index is corrupted");
+    return new BucketizedIndex(keyCount, numBuckets,
+        BufferUtils.sliceByteBuffer(buffer, position + HEADER_SIZE_BYTES));
+  }
+
+  /**
+   * @param buffer a buffer starting with an index
+   * @return whether the index is a bucketized index
+   */
+  public static boolean isBucketizedIndex(ByteBuffer buffer) {
+    return buffer.remaining() >= Constants.BYTES_IN_INTEGER
+        && buffer.getInt(buffer.position()) == MAGIC;
+  }
+
+  private BucketizedIndex() {
+    mKeyHashes = new long[SLOTS_PER_BUCKET];
+    mKeyOffsets = new int[SLOTS_PER_BUCKET];
+  }
+
+  private BucketizedIndex(int keyCount, int numBuckets, ByteBuffer hashTableBuf) {
+    mKeyCount = keyCount;
+    mNumBuckets = numBuckets;
+    mHashTableBuf = hashTableBuf;
+  }
+
+  @Override
+  public int byteCount() {
+    int numBuckets = mKeyHashes == null ? mNumBuckets : numBuckets(mKeyCount);
+    return HEADER_SIZE_BYTES + numBuckets * BUCKET_SIZE_BYTES;
+  }
+
+  @Override
+  public int keyCount() {
+    return mKeyCount;
+  }
+
+  @Override
+  public boolean put(byte[] key, byte[] value, PayloadWriter writer) throws IOException {
+    Preconditions.checkState(mKeyHashes != null, "Cannot put a key into a loaded index");
+    final int offset = writer.insert(key, value);
+    if (mKeyCount == mKeyHashes.length) {
+      mKeyHashes = Arrays.copyOf(mKeyHashes, mKeyCount * 2);
+      mKeyOffsets = Arrays.copyOf(mKeyOffsets, mKeyCount * 2);
+    }
+    mKeyHashes[mKeyCount] = hash(ByteBuffer.wrap(key));
+    mKeyOffsets[mKeyCount] = offset;
+    mKeyCount++;
+    mHashTableBuf = null;
+    mBytes = null;
+    return true;
+  }
+
+  @Override
+  public ByteBuffer get(ByteBuffer key, PayloadReader reader) {
+    int slot = findSlot(key, reader);
+    if (slot == -1) {
+      return null;
+    }
+    return reader.getValue(offsetAt(slot));
+  }
+
+  @Override
+  public byte[] getBytes() {
+    Preconditions.checkState(mKeyHashes != null, "Cannot get the bytes of a loaded index");
+    buildHashTable();
+    return mBytes;
+  }
+
+  @Override
+  public ByteBuffer nextKey(ByteBuffer currentKey, PayloadReader reader) {
+    int slot = 0;
+    if (currentKey != null) {
+      slot = findSlot(currentKey, reader);
+      if (slot == -1) {
+        return null;
+      }
+      slot++;
+    }
+    slot = nextOccupiedSlot(slot);
+    return slot == -1 ? null : reader.getKey(offsetAt(slot));
+  }
+
+  @Override
+  public Iterator<ByteBuffer> keyIterator(final PayloadReader reader) {
+    buildHashTable();
+    return new Iterator<ByteBuffer>() {
+      private int mSlot = nextOccupiedSlot(0);
+
+      @Override
+      public boolean hasNext() {
+        return mSlot != -1;
+      }
+
+      @Override
+      public ByteBuffer next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        ByteBuffer key = reader.getKey(offsetAt(mSlot));
+        mSlot = nextOccupiedSlot(mSlot + 1);
+        return key;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  /**
+   * Hashes a key into a bucket index.
+   *
+   * @param key the key
+   * @return the index of the first bucket probed for the key
+   */
+  public int bucketIndex(ByteBuffer key) {
+    buildHashTable();
+    return bucketIndex(hash(key), mNumBuckets);
+  }
+
+  /**
+   * Hashes a key with MurmurHash64A. The bytes of the key are read in place, so neither the key
+   * is copied nor any object is allocated.
+   *
+   * @param key the key, from its position to its limit
+   * @return the hash of the key
+   */
+  static long hash(ByteBuffer key) {
+    final int start = key.position();
+    final int length = key.remaining();
+    long hash = HASH_SEED ^ (length * HASH_MULTIPLIER);
+    int i = start;
+    for (final int wordsEnd = start + (length & ~7); i < wordsEnd; i += 8) {
+      long word = (key.get(i) & 0xffL) | (key.get(i + 1) & 0xffL) << 8
+          | (key.get(i + 2) & 0xffL) << 16 | (key.get(i + 3) & 0xffL) << 24
+          | (key.get(i + 4) & 0xffL) << 32 | (key.get(i + 5) & 0xffL) << 40
+          | (key.get(i + 6) & 0xffL) << 48 | (key.get(i + 7) & 0xffL) << 56;
+      word *= HASH_MULTIPLIER;
+      word ^= word >>> HASH_SHIFT;
+      word *= HASH_MULTIPLIER;
+      hash ^= word;
+      hash *= HASH_MULTIPLIER;
+    }
+    if (i < start + length) {
+      for (int shift = 0; i < start + length; i++, shift += 8) {
+        hash ^= (key.get(i) & 0xffL) << shift;
+      }
+      hash *= HASH_MULTIPLIER;
+    }
+    hash ^= hash >>> HASH_SHIFT;
+    hash *= HASH_MULTIPLIER;
+    hash ^= hash >>> HASH_SHIFT;
+    return hash;
+  }
+
+  /**
+   * @param keyCount the number of keys
+   * @return the number of buckets of the hash table for the keys
+   */
+  private static int numBuckets(int keyCount) {
+    return Math.max(1, (int) Math.ceil(keyCount / (SLOTS_PER_BUCKET * LOAD_FACTOR)));
+  }
+
+  /**
+   * @param hash the hash of a key
+   * @param numBuckets the number of buckets
+   * @return the index of the first bucket probed for the key, from the high-order bits of the hash
+   */
+  private static int bucketIndex(long hash, int numBuckets) {
+    // Maps the high-order 32 bits of the hash to [0, numBuckets) without a division.
+    return (int) (((hash >>> 32) * numBuckets) >>> 32);
+  }
+
+  /**
+   * @param hash the hash of a key
+   * @return the non-zero fingerprint of the key, from the low-order bits of the hash
+   */
+  private static byte fingerprint(long hash) {
+    byte fingerprint = (byte) hash;
+    return fingerprint == 0 ? 1 : fingerprint;
+  }
+
+  /**
+   * @param word a long
+   * @return a long with the highest bit of each zero byte of the word set, the highest bits of the
+   *         bytes above a zero byte may be set too, and 0 if no byte of the word is zero
+   */
+  private static long zeroBytes(long word) {
+    return (word - LOW_BITS) & ~word & HIGH_BITS;
+  }
+
+  /**
+   * Builds the hash table from the keys added, if it is not built yet.
+   */
+  private void buildHashTable() {
+    if (mHashTableBuf != null) {
+      return;
+    }
+    mNumBuckets = numBuckets(mKeyCount);
+    mBytes = new byte[HEADER_SIZE_BYTES + mNumBuckets * BUCKET_SIZE_BYTES];
+    ByteBuffer buf = ByteBuffer.wrap(mBytes);
+    buf.putInt(MAGIC);
+    buf.putInt(mKeyCount);
+    buf.putInt(mNumBuckets);
+    mHashTableBuf = BufferUtils.sliceByteBuffer(buf, HEADER_SIZE_BYTES);
+    for (int i = 0; i < mKeyCount; i++) {
+      insert(mKeyHashes[i], mKeyOffsets[i]);
+    }
+  }
+
+  /**
+   * Inserts a key into the first empty slot from its bucket. There is always one, as the load
+   * factor is below 1.
+   *
+   * @param hash the hash of the key
+   * @param offset the payload offset of the key
+   */
+  private void insert(long hash, int offset) {
+    int bucket = bucketIndex(hash, mNumBuckets);
+    while (true) {
+      int bucketOffset = bucket * BUCKET_SIZE_BYTES;
+      for (int i = 0; i < SLOTS_PER_BUCKET; i++) {
+        if (mHashTableBuf.get(bucketOffset + i) == 0) {
+          mHashTableBuf.put(bucketOffset + i, fingerprint(hash));
+          mHashTableBuf.putInt(
+              bucketOffset + SLOTS_PER_BUCKET + i * Constants.BYTES_IN_INTEGER, offset);
+          return;
+        }
+      }
+      bucket = bucket + 1 == mNumBuckets ? 0 : bucket + 1;
+    }
+  }
+
+  /**
+   * @param key the key
+   * @param reader the reader to be used to get key from payload
+   * @return the index of the slot of the key in the hash table, -1 if no such key is found
+   */
+  private int findSlot(ByteBuffer key, PayloadReader reader) {
+    buildHashTable();
+    long hash = hash(key);
+    // The fingerprint of the key repeated in each byte.
+    long fingerprints = (fingerprint(hash) & 0xffL) * LOW_BITS;
+    int bucket = bucketIndex(hash, mNumBuckets);
+    for (int probe = 0; probe < mNumBuckets; probe++) {
+      int bucketOffset = bucket * BUCKET_SIZE_BYTES;
+      // The slots are the bytes of the long from the highest-order one, the buffer is big-endian.
+      long bucketFingerprints = mHashTableBuf.getLong(bucketOffset);
+      long matches = zeroBytes(bucketFingerprints ^ fingerprints);
+      while (matches != 0) {
+        int leadingZeros = Long.numberOfLeadingZeros(matches);
+        int slot = bucket * SLOTS_PER_BUCKET + leadingZeros / Byte.SIZE;
+        if (key.equals(reader.getKey(offsetAt(slot)))) {
+          return slot;
+        }
+        matches &= ~(Long.MIN_VALUE >>> leadingZeros);
+      }
+      if (zeroBytes(bucketFingerprints) != 0) {
+        // The bucket is not full, so the key would have been put in it.
+        return -1;
+      }
+      bucket = bucket + 1 == mNumBuckets ? 0 : bucket + 1;
+    }
+    return -1;
+  }
+
+  /**
+   * @param slot the index of a slot in the hash table
+   * @return the payload offset stored in the slot
+   */
+  private int offsetAt(int slot) {
+    int bucketOffset = slot / SLOTS_PER_BUCKET * BUCKET_SIZE_BYTES;
+    return mHashTableBuf.getInt(bucketOffset + SLOTS_PER_BUCKET
+        + slot % SLOTS_PER_BUCKET * Constants.BYTES_IN_INTEGER);
+  }
+
+  /**
+   * @param slot the index of the slot to start from
+   * @return the index of the first non-empty slot from the given slot, or -1 if there is none
+   */
+  private int nextOccupiedSlot(int slot) {
+    buildHashTable();
+    for (int numSlots = mNumBuckets * SLOTS_PER_BUCKET; slot < numSlots; slot++) {
+      if (mHashTableBuf.get(slot / SLOTS_PER_BUCKET * BUCKET_SIZE_BYTES
+          + slot % SLOTS_PER_BUCKET) != 0) {
+        return slot;
+      }
+    }
+    return -1;
+  }
+}
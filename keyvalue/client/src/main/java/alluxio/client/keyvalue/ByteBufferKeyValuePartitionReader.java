@@ -22,7 +22,9 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 import javax.annotation.concurrent.NotThreadSafe;
@@ -59,7 +61,7 @@ public final class ByteBufferKeyValuePartitionReader implements KeyValuePartitio
     int indexOffset = ByteIOUtils.readInt(mBuf, mBufferLength - 4);
     ByteBuffer indexBytes =
         BufferUtils.sliceByteBuffer(mBuf, indexOffset, mBufferLength - 4 - indexOffset);
-    return LinearProbingIndex.loadFromByteArray(indexBytes);
+    return IndexType.loadFromByteArray(indexBytes);
   }
 
   private PayloadReader createPayloadReader() {
@@ -88,6 +90,16 @@ public final class ByteBufferKeyValuePartitionReader implements KeyValuePartitio
     return mIndex.get(key, mPayloadReader);
   }
 
+  @Override
+  public List<ByteBuffer> multiGet(List<ByteBuffer> keys) throws IOException {
+    Preconditions.checkNotNull(keys);
+    List<ByteBuffer> values = new ArrayList<>(keys.size());
+    for (ByteBuffer key : keys) {
+      values.add(get(key));
+    }
+    return values;
+  }
+
   @Override
   public void close() {
     if (mClosed) {
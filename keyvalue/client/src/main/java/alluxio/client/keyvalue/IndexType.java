@@ -0,0 +1,58 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.keyvalue;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Types of the {@link Index} of key-value partitions. The type of the partitions of a store is
+ * chosen by the writer of the store, and readers tell the type of a partition from its bytes.
+ */
+@ThreadSafe
+public enum IndexType {
+  /**
+   * {@link LinearProbingIndex}, with a fixed number of buckets.
+   */
+  LINEAR_PROBING,
+
+  /**
+   * {@link BucketizedIndex}, sized for the keys of the partition.
+   */
+  BUCKETIZED;
+
+  /**
+   * @return an empty index of this type
+   */
+  public Index createEmptyIndex() {
+    switch (this) {
+      case BUCKETIZED:
+        return BucketizedIndex.createEmptyIndex();
+      default:
+        return LinearProbingIndex.createEmptyIndex();
+    }
+  }
+
+  /**
+   * Loads an index of any type from its bytes.
+   *
+   * @param buffer the bytes of the index, from its position
+   * @return the index
+   */
+  public static Index loadFromByteArray(ByteBuffer buffer) {
+    if (BucketizedIndex.isBucketizedIndex(buffer)) {
+      return BucketizedIndex.loadFromByteArray(buffer);
+    }
+    return LinearProbingIndex.loadFromByteArray(buffer);
+  }
+}
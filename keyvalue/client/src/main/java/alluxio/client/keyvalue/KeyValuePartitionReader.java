@@ -92,6 +92,17 @@ public interface KeyValuePartitionReader extends Closeable, KeyValueIterable {
    */
   ByteBuffer get(ByteBuffer key) throws IOException, AlluxioException;
 
+  /**
+   * Gets the values associated with a batch of keys in the key-value partition, with a null value
+   * for each key which is not found.
+   *
+   * @param keys keys to get, cannot be null
+   * @return the values in the order of the keys
+   * @throws IOException if a non-Alluxio exception occurs
+   * @throws AlluxioException if an unexpected Alluxio exception is thrown
+   */
+  List<ByteBuffer> multiGet(List<ByteBuffer> keys) throws IOException, AlluxioException;
+
   /**
    * @return the number of key-value pairs in the partition
    * @throws IOException if a non-Alluxio error occurs
@@ -18,6 +18,7 @@ import alluxio.client.Cancelable;
 import alluxio.client.file.FileOutStream;
 import alluxio.client.file.FileSystem;
 import alluxio.client.file.options.CreateFileOptions;
+import alluxio.client.keyvalue.options.CreateStoreOptions;
 import alluxio.exception.AlluxioException;
 
 import com.google.common.base.Preconditions;
@@ -39,7 +40,8 @@ public interface KeyValuePartitionWriter extends Closeable, Cancelable {
 
     /**
      * Factory method to create a {@link KeyValuePartitionWriter} instance that writes key-value
-     * data to a new partition file in Alluxio.
+     * data to a new partition file in Alluxio, with the default index type of
+     * {@link CreateStoreOptions}.
      *
      * @param uri URI of the key-value partition file to write to
      * @return an instance of a {@link KeyValuePartitionWriter}
@@ -48,12 +50,27 @@ public interface KeyValuePartitionWriter extends Closeable, Cancelable {
      */
     public static KeyValuePartitionWriter create(AlluxioURI uri)
         throws AlluxioException, IOException {
+      return create(uri, CreateStoreOptions.defaults().getIndexType());
+    }
+
+    /**
+     * Factory method to create a {@link KeyValuePartitionWriter} instance that writes key-value
+     * data to a new partition file in Alluxio.
+     *
+     * @param uri URI of the key-value partition file to write to
+     * @param indexType the type of the index of the partition
+     * @return an instance of a {@link KeyValuePartitionWriter}
+     * @throws IOException if a non-Alluxio exception occurs
+     * @throws AlluxioException if an unexpected Alluxio exception is thrown
+     */
+    public static KeyValuePartitionWriter create(AlluxioURI uri, IndexType indexType)
+        throws AlluxioException, IOException {
       Preconditions.checkNotNull(uri);
       FileSystem fs = FileSystem.Factory.get();
       CreateFileOptions options = CreateFileOptions.defaults().setBlockSizeBytes(
           Configuration.getBytes(Constants.KEY_VALUE_PARTITION_SIZE_BYTES_MAX));
       FileOutStream fileOutStream = fs.createFile(uri, options);
-      return new BaseKeyValuePartitionWriter(fileOutStream);
+      return new BaseKeyValuePartitionWriter(fileOutStream, indexType);
     }
   }
 
@@ -11,19 +11,28 @@
 
 package alluxio.client.keyvalue;
 
+import alluxio.client.ClientContext;
 import alluxio.exception.AlluxioException;
 import alluxio.thrift.PartitionInfo;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 
 import java.io.IOException;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
 /**
  * {@link KeyValueIterator} to iterate over key-value pairs in {@link KeyValueSystem}.
+ * <p>
+ * The pairs of each partition are fetched from the worker in batches. While a partition is
+ * iterated, the next partition is opened and its first batch fetched in the background, so that
+ * the iteration does not stall between partitions.
  */
 @NotThreadSafe
 public final class KeyValueStoreIterator implements KeyValueIterator {
@@ -31,8 +40,12 @@ public final class KeyValueStoreIterator implements KeyValueIterator {
   private List<PartitionInfo> mPartitions;
   /** Index of the partition being visited. */
   private int mPartitionIndex = -1;
+  /** Reader of the partition being visited. */
+  private KeyValuePartitionReader mPartitionReader;
   /** Iterator of the partition being visited. */
   private KeyValueIterator mPartitionIterator;
+  /** The next partition being opened, or null if the partition being visited is the last one. */
+  private Future<OpenPartition> mNextPartition;
 
   /**
    * @param partitions the partitions to use
@@ -44,10 +57,8 @@ public final class KeyValueStoreIterator implements KeyValueIterator {
       throws IOException, AlluxioException {
     mPartitions = Preconditions.checkNotNull(partitions);
     if (mPartitions.size() > 0) {
-      mPartitionIndex = 0;
-      long blockId = mPartitions.get(0).getBlockId();
-      KeyValuePartitionReader reader = KeyValuePartitionReader.Factory.create(blockId);
-      mPartitionIterator = reader.iterator();
+      mNextPartition = openPartition(0);
+      nextPartition();
     }
   }
 
@@ -65,15 +76,87 @@ public final class KeyValueStoreIterator implements KeyValueIterator {
     KeyValuePair ret = mPartitionIterator.next();
     if (!mPartitionIterator.hasNext()) {
       // Current partition has all been iterated, move to next partition.
+      nextPartition();
+    }
+    return ret;
+  }
+
+  /**
+   * Moves to the next partition which has key-value pairs, closing the current partition. The
+   * iteration is over if there is none.
+   *
+   * @throws IOException if a non-Alluxio related exception occurs
+   * @throws AlluxioException if the next partition cannot be opened
+   */
+  private void nextPartition() throws IOException, AlluxioException {
+    do {
+      if (mPartitionReader != null) {
+        mPartitionReader.close();
+        mPartitionReader = null;
+      }
+      mPartitionIterator = null;
+      if (mNextPartition == null) {
+        return;
+      }
+      OpenPartition partition = waitFor(mNextPartition);
       mPartitionIndex++;
-      if (mPartitionIndex < mPartitions.size()) {
-        long blockId = mPartitions.get(mPartitionIndex).getBlockId();
+      mPartitionReader = partition.mReader;
+      mPartitionIterator = partition.mIterator;
+      mNextPartition =
+          mPartitionIndex + 1 < mPartitions.size() ? openPartition(mPartitionIndex + 1) : null;
+    } while (!mPartitionIterator.hasNext());
+  }
+
+  /**
+   * Opens a partition in the background.
+   *
+   * @param partitionIndex the index of the partition
+   * @return the partition being opened
+   */
+  private Future<OpenPartition> openPartition(int partitionIndex) {
+    final long blockId = mPartitions.get(partitionIndex).getBlockId();
+    return ClientContext.getFileReadAheadExecutorService().submit(new Callable<OpenPartition>() {
+      @Override
+      public OpenPartition call() throws IOException, AlluxioException {
         KeyValuePartitionReader reader = KeyValuePartitionReader.Factory.create(blockId);
-        mPartitionIterator = reader.iterator();
-      } else {
-        mPartitionIterator = null;
+        try {
+          return new OpenPartition(reader, reader.iterator());
+        } catch (IOException | AlluxioException | RuntimeException e) {
+          reader.close();
+          throw e;
+        }
       }
+    });
+  }
+
+  private static OpenPartition waitFor(Future<OpenPartition> partition)
+      throws IOException, AlluxioException {
+    try {
+      return partition.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfInstanceOf(e.getCause(), IOException.class);
+      Throwables.propagateIfInstanceOf(e.getCause(), AlluxioException.class);
+      throw Throwables.propagate(e.getCause());
+    }
+  }
+
+  /**
+   * A partition opened for iteration.
+   */
+  private static final class OpenPartition {
+    private final KeyValuePartitionReader mReader;
+    private final KeyValueIterator mIterator;
+
+    /**
+     * @param reader the reader of the partition
+     * @param iterator the iterator over the partition
+     */
+    OpenPartition(KeyValuePartitionReader reader, KeyValueIterator iterator) {
+      mReader = reader;
+      mIterator = iterator;
     }
-    return ret;
   }
 }
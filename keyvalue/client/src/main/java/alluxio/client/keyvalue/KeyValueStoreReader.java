@@ -17,6 +17,7 @@ import alluxio.exception.AlluxioException;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.List;
 
 /**
  * Interface for readers which accesses key-value stores in Alluxio.
@@ -45,6 +46,18 @@ public interface KeyValueStoreReader extends Closeable, KeyValueIterable {
    */
   ByteBuffer get(ByteBuffer key) throws IOException, AlluxioException;
 
+  /**
+   * Gets the values associated with a batch of keys, with a null value for each key which is not
+   * found. The keys in the same partition are looked up with a single request to the worker
+   * serving the partition, so this is more efficient than getting the keys one by one.
+   *
+   * @param keys keys to get, cannot be null
+   * @return the values in the order of the keys
+   * @throws IOException if non-Alluxio error occurs
+   * @throws AlluxioException if Alluxio error occurs
+   */
+  List<ByteBuffer> multiGet(List<ByteBuffer> keys) throws IOException, AlluxioException;
+
   /**
    * @return the number of key-value pairs in the store
    * @throws IOException if a non-Alluxio error occurs
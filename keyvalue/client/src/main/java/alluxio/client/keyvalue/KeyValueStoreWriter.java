@@ -44,4 +44,14 @@ public interface KeyValueStoreWriter extends Closeable, Cancelable {
    */
   void put(ByteBuffer key, ByteBuffer value) throws IOException, AlluxioException;
 
+  /**
+   * Creates a writer for the next key range of this store, so that the store can be written
+   * concurrently by several threads. The keys put into a range writer must be greater than the
+   * keys put into this writer and into the range writers created before it. Each range writer is
+   * used by a single thread, and must be closed before this writer is closed; the partitions of a
+   * canceled range writer are not added to the store.
+   *
+   * @return the writer of the next key range
+   */
+  KeyValueStoreWriter createRangeWriter();
 }
@@ -13,6 +13,7 @@ package alluxio.client.keyvalue;
 
 import alluxio.AlluxioURI;
 import alluxio.annotation.PublicApi;
+import alluxio.client.keyvalue.options.CreateStoreOptions;
 import alluxio.exception.AlluxioException;
 import alluxio.exception.FileDoesNotExistException;
 import alluxio.exception.InvalidPathException;
@@ -64,6 +65,18 @@ public interface KeyValueSystem {
    */
   KeyValueStoreWriter createStore(AlluxioURI uri) throws IOException, AlluxioException;
 
+  /**
+   * Gets a writer to create a new key-value store with the given options.
+   *
+   * @param uri {@link AlluxioURI} to the store
+   * @param options method options
+   * @return {@link BaseKeyValueStoreWriter} instance
+   * @throws IOException if non-Alluxio error occurs
+   * @throws AlluxioException if Alluxio error occurs
+   */
+  KeyValueStoreWriter createStore(AlluxioURI uri, CreateStoreOptions options)
+      throws IOException, AlluxioException;
+
   /**
    * Rename a completed key-value store.
    *
@@ -90,6 +90,25 @@ public final class KeyValueWorkerClient extends AbstractClient {
     });
   }
 
+  /**
+   * Gets the values of a batch of keys from a specific key-value block, in one round trip.
+   *
+   * @param blockId The id of the block
+   * @param keys the keys to get the values for
+   * @return the values in the order of the keys, an empty value for a key not found
+   * @throws IOException if an I/O error occurs
+   * @throws AlluxioException if an Alluxio error occurs
+   */
+  public synchronized List<ByteBuffer> multiGet(final long blockId, final List<ByteBuffer> keys)
+      throws IOException, AlluxioException {
+    return retryRPC(new RpcCallableThrowsAlluxioTException<List<ByteBuffer>>() {
+      @Override
+      public List<ByteBuffer> call() throws AlluxioTException, TException {
+        return mClient.multiGet(blockId, keys);
+      }
+    });
+  }
+
   /**
    * Gets a batch of keys next to the current key in the partition.
    * <p>
@@ -113,6 +132,29 @@ public final class KeyValueWorkerClient extends AbstractClient {
     });
   }
 
+  /**
+   * Scans a batch of key-value pairs next to the current key in the partition.
+   * <p>
+   * If current key is null, it means scan from the beginning of the partition.
+   * If there are no more pairs, an empty list is returned.
+   *
+   * @param blockId the id of the partition
+   * @param key the current key, which is the last key of the previous batch
+   * @param numPairs maximum number of key-value pairs to fetch
+   * @return the keys and values of the next pairs interleaved
+   * @throws IOException if an I/O error occurs
+   * @throws AlluxioException if an Alluxio error occurs
+   */
+  public synchronized List<ByteBuffer> scan(final long blockId, final ByteBuffer key,
+      final int numPairs) throws IOException, AlluxioException {
+    return retryRPC(new RpcCallableThrowsAlluxioTException<List<ByteBuffer>>() {
+      @Override
+      public List<ByteBuffer> call() throws AlluxioTException, TException {
+        return mClient.scan(blockId, key, numPairs);
+      }
+    });
+  }
+
   /**
    * @param blockId the id of the partition
    * @return the number of key-value pairs in the partition
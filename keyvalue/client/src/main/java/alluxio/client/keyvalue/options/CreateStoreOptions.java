@@ -0,0 +1,86 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.keyvalue.options;
+
+import alluxio.Configuration;
+import alluxio.Constants;
+import alluxio.annotation.PublicApi;
+import alluxio.client.keyvalue.IndexType;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * The method option for creating a key-value store.
+ */
+@PublicApi
+@NotThreadSafe
+public final class CreateStoreOptions {
+  /** The type of the index of the partitions of the store. */
+  private IndexType mIndexType;
+
+  /**
+   * @return the default options
+   */
+  public static CreateStoreOptions defaults() {
+    return new CreateStoreOptions();
+  }
+
+  private CreateStoreOptions() {
+    mIndexType =
+        Configuration.getEnum(Constants.KEY_VALUE_PARTITION_INDEX_TYPE, IndexType.class);
+  }
+
+  /**
+   * @return the type of the index of the partitions of the store
+   */
+  public IndexType getIndexType() {
+    return mIndexType;
+  }
+
+  /**
+   * Sets the type of the index of the partitions of the store.
+   *
+   * @param indexType the index type
+   * @return the updated options object
+   */
+  public CreateStoreOptions setIndexType(IndexType indexType) {
+    mIndexType = Preconditions.checkNotNull(indexType);
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof CreateStoreOptions)) {
+      return false;
+    }
+    CreateStoreOptions that = (CreateStoreOptions) o;
+    return Objects.equal(mIndexType, that.mIndexType);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(mIndexType);
+  }
+
+  @Override
+  public String toString() {
+    return Objects.toStringHelper(this)
+        .add("indexType", mIndexType)
+        .toString();
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.keyvalue;
+
+import alluxio.Configuration;
+import alluxio.ConfigurationTestUtils;
+import alluxio.Constants;
+import alluxio.client.ByteArrayOutStream;
+import alluxio.client.block.BufferedBlockInStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Unit tests of {@link BaseKeyValuePartitionReader}.
+ */
+public final class BaseKeyValuePartitionReaderTest {
+  private static final byte[] KEY1 = "key1".getBytes();
+  private static final byte[] KEY2 = "key2_foo".getBytes();
+  private static final byte[] VALUE1 = "value1".getBytes();
+  private static final byte[] VALUE2 = "value2_bar".getBytes();
+
+  /**
+   * Resets the configuration changed by the tests.
+   */
+  @After
+  public void after() {
+    ConfigurationTestUtils.resetConfiguration();
+  }
+
+  /**
+   * Tests {@link BaseKeyValuePartitionReader#loadBloomFilter} reads the bloom filter of the keys
+   * written in the partition.
+   */
+  @Test
+  public void loadBloomFilterTest() throws Exception {
+    byte[] partition = writePartition();
+    BloomFilter bloomFilter = BaseKeyValuePartitionReader.loadBloomFilter(
+        new ByteArrayBlockInStream(partition), partition.length);
+    Assert.assertNotNull(bloomFilter);
+    Assert.assertTrue(bloomFilter.mightContain(ByteBuffer.wrap(KEY1)));
+    Assert.assertTrue(bloomFilter.mightContain(ByteBuffer.wrap(KEY2)));
+  }
+
+  /**
+   * Tests {@link BaseKeyValuePartitionReader#loadBloomFilter} finds no bloom filter in a partition
+   * written without one, and that the partition can still be read.
+   */
+  @Test
+  public void loadNoBloomFilterTest() throws Exception {
+    Configuration.set(Constants.KEY_VALUE_PARTITION_BLOOM_FILTER_BITS_PER_KEY, "0");
+    byte[] partition = writePartition();
+    Assert.assertNull(BaseKeyValuePartitionReader.loadBloomFilter(
+        new ByteArrayBlockInStream(partition), partition.length));
+    ByteBufferKeyValuePartitionReader reader =
+        new ByteBufferKeyValuePartitionReader(ByteBuffer.wrap(partition));
+    Assert.assertArrayEquals(VALUE1, reader.get(KEY1));
+    Assert.assertArrayEquals(VALUE2, reader.get(KEY2));
+    reader.close();
+  }
+
+  /**
+   * @return the bytes of a partition with two key-value pairs
+   */
+  private static byte[] writePartition() throws Exception {
+    ByteArrayOutStream outStream = new ByteArrayOutStream();
+    BaseKeyValuePartitionWriter writer = new BaseKeyValuePartitionWriter(outStream);
+    writer.put(KEY1, VALUE1);
+    writer.put(KEY2, VALUE2);
+    writer.close();
+    return outStream.toByteArray();
+  }
+
+  /**
+   * A block stream reading a block from a byte array.
+   */
+  private static final class ByteArrayBlockInStream extends BufferedBlockInStream {
+    private final byte[] mData;
+
+    ByteArrayBlockInStream(byte[] data) {
+      super(0, data.length);
+      mData = data;
+    }
+
+    @Override
+    protected void bufferedRead(int len) throws IOException {
+      mBuffer.clear();
+      mBuffer.put(mData, (int) getPosition(), len);
+      mBuffer.flip();
+    }
+
+    @Override
+    protected int directRead(byte[] b, int off, int len) throws IOException {
+      System.arraycopy(mData, (int) getPosition(), b, off, len);
+      return len;
+    }
+
+    @Override
+    protected void incrementBytesReadMetric(int bytes) {}
+  }
+}
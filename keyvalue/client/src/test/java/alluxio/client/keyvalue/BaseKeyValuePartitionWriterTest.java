@@ -121,6 +121,25 @@ public final class BaseKeyValuePartitionWriterTest {
     reader.close();
   }
 
+  /**
+   * Tests that a partition written with a {@link BucketizedIndex} is read back with its index type
+   * detected from the index.
+   */
+  @Test
+  public void bucketizedIndexTest() throws Exception {
+    mWriter = new BaseKeyValuePartitionWriter(mOutStream, IndexType.BUCKETIZED);
+    mWriter.put(KEY1, VALUE1);
+    mWriter.put(KEY2, VALUE2);
+    mWriter.close();
+    ByteBufferKeyValuePartitionReader reader =
+        new ByteBufferKeyValuePartitionReader(ByteBuffer.wrap(mOutStream.toByteArray()));
+    Assert.assertEquals(2, reader.size());
+    Assert.assertArrayEquals(VALUE1, reader.get(KEY1));
+    Assert.assertArrayEquals(VALUE2, reader.get(KEY2));
+    Assert.assertNull(reader.get("NoSuchKey".getBytes()));
+    reader.close();
+  }
+
   /**
    * Tests {@link BaseKeyValuePartitionWriter#canPut} works.
    */
@@ -0,0 +1,114 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.keyvalue;
+
+import alluxio.AlluxioURI;
+import alluxio.exception.BlockDoesNotExistException;
+import alluxio.exception.ConnectionFailedException;
+import alluxio.thrift.PartitionInfo;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unit tests of {@link BaseKeyValueStoreReader}.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({BaseKeyValueStoreReader.class, KeyValueMasterClient.class,
+    KeyValuePartitionReader.Factory.class})
+public final class BaseKeyValueStoreReaderTest {
+  private static final AlluxioURI STORE_URI = new AlluxioURI("/store");
+  private static final long BLOCK_ID = 1L;
+  private static final ByteBuffer KEY = ByteBuffer.wrap("key".getBytes());
+  private static final ByteBuffer VALUE = ByteBuffer.wrap("value".getBytes());
+
+  private KeyValuePartitionReader mStaleReader;
+  private KeyValuePartitionReader mFreshReader;
+  private BaseKeyValueStoreReader mReader;
+
+  /**
+   * Sets up a store of a single partition, whose first reader is bound to a stale location of the
+   * block of the partition.
+   */
+  @Before
+  public void before() throws Exception {
+    KeyValueMasterClient masterClient = PowerMockito.mock(KeyValueMasterClient.class);
+    PowerMockito.whenNew(KeyValueMasterClient.class).withAnyArguments().thenReturn(masterClient);
+    Mockito.when(masterClient.getPartitionInfo(STORE_URI)).thenReturn(Arrays.asList(
+        new PartitionInfo(ByteBuffer.wrap("a".getBytes()), ByteBuffer.wrap("z".getBytes()),
+            BLOCK_ID, 1)));
+    mStaleReader = Mockito.mock(KeyValuePartitionReader.class);
+    mFreshReader = Mockito.mock(KeyValuePartitionReader.class);
+    Mockito.when(mFreshReader.get(KEY)).thenReturn(VALUE);
+    Mockito.when(mFreshReader.multiGet(Arrays.asList(KEY))).thenReturn(Arrays.asList(VALUE));
+    PowerMockito.mockStatic(KeyValuePartitionReader.Factory.class);
+    Mockito.when(KeyValuePartitionReader.Factory.create(BLOCK_ID))
+        .thenReturn(mStaleReader, mFreshReader);
+    mReader = new BaseKeyValueStoreReader(STORE_URI);
+  }
+
+  /**
+   * Tests that a lookup of a partition whose block is not on the worker of the cached reader
+   * anymore is retried with a new reader, which is then reused.
+   */
+  @Test
+  public void getBlockMovedTest() throws Exception {
+    Mockito.when(mStaleReader.get(KEY)).thenThrow(new BlockDoesNotExistException("moved"));
+    Assert.assertEquals(VALUE, mReader.get(KEY));
+    Mockito.verify(mStaleReader).close();
+
+    Assert.assertEquals(VALUE, mReader.get(KEY));
+    PowerMockito.verifyStatic(Mockito.times(2));
+    KeyValuePartitionReader.Factory.create(BLOCK_ID);
+  }
+
+  /**
+   * Tests that a lookup of several keys in a partition whose worker cannot be reached is retried
+   * with a new reader.
+   */
+  @Test
+  public void multiGetConnectionFailedTest() throws Exception {
+    List<ByteBuffer> keys = Arrays.asList(KEY);
+    Mockito.when(mStaleReader.multiGet(keys)).thenThrow(new ConnectionFailedException("lost"));
+    Assert.assertEquals(Arrays.asList(VALUE), mReader.multiGet(keys));
+    Mockito.verify(mStaleReader).close();
+  }
+
+  /**
+   * Tests that a lookup is only retried once.
+   */
+  @Test
+  public void getRetriedOnceTest() throws Exception {
+    IOException failure = new IOException("failed");
+    Mockito.when(mStaleReader.get(KEY)).thenThrow(failure);
+    Mockito.when(mFreshReader.get(KEY)).thenThrow(failure);
+    try {
+      mReader.get(KEY);
+      Assert.fail("The lookup should fail");
+    } catch (IOException e) {
+      Assert.assertSame(failure, e);
+    }
+    PowerMockito.verifyStatic(Mockito.times(2));
+    KeyValuePartitionReader.Factory.create(BLOCK_ID);
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.keyvalue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Unit tests for {@link BloomFilter}.
+ */
+public final class BloomFilterTest {
+  private static final int NUM_KEYS = 1000;
+  private static final int BITS_PER_KEY = 10;
+
+  /**
+   * Tests that the filter contains all the keys added to it.
+   */
+  @Test
+  public void mightContainAddedKeysTest() {
+    BloomFilter filter = createFilter();
+    for (int i = 0; i < NUM_KEYS; i++) {
+      Assert.assertTrue(filter.mightContain(key("key", i)));
+    }
+  }
+
+  /**
+   * Tests that the filter rules out most of the keys not added to it.
+   */
+  @Test
+  public void falsePositiveRateTest() {
+    BloomFilter filter = createFilter();
+    int falsePositives = 0;
+    for (int i = 0; i < NUM_KEYS; i++) {
+      if (filter.mightContain(key("absent", i))) {
+        falsePositives++;
+      }
+    }
+    // The expected false positive rate is about 1% with 10 bits per key.
+    Assert.assertTrue("Too many false positives: " + falsePositives,
+        falsePositives < NUM_KEYS / 20);
+  }
+
+  /**
+   * Tests that a filter loaded from the bytes of a filter answers the same.
+   */
+  @Test
+  public void loadFromByteArrayTest() {
+    BloomFilter filter = createFilter();
+    byte[] bytes = filter.getBytes();
+    Assert.assertEquals(filter.byteCount(), bytes.length);
+    Assert.assertEquals(BloomFilter.byteCount(NUM_KEYS, BITS_PER_KEY), bytes.length);
+    BloomFilter loaded = BloomFilter.loadFromByteArray(ByteBuffer.wrap(bytes));
+    for (int i = 0; i < NUM_KEYS; i++) {
+      Assert.assertTrue(loaded.mightContain(key("key", i)));
+      Assert.assertEquals(filter.mightContain(key("absent", i)),
+          loaded.mightContain(key("absent", i)));
+    }
+  }
+
+  /**
+   * Tests that loading a truncated filter fails.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void loadTruncatedTest() {
+    byte[] bytes = createFilter().getBytes();
+    BloomFilter.loadFromByteArray(ByteBuffer.wrap(bytes, 0, bytes.length - 1));
+  }
+
+  private static BloomFilter createFilter() {
+    BloomFilter filter = BloomFilter.createEmpty(NUM_KEYS, BITS_PER_KEY);
+    for (int i = 0; i < NUM_KEYS; i++) {
+      filter.put(key("key", i).array());
+    }
+    return filter;
+  }
+
+  private static ByteBuffer key(String prefix, int i) {
+    return ByteBuffer.wrap((prefix + i).getBytes());
+  }
+}
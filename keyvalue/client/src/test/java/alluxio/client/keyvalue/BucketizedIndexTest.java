@@ -0,0 +1,202 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.keyvalue;
+
+import alluxio.client.ByteArrayOutStream;
+import alluxio.util.io.BufferUtils;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Unit tests of {@link BucketizedIndex}.
+ */
+public final class BucketizedIndexTest {
+  private static final byte[] KEY1 = "key1".getBytes();
+  private static final byte[] KEY2 = "key2_foo".getBytes();
+  private ByteArrayOutStream mOutStream;
+  private BasePayloadWriter mPayloadWriter;
+
+  @Before
+  public void before() {
+    mOutStream = new ByteArrayOutStream();
+    mPayloadWriter = new BasePayloadWriter(mOutStream);
+  }
+
+  /**
+   * Tests {@link BucketizedIndex#get} to return correct values for inserted keys, before and after
+   * loading the index from its bytes, with many keys sharing buckets.
+   */
+  @Test
+  public void getInsertedKeysTest() throws Exception {
+    int testKeys = 10000;
+    BucketizedIndex index = BucketizedIndex.createEmptyIndex();
+    for (int i = 0; i < testKeys; i++) {
+      Assert.assertTrue(index.put(key(i), value(i), mPayloadWriter));
+      Assert.assertEquals(i + 1, index.keyCount());
+    }
+    mPayloadWriter.close();
+
+    PayloadReader payloadReader = createPayloadReader();
+    BucketizedIndex loaded = BucketizedIndex.loadFromByteArray(ByteBuffer.wrap(index.getBytes()));
+    Assert.assertEquals(testKeys, loaded.keyCount());
+    for (int i = 0; i < testKeys; i++) {
+      Assert.assertEquals(ByteBuffer.wrap(value(i)),
+          index.get(ByteBuffer.wrap(key(i)), payloadReader));
+      Assert.assertEquals(ByteBuffer.wrap(value(i)),
+          loaded.get(ByteBuffer.wrap(key(i)), payloadReader));
+    }
+    Assert.assertNull(loaded.get(ByteBuffer.wrap("NoSuchKey".getBytes()), payloadReader));
+  }
+
+  /**
+   * Tests {@link BucketizedIndex#get} to return null for non-existent key.
+   */
+  @Test
+  public void getNonExistentKeyTest() throws Exception {
+    BucketizedIndex index = BucketizedIndex.createEmptyIndex();
+    BasePayloadReader payloadReaderNotUsed = new BasePayloadReader(ByteBuffer.allocate(1));
+    Assert.assertNull(index.get(ByteBuffer.wrap("NoSuchKey".getBytes()), payloadReaderNotUsed));
+  }
+
+  /**
+   * Tests that {@link BucketizedIndex#byteCount()} grows with the keys, and is the same after
+   * loading the index from its bytes.
+   */
+  @Test
+  public void byteCountTest() throws Exception {
+    BucketizedIndex index = BucketizedIndex.createEmptyIndex();
+    int emptyCount = index.byteCount();
+    Assert.assertEquals(emptyCount, index.getBytes().length);
+    for (int i = 0; i < 100; i++) {
+      index.put(key(i), value(i), mPayloadWriter);
+    }
+    mPayloadWriter.close();
+    Assert.assertTrue(index.byteCount() > emptyCount);
+    Assert.assertEquals(index.byteCount(), index.getBytes().length);
+    BucketizedIndex loaded = BucketizedIndex.loadFromByteArray(ByteBuffer.wrap(index.getBytes()));
+    Assert.assertEquals(index.byteCount(), loaded.byteCount());
+  }
+
+  /**
+   * Tests that {@link BucketizedIndex#hash(ByteBuffer)} only depends on the bytes of the key.
+   */
+  @Test
+  public void hashTest() {
+    byte[] bytes = "0123456789abcdef_key".getBytes();
+    ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 3);
+    buffer.position(3);
+    buffer.put(bytes);
+    buffer.position(3);
+    Assert.assertEquals(BucketizedIndex.hash(ByteBuffer.wrap(bytes)),
+        BucketizedIndex.hash(buffer));
+    Assert.assertEquals(3, buffer.position());
+    Assert.assertNotEquals(BucketizedIndex.hash(ByteBuffer.wrap(KEY1)),
+        BucketizedIndex.hash(ByteBuffer.wrap(KEY2)));
+  }
+
+  /**
+   * Tests that {@link BucketizedIndex#nextKey} and {@link BucketizedIndex#keyIterator} visit each
+   * key once.
+   */
+  @Test
+  public void nextKeyAndKeyIteratorTest() throws Exception {
+    BucketizedIndex index = BucketizedIndex.createEmptyIndex();
+    Assert.assertNull(index.nextKey(null, createPayloadReader()));
+    Assert.assertFalse(index.keyIterator(createPayloadReader()).hasNext());
+
+    int testKeys = 100;
+    Set<ByteBuffer> expectedKeys = new HashSet<>();
+    for (int i = 0; i < testKeys; i++) {
+      index.put(key(i), value(i), mPayloadWriter);
+      expectedKeys.add(ByteBuffer.wrap(key(i)));
+    }
+    mPayloadWriter.close();
+    PayloadReader payloadReader = createPayloadReader();
+
+    Set<ByteBuffer> nextKeys = new HashSet<>();
+    ByteBuffer key = index.nextKey(null, payloadReader);
+    while (key != null) {
+      Assert.assertTrue(nextKeys.add(copy(key)));
+      key = index.nextKey(key, payloadReader);
+    }
+    Assert.assertEquals(expectedKeys, nextKeys);
+
+    Set<ByteBuffer> iteratedKeys = new HashSet<>();
+    Iterator<ByteBuffer> keyIterator = index.keyIterator(payloadReader);
+    while (keyIterator.hasNext()) {
+      Assert.assertTrue(iteratedKeys.add(copy(keyIterator.next())));
+    }
+    Assert.assertEquals(expectedKeys, iteratedKeys);
+  }
+
+  /**
+   * Tests that a {@link BucketizedIndex} and a {@link LinearProbingIndex} holding the same keys,
+   * loaded back with their type detected from their bytes, find the same keys.
+   */
+  @Test
+  public void sameLookupsAsLinearProbingIndexTest() throws Exception {
+    ByteArrayOutStream linearProbingPayload = new ByteArrayOutStream();
+    BasePayloadWriter linearProbingWriter = new BasePayloadWriter(linearProbingPayload);
+    Index linearProbingIndex = IndexType.LINEAR_PROBING.createEmptyIndex();
+    Index bucketizedIndex = IndexType.BUCKETIZED.createEmptyIndex();
+    // The linear probing index has a fixed number of slots, keys are added until it is full.
+    int numKeys = 0;
+    while (linearProbingIndex.put(key(numKeys), value(numKeys), linearProbingWriter)) {
+      Assert.assertTrue(bucketizedIndex.put(key(numKeys), value(numKeys), mPayloadWriter));
+      numKeys++;
+    }
+    linearProbingWriter.close();
+    mPayloadWriter.close();
+
+    linearProbingIndex =
+        IndexType.loadFromByteArray(ByteBuffer.wrap(linearProbingIndex.getBytes()));
+    bucketizedIndex = IndexType.loadFromByteArray(ByteBuffer.wrap(bucketizedIndex.getBytes()));
+    Assert.assertTrue(linearProbingIndex instanceof LinearProbingIndex);
+    Assert.assertTrue(bucketizedIndex instanceof BucketizedIndex);
+    PayloadReader linearProbingReader =
+        new BasePayloadReader(ByteBuffer.wrap(linearProbingPayload.toByteArray()));
+    PayloadReader bucketizedReader = createPayloadReader();
+    for (int i = 0; i < numKeys; i++) {
+      ByteBuffer expected = ByteBuffer.wrap(value(i));
+      Assert.assertEquals(expected,
+          linearProbingIndex.get(ByteBuffer.wrap(key(i)), linearProbingReader));
+      Assert.assertEquals(expected, bucketizedIndex.get(ByteBuffer.wrap(key(i)), bucketizedReader));
+      // Keys which were never added.
+      ByteBuffer absent = ByteBuffer.wrap(key(i + numKeys));
+      Assert.assertNull(linearProbingIndex.get(absent, linearProbingReader));
+      Assert.assertNull(bucketizedIndex.get(absent, bucketizedReader));
+    }
+  }
+
+  private PayloadReader createPayloadReader() {
+    return new BasePayloadReader(ByteBuffer.wrap(mOutStream.toByteArray()));
+  }
+
+  private static ByteBuffer copy(ByteBuffer buffer) {
+    return ByteBuffer.wrap(BufferUtils.newByteArrayFromByteBuffer(buffer));
+  }
+
+  private static byte[] key(int i) {
+    return String.format("test-key:%d", i).getBytes();
+  }
+
+  private static byte[] value(int i) {
+    return String.format("test-val:%d", i).getBytes();
+  }
+}
@@ -21,6 +21,8 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Unit tests of {@link ByteBufferKeyValuePartitionReader}.
@@ -63,6 +65,20 @@ public final class ByteBufferKeyValuePartitionReaderTest {
     Assert.assertArrayEquals(VALUE2, mReader.get(KEY2));
   }
 
+  /**
+   * Tests {@link ByteBufferKeyValuePartitionReader#multiGet} retrieves the values of the keys in
+   * order, with null for the keys not found.
+   */
+  @Test
+  public void multiGetTest() throws Exception {
+    List<ByteBuffer> values = mReader.multiGet(Arrays.asList(ByteBuffer.wrap(KEY2),
+        ByteBuffer.wrap("NoSuchKey".getBytes()), ByteBuffer.wrap(KEY1)));
+    Assert.assertEquals(3, values.size());
+    Assert.assertEquals(ByteBuffer.wrap(VALUE2), values.get(0));
+    Assert.assertNull(values.get(1));
+    Assert.assertEquals(ByteBuffer.wrap(VALUE1), values.get(2));
+  }
+
   /**
    * Tests {@link ByteBufferKeyValuePartitionReader#close} works.
    */
@@ -0,0 +1,122 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.keyvalue;
+
+import alluxio.client.ByteArrayOutStream;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Measures the lookups of a {@link LinearProbingIndex} and of a {@link BucketizedIndex} holding
+ * the same keys, for keys which are in the index and for keys which are not.
+ *
+ * Both indexes are loaded from their bytes, as a partition reader loads them, and each run looks
+ * up the same random keys in both indexes. A {@link LinearProbingIndex} has a fixed
+ * number of buckets, so the keys are added until it is full, as a partition writer does. Compare
+ * the results across revisions, e.g.
+ *
+ * <pre>
+ * java -cp ... alluxio.client.keyvalue.IndexLookupBenchmark 30000 10000000 5
+ * </pre>
+ */
+public final class IndexLookupBenchmark {
+  private IndexLookupBenchmark() {} // prevent instantiation
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the maximum number of keys (default 30000), the number of lookups per run (default
+   *        10000000) and the number of runs (default 5), the first run warms up the JVM
+   * @throws Exception if the indexes cannot be built
+   */
+  public static void main(String[] args) throws Exception {
+    int maxKeys = args.length > 0 ? Integer.parseInt(args[0]) : 30000;
+    int numLookups = args.length > 1 ? Integer.parseInt(args[1]) : 10000000;
+    int numRuns = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+    ByteArrayOutStream linearProbingPayload = new ByteArrayOutStream();
+    ByteArrayOutStream bucketizedPayload = new ByteArrayOutStream();
+    BasePayloadWriter linearProbingWriter = new BasePayloadWriter(linearProbingPayload);
+    BasePayloadWriter bucketizedWriter = new BasePayloadWriter(bucketizedPayload);
+    Index linearProbingIndex = IndexType.LINEAR_PROBING.createEmptyIndex();
+    Index bucketizedIndex = IndexType.BUCKETIZED.createEmptyIndex();
+    int numKeys = 0;
+    while (numKeys < maxKeys
+        && linearProbingIndex.put(key(numKeys), value(numKeys), linearProbingWriter)) {
+      bucketizedIndex.put(key(numKeys), value(numKeys), bucketizedWriter);
+      numKeys++;
+    }
+    linearProbingWriter.close();
+    bucketizedWriter.close();
+    System.out.printf("Keys: %d, linear probing index %d bytes, bucketized index %d bytes%n",
+        numKeys, linearProbingIndex.byteCount(), bucketizedIndex.byteCount());
+
+    linearProbingIndex =
+        IndexType.loadFromByteArray(ByteBuffer.wrap(linearProbingIndex.getBytes()));
+    bucketizedIndex = IndexType.loadFromByteArray(ByteBuffer.wrap(bucketizedIndex.getBytes()));
+    PayloadReader linearProbingReader =
+        new BasePayloadReader(ByteBuffer.wrap(linearProbingPayload.toByteArray()));
+    PayloadReader bucketizedReader =
+        new BasePayloadReader(ByteBuffer.wrap(bucketizedPayload.toByteArray()));
+
+    // Half of the keys looked up are in the indexes.
+    Random random = new Random(0);
+    ByteBuffer[] keys = new ByteBuffer[Math.min(numLookups, 1 << 20)];
+    for (int i = 0; i < keys.length; i++) {
+      int key = random.nextInt(numKeys);
+      keys[i] = ByteBuffer.wrap(key(random.nextBoolean() ? key : key + numKeys));
+    }
+
+    for (int i = 0; i < numRuns; i++) {
+      long linearProbingNs = lookup(linearProbingIndex, linearProbingReader, keys, numLookups);
+      long bucketizedNs = lookup(bucketizedIndex, bucketizedReader, keys, numLookups);
+      System.out.printf("Run %d: linear probing index %.1f ns/lookup, "
+          + "bucketized index %.1f ns/lookup%n", i, (double) linearProbingNs / numLookups,
+          (double) bucketizedNs / numLookups);
+    }
+  }
+
+  /**
+   * Looks up keys in an index.
+   *
+   * @param index the index
+   * @param reader the reader of the payload of the index
+   * @param keys the keys to look up, in turn
+   * @param numLookups the number of lookups
+   * @return the time the lookups took, in nanoseconds
+   */
+  private static long lookup(Index index, PayloadReader reader, ByteBuffer[] keys,
+      int numLookups) {
+    int found = 0;
+    long startNs = System.nanoTime();
+    for (int i = 0; i < numLookups; i++) {
+      if (index.get(keys[i % keys.length], reader) != null) {
+        found++;
+      }
+    }
+    long elapsedNs = System.nanoTime() - startNs;
+    // Uses the result, so that the lookups are not optimized away.
+    if (found == numLookups + 1) {
+      System.out.println("Unreachable");
+    }
+    return elapsedNs;
+  }
+
+  private static byte[] key(int i) {
+    return String.format("benchmark-key:%010d", i).getBytes();
+  }
+
+  private static byte[] value(int i) {
+    return String.format("benchmark-value:%d", i).getBytes();
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.keyvalue;
+
+import alluxio.client.ByteArrayOutStream;
+import alluxio.util.io.BufferUtils;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Utility methods for the tests reading key-value partitions outside of this package.
+ */
+public final class KeyValuePartitionTestUtils {
+
+  /**
+   * Writes a partition in memory.
+   *
+   * @param pairs the key-value pairs of the partition
+   * @return the bytes of the partition
+   * @throws IOException if the partition cannot be written
+   */
+  public static byte[] createPartition(List<KeyValuePair> pairs) throws IOException {
+    ByteArrayOutStream outStream = new ByteArrayOutStream();
+    BaseKeyValuePartitionWriter writer = new BaseKeyValuePartitionWriter(outStream);
+    for (KeyValuePair pair : pairs) {
+      writer.put(BufferUtils.newByteArrayFromByteBuffer(pair.getKey()),
+          BufferUtils.newByteArrayFromByteBuffer(pair.getValue()));
+    }
+    writer.close();
+    return outStream.toByteArray();
+  }
+
+  private KeyValuePartitionTestUtils() {} // prevent instantiation
+}
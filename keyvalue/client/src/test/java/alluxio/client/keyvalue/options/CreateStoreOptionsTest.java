@@ -0,0 +1,66 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.keyvalue.options;
+
+import alluxio.CommonTestUtils;
+import alluxio.Configuration;
+import alluxio.ConfigurationTestUtils;
+import alluxio.Constants;
+import alluxio.client.keyvalue.IndexType;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link CreateStoreOptions}.
+ */
+public final class CreateStoreOptionsTest {
+  /**
+   * Resets the configuration after a test changed it.
+   */
+  @After
+  public void after() {
+    ConfigurationTestUtils.resetConfiguration();
+  }
+
+  /**
+   * Tests that building a {@link CreateStoreOptions} works.
+   */
+  @Test
+  public void builderTest() {
+    CreateStoreOptions options = CreateStoreOptions.defaults().setIndexType(IndexType.BUCKETIZED);
+    Assert.assertEquals(IndexType.BUCKETIZED, options.getIndexType());
+  }
+
+  /**
+   * Tests that building a {@link CreateStoreOptions} with the defaults works.
+   */
+  @Test
+  public void defaultsTest() {
+    Assert.assertEquals(IndexType.LINEAR_PROBING, CreateStoreOptions.defaults().getIndexType());
+  }
+
+  /**
+   * Tests that the default index type is read from the configuration.
+   */
+  @Test
+  public void defaultIndexTypeFromConfigurationTest() {
+    Configuration.set(Constants.KEY_VALUE_PARTITION_INDEX_TYPE, IndexType.BUCKETIZED.toString());
+    Assert.assertEquals(IndexType.BUCKETIZED, CreateStoreOptions.defaults().getIndexType());
+  }
+
+  @Test
+  public void equalsTest() throws Exception {
+    CommonTestUtils.testEquals(CreateStoreOptions.class);
+  }
+}
@@ -25,4 +25,24 @@ service KeyValueWorkerClientService extends common.AlluxioService {
    */
   i32 getSize(/** the id of the partition */ 1: i64 blockId)
     throws (1: exception.AlluxioTException e, 2: exception.ThriftIOException ioe)
+
+  /**
+   * Looks up a batch of keys in the block with the given block id, in one round trip.
+   * The values are returned in the order of the keys, with an empty value for a key
+   * which is not found.
+   */
+  list<binary> multiGet( /** the id of the block being accessed */ 1: i64 blockId,
+      /** binaries of the keys */ 2: list<binary> keys)
+    throws (1: exception.AlluxioTException e, 2: exception.ThriftIOException ioe)
+
+  /**
+   * Scans a batch of key-value pairs next to the given key in the partition, as the list of
+   * the keys and values interleaved. The last key of a batch is the key to resume the scan
+   * from. If the key is null, the scan starts from the beginning of the partition.
+   * If there are no more pairs, an empty list is returned.
+   */
+  list<binary> scan(/** the id of the partition */ 1: i64 blockId,
+      /** the key to resume the scan from */ 2: binary key,
+      /** maximum number of key-value pairs to get */ 3: i32 numPairs)
+    throws (1: exception.AlluxioTException e, 2: exception.ThriftIOException ioe)
 }
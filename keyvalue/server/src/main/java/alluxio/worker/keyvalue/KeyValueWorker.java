@@ -11,6 +11,7 @@
 
 package alluxio.worker.keyvalue;
 
+import alluxio.Configuration;
 import alluxio.Constants;
 import alluxio.thrift.KeyValueWorkerClientService;
 import alluxio.util.ThreadFactoryUtils;
@@ -34,6 +35,8 @@ import javax.annotation.concurrent.ThreadSafe;
 public final class KeyValueWorker extends AbstractWorker {
   /** BlockWorker handle for access block info. */
   private final BlockWorker mBlockWorker;
+  /** The readers of the partitions served by this worker. */
+  private final PartitionReaderCache mReaderCache;
   /** Logic for handling key-value RPC requests. */
   private final KeyValueWorkerClientServiceHandler mKeyValueServiceHandler;
 
@@ -47,7 +50,10 @@ public final class KeyValueWorker extends AbstractWorker {
     super(Executors.newFixedThreadPool(1,
         ThreadFactoryUtils.build("keyvalue-worker-heartbeat-%d", true)));
     mBlockWorker = Preconditions.checkNotNull(blockWorker);
-    mKeyValueServiceHandler = new KeyValueWorkerClientServiceHandler(mBlockWorker);
+    mReaderCache = new PartitionReaderCache(mBlockWorker,
+        Configuration.getLong(Constants.KEY_VALUE_WORKER_READER_CACHE_SIZE));
+    mBlockWorker.registerBlockStoreEventListener(mReaderCache);
+    mKeyValueServiceHandler = new KeyValueWorkerClientServiceHandler(mBlockWorker, mReaderCache);
   }
 
   @Override
@@ -68,5 +74,6 @@ public final class KeyValueWorker extends AbstractWorker {
   public void stop() throws IOException {
     // No heartbeat thread to stop
     // Thrift service is multiplexed with other services and will be stopped together with others
+    mReaderCache.invalidateAll();
   }
 }
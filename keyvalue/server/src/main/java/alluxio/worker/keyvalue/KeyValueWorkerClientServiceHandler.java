@@ -11,6 +11,7 @@
 
 package alluxio.worker.keyvalue;
 
+import alluxio.Configuration;
 import alluxio.Constants;
 import alluxio.RpcUtils;
 import alluxio.RpcUtils.RpcCallableThrowsIOException;
@@ -19,14 +20,12 @@ import alluxio.client.keyvalue.ByteBufferKeyValuePartitionReader;
 import alluxio.client.keyvalue.Index;
 import alluxio.client.keyvalue.PayloadReader;
 import alluxio.exception.AlluxioException;
-import alluxio.exception.BlockDoesNotExistException;
 import alluxio.exception.InvalidWorkerStateException;
 import alluxio.thrift.AlluxioTException;
 import alluxio.thrift.KeyValueWorkerClientService;
 import alluxio.thrift.ThriftIOException;
 import alluxio.util.io.BufferUtils;
 import alluxio.worker.block.BlockWorker;
-import alluxio.worker.block.io.BlockReader;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
@@ -42,6 +41,9 @@ import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * RPC service handler on worker side to read a local key-value block.
+ * <p>
+ * The readers of the partitions are kept open in a {@link PartitionReaderCache}, and the block of
+ * a partition is locked for the duration of each request.
  */
 // TODO(binfan): move logic outside and make this a simple wrapper.
 @ThreadSafe
@@ -50,12 +52,23 @@ public final class KeyValueWorkerClientServiceHandler implements KeyValueWorkerC
 
   /** BlockWorker handler for access block info. */
   private final BlockWorker mBlockWorker;
+  /** The readers of the partitions served recently. */
+  private final PartitionReaderCache mReaderCache;
+  /**
+   * The size in bytes past which a scan stops adding pairs to a batch, so that a batch fits in
+   * a thrift frame.
+   */
+  private final long mScanBatchMaxBytes =
+      Configuration.getBytes(Constants.NETWORK_THRIFT_FRAME_SIZE_BYTES_MAX) / 2;
 
   /**
    * @param blockWorker the {@link BlockWorker}
+   * @param readerCache the cache of the partition readers
    */
-  public KeyValueWorkerClientServiceHandler(BlockWorker blockWorker) {
+  public KeyValueWorkerClientServiceHandler(BlockWorker blockWorker,
+      PartitionReaderCache readerCache) {
     mBlockWorker = Preconditions.checkNotNull(blockWorker);
+    mReaderCache = Preconditions.checkNotNull(readerCache);
   }
 
   @Override
@@ -78,109 +91,202 @@ public final class KeyValueWorkerClientServiceHandler implements KeyValueWorkerC
     return RpcUtils.call(new RpcCallableThrowsIOException<ByteBuffer>() {
       @Override
       public ByteBuffer call() throws AlluxioException, IOException {
-        ByteBuffer value = getInternal(blockId, key);
-        if (value == null) {
-          return ByteBuffer.allocate(0);
-        }
-        return copyAsNonDirectBuffer(value);
+        return callWithReader(blockId, new ReaderCallable<ByteBuffer>() {
+          @Override
+          public ByteBuffer call(ByteBufferKeyValuePartitionReader reader) throws IOException {
+            return getValue(reader, key);
+          }
+        }, ByteBuffer.allocate(0));
       }
     });
   }
 
+  /**
+   * Gets the values for a batch of keys in the given block, in one round trip.
+   *
+   * @param blockId block Id
+   * @param keys keys to fetch
+   * @return the values in the order of the keys, empty for the keys not found
+   * @throws AlluxioTException if an exception in Alluxio occurs
+   * @throws ThriftIOException if a non-Alluxio related exception occurs
+   */
+  @Override
+  public List<ByteBuffer> multiGet(final long blockId, final List<ByteBuffer> keys)
+      throws AlluxioTException, ThriftIOException {
+    return RpcUtils.call(new RpcCallableThrowsIOException<List<ByteBuffer>>() {
+      @Override
+      public List<ByteBuffer> call() throws AlluxioException, IOException {
+        return callWithReader(blockId, new ReaderCallable<List<ByteBuffer>>() {
+          @Override
+          public List<ByteBuffer> call(ByteBufferKeyValuePartitionReader reader)
+              throws IOException {
+            List<ByteBuffer> values = Lists.newArrayListWithExpectedSize(keys.size());
+            for (ByteBuffer key : keys) {
+              values.add(getValue(reader, key));
+            }
+            return values;
+          }
+        }, Collections.<ByteBuffer>emptyList());
+      }
+    });
+  }
+
+  /**
+   * @param reader the reader of the partition
+   * @param key the key to look up
+   * @return a copy of the value of the key, or an empty buffer if the key is not found
+   * @throws IOException if the lookup fails
+   */
+  private ByteBuffer getValue(ByteBufferKeyValuePartitionReader reader, ByteBuffer key)
+      throws IOException {
+    ByteBuffer value = reader.get(key);
+    if (value == null) {
+      return ByteBuffer.allocate(0);
+    }
+    return copyAsNonDirectBuffer(value);
+  }
+
   private ByteBuffer copyAsNonDirectBuffer(ByteBuffer directBuffer) {
     // Thrift assumes the ByteBuffer returned has array() method, which is not true if the
-    // ByteBuffer is direct. We make a non-direct copy of the ByteBuffer to return.
-    return BufferUtils.cloneByteBuffer(directBuffer);
+    // ByteBuffer is direct. We make a non-direct copy of the ByteBuffer to return. The copy is
+    // made from a duplicate, as copying a direct buffer consumes it and the caller may still use
+    // it, e.g. as the key to resume a scan from.
+    return BufferUtils.cloneByteBuffer(directBuffer.duplicate());
   }
 
   /**
-   * Internal logic to get value from the given block.
+   * Reads the partition in the given block with its cached reader, holding the lock of the block.
    *
-   * @param blockId Block Id
-   * @param keyBuffer bytes of key
-   * @return key found in the key-value block or null if not found
-   * @throws IOException if read operation failed
-   * @throws BlockDoesNotExistException if the worker is not serving this block
+   * @param blockId the id of the block
+   * @param callable the read of the partition
+   * @param defaultValue the value to return if the worker is in an invalid state
+   * @param <T> the type of the value read
+   * @return the value read
+   * @throws AlluxioException if the worker is not serving this block, or the read fails
+   * @throws IOException if the read fails
    */
-  private ByteBuffer getInternal(long blockId, ByteBuffer keyBuffer)
-      throws BlockDoesNotExistException, IOException {
-    final long sessionId = Sessions.KEYVALUE_SESSION_ID;
-    final long lockId = mBlockWorker.lockBlock(sessionId, blockId);
+  private <T> T callWithReader(long blockId, ReaderCallable<T> callable, T defaultValue)
+      throws AlluxioException, IOException {
+    final long lockId = mBlockWorker.lockBlock(Sessions.KEYVALUE_SESSION_ID, blockId);
     try {
-      return getReader(sessionId, lockId, blockId).get(keyBuffer);
+      PartitionReaderCache.PartitionReader reader = mReaderCache.acquire(blockId, lockId);
+      try {
+        return callable.call(reader.getReader());
+      } finally {
+        reader.release();
+      }
     } catch (InvalidWorkerStateException e) {
       // We shall never reach here
-      LOG.error("Reaching invalid state to get a key", e);
+      LOG.error("Reaching invalid state to read block {}", blockId, e);
     } finally {
       mBlockWorker.unlockBlock(lockId);
     }
-    return null;
+    return defaultValue;
   }
 
-  private ByteBufferKeyValuePartitionReader getReader(long sessionId, long lockId, long blockId)
-      throws InvalidWorkerStateException, BlockDoesNotExistException, IOException {
-    BlockReader blockReader = mBlockWorker.readBlockRemote(sessionId, blockId, lockId);
-    ByteBuffer fileBuffer = blockReader.read(0, blockReader.getLength());
-    ByteBufferKeyValuePartitionReader reader = new ByteBufferKeyValuePartitionReader(fileBuffer);
-    // TODO(binfan): clean fileBuffer which is a direct byte buffer
+  @Override
+  public List<ByteBuffer> getNextKeys(final long blockId, final ByteBuffer key, final int numKeys)
+      throws AlluxioTException, ThriftIOException {
+    return RpcUtils.call(new RpcCallableThrowsIOException<List<ByteBuffer>>() {
+      @Override
+      public List<ByteBuffer> call() throws AlluxioException, IOException {
+        return callWithReader(blockId, new ReaderCallable<List<ByteBuffer>>() {
+          @Override
+          public List<ByteBuffer> call(ByteBufferKeyValuePartitionReader reader) {
+            Index index = reader.getIndex();
+            PayloadReader payloadReader = reader.getPayloadReader();
 
-    blockReader.close();
-    return reader;
+            List<ByteBuffer> ret = Lists.newArrayListWithExpectedSize(numKeys);
+            ByteBuffer currentKey = key;
+            for (int i = 0; i < numKeys; i++) {
+              ByteBuffer nextKey = index.nextKey(currentKey, payloadReader);
+              if (nextKey == null) {
+                break;
+              }
+              ret.add(copyAsNonDirectBuffer(nextKey));
+              currentKey = nextKey;
+            }
+            return ret;
+          }
+        }, Collections.<ByteBuffer>emptyList());
+      }
+    });
   }
 
+  /**
+   * Scans a batch of key-value pairs next to the given key in the given block. A batch stops
+   * short of {@code numPairs} pairs once it is large enough to fill half a thrift frame, but it
+   * has at least one pair unless the scan is done.
+   *
+   * @param blockId block Id
+   * @param key the key to resume the scan from, or null to scan from the beginning
+   * @param numPairs maximum number of key-value pairs to get
+   * @return the keys and values of the pairs interleaved, empty if there are no more pairs
+   * @throws AlluxioTException if an exception in Alluxio occurs
+   * @throws ThriftIOException if a non-Alluxio related exception occurs
+   */
   @Override
-  public List<ByteBuffer> getNextKeys(final long blockId, final ByteBuffer key, final int numKeys)
+  public List<ByteBuffer> scan(final long blockId, final ByteBuffer key, final int numPairs)
       throws AlluxioTException, ThriftIOException {
     return RpcUtils.call(new RpcCallableThrowsIOException<List<ByteBuffer>>() {
       @Override
       public List<ByteBuffer> call() throws AlluxioException, IOException {
-        final long sessionId = Sessions.KEYVALUE_SESSION_ID;
-        final long lockId = mBlockWorker.lockBlock(sessionId, blockId);
-        try {
-          ByteBufferKeyValuePartitionReader reader = getReader(sessionId, lockId, blockId);
-          Index index = reader.getIndex();
-          PayloadReader payloadReader = reader.getPayloadReader();
-
-          List<ByteBuffer> ret = Lists.newArrayListWithExpectedSize(numKeys);
-          ByteBuffer currentKey = key;
-          for (int i = 0; i < numKeys; i++) {
-            ByteBuffer nextKey = index.nextKey(currentKey, payloadReader);
-            if (nextKey == null) {
-              break;
+        return callWithReader(blockId, new ReaderCallable<List<ByteBuffer>>() {
+          @Override
+          public List<ByteBuffer> call(ByteBufferKeyValuePartitionReader reader)
+              throws IOException {
+            Index index = reader.getIndex();
+            PayloadReader payloadReader = reader.getPayloadReader();
+
+            List<ByteBuffer> ret = Lists.newArrayListWithExpectedSize(2 * numPairs);
+            long batchBytes = 0;
+            ByteBuffer currentKey = key;
+            for (int i = 0; i < numPairs && batchBytes < mScanBatchMaxBytes; i++) {
+              ByteBuffer nextKey = index.nextKey(currentKey, payloadReader);
+              if (nextKey == null) {
+                break;
+              }
+              ByteBuffer value = reader.get(nextKey);
+              batchBytes += nextKey.remaining() + value.remaining();
+              ret.add(copyAsNonDirectBuffer(nextKey));
+              ret.add(copyAsNonDirectBuffer(value));
+              currentKey = nextKey;
             }
-            ret.add(copyAsNonDirectBuffer(nextKey));
-            currentKey = nextKey;
+            return ret;
           }
-          return ret;
-        } catch (InvalidWorkerStateException e) {
-          // We shall never reach here
-          LOG.error("Reaching invalid state to get all keys", e);
-        } finally {
-          mBlockWorker.unlockBlock(lockId);
-        }
-        return Collections.emptyList();
+        }, Collections.<ByteBuffer>emptyList());
       }
     });
   }
 
-  // TODO(cc): Try to remove the duplicated try-catch logic in other methods like getNextKeys.
   @Override
   public int getSize(final long blockId) throws AlluxioTException, ThriftIOException {
     return RpcUtils.call(new RpcCallableThrowsIOException<Integer>() {
       @Override
       public Integer call() throws AlluxioException, IOException {
-        final long sessionId = Sessions.KEYVALUE_SESSION_ID;
-        final long lockId = mBlockWorker.lockBlock(sessionId, blockId);
-        try {
-          return getReader(sessionId, lockId, blockId).size();
-        } catch (InvalidWorkerStateException e) {
-          // We shall never reach here
-          LOG.error("Reaching invalid state to get size", e);
-        } finally {
-          mBlockWorker.unlockBlock(lockId);
-        }
-        return 0;
+        return callWithReader(blockId, new ReaderCallable<Integer>() {
+          @Override
+          public Integer call(ByteBufferKeyValuePartitionReader reader)
+              throws AlluxioException, IOException {
+            return reader.size();
+          }
+        }, 0);
       }
     });
   }
+
+  /**
+   * A read of a partition.
+   *
+   * @param <T> the type of the value read
+   */
+  private interface ReaderCallable<T> {
+    /**
+     * @param reader the reader of the partition
+     * @return the value read
+     * @throws AlluxioException if an Alluxio error occurs
+     * @throws IOException if the read fails
+     */
+    T call(ByteBufferKeyValuePartitionReader reader) throws AlluxioException, IOException;
+  }
 }
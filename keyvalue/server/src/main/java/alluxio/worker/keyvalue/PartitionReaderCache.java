@@ -0,0 +1,214 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.keyvalue;
+
+import alluxio.Sessions;
+import alluxio.client.keyvalue.ByteBufferKeyValuePartitionReader;
+import alluxio.exception.BlockDoesNotExistException;
+import alluxio.exception.InvalidWorkerStateException;
+import alluxio.util.io.BufferUtils;
+import alluxio.worker.block.AbstractBlockStoreEventListener;
+import alluxio.worker.block.BlockStoreLocation;
+import alluxio.worker.block.BlockWorker;
+import alluxio.worker.block.io.BlockReader;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A bounded cache of the readers of the key-value partitions stored in this worker, so that a
+ * lookup does not need to map the partition and load its index again.
+ * <p>
+ * The least recently used readers are closed when the cache is full, and the reader of a block is
+ * dropped as soon as the block is removed or moved by the block store. Callers still lock the
+ * block for each request, so a block is never removed while it is being read, but the cache does
+ * not keep the blocks locked, so that it never prevents the blocks from being evicted. A reader
+ * is only unmapped once it is dropped from the cache and released by all the requests using it.
+ */
+@ThreadSafe
+final class PartitionReaderCache extends AbstractBlockStoreEventListener {
+  private final BlockWorker mBlockWorker;
+  private final Cache<Long, PartitionReader> mCache;
+
+  /**
+   * Creates a new instance of {@link PartitionReaderCache}.
+   *
+   * @param blockWorker the block worker storing the partitions
+   * @param maxSize the maximum number of partition readers to keep open
+   */
+  PartitionReaderCache(BlockWorker blockWorker, long maxSize) {
+    Preconditions.checkArgument(maxSize > 0, "maxSize must be positive");
+    mBlockWorker = Preconditions.checkNotNull(blockWorker);
+    mCache = CacheBuilder.newBuilder().maximumSize(maxSize)
+        .removalListener(new RemovalListener<Long, PartitionReader>() {
+          @Override
+          public void onRemoval(RemovalNotification<Long, PartitionReader> notification) {
+            notification.getValue().release();
+          }
+        }).build();
+  }
+
+  /**
+   * Gets the reader of a partition, opening it if it is not cached. The reader must be released
+   * with {@link PartitionReader#release()} once the request is served.
+   *
+   * @param blockId the id of the block of the partition
+   * @param lockId the id of the lock the caller holds on the block
+   * @return the reader of the partition
+   * @throws BlockDoesNotExistException if the worker is not serving this block
+   * @throws InvalidWorkerStateException if the lock is not a lock of the key-value session on the
+   *         block
+   * @throws IOException if the partition cannot be read
+   */
+  PartitionReader acquire(final long blockId, final long lockId)
+      throws BlockDoesNotExistException, InvalidWorkerStateException, IOException {
+    while (true) {
+      PartitionReader reader;
+      try {
+        reader = mCache.get(blockId, new Callable<PartitionReader>() {
+          @Override
+          public PartitionReader call() throws Exception {
+            return open(blockId, lockId);
+          }
+        });
+      } catch (ExecutionException | UncheckedExecutionException e) {
+        Throwables.propagateIfInstanceOf(e.getCause(), BlockDoesNotExistException.class);
+        Throwables.propagateIfInstanceOf(e.getCause(), InvalidWorkerStateException.class);
+        Throwables.propagateIfInstanceOf(e.getCause(), IOException.class);
+        throw Throwables.propagate(e.getCause());
+      }
+      if (reader.retain()) {
+        return reader;
+      }
+      // The reader was dropped from the cache and closed concurrently, open it again.
+    }
+  }
+
+  /**
+   * Closes the readers of all the partitions which are not in use.
+   */
+  void invalidateAll() {
+    mCache.invalidateAll();
+  }
+
+  /**
+   * @return the number of partition readers in the cache
+   */
+  long size() {
+    return mCache.size();
+  }
+
+  private PartitionReader open(long blockId, long lockId)
+      throws BlockDoesNotExistException, InvalidWorkerStateException, IOException {
+    BlockReader blockReader =
+        mBlockWorker.readBlockRemote(Sessions.KEYVALUE_SESSION_ID, blockId, lockId);
+    try {
+      // The mapped buffer stays valid after the block reader is closed.
+      return new PartitionReader(blockReader.read(0, blockReader.getLength()));
+    } finally {
+      blockReader.close();
+    }
+  }
+
+  @Override
+  public void onMoveBlockByClient(long sessionId, long blockId, BlockStoreLocation oldLocation,
+      BlockStoreLocation newLocation) {
+    mCache.invalidate(blockId);
+  }
+
+  @Override
+  public void onMoveBlockByWorker(long sessionId, long blockId, BlockStoreLocation oldLocation,
+      BlockStoreLocation newLocation) {
+    mCache.invalidate(blockId);
+  }
+
+  @Override
+  public void onRemoveBlockByClient(long sessionId, long blockId) {
+    mCache.invalidate(blockId);
+  }
+
+  @Override
+  public void onRemoveBlockByWorker(long sessionId, long blockId) {
+    mCache.invalidate(blockId);
+  }
+
+  /**
+   * The reader of a partition, counting the references to its mapped buffer. The cache holds one
+   * reference, and each request using the reader holds one.
+   * <p>
+   * The lookups only read the mapped buffer at absolute positions, so a reader can serve
+   * concurrent requests.
+   */
+  @ThreadSafe
+  static final class PartitionReader {
+    private final ByteBuffer mBuffer;
+    private final ByteBufferKeyValuePartitionReader mReader;
+    /** The number of references to the buffer, the buffer is unmapped once it drops to 0. */
+    private int mRefCount = 1;
+
+    /**
+     * @param buffer the buffer of the partition
+     */
+    PartitionReader(ByteBuffer buffer) {
+      mBuffer = buffer;
+      mReader = new ByteBufferKeyValuePartitionReader(buffer);
+    }
+
+    /**
+     * @return the reader of the partition
+     */
+    ByteBufferKeyValuePartitionReader getReader() {
+      return mReader;
+    }
+
+    /**
+     * Takes a reference to the reader.
+     *
+     * @return false if the reader is already closed
+     */
+    synchronized boolean retain() {
+      if (mRefCount == 0) {
+        return false;
+      }
+      mRefCount++;
+      return true;
+    }
+
+    /**
+     * Releases a reference to the reader, closing the reader once it is not referenced anymore.
+     */
+    void release() {
+      synchronized (this) {
+        Preconditions.checkState(mRefCount > 0, "The partition reader is already closed");
+        if (--mRefCount > 0) {
+          return;
+        }
+      }
+      mReader.close();
+      if (mBuffer.isDirect()) {
+        BufferUtils.cleanDirectBuffer(mBuffer);
+      }
+    }
+  }
+}
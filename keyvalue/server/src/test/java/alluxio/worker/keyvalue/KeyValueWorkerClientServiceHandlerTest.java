@@ -0,0 +1,167 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.keyvalue;
+
+import alluxio.Configuration;
+import alluxio.ConfigurationTestUtils;
+import alluxio.Constants;
+import alluxio.Sessions;
+import alluxio.client.keyvalue.KeyValuePair;
+import alluxio.client.keyvalue.KeyValuePartitionTestUtils;
+import alluxio.worker.block.BlockWorker;
+import alluxio.worker.block.io.BlockReader;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Unit tests for {@link KeyValueWorkerClientServiceHandler}.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(BlockWorker.class)
+public final class KeyValueWorkerClientServiceHandlerTest {
+  private static final long BLOCK_ID = 1L;
+  private static final long LOCK_ID = 2L;
+  private static final int NUM_PAIRS = 10;
+  private static final int VALUE_SIZE = 100;
+
+  private BlockWorker mBlockWorker;
+  private PartitionReaderCache mReaderCache;
+
+  /**
+   * Sets up a mocked block worker storing a partition of {@link #NUM_PAIRS} pairs in a direct
+   * buffer, like a partition mapped from a file.
+   */
+  @Before
+  public void before() throws Exception {
+    List<KeyValuePair> pairs = new ArrayList<>();
+    for (int i = 0; i < NUM_PAIRS; i++) {
+      byte[] value = new byte[VALUE_SIZE];
+      Arrays.fill(value, (byte) i);
+      pairs.add(new KeyValuePair(String.format("key%d", i).getBytes(), value));
+    }
+    byte[] partition = KeyValuePartitionTestUtils.createPartition(pairs);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(partition.length);
+    buffer.put(partition);
+    buffer.flip();
+
+    BlockReader blockReader = Mockito.mock(BlockReader.class);
+    Mockito.when(blockReader.getLength()).thenReturn((long) partition.length);
+    Mockito.when(blockReader.read(0, partition.length)).thenReturn(buffer);
+    mBlockWorker = PowerMockito.mock(BlockWorker.class);
+    Mockito.when(mBlockWorker.lockBlock(Sessions.KEYVALUE_SESSION_ID, BLOCK_ID))
+        .thenReturn(LOCK_ID);
+    Mockito.when(mBlockWorker.readBlockRemote(Sessions.KEYVALUE_SESSION_ID, BLOCK_ID, LOCK_ID))
+        .thenReturn(blockReader);
+    mReaderCache = new PartitionReaderCache(mBlockWorker, 1);
+  }
+
+  @After
+  public void after() {
+    mReaderCache.invalidateAll();
+    ConfigurationTestUtils.resetConfiguration();
+  }
+
+  /**
+   * Tests that a scan returns as many pairs as requested when they fit in a thrift frame, and
+   * resumes from the last key of the previous batch.
+   */
+  @Test
+  public void scanMultiplePairsTest() throws Exception {
+    KeyValueWorkerClientServiceHandler handler =
+        new KeyValueWorkerClientServiceHandler(mBlockWorker, mReaderCache);
+    List<ByteBuffer> batch = handler.scan(BLOCK_ID, null, NUM_PAIRS / 2);
+    Assert.assertEquals(NUM_PAIRS, batch.size());
+    Set<ByteBuffer> keys = checkPairs(batch, new HashSet<ByteBuffer>());
+
+    batch = handler.scan(BLOCK_ID, batch.get(batch.size() - 2), NUM_PAIRS);
+    Assert.assertEquals(NUM_PAIRS, batch.size());
+    checkPairs(batch, keys);
+    Assert.assertEquals(NUM_PAIRS, keys.size());
+
+    Assert.assertTrue(handler.scan(BLOCK_ID, batch.get(batch.size() - 2), NUM_PAIRS).isEmpty());
+  }
+
+  /**
+   * Tests that a scan stops adding pairs to a batch once the batch fills half a thrift frame.
+   */
+  @Test
+  public void scanBatchByteCapTest() throws Exception {
+    // Half a frame is just below the size of two pairs, so a batch stops after two pairs.
+    Configuration.set(Constants.NETWORK_THRIFT_FRAME_SIZE_BYTES_MAX,
+        Integer.toString(4 * VALUE_SIZE));
+    KeyValueWorkerClientServiceHandler handler =
+        new KeyValueWorkerClientServiceHandler(mBlockWorker, mReaderCache);
+    Set<ByteBuffer> keys = new HashSet<>();
+    ByteBuffer key = null;
+    for (int i = 0; i < NUM_PAIRS / 2; i++) {
+      List<ByteBuffer> batch = handler.scan(BLOCK_ID, key, NUM_PAIRS);
+      Assert.assertEquals(4, batch.size());
+      checkPairs(batch, keys);
+      key = batch.get(batch.size() - 2);
+    }
+    Assert.assertEquals(NUM_PAIRS, keys.size());
+    Assert.assertTrue(handler.scan(BLOCK_ID, key, NUM_PAIRS).isEmpty());
+  }
+
+  /**
+   * Tests that {@link KeyValueWorkerClientServiceHandler#getNextKeys} returns distinct keys when
+   * asked for more than one key.
+   */
+  @Test
+  public void getNextKeysTest() throws Exception {
+    KeyValueWorkerClientServiceHandler handler =
+        new KeyValueWorkerClientServiceHandler(mBlockWorker, mReaderCache);
+    List<ByteBuffer> keys = handler.getNextKeys(BLOCK_ID, null, NUM_PAIRS);
+    Assert.assertEquals(NUM_PAIRS, keys.size());
+    Assert.assertEquals(NUM_PAIRS, new HashSet<>(keys).size());
+    for (ByteBuffer key : keys) {
+      Assert.assertTrue(key.hasArray());
+    }
+  }
+
+  /**
+   * Checks that the pairs of a batch are the pairs written, with keys not seen before.
+   *
+   * @param batch the keys and values of the pairs interleaved
+   * @param keys the keys seen so far, the keys of the batch are added to it
+   * @return the keys seen so far
+   */
+  private Set<ByteBuffer> checkPairs(List<ByteBuffer> batch, Set<ByteBuffer> keys) {
+    for (int i = 0; i < batch.size(); i += 2) {
+      ByteBuffer key = batch.get(i);
+      ByteBuffer value = batch.get(i + 1);
+      Assert.assertTrue(key.hasArray());
+      Assert.assertTrue(value.hasArray());
+      Assert.assertTrue(keys.add(key));
+      int index = Integer.parseInt(new String(key.array()).substring("key".length()));
+      byte[] expectedValue = new byte[VALUE_SIZE];
+      Arrays.fill(expectedValue, (byte) index);
+      Assert.assertEquals(ByteBuffer.wrap(expectedValue), value);
+    }
+    return keys;
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.keyvalue;
+
+import alluxio.Sessions;
+import alluxio.client.keyvalue.KeyValuePair;
+import alluxio.client.keyvalue.KeyValuePartitionTestUtils;
+import alluxio.worker.block.BlockWorker;
+import alluxio.worker.block.io.BlockReader;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Unit tests for {@link PartitionReaderCache}.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(BlockWorker.class)
+public final class PartitionReaderCacheTest {
+  private static final long BLOCK_ID_1 = 1L;
+  private static final long BLOCK_ID_2 = 2L;
+  private static final long LOCK_ID = 3L;
+  private static final byte[] KEY = "key".getBytes();
+  private static final byte[] VALUE = "value".getBytes();
+
+  private BlockWorker mBlockWorker;
+  private PartitionReaderCache mCache;
+
+  /**
+   * Sets up a mocked block worker storing the same partition in two blocks, each read mapping the
+   * partition to a new direct buffer.
+   */
+  @Before
+  public void before() throws Exception {
+    final byte[] partition = KeyValuePartitionTestUtils.createPartition(
+        Arrays.asList(new KeyValuePair(KEY, VALUE)));
+    BlockReader blockReader = Mockito.mock(BlockReader.class);
+    Mockito.when(blockReader.getLength()).thenReturn((long) partition.length);
+    Mockito.when(blockReader.read(0, partition.length)).thenAnswer(new Answer<ByteBuffer>() {
+      @Override
+      public ByteBuffer answer(InvocationOnMock invocation) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(partition.length);
+        buffer.put(partition);
+        buffer.flip();
+        return buffer;
+      }
+    });
+    mBlockWorker = PowerMockito.mock(BlockWorker.class);
+    Mockito.when(mBlockWorker.readBlockRemote(Mockito.eq(Sessions.KEYVALUE_SESSION_ID),
+        Mockito.anyLong(), Mockito.eq(LOCK_ID))).thenReturn(blockReader);
+    mCache = new PartitionReaderCache(mBlockWorker, 1);
+  }
+
+  @After
+  public void after() {
+    mCache.invalidateAll();
+  }
+
+  /**
+   * Tests that a reader evicted from a full cache while it is in use stays open until it is
+   * released.
+   */
+  @Test
+  public void evictInUseReaderTest() throws Exception {
+    PartitionReaderCache.PartitionReader reader = mCache.acquire(BLOCK_ID_1, LOCK_ID);
+    mCache.acquire(BLOCK_ID_2, LOCK_ID).release();
+    Assert.assertEquals(1, mCache.size());
+
+    checkOpen(reader);
+    reader.release();
+    Assert.assertFalse(reader.retain());
+  }
+
+  /**
+   * Tests that the reader of a block removed while the reader is in use stays open until it is
+   * released.
+   */
+  @Test
+  public void removeBlockOfInUseReaderTest() throws Exception {
+    PartitionReaderCache.PartitionReader reader = mCache.acquire(BLOCK_ID_1, LOCK_ID);
+    mCache.onRemoveBlockByWorker(Sessions.KEYVALUE_SESSION_ID, BLOCK_ID_1);
+    Assert.assertEquals(0, mCache.size());
+
+    checkOpen(reader);
+    reader.release();
+    Assert.assertFalse(reader.retain());
+  }
+
+  /**
+   * Tests that removing a block closes its cached reader.
+   */
+  @Test
+  public void removeBlockTest() throws Exception {
+    PartitionReaderCache.PartitionReader reader = mCache.acquire(BLOCK_ID_1, LOCK_ID);
+    reader.release();
+    Assert.assertEquals(1, mCache.size());
+
+    mCache.onRemoveBlockByClient(Sessions.KEYVALUE_SESSION_ID, BLOCK_ID_1);
+    Assert.assertEquals(0, mCache.size());
+    Assert.assertFalse(reader.retain());
+  }
+
+  /**
+   * Tests that acquiring the reader of a block again after its reader was invalidated opens a new
+   * reader.
+   */
+  @Test
+  public void acquireAfterInvalidationTest() throws Exception {
+    PartitionReaderCache.PartitionReader reader = mCache.acquire(BLOCK_ID_1, LOCK_ID);
+    reader.release();
+    Assert.assertSame(reader, acquireAndRelease(BLOCK_ID_1));
+    Mockito.verify(mBlockWorker)
+        .readBlockRemote(Sessions.KEYVALUE_SESSION_ID, BLOCK_ID_1, LOCK_ID);
+
+    mCache.onMoveBlockByWorker(Sessions.KEYVALUE_SESSION_ID, BLOCK_ID_1, null, null);
+    PartitionReaderCache.PartitionReader newReader = mCache.acquire(BLOCK_ID_1, LOCK_ID);
+    Assert.assertNotSame(reader, newReader);
+    checkOpen(newReader);
+    newReader.release();
+    Mockito.verify(mBlockWorker, Mockito.times(2))
+        .readBlockRemote(Sessions.KEYVALUE_SESSION_ID, BLOCK_ID_1, LOCK_ID);
+  }
+
+  /**
+   * @param blockId the id of the block
+   * @return the reader of the block, released once acquired
+   */
+  private PartitionReaderCache.PartitionReader acquireAndRelease(long blockId) throws Exception {
+    PartitionReaderCache.PartitionReader reader = mCache.acquire(blockId, LOCK_ID);
+    reader.release();
+    return reader;
+  }
+
+  /**
+   * Checks that a reader is still open and reads its partition.
+   *
+   * @param reader the reader
+   */
+  private void checkOpen(PartitionReaderCache.PartitionReader reader) throws Exception {
+    Assert.assertArrayEquals(VALUE, reader.getReader().get(KEY));
+  }
+}
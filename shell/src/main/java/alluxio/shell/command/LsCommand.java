@@ -12,6 +12,7 @@
 package alluxio.shell.command;
 
 import alluxio.AlluxioURI;
+import alluxio.Configuration;
 import alluxio.Constants;
 import alluxio.client.file.FileSystem;
 import alluxio.client.file.URIStatus;
@@ -21,7 +22,9 @@ import alluxio.util.FormatUtils;
 import alluxio.util.SecurityUtils;
 import alluxio.wire.LoadMetadataType;
 
+import com.google.common.base.Preconditions;
 import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 
 import java.io.IOException;
@@ -40,6 +43,13 @@ public final class LsCommand extends WithWildCardPathCommand {
   public static final String STATE_FILE_IN_MEMORY = "In Memory";
   public static final String STATE_FILE_NOT_IN_MEMORY = "Not In Memory";
 
+  private static final Option NAME_ORDER_OPTION =
+      Option.builder("n")
+          .required(false)
+          .hasArg(false)
+          .desc("list in name order, fetching directory entries in batches")
+          .build();
+
   /**
    * Formats the ls result string.
    *
@@ -95,7 +105,8 @@ public final class LsCommand extends WithWildCardPathCommand {
 
   @Override
   protected Options getOptions() {
-    return new Options().addOption(RECURSIVE_OPTION).addOption(FORCE_OPTION);
+    return new Options().addOption(RECURSIVE_OPTION).addOption(FORCE_OPTION)
+        .addOption(NAME_ORDER_OPTION);
   }
 
   /**
@@ -114,10 +125,7 @@ public final class LsCommand extends WithWildCardPathCommand {
     }
     List<URIStatus> statuses = listStatusSortedByIncreasingCreationTime(path, options);
     for (URIStatus status : statuses) {
-      System.out.format(formatLsString(SecurityUtils.isSecurityEnabled(), status.isFolder(),
-          FormatUtils.formatMode((short) status.getMode(), status.isFolder()), status.getOwner(),
-          status.getGroup(), status.getLength(), status.getCreationTimeMs(),
-          100 == status.getInMemoryPercentage(), status.getPath()));
+      printStatus(status);
       if (recursive && status.isFolder()) {
         ls(new AlluxioURI(path.getScheme(), path.getAuthority(), status.getPath()), true,
             forceLoadMetadata);
@@ -125,6 +133,51 @@ public final class LsCommand extends WithWildCardPathCommand {
     }
   }
 
+  /**
+   * Displays information for all directories and files directly under the path specified in args,
+   * in name order. The entries are fetched and displayed in batches, so that huge directories can
+   * be listed without holding all their entries in memory.
+   *
+   * @param path The {@link AlluxioURI} path as the input of the command
+   * @param recursive Whether list the path recursively
+   * @param forceLoadMetadata Whether to load the metadata of the path from the under storage
+   * @throws AlluxioException when Alluxio exception occurs
+   * @throws IOException when non-Alluxio exception occurs
+   */
+  private void lsInNameOrder(AlluxioURI path, boolean recursive, boolean forceLoadMetadata)
+      throws AlluxioException, IOException {
+    int batchSize = Configuration.getInt(Constants.USER_FILE_LIST_STATUS_BATCH_SIZE);
+    Preconditions.checkArgument(batchSize > 0, "%s must be positive",
+        Constants.USER_FILE_LIST_STATUS_BATCH_SIZE);
+    ListStatusOptions options = ListStatusOptions.defaults().setBatchSize(batchSize);
+    if (forceLoadMetadata) {
+      options.setLoadMetadataType(LoadMetadataType.Always);
+    }
+    List<URIStatus> statuses;
+    do {
+      statuses = mFileSystem.listStatus(path, options);
+      for (URIStatus status : statuses) {
+        printStatus(status);
+        if (recursive && status.isFolder()) {
+          lsInNameOrder(new AlluxioURI(path.getScheme(), path.getAuthority(), status.getPath()),
+              true, forceLoadMetadata);
+        }
+      }
+      if (!statuses.isEmpty()) {
+        options.setStartAfter(statuses.get(statuses.size() - 1).getName());
+      }
+      // The metadata is loaded with the first batch already.
+      options.setLoadMetadataType(LoadMetadataType.Never);
+    } while (statuses.size() == batchSize);
+  }
+
+  private void printStatus(URIStatus status) {
+    System.out.format(formatLsString(SecurityUtils.isSecurityEnabled(), status.isFolder(),
+        FormatUtils.formatMode((short) status.getMode(), status.isFolder()), status.getOwner(),
+        status.getGroup(), status.getLength(), status.getCreationTimeMs(),
+        100 == status.getInMemoryPercentage(), status.getPath()));
+  }
+
   private List<URIStatus> listStatusSortedByIncreasingCreationTime(AlluxioURI path,
       ListStatusOptions options)
       throws AlluxioException, IOException {
@@ -148,18 +201,24 @@ public final class LsCommand extends WithWildCardPathCommand {
 
   @Override
   public void runCommand(AlluxioURI path, CommandLine cl) throws AlluxioException, IOException {
-    ls(path, cl.hasOption("R"), cl.hasOption("f"));
+    if (cl.hasOption("n")) {
+      lsInNameOrder(path, cl.hasOption("R"), cl.hasOption("f"));
+    } else {
+      ls(path, cl.hasOption("R"), cl.hasOption("f"));
+    }
   }
 
   @Override
   public String getUsage() {
-    return "ls [-R] [-f] <path>";
+    return "ls [-R] [-f] [-n] <path>";
   }
 
   @Override
   public String getDescription() {
     return "Displays information for all files and directories directly under the specified path."
         + " Specify -R to display files and directories recursively."
-        + " Specify -f to force loading files in the directory.";
+        + " Specify -f to force loading files in the directory."
+        + " Specify -n to list in name order instead of creation time order, fetching the"
+        + " entries of directories in batches.";
   }
 }
@@ -55,6 +55,7 @@ public class RemoteBlockInStreamIntegrationTest {
   private static final int MIN_LEN = 0;
   private static final int MAX_LEN = 255;
   private static final int DELTA = 33;
+  private static final int STREAM_CHUNK_SIZE = 16;
 
   @ClassRule
   public static ManuallyScheduleHeartbeat sManuallySchedule =
@@ -70,22 +71,31 @@ public class RemoteBlockInStreamIntegrationTest {
 
   @Parameterized.Parameters
   public static Collection<Object[]> data() {
-    // creates a new instance of RemoteBlockInStreamTest for each network type
+    // creates a new instance of RemoteBlockInStreamTest for each network type, with the block read
+    // and with the block read through a stream of chunks pushed by the data server
     List<Object[]> list = new ArrayList<>();
-    list.add(new Object[] {IntegrationTestConstants.NETTY_DATA_SERVER,
-        IntegrationTestConstants.MAPPED_TRANSFER, IntegrationTestConstants.NETTY_BLOCK_READER});
-    list.add(new Object[] {IntegrationTestConstants.NETTY_DATA_SERVER,
-        IntegrationTestConstants.FILE_CHANNEL_TRANSFER,
-        IntegrationTestConstants.NETTY_BLOCK_READER});
+    for (String streamEnabled : new String[] {"false", "true"}) {
+      list.add(new Object[] {IntegrationTestConstants.NETTY_DATA_SERVER,
+          IntegrationTestConstants.MAPPED_TRANSFER, IntegrationTestConstants.NETTY_BLOCK_READER,
+          streamEnabled});
+      list.add(new Object[] {IntegrationTestConstants.NETTY_DATA_SERVER,
+          IntegrationTestConstants.FILE_CHANNEL_TRANSFER,
+          IntegrationTestConstants.NETTY_BLOCK_READER, streamEnabled});
+    }
     return list;
   }
 
-  public RemoteBlockInStreamIntegrationTest(String dataServer, String transferType, String reader) {
+  public RemoteBlockInStreamIntegrationTest(String dataServer, String transferType, String reader,
+      String streamEnabled) {
+    // Small chunks and window, so that a block is streamed in many chunks and credit requests.
     mLocalAlluxioClusterResource = new LocalAlluxioClusterResource(Constants.GB,
         Constants.GB, Constants.WORKER_DATA_SERVER, dataServer,
         Constants.WORKER_NETWORK_NETTY_FILE_TRANSFER_TYPE, transferType,
         Constants.USER_BLOCK_REMOTE_READER, reader,
-        Constants.USER_BLOCK_REMOTE_READ_BUFFER_SIZE_BYTES, "100");
+        Constants.USER_BLOCK_REMOTE_READ_BUFFER_SIZE_BYTES, "100",
+        Constants.USER_BLOCK_REMOTE_READ_STREAM_ENABLED, streamEnabled,
+        Constants.USER_BLOCK_REMOTE_READ_STREAM_CHUNK_SIZE_BYTES, String.valueOf(STREAM_CHUNK_SIZE),
+        Constants.USER_BLOCK_REMOTE_READ_STREAM_WINDOW_CHUNKS, "2");
   }
 
   @Rule
@@ -340,6 +350,42 @@ public class RemoteBlockInStreamIntegrationTest {
     }
   }
 
+  /**
+   * Tests reading a block spanning many chunks of the stream pushed by the data server, seeking
+   * back into the block, and reading at the end of the block.
+   */
+  @Test
+  public void readAcrossChunksTest() throws Exception {
+    int length = MAX_LEN;
+    AlluxioURI uri = new AlluxioURI(PathUtils.uniqPath());
+    FileSystemTestUtils.createByteFile(mFileSystem, uri, mWriteAlluxio, length);
+
+    long blockId = mFileSystem.getStatus(uri).getBlockIds().get(0);
+    BlockInfo info = AlluxioBlockStore.get().getInfo(blockId);
+    WorkerNetAddress workerAddr = info.getLocations().get(0).getWorkerAddress();
+    RemoteBlockInStream is =
+        new RemoteBlockInStream(info.getBlockId(), info.getLength(), workerAddr);
+    // Reads which do not line up with the chunks.
+    byte[] ret = new byte[length];
+    int start = 0;
+    while (start < length) {
+      int read = is.read(ret, start, Math.min(STREAM_CHUNK_SIZE * 3 + 1, length - start));
+      Assert.assertTrue(read > 0);
+      start += read;
+    }
+    Assert.assertTrue(BufferUtils.equalIncreasingByteArray(length, ret));
+    Assert.assertEquals(-1, is.read(ret, 0, length));
+
+    // Seeking back opens a new stream at the new position.
+    is.seek(STREAM_CHUNK_SIZE + 1);
+    Assert.assertEquals(STREAM_CHUNK_SIZE + 1, is.read());
+    ret = new byte[length - STREAM_CHUNK_SIZE - 2];
+    Assert.assertEquals(ret.length, is.read(ret));
+    Assert.assertTrue(BufferUtils.equalIncreasingByteArray(STREAM_CHUNK_SIZE + 2, ret.length, ret));
+    Assert.assertEquals(-1, is.read());
+    is.close();
+  }
+
   /**
    * Tests {@link RemoteBlockInStream#seek(long)}. Validate the expected exception for seeking a
    * negative position.
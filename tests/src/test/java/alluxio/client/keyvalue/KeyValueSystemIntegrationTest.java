@@ -18,6 +18,7 @@ import alluxio.LocalAlluxioClusterResource;
 import alluxio.client.ClientContext;
 import alluxio.client.file.FileSystem;
 import alluxio.client.file.URIStatus;
+import alluxio.client.keyvalue.options.CreateStoreOptions;
 import alluxio.exception.AlluxioException;
 import alluxio.exception.ExceptionMessage;
 import alluxio.util.io.BufferUtils;
@@ -32,10 +33,15 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Integration tests for {@link KeyValueSystem}.
@@ -103,6 +109,24 @@ public final class KeyValueSystemIntegrationTest {
     mReader.close();
   }
 
+  /**
+   * Tests creating a store with a bucketized index, and reading it back.
+   */
+  @Test
+  public void createAndOpenStoreWithBucketizedIndexTest() throws Exception {
+    mWriter = sKeyValueSystem.createStore(mStoreUri,
+        CreateStoreOptions.defaults().setIndexType(IndexType.BUCKETIZED));
+    mWriter.put(KEY1, VALUE1);
+    mWriter.put(KEY2, VALUE2);
+    mWriter.close();
+
+    mReader = sKeyValueSystem.openStore(mStoreUri);
+    Assert.assertArrayEquals(VALUE1, mReader.get(KEY1));
+    Assert.assertArrayEquals(VALUE2, mReader.get(KEY2));
+    Assert.assertNull(mReader.get("NoSuchKey".getBytes()));
+    mReader.close();
+  }
+
   /**
    * Tests creating and opening a store with a number of key.
    */
@@ -186,6 +210,12 @@ public final class KeyValueSystemIntegrationTest {
     storeUris.add(createStoreOfMultiplePartitions(3, pairs));
     keyValuePairs.add(pairs);
 
+    // A store whose pairs are scanned in several batches.
+    pairs = new ArrayList<>();
+    storeUris.add(createStoreOfSize(2 * BaseKeyValuePartitionReader.SCAN_BATCH_NUM_PAIRS + 1,
+        pairs));
+    keyValuePairs.add(pairs);
+
     int numStoreUri = storeUris.size();
     for (int i = 0; i < numStoreUri; i++) {
       List<KeyValuePair> expectedPairs = keyValuePairs.get(i);
@@ -237,6 +267,133 @@ public final class KeyValueSystemIntegrationTest {
     mReader.close();
   }
 
+  /**
+   * Tests that the partitions completed concurrently in the background are still registered in
+   * the order of their keys, and that completing them in the writing thread works too.
+   */
+  @Test
+  public void completePartitionsConcurrentlyTest() throws Exception {
+    final int numKeys = 10;
+    for (int threads : new int[] {0, 4}) {
+      Configuration.set(Constants.KEY_VALUE_WRITER_PARTITION_COMPLETION_THREADS,
+          String.valueOf(threads));
+      List<KeyValuePair> expectedPairs = new ArrayList<>();
+      AlluxioURI storeUri = createStoreOfMultiplePartitions(numKeys, expectedPairs);
+      mReader = sKeyValueSystem.openStore(storeUri);
+      List<KeyValuePair> iteratedPairs = new ArrayList<>();
+      KeyValueIterator iterator = mReader.iterator();
+      while (iterator.hasNext()) {
+        iteratedPairs.add(iterator.next());
+      }
+      Assert.assertEquals(expectedPairs, iteratedPairs);
+      mReader.close();
+    }
+  }
+
+  /**
+   * Tests writing the key ranges of a store concurrently with range writers, expecting the
+   * partitions of all the ranges to be registered in the order of their keys.
+   */
+  @Test
+  public void writeRangesConcurrentlyTest() throws Exception {
+    final int numRanges = 4;
+    final int numKeysPerRange = 3;
+    final int keyLength = 4; // 4Byte key
+    final int valueLength = 500 * Constants.KB; // 500KB value, one partition per key-value pair
+    Configuration.set(Constants.KEY_VALUE_PARTITION_SIZE_BYTES_MAX, String.valueOf(Constants.MB));
+
+    mWriter = sKeyValueSystem.createStore(mStoreUri);
+    List<KeyValueStoreWriter> rangeWriters = new ArrayList<>();
+    rangeWriters.add(mWriter);
+    for (int i = 1; i < numRanges; i++) {
+      rangeWriters.add(mWriter.createRangeWriter());
+    }
+    List<KeyValuePair> expectedPairs = new ArrayList<>();
+    List<Future<Void>> writes = new ArrayList<>();
+    ExecutorService executor = Executors.newFixedThreadPool(numRanges);
+    try {
+      for (int i = numRanges - 1; i >= 0; i--) {
+        final KeyValueStoreWriter rangeWriter = rangeWriters.get(i);
+        final int firstKey = i * numKeysPerRange;
+        writes.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws Exception {
+            for (int k = firstKey; k < firstKey + numKeysPerRange; k++) {
+              rangeWriter.put(BufferUtils.getIncreasingByteArray(k, keyLength),
+                  BufferUtils.getIncreasingByteArray(k, valueLength));
+            }
+            if (rangeWriter != mWriter) {
+              rangeWriter.close();
+            }
+            return null;
+          }
+        }));
+      }
+      for (Future<Void> write : writes) {
+        write.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    mWriter.close();
+    for (int k = 0; k < numRanges * numKeysPerRange; k++) {
+      expectedPairs.add(new KeyValuePair(BufferUtils.getIncreasingByteArray(k, keyLength),
+          BufferUtils.getIncreasingByteArray(k, valueLength)));
+    }
+
+    Assert.assertEquals(numRanges * numKeysPerRange, getPartitionNumber(mStoreUri));
+    mReader = sKeyValueSystem.openStore(mStoreUri);
+    List<KeyValuePair> iteratedPairs = new ArrayList<>();
+    KeyValueIterator iterator = mReader.iterator();
+    while (iterator.hasNext()) {
+      iteratedPairs.add(iterator.next());
+    }
+    Assert.assertEquals(expectedPairs, iteratedPairs);
+    mReader.close();
+  }
+
+  /**
+   * Tests that closing a store whose range writers wrote overlapping key ranges fails.
+   */
+  @Test
+  public void writeOverlappingRangesTest() throws Exception {
+    mWriter = sKeyValueSystem.createStore(mStoreUri);
+    KeyValueStoreWriter rangeWriter = mWriter.createRangeWriter();
+    mWriter.put(KEY2, VALUE2);
+    rangeWriter.put(KEY1, VALUE1);
+    rangeWriter.close();
+
+    mThrown.expect(IOException.class);
+    mThrown.expectMessage(ExceptionMessage.KEY_RANGES_OVERLAP.getMessage(mStoreUri));
+    mWriter.close();
+  }
+
+  /**
+   * Tests getting a batch of keys from a store with multiple partitions.
+   */
+  @Test
+  public void multiGetTest() throws Exception {
+    final int numKeys = 10;
+    final int keyLength = 4; // 4Byte key
+    final int valueLength = 500 * Constants.KB; // 500KB value
+
+    AlluxioURI storeUri = createStoreOfMultiplePartitions(numKeys, null);
+    mReader = sKeyValueSystem.openStore(storeUri);
+    List<ByteBuffer> keys = new ArrayList<>();
+    for (int i = numKeys - 1; i >= 0; i--) {
+      keys.add(ByteBuffer.wrap(BufferUtils.getIncreasingByteArray(i, keyLength)));
+    }
+    keys.add(ByteBuffer.wrap(KEY1));
+    List<ByteBuffer> values = mReader.multiGet(keys);
+    Assert.assertEquals(numKeys + 1, values.size());
+    for (int i = 0; i < numKeys; i++) {
+      byte[] value = BufferUtils.newByteArrayFromByteBuffer(values.get(i));
+      Assert.assertTrue(BufferUtils.equalIncreasingByteArray(numKeys - 1 - i, valueLength, value));
+    }
+    Assert.assertNull(values.get(numKeys));
+    mReader.close();
+  }
+
   /**
    * Tests putting a key-value pair that is larger than the max key-value partition size,
    * expecting exception thrown.
@@ -194,6 +194,34 @@ public final class UnderStorageSystemInterfaceIntegrationTest {
         || mUfs.list(testDirNonEmptyChildDir)[0].equals("/testDirNonEmptyChildDirF"));
   }
 
+  /**
+   * Tests if list status correctly returns the metadata of the children.
+   */
+  @Test
+  public void listStatusTest() throws IOException {
+    String testDir = PathUtils.concatPath(mUnderfsAddress, "testDirListStatus");
+    String testDirChildDir = PathUtils.concatPath(testDir, "testDirListStatusD");
+    String testDirChildFile = PathUtils.concatPath(testDir, "testDirListStatusF");
+    mUfs.mkdirs(testDir, false);
+    mUfs.mkdirs(testDirChildDir, false);
+    createTestBytesFile(testDirChildFile);
+    UnderFileStatus[] statuses = mUfs.listStatus(testDir);
+    Assert.assertEquals(2, statuses.length);
+    for (UnderFileStatus status : statuses) {
+      // Some file systems may prefix with a slash
+      if (status.getName().endsWith("testDirListStatusD")) {
+        Assert.assertTrue(status.isDirectory());
+      } else {
+        Assert.assertTrue(status.getName().endsWith("testDirListStatusF"));
+        Assert.assertTrue(status.isFile());
+        Assert.assertEquals(TEST_BYTES.length, status.getContentLength());
+        Assert.assertEquals(mUfs.getModificationTimeMs(testDirChildFile),
+            status.getLastModifiedTimeMs());
+      }
+    }
+    Assert.assertNull(mUfs.listStatus(testDirChildFile));
+  }
+
   /**
    * Tests if list recursive correctly returns all file names in all subdirectories.
    */
@@ -14,6 +14,7 @@ package alluxio.underfs.gcs;
 import alluxio.AlluxioURI;
 import alluxio.Configuration;
 import alluxio.Constants;
+import alluxio.underfs.UnderFileStatus;
 import alluxio.underfs.UnderFileSystem;
 import alluxio.underfs.options.CreateOptions;
 import alluxio.underfs.options.MkdirsOptions;
@@ -37,9 +38,9 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -227,13 +228,19 @@ public final class GCSUnderFileSystem extends UnderFileSystem {
 
   @Override
   public String[] list(String path) throws IOException {
+    UnderFileStatus[] statuses = listStatus(path);
+    return statuses == null ? null : UnderFileStatus.convertToNames(statuses);
+  }
+
+  @Override
+  public UnderFileStatus[] listStatus(String path) throws IOException {
     // if the path not exists, or it is a file, then should return null
     if (!exists(path) || isFile(path)) {
       return null;
     }
     // Non recursive list
     path = PathUtils.normalizePath(path, PATH_SEPARATOR);
-    return listInternal(path, false);
+    return listStatusInternal(path, false);
   }
 
   @Override
@@ -284,20 +291,13 @@ public final class GCSUnderFileSystem extends UnderFileSystem {
     }
   }
 
-  /**
-   * Opens a GCS object at given position and returns the opened input stream.
-   *
-   * @param path the GCS object path
-   * @param pos the position to open at
-   * @return the opened input stream
-   * @throws IOException if failed to open file at position
-   */
-  public InputStream openAtPosition(String path, long pos) throws IOException {
+  @Override
+  protected InputStream openAtPosition(String path, long position) throws IOException {
     try {
       path = stripPrefixIfPresent(path);
-      return new GCSInputStream(mBucketName, path, mClient, pos);
+      return new GCSInputStream(mBucketName, path, mClient, position);
     } catch (ServiceException e) {
-      LOG.error("Failed to open file {} at position {}:", path, pos, e);
+      LOG.error("Failed to open file {} at position {}:", path, position, e);
       return null;
     }
   }
@@ -524,7 +524,7 @@ public final class GCSUnderFileSystem extends UnderFileSystem {
 
   /**
    * Lists the files in the given path, the paths will be their logical names and not contain the
-   * folder suffix. Note that, the list results are unsorted.
+   * folder suffix.
    *
    * @param path the key to list
    * @param recursive if true will list children directories as well
@@ -532,12 +532,27 @@ public final class GCSUnderFileSystem extends UnderFileSystem {
    * @throws IOException if an I/O error occurs
    */
   private String[] listInternal(String path, boolean recursive) throws IOException {
+    UnderFileStatus[] statuses = listStatusInternal(path, recursive);
+    return statuses == null ? null : UnderFileStatus.convertToNames(statuses);
+  }
+
+  /**
+   * Lists the files in the given path with their metadata, the paths will be their logical names
+   * and not contain the folder suffix. Note that, the list results are unsorted.
+   *
+   * @param path the key to list
+   * @param recursive if true will list children directories as well
+   * @return an array of the statuses of the files and folders in this directory
+   * @throws IOException if an I/O error occurs
+   */
+  private UnderFileStatus[] listStatusInternal(String path, boolean recursive)
+      throws IOException {
     path = stripPrefixIfPresent(path);
     path = PathUtils.normalizePath(path, PATH_SEPARATOR);
     path = path.equals(PATH_SEPARATOR) ? "" : path;
     String delimiter = recursive ? "" : PATH_SEPARATOR;
     String priorLastKey = null;
-    Set<String> children = new HashSet<>();
+    Map<String, UnderFileStatus> children = new HashMap<>();
     try {
       boolean done = false;
       while (!done) {
@@ -562,11 +577,15 @@ public final class GCSUnderFileSystem extends UnderFileSystem {
         for (StorageObject obj : chunk.getObjects()) {
           // Remove parent portion of the key
           String child = getChildName(obj.getKey(), path);
+          boolean isDirectory = child.endsWith(FOLDER_SUFFIX);
           // Prune the special folder suffix
           child = stripFolderSuffixIfPresent(child);
           // Only add if the path is not empty (removes results equal to the path)
           if (!child.isEmpty()) {
-            children.add(child);
+            // The listing carries the size and modification time, so no further request is needed
+            children.put(child, new UnderFileStatus(child, isDirectory,
+                isDirectory ? 0 : obj.getContentLength(), obj.getLastModifiedDate().getTime(),
+                null, null, Constants.DEFAULT_FILE_SYSTEM_MODE));
           }
         }
         // Handle case (2)
@@ -576,16 +595,17 @@ public final class GCSUnderFileSystem extends UnderFileSystem {
           // Remove any portion after the last path delimiter
           int childNameIndex = child.lastIndexOf(PATH_SEPARATOR);
           child = childNameIndex != -1 ? child.substring(0, childNameIndex) : child;
-          if (!child.isEmpty() && !children.contains(child)) {
+          if (!child.isEmpty() && !children.containsKey(child)) {
             // This directory has not been created through Alluxio.
             mkdirsInternal(commonPrefix);
-            children.add(child);
+            children.put(child, new UnderFileStatus(child, true, 0, 0, null, null,
+                Constants.DEFAULT_FILE_SYSTEM_MODE));
           }
         }
         done = chunk.isListingComplete();
         priorLastKey = chunk.getPriorLastKey();
       }
-      return children.toArray(new String[children.size()]);
+      return children.values().toArray(new UnderFileStatus[children.size()]);
     } catch (ServiceException e) {
       LOG.error("Failed to list path {}", path, e);
       return null;
@@ -17,6 +17,7 @@ import alluxio.Constants;
 import alluxio.retry.CountingRetry;
 import alluxio.retry.RetryPolicy;
 import alluxio.security.authorization.Permission;
+import alluxio.underfs.UnderFileStatus;
 import alluxio.underfs.UnderFileSystem;
 import alluxio.underfs.options.CreateOptions;
 import alluxio.underfs.options.MkdirsOptions;
@@ -297,6 +298,29 @@ public class HdfsUnderFileSystem extends UnderFileSystem {
     }
   }
 
+  @Override
+  public UnderFileStatus[] listStatus(String path) throws IOException {
+    FileStatus[] files;
+    try {
+      files = mFileSystem.listStatus(new Path(path));
+    } catch (FileNotFoundException e) {
+      return null;
+    }
+    if (files != null && !isFile(path)) {
+      UnderFileStatus[] rtn = new UnderFileStatus[files.length];
+      int i = 0;
+      for (FileStatus status : files) {
+        // isDir is used instead of isDirectory to remain compatible with Hadoop 1.
+        rtn[i++] = new UnderFileStatus(status.getPath().getName(), status.isDir(),
+            status.isDir() ? 0 : status.getLen(), status.getModificationTime(),
+            status.getOwner(), status.getGroup(), status.getPermission().toShort());
+      }
+      return rtn;
+    } else {
+      return null;
+    }
+  }
+
   @Override
   public void connectFromMaster(String host) throws IOException {
     if (!Configuration.containsKey(Constants.MASTER_KEYTAB_KEY)
@@ -387,6 +411,18 @@ public class HdfsUnderFileSystem extends UnderFileSystem {
     throw te;
   }
 
+  @Override
+  protected FSDataInputStream openAtPosition(String path, long position) throws IOException {
+    FSDataInputStream inputStream = open(path);
+    try {
+      inputStream.seek(position);
+    } catch (IOException e) {
+      inputStream.close();
+      throw e;
+    }
+    return inputStream;
+  }
+
   @Override
   public boolean rename(String src, String dst) throws IOException {
     LOG.debug("Renaming from {} to {}", src, dst);
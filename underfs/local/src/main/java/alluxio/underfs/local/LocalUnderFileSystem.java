@@ -231,6 +231,19 @@ public class LocalUnderFileSystem extends UnderFileSystem {
     return new FileInputStream(path);
   }
 
+  @Override
+  protected InputStream openAtPosition(String path, long position) throws IOException {
+    path = stripPath(path);
+    FileInputStream inputStream = new FileInputStream(path);
+    try {
+      inputStream.getChannel().position(position);
+    } catch (IOException e) {
+      inputStream.close();
+      throw e;
+    }
+    return inputStream;
+  }
+
   @Override
   public boolean rename(String src, String dst) throws IOException {
     src = stripPath(src);
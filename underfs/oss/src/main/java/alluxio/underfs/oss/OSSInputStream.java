@@ -12,6 +12,7 @@
 package alluxio.underfs.oss;
 
 import com.aliyun.oss.OSSClient;
+import com.aliyun.oss.model.GetObjectRequest;
 import com.aliyun.oss.model.OSSObject;
 
 import java.io.BufferedInputStream;
@@ -58,6 +59,26 @@ public class OSSInputStream extends InputStream {
     mInputStream = new BufferedInputStream(mObject.getObjectContent());
   }
 
+  /**
+   * Creates a new instance of {@link OSSInputStream}, at a specific position.
+   *
+   * @param bucketName the name of the bucket
+   * @param key the key of the file
+   * @param client the client for OSS
+   * @param pos the position to start
+   * @throws IOException if an I/O error occurs
+   */
+  OSSInputStream(String bucketName, String key, OSSClient client, long pos) throws IOException {
+    mBucketName = bucketName;
+    mKey = key;
+    mOssClient = client;
+    GetObjectRequest request = new GetObjectRequest(mBucketName, mKey);
+    // An end of -1 reads the object from the position to the end.
+    request.setRange(pos, -1);
+    mObject = mOssClient.getObject(request);
+    mInputStream = new BufferedInputStream(mObject.getObjectContent());
+  }
+
   @Override
   public void close() throws IOException {
     mInputStream.close();
@@ -0,0 +1,140 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.underfs.oss;
+
+import alluxio.underfs.MultipartUploadOutputStream;
+
+import com.aliyun.oss.ClientException;
+import com.aliyun.oss.OSSClient;
+import com.aliyun.oss.ServiceException;
+import com.aliyun.oss.model.AbortMultipartUploadRequest;
+import com.aliyun.oss.model.CompleteMultipartUploadRequest;
+import com.aliyun.oss.model.InitiateMultipartUploadRequest;
+import com.aliyun.oss.model.ObjectMetadata;
+import com.aliyun.oss.model.PartETag;
+import com.aliyun.oss.model.UploadPartRequest;
+import com.google.common.base.Preconditions;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A stream for writing a file into OSS with a multipart upload, which uploads the parts of the
+ * file from memory while the file is being written. See {@link MultipartUploadOutputStream}.
+ */
+@NotThreadSafe
+public final class OSSMultipartOutputStream extends MultipartUploadOutputStream {
+  /** Bucket name of the Alluxio OSS bucket. */
+  private final String mBucketName;
+  /** Key of the file when it is uploaded to OSS. */
+  private final String mKey;
+  /** The oss client for OSS operations. */
+  private final OSSClient mOssClient;
+  /** The tags of the parts uploaded, which are added concurrently by the upload threads. */
+  private final List<PartETag> mPartETags = Collections.synchronizedList(
+      new ArrayList<PartETag>());
+
+  /** The id of the multipart upload, or null if it has not started. */
+  private String mUploadId;
+
+  /**
+   * Creates a new instance of {@link OSSMultipartOutputStream}.
+   *
+   * @param bucketName the name of the bucket
+   * @param key the key of the file
+   * @param client the client for OSS
+   */
+  public OSSMultipartOutputStream(String bucketName, String key, OSSClient client) {
+    Preconditions.checkArgument(bucketName != null && !bucketName.isEmpty(),
+        "Bucket name must not be null or empty.");
+    Preconditions.checkArgument(key != null && !key.isEmpty(),
+        "OSS path must not be null or empty.");
+    Preconditions.checkArgument(client != null, "OSSClient must not be null.");
+    mBucketName = bucketName;
+    mKey = key;
+    mOssClient = client;
+  }
+
+  @Override
+  protected void initMultipartUpload() throws IOException {
+    try {
+      mUploadId = mOssClient.initiateMultipartUpload(
+          new InitiateMultipartUploadRequest(mBucketName, mKey)).getUploadId();
+    } catch (ServiceException | ClientException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  protected void uploadPart(byte[] data, int partNumber) throws IOException {
+    UploadPartRequest request = new UploadPartRequest();
+    request.setBucketName(mBucketName);
+    request.setKey(mKey);
+    request.setUploadId(mUploadId);
+    request.setInputStream(new ByteArrayInputStream(data));
+    request.setPartSize(data.length);
+    request.setPartNumber(partNumber);
+    request.setMd5Digest(new String(Base64.encodeBase64(DigestUtils.md5(data))));
+    try {
+      mPartETags.add(mOssClient.uploadPart(request).getPartETag());
+    } catch (ServiceException | ClientException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  protected void completeMultipartUpload() throws IOException {
+    List<PartETag> partETags = new ArrayList<>(mPartETags);
+    Collections.sort(partETags, new Comparator<PartETag>() {
+      @Override
+      public int compare(PartETag partETag1, PartETag partETag2) {
+        return Integer.compare(partETag1.getPartNumber(), partETag2.getPartNumber());
+      }
+    });
+    try {
+      mOssClient.completeMultipartUpload(
+          new CompleteMultipartUploadRequest(mBucketName, mKey, mUploadId, partETags));
+    } catch (ServiceException | ClientException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  protected void abortMultipartUpload() throws IOException {
+    try {
+      mOssClient.abortMultipartUpload(
+          new AbortMultipartUploadRequest(mBucketName, mKey, mUploadId));
+    } catch (ServiceException | ClientException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  protected void putObject(byte[] data) throws IOException {
+    ObjectMetadata objMeta = new ObjectMetadata();
+    objMeta.setContentLength(data.length);
+    objMeta.setContentMD5(new String(Base64.encodeBase64(DigestUtils.md5(data))));
+    try {
+      mOssClient.putObject(mBucketName, mKey, new ByteArrayInputStream(data), objMeta);
+    } catch (ServiceException | ClientException e) {
+      throw new IOException(e);
+    }
+  }
+}
@@ -14,6 +14,7 @@ package alluxio.underfs.oss;
 import alluxio.AlluxioURI;
 import alluxio.Configuration;
 import alluxio.Constants;
+import alluxio.underfs.UnderFileStatus;
 import alluxio.underfs.UnderFileSystem;
 import alluxio.underfs.options.CreateOptions;
 import alluxio.underfs.options.MkdirsOptions;
@@ -35,9 +36,9 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -122,6 +123,9 @@ public final class OSSUnderFileSystem extends UnderFileSystem {
   public OutputStream create(String path, CreateOptions options) throws IOException {
     path = toURIPath(path);
     if (mkdirs(getParentKey(path), true)) {
+      if (Configuration.getBoolean(Constants.UNDERFS_MULTIPART_UPLOAD_ENABLED)) {
+        return new OSSMultipartOutputStream(mBucketName, stripPrefixIfPresent(path), mClient);
+      }
       return new OSSOutputStream(mBucketName, stripPrefixIfPresent(path), mClient);
     }
     return null;
@@ -222,13 +226,19 @@ public final class OSSUnderFileSystem extends UnderFileSystem {
 
   @Override
   public String[] list(String path) throws IOException {
+    UnderFileStatus[] statuses = listStatus(path);
+    return statuses == null ? null : UnderFileStatus.convertToNames(statuses);
+  }
+
+  @Override
+  public UnderFileStatus[] listStatus(String path) throws IOException {
     // if the path not exists, or it is a file, then should return null
     if (!exists(path) || isFile(path)) {
       return null;
     }
     // Non recursive list
     path = PathUtils.normalizePath(path, PATH_SEPARATOR);
-    return listInternal(path, false);
+    return listStatusInternal(path, false);
   }
 
   @Override
@@ -280,6 +290,17 @@ public final class OSSUnderFileSystem extends UnderFileSystem {
     }
   }
 
+  @Override
+  protected InputStream openAtPosition(String path, long position) throws IOException {
+    try {
+      path = stripPrefixIfPresent(path);
+      return new OSSInputStream(mBucketName, path, mClient, position);
+    } catch (ServiceException e) {
+      LOG.error("Failed to open file {} at position {}:", path, position, e);
+      return null;
+    }
+  }
+
   @Override
   public boolean rename(String src, String dst) throws IOException {
     if (!exists(src)) {
@@ -497,8 +518,7 @@ public final class OSSUnderFileSystem extends UnderFileSystem {
 
   /**
    * Lists the files in the given path, the paths will be their logical names and not contain the
-   * folder suffix. Note that, due to the limitation of OSS client, this method can only return up
-   * to 1000 objects.
+   * folder suffix.
    *
    * @param path the key to list
    * @param recursive if true will list children directories as well
@@ -506,6 +526,22 @@ public final class OSSUnderFileSystem extends UnderFileSystem {
    * @throws IOException if an I/O error occurs
    */
   private String[] listInternal(String path, boolean recursive) throws IOException {
+    UnderFileStatus[] statuses = listStatusInternal(path, recursive);
+    return statuses == null ? null : UnderFileStatus.convertToNames(statuses);
+  }
+
+  /**
+   * Lists the files in the given path with their metadata, the paths will be their logical names
+   * and not contain the folder suffix. Note that, due to the limitation of OSS client, this method
+   * can only return up to 1000 objects.
+   *
+   * @param path the key to list
+   * @param recursive if true will list children directories as well
+   * @return an array of the statuses of the files and folders in this directory
+   * @throws IOException if an I/O error occurs
+   */
+  private UnderFileStatus[] listStatusInternal(String path, boolean recursive)
+      throws IOException {
     try {
       path = stripPrefixIfPresent(path);
       path = PathUtils.normalizePath(path, PATH_SEPARATOR);
@@ -533,15 +569,19 @@ public final class OSSUnderFileSystem extends UnderFileSystem {
       listObjectsRequest.setMaxKeys(LISTING_LENGTH);
       listObjectsRequest.setDelimiter(delimiter);
 
-      Set<String> children = new HashSet<>();
+      Map<String, UnderFileStatus> children = new HashMap<>();
       ObjectListing listing = mClient.listObjects(listObjectsRequest);
       for (OSSObjectSummary objectSummary : listing.getObjectSummaries()) {
         // Remove parent portion of the key
         String child = getChildName(objectSummary.getKey(), path);
+        boolean isDirectory = child.endsWith(FOLDER_SUFFIX);
         // Prune the special folder suffix
         child = stripFolderSuffixIfPresent(child);
-        // Add to the set of children, the set will deduplicate.
-        children.add(child);
+        // Add to the map of children, the map will deduplicate. The listing carries the size and
+        // modification time, so no further request is needed.
+        children.put(child, new UnderFileStatus(child, isDirectory,
+            isDirectory ? 0 : objectSummary.getSize(), objectSummary.getLastModified().getTime(),
+            null, null, Constants.DEFAULT_FILE_SYSTEM_MODE));
       }
       // Loop through all common prefixes to account for directories that were not created through
       // Alluxio.
@@ -551,9 +591,12 @@ public final class OSSUnderFileSystem extends UnderFileSystem {
         // Remove any portion after the last path delimiter
         int childNameIndex = child.lastIndexOf(PATH_SEPARATOR);
         child = childNameIndex != -1 ? child.substring(0, childNameIndex) : child;
-        children.add(child);
+        if (!children.containsKey(child)) {
+          children.put(child, new UnderFileStatus(child, true, 0, 0, null, null,
+              Constants.DEFAULT_FILE_SYSTEM_MODE));
+        }
       }
-      return children.toArray(new String[children.size()]);
+      return children.values().toArray(new UnderFileStatus[children.size()]);
     } catch (ServiceException e) {
       LOG.error("Failed to list path {}", path, e);
       return null;
@@ -0,0 +1,125 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.underfs.s3;
+
+import alluxio.underfs.MultipartUploadOutputStream;
+
+import com.google.common.base.Preconditions;
+import org.jets3t.service.S3Service;
+import org.jets3t.service.ServiceException;
+import org.jets3t.service.model.MultipartPart;
+import org.jets3t.service.model.MultipartUpload;
+import org.jets3t.service.model.S3Object;
+import org.jets3t.service.utils.Mimetypes;
+
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A stream for writing a file into S3 with a multipart upload, which uploads the parts of the file
+ * from memory while the file is being written. See {@link MultipartUploadOutputStream}.
+ */
+@NotThreadSafe
+public final class S3MultipartOutputStream extends MultipartUploadOutputStream {
+  /** Bucket name of the Alluxio S3 bucket. */
+  private final String mBucketName;
+  /** Key of the file when it is uploaded to S3. */
+  private final String mKey;
+  /** The JetS3t client for S3 operations. */
+  private final S3Service mClient;
+  /** The parts uploaded, which are added concurrently by the upload threads. */
+  private final List<MultipartPart> mParts = Collections.synchronizedList(
+      new ArrayList<MultipartPart>());
+
+  /** The multipart upload, or null if it has not started. */
+  private MultipartUpload mUpload;
+
+  /**
+   * Constructs a new stream for writing a file.
+   *
+   * @param bucketName the name of the bucket
+   * @param key the key of the file
+   * @param client the JetS3t client
+   */
+  public S3MultipartOutputStream(String bucketName, String key, S3Service client) {
+    Preconditions.checkArgument(bucketName != null && !bucketName.isEmpty(), "Bucket name must "
+        + "not be null or empty.");
+    mBucketName = bucketName;
+    mKey = key;
+    mClient = client;
+  }
+
+  @Override
+  protected void initMultipartUpload() throws IOException {
+    S3Object obj = new S3Object(mKey);
+    obj.setBucketName(mBucketName);
+    obj.setContentEncoding(Mimetypes.MIMETYPE_BINARY_OCTET_STREAM);
+    try {
+      mUpload = mClient.multipartStartUpload(mBucketName, obj);
+    } catch (ServiceException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  protected void uploadPart(byte[] data, int partNumber) throws IOException {
+    try {
+      mParts.add(mClient.multipartUploadPart(mUpload, partNumber, new S3Object(mKey, data)));
+    } catch (ServiceException | NoSuchAlgorithmException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  protected void completeMultipartUpload() throws IOException {
+    List<MultipartPart> parts = new ArrayList<>(mParts);
+    Collections.sort(parts, new Comparator<MultipartPart>() {
+      @Override
+      public int compare(MultipartPart part1, MultipartPart part2) {
+        return part1.getPartNumber().compareTo(part2.getPartNumber());
+      }
+    });
+    try {
+      mClient.multipartCompleteUpload(mUpload, parts);
+    } catch (ServiceException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  protected void abortMultipartUpload() throws IOException {
+    try {
+      mClient.multipartAbortUpload(mUpload);
+    } catch (ServiceException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  protected void putObject(byte[] data) throws IOException {
+    try {
+      // The object computes the MD5 hash of the data.
+      S3Object obj = new S3Object(mKey, data);
+      obj.setBucketName(mBucketName);
+      obj.setContentEncoding(Mimetypes.MIMETYPE_BINARY_OCTET_STREAM);
+      mClient.putObject(mBucketName, obj);
+    } catch (ServiceException | NoSuchAlgorithmException e) {
+      throw new IOException(e);
+    }
+  }
+}